@@ -9,6 +9,7 @@
 import org.hibernate.search.backend.elasticsearch.analysis.ElasticsearchAnalysisConfigurer;
 import org.hibernate.search.backend.elasticsearch.index.DynamicMapping;
 import org.hibernate.search.backend.elasticsearch.index.IndexStatus;
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 
 /**
  * Configuration properties for Elasticsearch indexes.
@@ -96,6 +97,84 @@ private ElasticsearchIndexSettings() {
 	 */
 	public static final String INDEXING_MAX_BULK_SIZE = INDEXING_PREFIX + IndexingRadicals.MAX_BULK_SIZE;
 
+	/**
+	 * The maximum time to wait for more works before processing a batch of works from an indexing queue.
+	 * <p>
+	 * When set to a value higher than 0, and fewer than {@link #INDEXING_LINGER_BATCH_SIZE} works are waiting
+	 * in an indexing queue, processing of the queue will be delayed in order to process more works per batch, and thus send fewer, larger bulk requests.
+	 * The actual delay adapts automatically to how long it takes to end a batch,
+	 * but will never exceed this value.
+	 * <p>
+	 * Expects a positive Integer value in milliseconds, such as {@code 10},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_MAX_LINGER}.
+	 * <p>
+	 * See the reference documentation, section "Elasticsearch backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_MAX_LINGER = INDEXING_PREFIX + IndexingRadicals.MAX_LINGER;
+
+	/**
+	 * The number of works in an indexing queue above which processing of the queue
+	 * will start immediately, without waiting for more works.
+	 * <p>
+	 * Only relevant when {@link #INDEXING_MAX_LINGER} is set to a value higher than 0.
+	 * <p>
+	 * Expects a strictly positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to the {@link #INDEXING_MAX_BULK_SIZE maximum bulk size}.
+	 * <p>
+	 * See the reference documentation, section "Elasticsearch backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_LINGER_BATCH_SIZE = INDEXING_PREFIX + IndexingRadicals.LINGER_BATCH_SIZE;
+
+	/**
+	 * What to do when an indexing work is submitted to an indexing queue that is full.
+	 * <p>
+	 * Expects a {@link IndexingQueueOverflowPolicyName} value, or a String representation of such value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_QUEUE_OVERFLOW_POLICY}.
+	 * <p>
+	 * See the reference documentation, section "Elasticsearch backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_QUEUE_OVERFLOW_POLICY = INDEXING_PREFIX + IndexingRadicals.QUEUE_OVERFLOW_POLICY;
+
+	/**
+	 * Whether indexing queues should be implemented as lock-free ring buffers.
+	 * <p>
+	 * Lock-free queues reduce contention when many threads request indexing concurrently.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_LOCK_FREE_QUEUE}.
+	 * <p>
+	 * See the reference documentation, section "Elasticsearch backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_LOCK_FREE_QUEUE = INDEXING_PREFIX + IndexingRadicals.LOCK_FREE_QUEUE;
+
+	/**
+	 * Whether works targeting the same document in the same batch should be coalesced.
+	 * <p>
+	 * When enabled, a work followed in the same batch by another work targeting the same document
+	 * is not sent to Elasticsearch:
+	 * it is considered successful as soon as the later work is.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_COALESCE_WORKS}.
+	 * <p>
+	 * See the reference documentation, section "Elasticsearch backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_COALESCE_WORKS = INDEXING_PREFIX + IndexingRadicals.COALESCE_WORKS;
+
 	/**
 	 * Specify the default behavior to handle dynamically-mapped fields in the Elasticsearch mapping.
 	 * <p>
@@ -119,6 +198,11 @@ private IndexingRadicals() {
 		public static final String QUEUE_COUNT = "queue_count";
 		public static final String QUEUE_SIZE = "queue_size";
 		public static final String MAX_BULK_SIZE = "max_bulk_size";
+		public static final String MAX_LINGER = "max_linger";
+		public static final String LINGER_BATCH_SIZE = "linger_batch_size";
+		public static final String QUEUE_OVERFLOW_POLICY = "queue_overflow_policy";
+		public static final String LOCK_FREE_QUEUE = "lock_free_queue";
+		public static final String COALESCE_WORKS = "coalesce_works";
 		public static final String DYNAMIC_MAPPING = "dynamic_mapping";
 	}
 
@@ -135,6 +219,11 @@ private Defaults() {
 		public static final int INDEXING_QUEUE_COUNT = 10;
 		public static final int INDEXING_QUEUE_SIZE = 1000;
 		public static final int INDEXING_MAX_BULK_SIZE = 100;
+		public static final int INDEXING_MAX_LINGER = 0;
+		public static final IndexingQueueOverflowPolicyName INDEXING_QUEUE_OVERFLOW_POLICY =
+				IndexingQueueOverflowPolicyName.BLOCK;
+		public static final boolean INDEXING_LOCK_FREE_QUEUE = false;
+		public static final boolean INDEXING_COALESCE_WORKS = false;
 		public static final DynamicMapping DYNAMIC_MAPPING = DynamicMapping.STRICT;
 	}
 
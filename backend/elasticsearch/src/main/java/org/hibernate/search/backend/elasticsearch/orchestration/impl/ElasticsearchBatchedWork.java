@@ -13,8 +13,8 @@
 import org.hibernate.search.util.common.impl.Futures;
 
 class ElasticsearchBatchedWork<T> implements BatchedWork<ElasticsearchBatchedWorkProcessor> {
-	private final IndexingWork<T> work;
-	private final CompletableFuture<T> future;
+	final IndexingWork<T> work;
+	final CompletableFuture<T> future;
 
 	ElasticsearchBatchedWork(IndexingWork<T> work, CompletableFuture<T> future) {
 		this.work = work;
@@ -23,6 +23,10 @@
 
 	@Override
 	public void submitTo(ElasticsearchBatchedWorkProcessor delegate) {
+		delegate.submit( this );
+	}
+
+	void addTo(ElasticsearchBatchedWorkProcessor delegate) {
 		delegate.submit( work ).whenComplete( Futures.copyHandler( future ) );
 	}
 
@@ -0,0 +1,102 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.elasticsearch.orchestration.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.search.backend.elasticsearch.work.impl.IndexingWork;
+import org.hibernate.search.backend.elasticsearch.work.impl.SingleDocumentIndexingWork;
+import org.hibernate.search.engine.backend.work.execution.DocumentRefreshStrategy;
+import org.hibernate.search.util.common.impl.Futures;
+
+/**
+ * Collects the works of a batch, then adds them to bulks while skipping redundant works.
+ * <p>
+ * A work targeting a single document is redundant if it is followed, in the same batch,
+ * by another work targeting the same document (index or delete, both of which override any previous version),
+ * without any work targeting multiple documents in-between.
+ * Redundant works are not sent to Elasticsearch: instead, their future is completed with the outcome of the overriding work.
+ * <p>
+ * Works requiring a refresh are never considered redundant,
+ * unless the overriding work requires the same refresh.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+final class ElasticsearchBatchedWorkCoalescer {
+
+	private final List<ElasticsearchBatchedWork<?>> works = new ArrayList<>();
+	private final List<ElasticsearchBatchedWork<?>> overridingWorks = new ArrayList<>();
+	private final Map<Object, ElasticsearchBatchedWork<?>> overridingWorksByDocument = new HashMap<>();
+
+	void add(ElasticsearchBatchedWork<?> work) {
+		works.add( work );
+	}
+
+	void addAllAndClear(ElasticsearchBatchedWorkProcessor processor) {
+		try {
+			findOverridingWorks();
+			for ( int i = 0; i < works.size(); i++ ) {
+				ElasticsearchBatchedWork<?> overridingWork = overridingWorks.get( i );
+				if ( overridingWork == null ) {
+					works.get( i ).addTo( processor );
+				}
+				else {
+					copyOutcome( overridingWork, works.get( i ) );
+				}
+			}
+		}
+		finally {
+			works.clear();
+			overridingWorks.clear();
+			overridingWorksByDocument.clear();
+		}
+	}
+
+	/*
+	 * Walk the works backwards, remembering the last work for each document,
+	 * so that we know for each work whether it is overridden by a later work.
+	 */
+	private void findOverridingWorks() {
+		int size = works.size();
+		for ( int i = 0; i < size; i++ ) {
+			overridingWorks.add( null );
+		}
+		for ( int i = size - 1; i >= 0; i-- ) {
+			IndexingWork<?> work = works.get( i ).work;
+			if ( !( work instanceof SingleDocumentIndexingWork ) ) {
+				// This work may affect any document:
+				// works before it must be executed before it.
+				overridingWorksByDocument.clear();
+				continue;
+			}
+			Object key = ( (SingleDocumentIndexingWork) work ).getDocumentKey();
+			ElasticsearchBatchedWork<?> overridingWork = overridingWorksByDocument.get( key );
+			if ( overridingWork == null ) {
+				overridingWorksByDocument.put( key, works.get( i ) );
+			}
+			else if ( canBeOverriddenBy( work, overridingWork.work ) ) {
+				overridingWorks.set( i, overridingWork );
+			}
+		}
+	}
+
+	private static boolean canBeOverriddenBy(IndexingWork<?> work, IndexingWork<?> overridingWork) {
+		DocumentRefreshStrategy refreshStrategy = work.getRefreshStrategy();
+		return DocumentRefreshStrategy.NONE.equals( refreshStrategy )
+				|| refreshStrategy.equals( overridingWork.getRefreshStrategy() );
+	}
+
+	@SuppressWarnings("unchecked") // Both works are single-document works, whose result is Void
+	private static void copyOutcome(ElasticsearchBatchedWork<?> source, ElasticsearchBatchedWork<?> target) {
+		// The overriding work may not be complete yet: it will be executed as part of a bulk.
+		( (ElasticsearchBatchedWork<Void>) source ).future
+				.whenComplete( Futures.copyHandler( ( (ElasticsearchBatchedWork<Void>) target ).future ) );
+	}
+}
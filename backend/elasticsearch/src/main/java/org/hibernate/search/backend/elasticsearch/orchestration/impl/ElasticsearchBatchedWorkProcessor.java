@@ -28,11 +28,24 @@ class ElasticsearchBatchedWorkProcessor implements BatchedWorkProcessor {
 
 	private final ElasticsearchWorkSequenceBuilder sequenceBuilder;
 	private final ElasticsearchWorkBulker bulker;
+	private final ElasticsearchBatchedWorkCoalescer coalescer;
 
 	public ElasticsearchBatchedWorkProcessor(ElasticsearchWorkSequenceBuilder sequenceBuilder,
 			ElasticsearchWorkBulker bulker) {
+		this( sequenceBuilder, bulker, false );
+	}
+
+	/**
+	 * @param sequenceBuilder The sequence builder.
+	 * @param bulker The bulker.
+	 * @param coalesceWorks Whether to skip works that are made redundant by a later work in the same batch.
+	 * If {@code true}, works are only added to bulks at the end of each batch.
+	 */
+	public ElasticsearchBatchedWorkProcessor(ElasticsearchWorkSequenceBuilder sequenceBuilder,
+			ElasticsearchWorkBulker bulker, boolean coalesceWorks) {
 		this.sequenceBuilder = sequenceBuilder;
 		this.bulker = bulker;
+		this.coalescer = coalesceWorks ? new ElasticsearchBatchedWorkCoalescer() : null;
 	}
 
 	@Override
@@ -41,12 +54,25 @@ public void beginBatch() {
 		sequenceBuilder.init( CompletableFuture.completedFuture( null ) );
 	}
 
+	void submit(ElasticsearchBatchedWork<?> work) {
+		if ( coalescer != null ) {
+			// Defer bulking to the end of the batch, so that we know which works are redundant.
+			coalescer.add( work );
+		}
+		else {
+			work.addTo( this );
+		}
+	}
+
 	public <T> CompletableFuture<T> submit(BulkableWork<T> work) {
 		return bulker.add( work );
 	}
 
 	@Override
 	public CompletableFuture<Void> endBatch() {
+		if ( coalescer != null ) {
+			coalescer.addAllAndClear( this );
+		}
 		CompletableFuture<Void> future = sequenceBuilder.build();
 		bulker.finalizeBulkWork();
 		// Sequence futures are not expected to fail even if one work fails,
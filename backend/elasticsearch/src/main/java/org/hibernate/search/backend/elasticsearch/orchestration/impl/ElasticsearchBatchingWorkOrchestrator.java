@@ -14,8 +14,10 @@
 import org.hibernate.search.backend.elasticsearch.work.impl.ElasticsearchWorkExecutionContext;
 import org.hibernate.search.backend.elasticsearch.work.impl.IndexingWork;
 import org.hibernate.search.engine.backend.orchestration.spi.BatchingExecutor;
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
+import org.hibernate.search.engine.cfg.spi.OptionalConfigurationProperty;
 import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.util.common.data.impl.SimpleHashFunction;
 import org.hibernate.search.util.common.impl.Closer;
@@ -51,6 +53,35 @@
 					.withDefault( ElasticsearchIndexSettings.Defaults.INDEXING_MAX_BULK_SIZE )
 					.build();
 
+	private static final ConfigurationProperty<Integer> MAX_LINGER =
+			ConfigurationProperty.forKey( ElasticsearchIndexSettings.INDEXING_MAX_LINGER )
+					.asInteger()
+					.withDefault( ElasticsearchIndexSettings.Defaults.INDEXING_MAX_LINGER )
+					.build();
+
+	private static final OptionalConfigurationProperty<Integer> LINGER_BATCH_SIZE =
+			ConfigurationProperty.forKey( ElasticsearchIndexSettings.INDEXING_LINGER_BATCH_SIZE )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<IndexingQueueOverflowPolicyName> QUEUE_OVERFLOW_POLICY =
+			ConfigurationProperty.forKey( ElasticsearchIndexSettings.INDEXING_QUEUE_OVERFLOW_POLICY )
+					.as( IndexingQueueOverflowPolicyName.class, IndexingQueueOverflowPolicyName::of )
+					.withDefault( ElasticsearchIndexSettings.Defaults.INDEXING_QUEUE_OVERFLOW_POLICY )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> LOCK_FREE_QUEUE =
+			ConfigurationProperty.forKey( ElasticsearchIndexSettings.INDEXING_LOCK_FREE_QUEUE )
+					.asBoolean()
+					.withDefault( ElasticsearchIndexSettings.Defaults.INDEXING_LOCK_FREE_QUEUE )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> COALESCE_WORKS =
+			ConfigurationProperty.forKey( ElasticsearchIndexSettings.INDEXING_COALESCE_WORKS )
+					.asBoolean()
+					.withDefault( ElasticsearchIndexSettings.Defaults.INDEXING_COALESCE_WORKS )
+					.build();
+
 	private final BackendThreads threads;
 	private final FailureHandler failureHandler;
 
@@ -82,18 +113,28 @@ protected void doStart(ConfigurationPropertySource propertySource) {
 		int queueCount = QUEUE_COUNT.get( propertySource );
 		int queueSize = QUEUE_SIZE.get( propertySource );
 		int maxBulkSize = MAX_BULK_SIZE.get( propertySource );
+		int maxLinger = MAX_LINGER.get( propertySource );
+		int lingerBatchSize = LINGER_BATCH_SIZE.get( propertySource ).orElse( maxBulkSize );
+		IndexingQueueOverflowPolicyName overflowPolicy = QUEUE_OVERFLOW_POLICY.get( propertySource );
+		boolean lockFreeQueue = LOCK_FREE_QUEUE.get( propertySource );
+		boolean coalesceWorks = COALESCE_WORKS.get( propertySource );
 
 		ElasticsearchWorkExecutionContext executionContext = createWorkExecutionContext();
 
 		executors = new BatchingExecutor[queueCount];
 		for ( int i = 0; i < executors.length; i++ ) {
 			// Processors are not thread-safe: create one per executor.
-			ElasticsearchBatchedWorkProcessor processor = createProcessor( executionContext, maxBulkSize );
+			ElasticsearchBatchedWorkProcessor processor = createProcessor( executionContext, maxBulkSize,
+					coalesceWorks );
 			executors[i] = new BatchingExecutor<>(
 					name() + " - " + i,
 					processor,
 					queueSize,
 					true,
+					lockFreeQueue,
+					maxLinger,
+					lingerBatchSize,
+					overflowPolicy,
 					failureHandler
 			);
 		}
@@ -126,7 +167,7 @@ protected void doStop() {
 	}
 
 	private ElasticsearchBatchedWorkProcessor createProcessor(ElasticsearchWorkExecutionContext context,
-			int maxBulkSize) {
+			int maxBulkSize, boolean coalesceWorks) {
 		ElasticsearchWorkSequenceBuilder sequenceBuilder = new ElasticsearchDefaultWorkSequenceBuilder( context );
 		ElasticsearchWorkBulker bulker = new ElasticsearchDefaultWorkBulker(
 				sequenceBuilder,
@@ -134,7 +175,7 @@ private ElasticsearchBatchedWorkProcessor createProcessor(ElasticsearchWorkExecu
 						link.getWorkBuilderFactory().bulk( worksToBulk ).refresh( refreshStrategy ).build(),
 				maxBulkSize
 		);
-		return new ElasticsearchBatchedWorkProcessor( sequenceBuilder, bulker );
+		return new ElasticsearchBatchedWorkProcessor( sequenceBuilder, bulker, coalesceWorks );
 	}
 
 }
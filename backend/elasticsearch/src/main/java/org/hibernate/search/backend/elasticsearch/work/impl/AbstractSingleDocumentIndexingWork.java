@@ -55,6 +55,13 @@ public Object getEntityIdentifier() {
 		return entityIdentifier;
 	}
 
+	@Override
+	public Object getDocumentKey() {
+		// The action metadata has a single property, named after the action ("index", "delete"),
+		// whose value identifies the target document: index, identifier, routing key.
+		return bulkableActionMetadata.entrySet().iterator().next().getValue();
+	}
+
 	@Override
 	public DocumentRefreshStrategy getRefreshStrategy() {
 		return refreshStrategy;
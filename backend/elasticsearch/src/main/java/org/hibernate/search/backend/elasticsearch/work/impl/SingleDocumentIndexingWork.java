@@ -12,4 +12,11 @@ public interface SingleDocumentIndexingWork extends IndexingWork<Void> {
 
 	Object getEntityIdentifier();
 
+	/**
+	 * @return An object identifying the target document (index, identifier, routing key),
+	 * suitable as a key in a hash map.
+	 * Two works targeting the same document will return equal keys.
+	 */
+	Object getDocumentKey();
+
 }
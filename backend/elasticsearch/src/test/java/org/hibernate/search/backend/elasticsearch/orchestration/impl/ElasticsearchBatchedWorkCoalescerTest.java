@@ -0,0 +1,265 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.elasticsearch.orchestration.impl;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hibernate.search.util.impl.test.FutureAssert.assertThatFuture;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.search.backend.elasticsearch.util.spi.URLEncodedString;
+import org.hibernate.search.backend.elasticsearch.work.impl.DeleteWork;
+import org.hibernate.search.backend.elasticsearch.work.impl.IndexWork;
+import org.hibernate.search.backend.elasticsearch.work.impl.IndexingWork;
+import org.hibernate.search.engine.backend.work.execution.DocumentRefreshStrategy;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import com.google.gson.JsonObject;
+
+public class ElasticsearchBatchedWorkCoalescerTest {
+
+	private static final URLEncodedString INDEX_NAME = URLEncodedString.fromString( "indexname" );
+
+	@Rule
+	public final MockitoRule mockito = MockitoJUnit.rule().strictness( Strictness.STRICT_STUBS );
+
+	@Mock
+	private ElasticsearchBatchedWorkProcessor processorMock;
+
+	private final ElasticsearchBatchedWorkCoalescer coalescer = new ElasticsearchBatchedWorkCoalescer();
+
+	@Test
+	public void sameDocument() {
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexWork work2 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		ElasticsearchBatchedWork<Void> batchedWork1 = batchedWork( work1 );
+		ElasticsearchBatchedWork<Void> batchedWork2 = batchedWork( work2 );
+
+		coalescer.add( batchedWork1 );
+		coalescer.add( batchedWork2 );
+
+		CompletableFuture<Void> work2Future = new CompletableFuture<>();
+		when( processorMock.submit( work2 ) ).thenReturn( work2Future );
+		coalescer.addAllAndClear( processorMock );
+		verifyNoOtherInteractionsAndReset();
+		assertThatFuture( batchedWork1.future ).isPending();
+		assertThatFuture( batchedWork2.future ).isPending();
+
+		work2Future.complete( null );
+		assertThatFuture( batchedWork1.future ).isSuccessful();
+		assertThatFuture( batchedWork2.future ).isSuccessful();
+	}
+
+	@Test
+	public void sameDocument_differentAction() {
+		// The key is the value of the action metadata, regardless of the action ("index", "delete").
+		IndexWork work1 = indexWork( "1", "routing", DocumentRefreshStrategy.NONE );
+		DeleteWork work2 = deleteWork( "1", "routing", DocumentRefreshStrategy.NONE );
+		ElasticsearchBatchedWork<Void> batchedWork1 = batchedWork( work1 );
+		ElasticsearchBatchedWork<Void> batchedWork2 = batchedWork( work2 );
+
+		coalescer.add( batchedWork1 );
+		coalescer.add( batchedWork2 );
+
+		CompletableFuture<Void> work2Future = new CompletableFuture<>();
+		when( processorMock.submit( work2 ) ).thenReturn( work2Future );
+		coalescer.addAllAndClear( processorMock );
+		verifyNoOtherInteractionsAndReset();
+
+		work2Future.complete( null );
+		assertThatFuture( batchedWork1.future ).isSuccessful();
+		assertThatFuture( batchedWork2.future ).isSuccessful();
+	}
+
+	@Test
+	public void differentDocuments() {
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexWork work2 = indexWork( "2", null, DocumentRefreshStrategy.NONE );
+		// Same identifier, but different routing key: a different document.
+		IndexWork work3 = indexWork( "1", "routing", DocumentRefreshStrategy.NONE );
+
+		coalescer.add( batchedWork( work1 ) );
+		coalescer.add( batchedWork( work2 ) );
+		coalescer.add( batchedWork( work3 ) );
+
+		when( processorMock.submit( work1 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work2 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work3 ) ).thenReturn( new CompletableFuture<>() );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work1 );
+		verify( processorMock ).submit( work2 );
+		verify( processorMock ).submit( work3 );
+		verifyNoOtherInteractionsAndReset();
+	}
+
+	@Test
+	public void refreshStrategy() {
+		// A work requiring a refresh can only be skipped if the overriding work requires the same refresh.
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.FORCE );
+		IndexWork work2 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		// A work that doesn't require a refresh can be skipped even if the overriding work requires a refresh.
+		IndexWork work3 = indexWork( "2", null, DocumentRefreshStrategy.NONE );
+		IndexWork work4 = indexWork( "2", null, DocumentRefreshStrategy.FORCE );
+		IndexWork work5 = indexWork( "3", null, DocumentRefreshStrategy.FORCE );
+		IndexWork work6 = indexWork( "3", null, DocumentRefreshStrategy.FORCE );
+		ElasticsearchBatchedWork<Void> batchedWork3 = batchedWork( work3 );
+		ElasticsearchBatchedWork<Void> batchedWork5 = batchedWork( work5 );
+
+		coalescer.add( batchedWork( work1 ) );
+		coalescer.add( batchedWork( work2 ) );
+		coalescer.add( batchedWork3 );
+		coalescer.add( batchedWork( work4 ) );
+		coalescer.add( batchedWork5 );
+		coalescer.add( batchedWork( work6 ) );
+
+		CompletableFuture<Void> work4Future = new CompletableFuture<>();
+		CompletableFuture<Void> work6Future = new CompletableFuture<>();
+		when( processorMock.submit( work1 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work2 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work4 ) ).thenReturn( work4Future );
+		when( processorMock.submit( work6 ) ).thenReturn( work6Future );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work1 );
+		verify( processorMock ).submit( work2 );
+		verify( processorMock ).submit( work4 );
+		verify( processorMock ).submit( work6 );
+		verifyNoOtherInteractionsAndReset();
+
+		work4Future.complete( null );
+		work6Future.complete( null );
+		assertThatFuture( batchedWork3.future ).isSuccessful();
+		assertThatFuture( batchedWork5.future ).isSuccessful();
+	}
+
+	@Test
+	public void multiDocumentWork() {
+		// Works before a work that may affect any document must not be skipped.
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexingWork<Void> work2 = multiDocumentWorkMock();
+		IndexWork work3 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexWork work4 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		ElasticsearchBatchedWork<Void> batchedWork3 = batchedWork( work3 );
+
+		coalescer.add( batchedWork( work1 ) );
+		coalescer.add( batchedWork( work2 ) );
+		coalescer.add( batchedWork3 );
+		coalescer.add( batchedWork( work4 ) );
+
+		CompletableFuture<Void> work4Future = new CompletableFuture<>();
+		when( processorMock.submit( work1 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work2 ) ).thenReturn( new CompletableFuture<>() );
+		when( processorMock.submit( work4 ) ).thenReturn( work4Future );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work1 );
+		verify( processorMock ).submit( work2 );
+		verify( processorMock ).submit( work4 );
+		verifyNoOtherInteractionsAndReset();
+
+		work4Future.complete( null );
+		assertThatFuture( batchedWork3.future ).isSuccessful();
+	}
+
+	@Test
+	public void overridingWorkFailure() {
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		DeleteWork work2 = deleteWork( "1", null, DocumentRefreshStrategy.NONE );
+		ElasticsearchBatchedWork<Void> batchedWork1 = batchedWork( work1 );
+		ElasticsearchBatchedWork<Void> batchedWork2 = batchedWork( work2 );
+
+		coalescer.add( batchedWork1 );
+		coalescer.add( batchedWork2 );
+
+		CompletableFuture<Void> work2Future = new CompletableFuture<>();
+		when( processorMock.submit( work2 ) ).thenReturn( work2Future );
+		coalescer.addAllAndClear( processorMock );
+		verifyNoOtherInteractionsAndReset();
+
+		// The skipped work gets the same outcome as the overriding work.
+		RuntimeException exception = new RuntimeException( "Some message" );
+		work2Future.completeExceptionally( exception );
+		assertThatFuture( batchedWork1.future ).isFailed( exception );
+		assertThatFuture( batchedWork2.future ).isFailed( exception );
+	}
+
+	@Test
+	public void clearedBetweenBatches() {
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexWork work2 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+
+		coalescer.add( batchedWork( work1 ) );
+		when( processorMock.submit( work1 ) ).thenReturn( new CompletableFuture<>() );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work1 );
+		verifyNoOtherInteractionsAndReset();
+
+		// A work in a later batch does not override works of a previous batch, which were already submitted.
+		coalescer.add( batchedWork( work2 ) );
+		when( processorMock.submit( work2 ) ).thenReturn( new CompletableFuture<>() );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work2 );
+		verifyNoOtherInteractionsAndReset();
+	}
+
+	@Test
+	public void clearedOnFailure() {
+		IndexWork work1 = indexWork( "1", null, DocumentRefreshStrategy.NONE );
+		IndexWork work2 = indexWork( "2", null, DocumentRefreshStrategy.NONE );
+
+		coalescer.add( batchedWork( work1 ) );
+		RuntimeException exception = new RuntimeException( "Some message" );
+		when( processorMock.submit( work1 ) ).thenThrow( exception );
+		assertThatThrownBy( () -> coalescer.addAllAndClear( processorMock ) )
+				.isSameAs( exception );
+		verify( processorMock ).submit( work1 );
+		verifyNoOtherInteractionsAndReset();
+
+		coalescer.add( batchedWork( work2 ) );
+		when( processorMock.submit( work2 ) ).thenReturn( new CompletableFuture<>() );
+		coalescer.addAllAndClear( processorMock );
+		verify( processorMock ).submit( work2 );
+		verifyNoOtherInteractionsAndReset();
+	}
+
+	private void verifyNoOtherInteractionsAndReset() {
+		verifyNoMoreInteractions( processorMock );
+		reset( processorMock );
+	}
+
+	private static <T> ElasticsearchBatchedWork<T> batchedWork(IndexingWork<T> work) {
+		return new ElasticsearchBatchedWork<>( work, new CompletableFuture<>() );
+	}
+
+	private static IndexWork indexWork(String id, String routingKey, DocumentRefreshStrategy refreshStrategy) {
+		return IndexWork.Builder.forElasticsearch7AndAbove( "EntityType", id, INDEX_NAME, id, routingKey,
+				new JsonObject() )
+				.refresh( refreshStrategy )
+				.build();
+	}
+
+	private static DeleteWork deleteWork(String id, String routingKey, DocumentRefreshStrategy refreshStrategy) {
+		return DeleteWork.Builder.forElasticsearch7AndAbove( "EntityType", id, INDEX_NAME, id, routingKey )
+				.refresh( refreshStrategy )
+				.build();
+	}
+
+	@SuppressWarnings("unchecked") // Raw types are the only way to mock parameterized types
+	private static IndexingWork<Void> multiDocumentWorkMock() {
+		return mock( IndexingWork.class, "multiDocumentWork" );
+	}
+}
@@ -8,6 +8,8 @@
 
 import java.util.Optional;
 
+import org.hibernate.search.backend.lucene.cache.LuceneFilterCacheStatistics;
+import org.hibernate.search.backend.lucene.lowlevel.index.LuceneMergeStatistics;
 import org.hibernate.search.engine.backend.Backend;
 import org.hibernate.search.engine.backend.metamodel.IndexValueFieldTypeDescriptor;
 
@@ -28,4 +30,17 @@ public interface LuceneBackend extends Backend {
 	 */
 	Optional<? extends Analyzer> normalizer(String name);
 
+	/**
+	 * @return Statistics about the filter cache of this backend,
+	 * or {@link Optional#empty()} if the filter cache is disabled.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#QUERY_FILTER_CACHE_MAX_SIZE
+	 */
+	Optional<LuceneFilterCacheStatistics> filterCacheStatistics();
+
+	/**
+	 * @return Statistics about the merges executed by all indexes of this backend.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#IO_MERGE_TOTAL_THREAD_COUNT
+	 */
+	LuceneMergeStatistics mergeStatistics();
+
 }
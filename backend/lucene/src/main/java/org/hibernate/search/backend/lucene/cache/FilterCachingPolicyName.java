@@ -0,0 +1,55 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache;
+
+import java.lang.invoke.MethodHandles;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.engine.cfg.spi.ParseUtils;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+
+public enum FilterCachingPolicyName {
+
+	/**
+	 * The default policy, identical to Lucene's default:
+	 * filters are cached once they have been used a few times recently,
+	 * except filters that are cheap to execute, such as term filters.
+	 */
+	USAGE_TRACKING( "usage-tracking" ),
+	/**
+	 * A policy that always caches the {@code filter} clauses of boolean predicates,
+	 * as well as tenant filters unless they are already cached as bitsets
+	 * (see {@link org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE}),
+	 * and falls back to the {@link #USAGE_TRACKING usage-tracking} policy for other filters.
+	 */
+	ALWAYS_CACHE_FILTERS( "always-cache-filters" );
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	// This method conforms to the MicroProfile Config specification. Do not change its signature.
+	public static FilterCachingPolicyName of(String value) {
+		return ParseUtils.parseDiscreteValues(
+				FilterCachingPolicyName.values(),
+				FilterCachingPolicyName::externalRepresentation,
+				log::invalidFilterCachingPolicyName,
+				value
+		);
+	}
+
+	private final String externalRepresentation;
+
+	FilterCachingPolicyName(String externalRepresentation) {
+		this.externalRepresentation = externalRepresentation;
+	}
+
+	/**
+	 * @return The expected string representation in configuration properties.
+	 */
+	private String externalRepresentation() {
+		return externalRepresentation;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache;
+
+/**
+ * Statistics about a cache used by the Lucene backend.
+ * <p>
+ * Counters are cumulative since the cache was created,
+ * and are updated concurrently with cache usage:
+ * values returned by different methods may not be consistent with each other.
+ */
+public interface LuceneCacheStatistics {
+
+	/**
+	 * @return The number of lookups that found a value in the cache.
+	 */
+	long hitCount();
+
+	/**
+	 * @return The number of lookups that did not find a value in the cache.
+	 */
+	long missCount();
+
+	/**
+	 * @return The number of values that were removed from the cache to make room for other values.
+	 * Whether values removed because they became stale (e.g. after an index refresh) are counted
+	 * depends on the cache.
+	 */
+	long evictionCount();
+
+	/**
+	 * @return The number of values currently in the cache.
+	 */
+	long size();
+
+}
@@ -0,0 +1,26 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache;
+
+/**
+ * Statistics about the filter cache of a Lucene backend,
+ * i.e. the Lucene {@link org.apache.lucene.search.QueryCache query cache}
+ * that caches the documents matched by filters on each index segment.
+ * <p>
+ * Values in this cache are the sets of documents matched by a given filter in a given index segment.
+ * Values are removed when they are evicted to stay under the size and memory limits,
+ * and when the index segment they relate to is closed, e.g. after a merge:
+ * both are reflected in the {@link #evictionCount() eviction count}.
+ */
+public interface LuceneFilterCacheStatistics extends LuceneCacheStatistics {
+
+	/**
+	 * @return The amount of memory used by this cache, in bytes.
+	 */
+	long ramBytesUsed();
+
+}
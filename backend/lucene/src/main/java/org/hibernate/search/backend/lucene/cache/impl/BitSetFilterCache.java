@@ -0,0 +1,228 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.util.FixedBitSet;
+
+/**
+ * A cache of the documents matched by structural filters
+ * (tenant filter, main document filter, parent filters for nested documents)
+ * in each index segment, materialized as {@link FixedBitSet}s.
+ * <p>
+ * These filters are the same for every search query (of a given tenant),
+ * so it makes sense to keep their result around instead of going through postings for every query.
+ * <p>
+ * Entries are keyed on the segment core, and are removed as soon as the segment core is closed.
+ * When the memory used by cached bitsets exceeds the budget, the least recently used bitsets are evicted.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class BitSetFilterCache {
+
+	// Bitsets are also cached for segments that don't match: use a marker instead of null.
+	private static final Entry NO_MATCH = new Entry( new FixedBitSet( 0 ), 0 );
+
+	private final long maxRamBytesUsed;
+
+	// Guarded by "this"
+	private final Map<Key, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+	// Guarded by "this"
+	private final Map<IndexReader.CacheKey, Set<Key>> keysByCoreKey = new HashMap<>();
+	// Guarded by "this"
+	private long ramBytesUsed = 0L;
+
+	public BitSetFilterCache(long maxRamBytesUsed) {
+		this.maxRamBytesUsed = maxRamBytesUsed;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[maxRamBytesUsed=" + maxRamBytesUsed + "]";
+	}
+
+	/**
+	 * @param filter A filter query.
+	 * @return A query matching the same documents as {@code filter}, but relying on this cache.
+	 */
+	public Query cachedFilter(Query filter) {
+		return new CachedBitSetFilterQuery( filter, this );
+	}
+
+	/**
+	 * @param parentFilter A filter matching parent documents, to be used in block joins.
+	 * @return A bitset producer for the given filter, relying on this cache.
+	 */
+	public BitSetProducer bitSetProducer(Query parentFilter) {
+		return new CachedBitSetProducer( parentFilter, this );
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		keysByCoreKey.clear();
+		ramBytesUsed = 0L;
+	}
+
+	synchronized long ramBytesUsed() {
+		return ramBytesUsed;
+	}
+
+	/**
+	 * @return The documents matched by the given filter in the given segment, or {@code null} if there are none.
+	 * Deleted documents may be included.
+	 */
+	FixedBitSet getBitSet(Query filter, LeafReaderContext context) throws IOException {
+		Entry entry = getEntry( filter, context );
+		return entry == null ? null : entry.bitSet;
+	}
+
+	/**
+	 * @return The documents matched by the given filter in the given segment, along with their count,
+	 * or {@code null} if there are none.
+	 * Deleted documents may be included.
+	 */
+	Entry getEntry(Query filter, LeafReaderContext context) throws IOException {
+		IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+		if ( cacheHelper == null ) {
+			// Cannot cache
+			return nullIfNoMatch( computeEntry( filter, context ) );
+		}
+
+		Key key = new Key( cacheHelper.getKey(), filter );
+		Entry entry;
+		synchronized ( this ) {
+			entry = entries.get( key );
+		}
+		if ( entry == null ) {
+			// Concurrent threads may compute the same bitset: that's fine, one of them will just be discarded.
+			entry = computeEntry( filter, context );
+			put( key, entry, cacheHelper );
+		}
+		return nullIfNoMatch( entry );
+	}
+
+	private synchronized void put(Key key, Entry entry, IndexReader.CacheHelper cacheHelper) {
+		long bitSetRamBytesUsed = entry.bitSet.ramBytesUsed();
+		if ( bitSetRamBytesUsed > maxRamBytesUsed ) {
+			// Too large to be cached.
+			return;
+		}
+		Set<Key> coreKeys = keysByCoreKey.get( key.coreKey );
+		if ( coreKeys == null ) {
+			coreKeys = new HashSet<>();
+			keysByCoreKey.put( key.coreKey, coreKeys );
+			cacheHelper.addClosedListener( this::onCoreClosed );
+		}
+		Entry previous = entries.put( key, entry );
+		if ( previous != null ) {
+			ramBytesUsed -= previous.bitSet.ramBytesUsed();
+		}
+		coreKeys.add( key );
+		ramBytesUsed += bitSetRamBytesUsed;
+		evictIfNecessary();
+	}
+
+	private void evictIfNecessary() {
+		Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+		while ( ramBytesUsed > maxRamBytesUsed && iterator.hasNext() ) {
+			Map.Entry<Key, Entry> eldest = iterator.next();
+			iterator.remove();
+			ramBytesUsed -= eldest.getValue().bitSet.ramBytesUsed();
+			Set<Key> coreKeys = keysByCoreKey.get( eldest.getKey().coreKey );
+			coreKeys.remove( eldest.getKey() );
+			// Keep the (empty) set of keys as long as the core is open:
+			// this avoids registering multiple closed listeners for the same core.
+		}
+	}
+
+	private synchronized void onCoreClosed(IndexReader.CacheKey coreKey) {
+		Set<Key> coreKeys = keysByCoreKey.remove( coreKey );
+		if ( coreKeys == null ) {
+			return;
+		}
+		for ( Key key : coreKeys ) {
+			Entry removed = entries.remove( key );
+			if ( removed != null ) {
+				ramBytesUsed -= removed.bitSet.ramBytesUsed();
+			}
+		}
+	}
+
+	private static Entry computeEntry(Query filter, LeafReaderContext context) throws IOException {
+		IndexSearcher searcher = new IndexSearcher( ReaderUtil.getTopLevelContext( context ) );
+		// This cache replaces the query cache for this filter.
+		searcher.setQueryCache( null );
+		Weight weight = searcher.createWeight( searcher.rewrite( filter ), ScoreMode.COMPLETE_NO_SCORES, 1f );
+		Scorer scorer = weight.scorer( context );
+		if ( scorer == null ) {
+			return NO_MATCH;
+		}
+		FixedBitSet bitSet = new FixedBitSet( context.reader().maxDoc() );
+		bitSet.or( scorer.iterator() );
+		// Computing the cardinality requires a full scan of the bitset: do it once, not on every search.
+		return new Entry( bitSet, bitSet.cardinality() );
+	}
+
+	private static Entry nullIfNoMatch(Entry entry) {
+		return entry == NO_MATCH ? null : entry;
+	}
+
+	static final class Entry {
+		final FixedBitSet bitSet;
+		final int cardinality;
+
+		private Entry(FixedBitSet bitSet, int cardinality) {
+			this.bitSet = bitSet;
+			this.cardinality = cardinality;
+		}
+	}
+
+	private static final class Key {
+		private final IndexReader.CacheKey coreKey;
+		private final Query filter;
+
+		private Key(IndexReader.CacheKey coreKey, Query filter) {
+			this.coreKey = coreKey;
+			this.filter = filter;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( obj == null || obj.getClass() != getClass() ) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return coreKey.equals( other.coreKey )
+					&& filter.equals( other.filter );
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash( coreKey, filter );
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSetIterator;
+
+/**
+ * A query matching the same documents as a given filter,
+ * relying on a {@link BitSetFilterCache} to avoid executing the filter on every search.
+ */
+final class CachedBitSetFilterQuery extends Query {
+
+	private final Query filter;
+	private final BitSetFilterCache cache;
+
+	CachedBitSetFilterQuery(Query filter, BitSetFilterCache cache) {
+		this.filter = filter;
+		this.cache = cache;
+	}
+
+	@Override
+	public String toString(String field) {
+		return filter.toString( field );
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return sameClassAs( obj )
+				&& filter.equals( ( (CachedBitSetFilterQuery) obj ).filter );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * classHash() + filter.hashCode();
+	}
+
+	@Override
+	public void visit(QueryVisitor visitor) {
+		visitor.visitLeaf( this );
+	}
+
+	@Override
+	public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) {
+		return new ConstantScoreWeight( this, boost ) {
+			@Override
+			public Scorer scorer(LeafReaderContext context) throws IOException {
+				BitSetFilterCache.Entry entry = cache.getEntry( filter, context );
+				if ( entry == null ) {
+					return null;
+				}
+				return new ConstantScoreScorer( this, score(), scoreMode,
+						new BitSetIterator( entry.bitSet, entry.cardinality ) );
+			}
+
+			@Override
+			public boolean isCacheable(LeafReaderContext ctx) {
+				// Already cached.
+				return false;
+			}
+		};
+	}
+}
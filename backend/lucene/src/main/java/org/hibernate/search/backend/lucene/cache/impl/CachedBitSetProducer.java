@@ -0,0 +1,54 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.util.BitSet;
+
+/**
+ * A {@link BitSetProducer} relying on a {@link BitSetFilterCache},
+ * so that bitsets are shared across search queries instead of being computed for each query.
+ * <p>
+ * Apart from that, behaves exactly like Lucene's {@link org.apache.lucene.search.join.QueryBitSetProducer}.
+ */
+final class CachedBitSetProducer implements BitSetProducer {
+
+	private final Query filter;
+	private final BitSetFilterCache cache;
+
+	CachedBitSetProducer(Query filter, BitSetFilterCache cache) {
+		this.filter = filter;
+		this.cache = cache;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "(" + filter + ")";
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( obj == null || obj.getClass() != getClass() ) {
+			return false;
+		}
+		return filter.equals( ( (CachedBitSetProducer) obj ).filter );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * getClass().hashCode() + filter.hashCode();
+	}
+
+	@Override
+	public BitSet getBitSet(LeafReaderContext context) throws IOException {
+		return cache.getBitSet( filter, context );
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import org.hibernate.search.backend.lucene.cache.LuceneFilterCacheStatistics;
+
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LRUQueryCache;
+
+/**
+ * A filter cache dedicated to a backend,
+ * to be used instead of the default query cache shared by the whole JVM.
+ */
+public final class LuceneFilterCache extends LRUQueryCache implements LuceneFilterCacheStatistics {
+
+	private final LuceneFilterCachingPolicy policy;
+
+	public LuceneFilterCache(int maxSize, long maxRamBytesUsed, LuceneFilterCachingPolicy policy) {
+		super( maxSize, maxRamBytesUsed );
+		this.policy = policy;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[policy=" + policy + "]";
+	}
+
+	public boolean needsFilterClauseMarking() {
+		return policy.needsFilterClauseMarking();
+	}
+
+	public void applyTo(IndexSearcher searcher) {
+		searcher.setQueryCache( this );
+		searcher.setQueryCachingPolicy( policy );
+	}
+
+	@Override
+	public long hitCount() {
+		return getHitCount();
+	}
+
+	@Override
+	public long missCount() {
+		return getMissCount();
+	}
+
+	@Override
+	public long evictionCount() {
+		return getEvictionCount();
+	}
+
+	@Override
+	public long size() {
+		return getCacheSize();
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import java.io.IOException;
+
+import org.hibernate.search.backend.lucene.cache.FilterCachingPolicyName;
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.FilterClauseQuery;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.UsageTrackingQueryCachingPolicy;
+
+/**
+ * A caching policy that delegates to Lucene's {@link UsageTrackingQueryCachingPolicy},
+ * but can optionally force the caching of boolean {@code filter} clauses.
+ * <p>
+ * Filter clauses are recognized through {@link FilterClauseQuery}:
+ * see {@link org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries#filterClause(Query)}.
+ */
+public final class LuceneFilterCachingPolicy implements QueryCachingPolicy {
+
+	public static LuceneFilterCachingPolicy create(FilterCachingPolicyName name) {
+		switch ( name ) {
+			case ALWAYS_CACHE_FILTERS:
+				return new LuceneFilterCachingPolicy( true );
+			case USAGE_TRACKING:
+			default:
+				return new LuceneFilterCachingPolicy( false );
+		}
+	}
+
+	private final UsageTrackingQueryCachingPolicy usageTrackingPolicy = new UsageTrackingQueryCachingPolicy();
+	private final boolean alwaysCacheFilters;
+
+	private LuceneFilterCachingPolicy(boolean alwaysCacheFilters) {
+		this.alwaysCacheFilters = alwaysCacheFilters;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[alwaysCacheFilters=" + alwaysCacheFilters + "]";
+	}
+
+	/**
+	 * @return {@code true} if boolean {@code filter} clauses must be marked with
+	 * {@link org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries#filterClause(Query)}
+	 * so that this policy can recognize them, {@code false} if that would be pointless.
+	 */
+	public boolean needsFilterClauseMarking() {
+		return alwaysCacheFilters;
+	}
+
+	@Override
+	public void onUse(Query query) {
+		usageTrackingPolicy.onUse( unwrap( query ) );
+	}
+
+	@Override
+	public boolean shouldCache(Query query) throws IOException {
+		if ( alwaysCacheFilters && query instanceof FilterClauseQuery ) {
+			return true;
+		}
+		return usageTrackingPolicy.shouldCache( unwrap( query ) );
+	}
+
+	private static Query unwrap(Query query) {
+		if ( query instanceof FilterClauseQuery ) {
+			return ( (FilterClauseQuery) query ).getDelegate();
+		}
+		return query;
+	}
+}
@@ -7,6 +7,7 @@
 package org.hibernate.search.backend.lucene.cfg;
 
 import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+import org.hibernate.search.backend.lucene.cache.FilterCachingPolicyName;
 import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
 
 import org.apache.lucene.util.Version;
@@ -78,6 +79,203 @@ private LuceneBackendSettings() {
 	 */
 	public static final String THREAD_POOL_SIZE = "thread_pool.size";
 
+	/**
+	 * The size of the thread pool used to execute search queries concurrently on multiple index segments.
+	 * <p>
+	 * When greater than 1, a dedicated thread pool of that size is created for the backend,
+	 * and each search query will split the targeted index segments into slices,
+	 * then search these slices concurrently.
+	 * This may reduce the latency of queries targeting large indexes,
+	 * at the cost of a higher CPU usage.
+	 * <p>
+	 * Expects a strictly positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#QUERY_PARALLELISM},
+	 * i.e. search queries are executed in the calling thread only.
+	 */
+	public static final String QUERY_PARALLELISM = "query.parallelism";
+
+	/**
+	 * The maximum number of filters whose matching documents are cached by the backend.
+	 * <p>
+	 * When strictly positive, a filter cache dedicated to the backend is used
+	 * instead of Lucene's default query cache, which is shared by the whole JVM.
+	 * When zero, filters are never cached.
+	 * <p>
+	 * Expects a positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#QUERY_FILTER_CACHE_MAX_SIZE}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Filter cache",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String QUERY_FILTER_CACHE_MAX_SIZE = "query.filter_cache.max_size";
+
+	/**
+	 * The maximum amount of memory used by the filter cache of the backend.
+	 * <p>
+	 * Expects a strictly positive integer value in megabytes,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to 5% of the maximum heap size, capped at 32 megabytes, like Lucene's default query cache.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Filter cache",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String QUERY_FILTER_CACHE_MAX_RAM_SIZE = "query.filter_cache.max_ram_size";
+
+	/**
+	 * The policy deciding which filters are cached by the filter cache of the backend.
+	 * <p>
+	 * Expects a {@link FilterCachingPolicyName}, or a String representation of such value.
+	 * <p>
+	 * Defaults to {@link Defaults#QUERY_FILTER_CACHE_POLICY}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Filter cache",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String QUERY_FILTER_CACHE_POLICY = "query.filter_cache.policy";
+
+	/**
+	 * The maximum amount of memory used to cache the documents matched by structural filters,
+	 * i.e. the tenant filter, the filter excluding nested documents
+	 * and the filters matching parents of nested documents, in each index segment.
+	 * <p>
+	 * When strictly positive, these filters are materialized as bitsets for each index segment
+	 * and cached until the segment is closed (e.g. after a merge), or until the memory budget is exceeded.
+	 * When zero, these filters are executed like any other filter on every search query.
+	 * <p>
+	 * Expects a positive integer value in megabytes,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Filter cache",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE = "query.filter_bitset_cache.max_ram_size";
+
+	/**
+	 * The maximum amount of memory used by the indexing buffers of all index writers of the backend, combined.
+	 * <p>
+	 * When strictly positive, the memory used by all open index writers is checked periodically,
+	 * and when it exceeds this budget, the index writers using the most memory are flushed
+	 * (without committing) until the total is back under this budget.
+	 * When zero, only the memory limit of each index writer applies:
+	 * see {@link LuceneIndexSettings#IO_WRITER_RAM_BUFFER_SIZE}.
+	 * <p>
+	 * Expects a positive integer value in megabytes,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_WRITER_TOTAL_RAM_BUFFER_SIZE}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing memory budget",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String IO_WRITER_TOTAL_RAM_BUFFER_SIZE = "io.writer.total_ram_buffer_size";
+
+	/**
+	 * How often to check the memory used by the indexing buffers of all index writers of the backend
+	 * against {@link #IO_WRITER_TOTAL_RAM_BUFFER_SIZE}.
+	 * <p>
+	 * Only relevant when {@link #IO_WRITER_TOTAL_RAM_BUFFER_SIZE} is strictly positive.
+	 * <p>
+	 * Expects a strictly positive integer value in milliseconds,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL}.
+	 */
+	public static final String IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL = "io.writer.total_ram_buffer_check_interval";
+
+	/**
+	 * The maximum number of merges executing concurrently across all indexes of the backend.
+	 * <p>
+	 * When strictly positive, merges exceeding this budget wait for other merges to finish before they start.
+	 * When zero, only the limits of each index apply.
+	 * <p>
+	 * Expects a positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_TOTAL_THREAD_COUNT}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Merge scheduling",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String IO_MERGE_TOTAL_THREAD_COUNT = "io.merge.total_thread_count";
+
+	/**
+	 * The maximum rate at which merges write to disk, across all indexes of the backend combined.
+	 * <p>
+	 * When strictly positive, merges are paused as necessary to stay under this rate.
+	 * When zero, the rate is not limited, unless merges are throttled:
+	 * see {@link #IO_MERGE_THROTTLED_MB_PER_SEC}.
+	 * <p>
+	 * Expects a positive integer value in megabytes per second,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_TOTAL_MAX_MB_PER_SEC}.
+	 */
+	public static final String IO_MERGE_TOTAL_MAX_MB_PER_SEC = "io.merge.total_max_mb_per_sec";
+
+	/**
+	 * The maximum rate at which merges write to disk, across all indexes of the backend combined,
+	 * while merges are throttled.
+	 * <p>
+	 * Merges are throttled while the average query latency exceeds {@link #IO_MERGE_THROTTLE_QUERY_LATENCY}
+	 * or while an indexing queue holds more works than {@link #IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE}.
+	 * <p>
+	 * Expects a strictly positive integer value in megabytes per second,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_THROTTLED_MB_PER_SEC}.
+	 */
+	public static final String IO_MERGE_THROTTLED_MB_PER_SEC = "io.merge.throttled_mb_per_sec";
+
+	/**
+	 * The average query latency above which merges get throttled.
+	 * <p>
+	 * When strictly positive, the average latency of queries executed since the previous check
+	 * is compared to this threshold periodically, and merges are throttled while it is exceeded:
+	 * see {@link #IO_MERGE_THROTTLED_MB_PER_SEC}.
+	 * When zero, query latency does not affect merges.
+	 * <p>
+	 * Expects a positive integer value in milliseconds,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_THROTTLE_QUERY_LATENCY}.
+	 */
+	public static final String IO_MERGE_THROTTLE_QUERY_LATENCY = "io.merge.throttle_query_latency";
+
+	/**
+	 * The number of works waiting in an indexing queue above which merges get throttled.
+	 * <p>
+	 * When strictly positive, the size of the indexing queues of all indexes is checked periodically,
+	 * and merges are throttled while any queue holds more works than this threshold:
+	 * see {@link #IO_MERGE_THROTTLED_MB_PER_SEC}.
+	 * When zero, indexing queues do not affect merges.
+	 * <p>
+	 * Expects a positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE}.
+	 */
+	public static final String IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE = "io.merge.throttle_indexing_queue_size";
+
+	/**
+	 * How often to check query latency and indexing queues
+	 * against {@link #IO_MERGE_THROTTLE_QUERY_LATENCY} and {@link #IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE}.
+	 * <p>
+	 * Only relevant when one of these thresholds is strictly positive.
+	 * <p>
+	 * Expects a strictly positive integer value in milliseconds,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#IO_MERGE_THROTTLE_CHECK_INTERVAL}.
+	 */
+	public static final String IO_MERGE_THROTTLE_CHECK_INTERVAL = "io.merge.throttle_check_interval";
+
 	/**
 	 * Default values for the different settings if no values are given.
 	 */
@@ -89,5 +287,29 @@ private Defaults() {
 		public static final Version LUCENE_VERSION = Version.LATEST;
 
 		public static final MultiTenancyStrategyName MULTI_TENANCY_STRATEGY = MultiTenancyStrategyName.NONE;
+
+		public static final int QUERY_PARALLELISM = 1;
+
+		public static final int QUERY_FILTER_CACHE_MAX_SIZE = 1000;
+
+		public static final FilterCachingPolicyName QUERY_FILTER_CACHE_POLICY = FilterCachingPolicyName.USAGE_TRACKING;
+
+		public static final int QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE = 32;
+
+		public static final int IO_WRITER_TOTAL_RAM_BUFFER_SIZE = 0;
+
+		public static final int IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL = 1000;
+
+		public static final int IO_MERGE_TOTAL_THREAD_COUNT = 0;
+
+		public static final int IO_MERGE_TOTAL_MAX_MB_PER_SEC = 0;
+
+		public static final int IO_MERGE_THROTTLED_MB_PER_SEC = 5;
+
+		public static final int IO_MERGE_THROTTLE_QUERY_LATENCY = 0;
+
+		public static final int IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE = 0;
+
+		public static final int IO_MERGE_THROTTLE_CHECK_INTERVAL = 1000;
 	}
 }
@@ -12,11 +12,13 @@
 import org.hibernate.search.backend.lucene.lowlevel.directory.FileSystemAccessStrategyName;
 import org.hibernate.search.backend.lucene.lowlevel.directory.LockingStrategyName;
 import org.hibernate.search.backend.lucene.lowlevel.index.IOStrategyName;
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 import org.hibernate.search.engine.cfg.BackendSettings;
 import org.hibernate.search.engine.cfg.EngineSettings;
 
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LogByteSizeMergePolicy;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.util.InfoStream;
 
 /**
@@ -79,6 +81,71 @@ private LuceneIndexSettings() {
 	public static final String DIRECTORY_FILESYSTEM_ACCESS_STRATEGY =
 			DIRECTORY_PREFIX + DirectoryRadicals.FILESYSTEM_ACCESS_STRATEGY;
 
+	/**
+	 * The extensions of index files to preload into physical memory when they are opened.
+	 * <p>
+	 * Only available for the "local-filesystem" directory type,
+	 * and only when the filesystem access strategy relies on memory mapping
+	 * (see {@link #DIRECTORY_FILESYSTEM_ACCESS_STRATEGY}).
+	 * <p>
+	 * Preloading files makes the first search queries after a restart faster,
+	 * at the cost of slower opening of index readers.
+	 * <p>
+	 * Expects a String containing comma-separated file extensions, such as "dvd,tim",
+	 * or a {@code Collection<String>} of file extensions.
+	 * The special value "*" means every file will be preloaded.
+	 * <p>
+	 * Defaults to no value, meaning no file will be preloaded.
+	 */
+	public static final String DIRECTORY_FILESYSTEM_ACCESS_PRELOAD =
+			DIRECTORY_PREFIX + DirectoryRadicals.FILESYSTEM_ACCESS_PRELOAD;
+
+	/**
+	 * Whether newly written, small segments are cached in memory until they are committed or merged.
+	 * <p>
+	 * Only available for the "local-filesystem" directory type.
+	 * <p>
+	 * Caching small segments avoids writing them to disk then reading them back immediately
+	 * when the index is refreshed frequently.
+	 * See {@link #DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE} and {@link #DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE}
+	 * to control which segments are cached.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link Defaults#DIRECTORY_NRT_CACHING_ENABLED}.
+	 */
+	public static final String DIRECTORY_NRT_CACHING_ENABLED =
+			DIRECTORY_PREFIX + DirectoryRadicals.NRT_CACHING_ENABLED;
+
+	/**
+	 * The maximum size of merged segments that can be cached in memory, in megabytes.
+	 * <p>
+	 * Only available when {@link #DIRECTORY_NRT_CACHING_ENABLED} is {@code true}.
+	 * <p>
+	 * Expects a positive Integer value in megabytes, such as {@code 5},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE}.
+	 */
+	public static final String DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE =
+			DIRECTORY_PREFIX + DirectoryRadicals.NRT_CACHING_MAX_MERGE_SIZE;
+
+	/**
+	 * The maximum total size of segments cached in memory, in megabytes.
+	 * <p>
+	 * Only available when {@link #DIRECTORY_NRT_CACHING_ENABLED} is {@code true}.
+	 * <p>
+	 * Segments that would exceed this size are written directly to disk.
+	 * <p>
+	 * Expects a positive Integer value in megabytes, such as {@code 60},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE}.
+	 */
+	public static final String DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE =
+			DIRECTORY_PREFIX + DirectoryRadicals.NRT_CACHING_MAX_CACHED_SIZE;
+
 	/**
 	 * The prefix for I/O-related property keys.
 	 */
@@ -146,6 +213,129 @@ private LuceneIndexSettings() {
 	 */
 	public static final String IO_REFRESH_INTERVAL = IO_PREFIX + IORadicals.REFRESH_INTERVAL;
 
+	/**
+	 * Whether the index reader should be refreshed periodically in a background task,
+	 * instead of being refreshed by search queries.
+	 * <p>
+	 * Only available for the "near-real-time" I/O strategy.
+	 * <p>
+	 * When enabled, the index reader is refreshed in a background thread
+	 * every {@link #IO_REFRESH_INTERVAL refresh interval},
+	 * and search queries simply use the latest index reader without ever checking whether it is up-to-date.
+	 * This removes the cost of refreshing from search queries,
+	 * at the cost of search results being out-of-date by up to one refresh interval.
+	 * <p>
+	 * Forced refreshes (for example with the "searchable" automatic indexing synchronization strategy in the ORM mapper)
+	 * still happen immediately, though concurrent forced refreshes are merged together.
+	 * <p>
+	 * Requires a strictly positive {@link #IO_REFRESH_INTERVAL refresh interval}.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link LuceneIndexSettings.Defaults#IO_BACKGROUND_REFRESH}.
+	 */
+	public static final String IO_BACKGROUND_REFRESH = IO_PREFIX + IORadicals.BACKGROUND_REFRESH;
+
+	/**
+	 * How much time a forced commit may wait for other forced commits, so that they can be executed together.
+	 * <p>
+	 * Only available for the "near-real-time" I/O strategy.
+	 * <p>
+	 * Forced commits requested concurrently (for example with the "sync" automatic indexing synchronization strategy
+	 * in the ORM mapper, when many transactions are committed at the same time)
+	 * are always merged into a single commit whenever possible,
+	 * i.e. a forced commit requested while another commit is in progress
+	 * will be merged with other forced commits requested during that time.
+	 * This setting allows to merge even more forced commits:
+	 * <ul>
+	 *   <li>If set to 0, forced commits are executed as soon as possible.</li>
+	 *   <li>If set to 10, forced commits are executed after waiting for 10 milliseconds,
+	 *   and any forced commit requested during that time will be merged into the same commit.
+	 *   This increases the latency of each indexing plan that requires a commit,
+	 *   but may increase throughput when many such indexing plans are executed concurrently.</li>
+	 * </ul>
+	 * <p>
+	 * Expects a positive Integer value in milliseconds, such as {@code 10},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link LuceneIndexSettings.Defaults#IO_GROUP_COMMIT_WINDOW}.
+	 */
+	public static final String IO_GROUP_COMMIT_WINDOW = IO_PREFIX + IORadicals.GROUP_COMMIT_WINDOW;
+
+	/**
+	 * How long the index writer and index reader of an index may remain unused before they are closed.
+	 * <p>
+	 * Only available for the "near-real-time" I/O strategy.
+	 * <p>
+	 * When set to a strictly positive value, the index writer and index reader of each shard
+	 * are committed and closed after not being used, by either indexing or search queries, for this duration,
+	 * releasing the memory and file handles they hold.
+	 * They will be re-opened lazily on the next indexing operation or search query,
+	 * at the cost of a higher latency for that operation.
+	 * This is mostly useful for applications with many indexes that are rarely used.
+	 * <p>
+	 * When set to 0, the index writer and index reader are only closed when the application shuts down.
+	 * <p>
+	 * Expects a positive Integer value in milliseconds, such as {@code 600000},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link LuceneIndexSettings.Defaults#IO_IDLE_TIMEOUT}.
+	 */
+	public static final String IO_IDLE_TIMEOUT = IO_PREFIX + IORadicals.IDLE_TIMEOUT;
+
+	/**
+	 * The fields whose data (terms, norms and doc values) should be loaded
+	 * when new segments are created, before they become visible to search queries.
+	 * <p>
+	 * Warming up segments avoids latency spikes for the first search queries
+	 * hitting segments resulting from a refresh or a merge,
+	 * at the cost of more work when refreshing or merging.
+	 * <p>
+	 * Expects either a String containing multiple absolute field paths separated by commas (','),
+	 * or a {@code Collection<String>} containing such field paths.
+	 * <p>
+	 * Defaults to no value, meaning no field is warmed up.
+	 */
+	public static final String IO_WARMING_FIELDS = IO_PREFIX + IORadicals.WARMING_FIELDS;
+
+	/**
+	 * The segment warmers to apply to new segments before they become visible to search queries.
+	 * <p>
+	 * Expects a multi-valued reference to a bean of type
+	 * {@link org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer}.
+	 * <p>
+	 * Warmers are applied in addition to the warm-up of fields listed in {@link #IO_WARMING_FIELDS}.
+	 * <p>
+	 * Defaults to no value, meaning only the fields listed in {@link #IO_WARMING_FIELDS} are warmed up.
+	 *
+	 * @see org.hibernate.search.engine.cfg The core documentation of configuration properties,
+	 * which includes a description of the "multi-valued bean reference" properties and accepted values.
+	 */
+	public static final String IO_WARMING_SEGMENT_WARMER = IO_PREFIX + IORadicals.WARMING_SEGMENT_WARMER;
+
+	/**
+	 * Whether index changes should be written to a write-ahead log (translog)
+	 * before they are committed to the index.
+	 * <p>
+	 * Only available for the "near-real-time" I/O strategy,
+	 * with the "local-filesystem" directory type.
+	 * <p>
+	 * When enabled, each shard appends the changes applied to its index writer to a translog file,
+	 * and that file is synced to disk at the end of each batch of indexing works,
+	 * before the works of that batch are reported as complete.
+	 * When the index writer is opened, e.g. on startup after a crash,
+	 * changes logged after the last commit are applied again, then committed.
+	 * This allows setting a long {@link #IO_COMMIT_INTERVAL commit interval}
+	 * without losing uncommitted changes on crash.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed into a Boolean value.
+	 * <p>
+	 * Defaults to {@link LuceneIndexSettings.Defaults#IO_TRANSLOG_ENABLED}.
+	 */
+	public static final String IO_TRANSLOG_ENABLED = IO_PREFIX + IORadicals.TRANSLOG_ENABLED;
+
 	/**
 	 * The prefix for property keys related to the index writer.
 	 */
@@ -189,6 +379,27 @@ private LuceneIndexSettings() {
 	 */
 	public static final String IO_WRITER_INFOSTREAM = IO_WRITER_PREFIX + WriterRadicals.INFOSTREAM;
 
+	/**
+	 * The fields to sort the index by, to pass to {@link IndexWriterConfig#setIndexSort(Sort)}.
+	 * <p>
+	 * When the index is sorted, search queries whose sort is a prefix of the index sort
+	 * can stop collecting hits early in each segment,
+	 * provided they do not require an exact total hit count.
+	 * <p>
+	 * Expects either a String containing multiple field paths separated by commas (','),
+	 * or a {@code Collection<String>} containing such field paths.
+	 * Each field path can optionally be followed by {@code :asc} or {@code :desc} to set the sort order,
+	 * which defaults to ascending.
+	 * Fields must be sortable, and the index must not contain nested documents.
+	 * <p>
+	 * Changing this setting requires reindexing.
+	 * <p>
+	 * Defaults to no value, meaning the index is not sorted.
+	 *
+	 * @see IndexWriterConfig#setIndexSort(Sort)
+	 */
+	public static final String IO_WRITER_INDEX_SORT = IO_WRITER_PREFIX + WriterRadicals.INDEX_SORT;
+
 	/**
 	 * The prefix for property keys related to merge.
 	 */
@@ -344,6 +555,108 @@ private LuceneIndexSettings() {
 	 */
 	public static final String INDEXING_QUEUE_SIZE = INDEXING_PREFIX + IndexingRadicals.QUEUE_SIZE;
 
+	/**
+	 * The maximum time to wait for more works before processing a batch of works from an indexing queue.
+	 * <p>
+	 * When set to a value higher than 0, and fewer than {@link #INDEXING_LINGER_BATCH_SIZE} works are waiting
+	 * in an indexing queue, processing of the queue will be delayed in order to process more works per batch, and thus commit less often.
+	 * The actual delay adapts automatically to how long it takes to end a batch,
+	 * but will never exceed this value.
+	 * <p>
+	 * Expects a positive Integer value in milliseconds, such as {@code 10},
+	 * or a String that can be parsed into such Integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_MAX_LINGER}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_MAX_LINGER = INDEXING_PREFIX + IndexingRadicals.MAX_LINGER;
+
+	/**
+	 * The number of works in an indexing queue above which processing of the queue
+	 * will start immediately, without waiting for more works.
+	 * <p>
+	 * Only relevant when {@link #INDEXING_MAX_LINGER} is set to a value higher than 0.
+	 * <p>
+	 * Expects a strictly positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to the {@link #INDEXING_QUEUE_SIZE size of indexing queues}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_LINGER_BATCH_SIZE = INDEXING_PREFIX + IndexingRadicals.LINGER_BATCH_SIZE;
+
+	/**
+	 * What to do when an indexing work is submitted to an indexing queue that is full.
+	 * <p>
+	 * Expects a {@link IndexingQueueOverflowPolicyName} value, or a String representation of such value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_QUEUE_OVERFLOW_POLICY}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_QUEUE_OVERFLOW_POLICY = INDEXING_PREFIX + IndexingRadicals.QUEUE_OVERFLOW_POLICY;
+
+	/**
+	 * Whether indexing queues should be implemented as lock-free ring buffers.
+	 * <p>
+	 * Lock-free queues reduce contention when many threads request indexing concurrently.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_LOCK_FREE_QUEUE}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_LOCK_FREE_QUEUE = INDEXING_PREFIX + IndexingRadicals.LOCK_FREE_QUEUE;
+
+	/**
+	 * Whether works targeting the same document in the same batch should be coalesced.
+	 * <p>
+	 * When enabled, an add, update or delete work followed in the same batch by an update or delete
+	 * targeting the same document is not executed:
+	 * it is considered successful as soon as the later work is.
+	 * <p>
+	 * Expects a Boolean value such as {@code true} or {@code false},
+	 * or a string that can be parsed to such Boolean value.
+	 * <p>
+	 * Defaults to {@link Defaults#INDEXING_COALESCE_WORKS}.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Indexing",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String INDEXING_COALESCE_WORKS = INDEXING_PREFIX + IndexingRadicals.COALESCE_WORKS;
+
+	/**
+	 * The prefix for query-related property keys.
+	 */
+	public static final String QUERY_PREFIX = "query.";
+
+	/**
+	 * The maximum number of search results to keep in the result cache of each index.
+	 * <p>
+	 * When strictly positive, the results of search queries targeting this index only
+	 * (top hits, total hit count and aggregations)
+	 * are cached until the index reader they were computed from is refreshed,
+	 * and re-used when an equivalent query is executed with the same offset, limit and total hit count threshold.
+	 * When the cache is full, the least recently used results are evicted.
+	 * <p>
+	 * Expects a positive integer value,
+	 * or a string that can be parsed to such integer value.
+	 * <p>
+	 * Defaults to {@link Defaults#QUERY_RESULT_CACHE_SIZE}, i.e. the result cache is disabled.
+	 * <p>
+	 * See the reference documentation, section "Lucene backend - Query result cache",
+	 * for more information about this setting and its implications.
+	 */
+	public static final String QUERY_RESULT_CACHE_SIZE = QUERY_PREFIX + QueryRadicals.RESULT_CACHE_SIZE;
+
 	/**
 	 * Builds a configuration property key for the given shard of all indexes of the default backend,
 	 * with the given radical.
@@ -421,6 +734,10 @@ private DirectoryRadicals() {
 		public static final String ROOT = "root";
 		public static final String LOCKING_STRATEGY = "locking.strategy";
 		public static final String FILESYSTEM_ACCESS_STRATEGY = "filesystem_access.strategy";
+		public static final String FILESYSTEM_ACCESS_PRELOAD = "filesystem_access.preload";
+		public static final String NRT_CACHING_ENABLED = "nrt_caching.enabled";
+		public static final String NRT_CACHING_MAX_MERGE_SIZE = "nrt_caching.max_merge_size";
+		public static final String NRT_CACHING_MAX_CACHED_SIZE = "nrt_caching.max_cached_size";
 	}
 
 	/**
@@ -434,6 +751,12 @@ private IORadicals() {
 		public static final String STRATEGY = "strategy";
 		public static final String COMMIT_INTERVAL = "commit_interval";
 		public static final String REFRESH_INTERVAL = "refresh_interval";
+		public static final String BACKGROUND_REFRESH = "background_refresh";
+		public static final String GROUP_COMMIT_WINDOW = "group_commit_window";
+		public static final String IDLE_TIMEOUT = "idle_timeout";
+		public static final String WARMING_FIELDS = "warming.fields";
+		public static final String WARMING_SEGMENT_WARMER = "warming.segment_warmer";
+		public static final String TRANSLOG_ENABLED = "translog.enabled";
 	}
 
 	/**
@@ -447,6 +770,7 @@ private WriterRadicals() {
 		public static final String MAX_BUFFERED_DOCS = "max_buffered_docs";
 		public static final String RAM_BUFFER_SIZE = "ram_buffer_size";
 		public static final String INFOSTREAM = "infostream";
+		public static final String INDEX_SORT = "index_sort";
 
 	}
 
@@ -490,6 +814,22 @@ private IndexingRadicals() {
 
 		public static final String QUEUE_COUNT = "queue_count";
 		public static final String QUEUE_SIZE = "queue_size";
+		public static final String MAX_LINGER = "max_linger";
+		public static final String LINGER_BATCH_SIZE = "linger_batch_size";
+		public static final String QUEUE_OVERFLOW_POLICY = "queue_overflow_policy";
+		public static final String LOCK_FREE_QUEUE = "lock_free_queue";
+		public static final String COALESCE_WORKS = "coalesce_works";
+	}
+
+	/**
+	 * Configuration property keys for queries, without the {@link #QUERY_PREFIX prefix}.
+	 */
+	public static final class QueryRadicals {
+
+		private QueryRadicals() {
+		}
+
+		public static final String RESULT_CACHE_SIZE = "result_cache_size";
 	}
 
 	/**
@@ -504,11 +844,24 @@ private Defaults() {
 		public static final String DIRECTORY_ROOT = ".";
 		public static final FileSystemAccessStrategyName DIRECTORY_FILESYSTEM_ACCESS_STRATEGY =
 				FileSystemAccessStrategyName.AUTO;
+		public static final boolean DIRECTORY_NRT_CACHING_ENABLED = false;
+		public static final int DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE = 5;
+		public static final int DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE = 60;
 		public static final String SHARDING_STRATEGY = "none";
 		public static final IOStrategyName IO_STRATEGY = IOStrategyName.NEAR_REAL_TIME;
 		public static final int IO_COMMIT_INTERVAL = 1000;
 		public static final int IO_REFRESH_INTERVAL = 0;
+		public static final boolean IO_BACKGROUND_REFRESH = false;
+		public static final int IO_GROUP_COMMIT_WINDOW = 0;
+		public static final int IO_IDLE_TIMEOUT = 0;
+		public static final boolean IO_TRANSLOG_ENABLED = false;
 		public static final int INDEXING_QUEUE_COUNT = 10;
 		public static final int INDEXING_QUEUE_SIZE = 1000;
+		public static final int INDEXING_MAX_LINGER = 0;
+		public static final IndexingQueueOverflowPolicyName INDEXING_QUEUE_OVERFLOW_POLICY =
+				IndexingQueueOverflowPolicyName.BLOCK;
+		public static final boolean INDEXING_LOCK_FREE_QUEUE = false;
+		public static final boolean INDEXING_COALESCE_WORKS = false;
+		public static final int QUERY_RESULT_CACHE_SIZE = 0;
 	}
 }
@@ -44,7 +44,8 @@ void checkNoValueYetForSingleValued(String absoluteFieldPath) {
 		}
 	}
 
-	Document finalizeDocument(MultiTenancyStrategy multiTenancyStrategy, String tenantId, String routingKey) {
+	Document finalizeDocument(MultiTenancyStrategy multiTenancyStrategy, String tenantId, String routingKey,
+			String rootId) {
 		for ( Map.Entry<String, EncounteredFieldStatus> entry : fieldStatus.entrySet() ) {
 			EncounteredFieldStatus status = entry.getValue();
 			if ( EncounteredFieldStatus.ENCOUNTERED_AND_NAME_INDEXED.equals( status ) ) {
@@ -62,7 +63,7 @@ Document finalizeDocument(MultiTenancyStrategy multiTenancyStrategy, String tena
 			) );
 		}
 
-		multiTenancyStrategy.contributeToIndexedDocument( document, tenantId );
+		multiTenancyStrategy.contributeToIndexedDocument( document, tenantId, rootId );
 
 		return document;
 	}
@@ -28,7 +28,7 @@ void contribute(MultiTenancyStrategy multiTenancyStrategy, String tenantId, Stri
 			String rootId, List<Document> nestedDocuments) {
 
 		// We own the document content, so we finalize it ourselves.
-		Document document = documentContent.finalizeDocument( multiTenancyStrategy, tenantId, routingKey );
+		Document document = documentContent.finalizeDocument( multiTenancyStrategy, tenantId, routingKey, rootId );
 		document.add( MetadataFields.searchableMetadataField( MetadataFields.typeFieldName(), MetadataFields.TYPE_CHILD_DOCUMENT ) );
 		document.add( MetadataFields.searchableMetadataField( MetadataFields.idFieldName(), rootId ) );
 		document.add( MetadataFields.searchableMetadataField( MetadataFields.nestedDocumentPathFieldName(), schemaNode.absolutePath() ) );
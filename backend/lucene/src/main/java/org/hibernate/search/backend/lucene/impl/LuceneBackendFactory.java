@@ -16,8 +16,15 @@
 import org.hibernate.search.backend.lucene.analysis.model.dsl.impl.LuceneAnalysisConfigurationContextImpl;
 import org.hibernate.search.backend.lucene.analysis.model.impl.LuceneAnalysisDefinitionRegistry;
 import org.hibernate.search.backend.lucene.analysis.model.impl.LuceneDefaultAnalysisConfigurer;
+import org.hibernate.search.backend.lucene.cache.FilterCachingPolicyName;
+import org.hibernate.search.backend.lucene.cache.impl.BitSetFilterCache;
+import org.hibernate.search.backend.lucene.cache.impl.LuceneFilterCache;
+import org.hibernate.search.backend.lucene.cache.impl.LuceneFilterCachingPolicy;
 import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
 import org.hibernate.search.backend.lucene.multitenancy.impl.DiscriminatorMultiTenancyStrategy;
 import org.hibernate.search.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
@@ -30,6 +37,7 @@
 import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
 import org.hibernate.search.engine.cfg.spi.OptionalConfigurationProperty;
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
 import org.hibernate.search.engine.environment.bean.BeanHolder;
 import org.hibernate.search.engine.environment.bean.BeanReference;
 import org.hibernate.search.engine.environment.bean.BeanResolver;
@@ -62,6 +70,77 @@ public class LuceneBackendFactory implements BackendFactory {
 					.asBeanReference( LuceneAnalysisConfigurer.class )
 					.build();
 
+	private static final ConfigurationProperty<Integer> QUERY_FILTER_CACHE_MAX_SIZE =
+			ConfigurationProperty.forKey( LuceneBackendSettings.QUERY_FILTER_CACHE_MAX_SIZE )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.QUERY_FILTER_CACHE_MAX_SIZE )
+					.build();
+
+	private static final OptionalConfigurationProperty<Integer> QUERY_FILTER_CACHE_MAX_RAM_SIZE =
+			ConfigurationProperty.forKey( LuceneBackendSettings.QUERY_FILTER_CACHE_MAX_RAM_SIZE )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<FilterCachingPolicyName> QUERY_FILTER_CACHE_POLICY =
+			ConfigurationProperty.forKey( LuceneBackendSettings.QUERY_FILTER_CACHE_POLICY )
+					.as( FilterCachingPolicyName.class, FilterCachingPolicyName::of )
+					.withDefault( LuceneBackendSettings.Defaults.QUERY_FILTER_CACHE_POLICY )
+					.build();
+
+	private static final ConfigurationProperty<Integer> QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE =
+			ConfigurationProperty.forKey( LuceneBackendSettings.QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_WRITER_TOTAL_RAM_BUFFER_SIZE =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_WRITER_TOTAL_RAM_BUFFER_SIZE )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_WRITER_TOTAL_RAM_BUFFER_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_TOTAL_THREAD_COUNT =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_TOTAL_THREAD_COUNT )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_TOTAL_THREAD_COUNT )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_TOTAL_MAX_MB_PER_SEC =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_TOTAL_MAX_MB_PER_SEC )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_TOTAL_MAX_MB_PER_SEC )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_THROTTLED_MB_PER_SEC =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_THROTTLED_MB_PER_SEC )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_THROTTLED_MB_PER_SEC )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_THROTTLE_QUERY_LATENCY =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_THROTTLE_QUERY_LATENCY )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_THROTTLE_QUERY_LATENCY )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IO_MERGE_THROTTLE_CHECK_INTERVAL =
+			ConfigurationProperty.forKey( LuceneBackendSettings.IO_MERGE_THROTTLE_CHECK_INTERVAL )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.IO_MERGE_THROTTLE_CHECK_INTERVAL )
+					.build();
+
 	@Override
 	public BackendImplementor create(EventContext eventContext, BackendBuildContext buildContext,
 			ConfigurationPropertySource propertySource) {
@@ -78,9 +157,19 @@ public BackendImplementor create(EventContext eventContext, BackendBuildContext
 					buildContext, propertySource, luceneVersion
 			);
 
+			LuceneFilterCache filterCache = createFilterCacheOrNull( propertySource );
+			BitSetFilterCache bitSetFilterCache = createBitSetFilterCacheOrNull( propertySource );
+			IndexWriterMemoryController writerMemoryController = createWriterMemoryControllerOrNull( propertySource );
+			IndexMergeController mergeController = createMergeController( propertySource, buildContext.timingSource() );
+
 			return new LuceneBackendImpl(
 					eventContext,
 					backendThreads,
+					filterCache,
+					bitSetFilterCache,
+					new OrdinalMapCache(),
+					writerMemoryController,
+					mergeController,
 					new LuceneWorkFactoryImpl( multiTenancyStrategy ),
 					analysisDefinitionRegistry,
 					multiTenancyStrategy,
@@ -116,6 +205,61 @@ private Version getLuceneVersion(EventContext backendContext, ConfigurationPrope
 		return luceneVersion;
 	}
 
+	private LuceneFilterCache createFilterCacheOrNull(ConfigurationPropertySource propertySource) {
+		int maxSize = QUERY_FILTER_CACHE_MAX_SIZE.get( propertySource );
+		if ( maxSize <= 0 ) {
+			return null;
+		}
+		// Same default as Lucene's default query cache
+		long maxRamBytesUsed = QUERY_FILTER_CACHE_MAX_RAM_SIZE.get( propertySource )
+				.map( megabytes -> megabytes * 1024L * 1024L )
+				.orElseGet( () -> Math.min( Runtime.getRuntime().maxMemory() / 20, 32L * 1024L * 1024L ) );
+		LuceneFilterCachingPolicy policy = LuceneFilterCachingPolicy.create(
+				QUERY_FILTER_CACHE_POLICY.get( propertySource ) );
+		return new LuceneFilterCache( maxSize, maxRamBytesUsed, policy );
+	}
+
+	private BitSetFilterCache createBitSetFilterCacheOrNull(ConfigurationPropertySource propertySource) {
+		int maxRamMegabytes = QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE.get( propertySource );
+		return maxRamMegabytes > 0 ? new BitSetFilterCache( maxRamMegabytes * 1024L * 1024L ) : null;
+	}
+
+	private IndexWriterMemoryController createWriterMemoryControllerOrNull(
+			ConfigurationPropertySource propertySource) {
+		int maxRamMegabytes = IO_WRITER_TOTAL_RAM_BUFFER_SIZE.get( propertySource );
+		if ( maxRamMegabytes <= 0 ) {
+			return null;
+		}
+		int checkInterval = IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL.get( propertySource );
+		if ( checkInterval <= 0 ) {
+			throw log.invalidIndexWriterMemoryCheckInterval( checkInterval );
+		}
+		return new IndexWriterMemoryController( maxRamMegabytes * 1024L * 1024L, checkInterval );
+	}
+
+	private IndexMergeController createMergeController(ConfigurationPropertySource propertySource,
+			TimingSource timingSource) {
+		int queryLatencyThreshold = IO_MERGE_THROTTLE_QUERY_LATENCY.get( propertySource );
+		int indexingQueueSizeThreshold = IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE.get( propertySource );
+		int throttledMBPerSec = IO_MERGE_THROTTLED_MB_PER_SEC.get( propertySource );
+		int checkInterval = IO_MERGE_THROTTLE_CHECK_INTERVAL.get( propertySource );
+		if ( queryLatencyThreshold > 0 || indexingQueueSizeThreshold > 0 ) {
+			if ( throttledMBPerSec <= 0 ) {
+				throw log.invalidMergeThrottledRate( throttledMBPerSec );
+			}
+			if ( checkInterval <= 0 ) {
+				throw log.invalidMergeThrottleCheckInterval( checkInterval );
+			}
+		}
+		return new IndexMergeController(
+				IO_MERGE_TOTAL_THREAD_COUNT.get( propertySource ),
+				IO_MERGE_TOTAL_MAX_MB_PER_SEC.get( propertySource ),
+				throttledMBPerSec,
+				queryLatencyThreshold, indexingQueueSizeThreshold, checkInterval,
+				timingSource
+		);
+	}
+
 	private MultiTenancyStrategy getMultiTenancyStrategy(ConfigurationPropertySource propertySource) {
 		MultiTenancyStrategyName multiTenancyStrategyName = MULTI_TENANCY_STRATEGY.get( propertySource );
 
@@ -12,10 +12,17 @@
 
 import org.hibernate.search.backend.lucene.LuceneBackend;
 import org.hibernate.search.backend.lucene.analysis.model.impl.LuceneAnalysisDefinitionRegistry;
+import org.hibernate.search.backend.lucene.cache.LuceneFilterCacheStatistics;
+import org.hibernate.search.backend.lucene.cache.impl.BitSetFilterCache;
+import org.hibernate.search.backend.lucene.cache.impl.LuceneFilterCache;
 import org.hibernate.search.backend.lucene.document.model.dsl.impl.LuceneIndexSchemaRootNodeBuilder;
 import org.hibernate.search.backend.lucene.index.impl.IndexManagerBackendContext;
 import org.hibernate.search.backend.lucene.index.impl.LuceneIndexManagerBuilder;
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
+import org.hibernate.search.backend.lucene.lowlevel.index.LuceneMergeStatistics;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.backend.lucene.orchestration.impl.LuceneSyncWorkOrchestratorImpl;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
@@ -44,6 +51,11 @@ public class LuceneBackendImpl implements BackendImplementor, LuceneBackend {
 	private final EventContext eventContext;
 
 	private final BackendThreads threads;
+	private final LuceneFilterCache filterCache;
+	private final BitSetFilterCache bitSetFilterCache;
+	private final OrdinalMapCache ordinalMapCache;
+	private final IndexWriterMemoryController writerMemoryController;
+	private final IndexMergeController mergeController;
 
 	private final LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry;
 
@@ -54,6 +66,11 @@ public class LuceneBackendImpl implements BackendImplementor, LuceneBackend {
 
 	LuceneBackendImpl(EventContext eventContext,
 			BackendThreads threads,
+			LuceneFilterCache filterCache,
+			BitSetFilterCache bitSetFilterCache,
+			OrdinalMapCache ordinalMapCache,
+			IndexWriterMemoryController writerMemoryController,
+			IndexMergeController mergeController,
 			LuceneWorkFactory workFactory,
 			LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry,
 			MultiTenancyStrategy multiTenancyStrategy,
@@ -61,18 +78,26 @@ public class LuceneBackendImpl implements BackendImplementor, LuceneBackend {
 			FailureHandler failureHandler) {
 		this.eventContext = eventContext;
 		this.threads = threads;
+		this.filterCache = filterCache;
+		this.bitSetFilterCache = bitSetFilterCache;
+		this.ordinalMapCache = ordinalMapCache;
+		this.writerMemoryController = writerMemoryController;
+		this.mergeController = mergeController;
 
 		this.analysisDefinitionRegistry = analysisDefinitionRegistry;
 		Similarity similarity = analysisDefinitionRegistry.getSimilarity();
 
 		this.readOrchestrator = new LuceneSyncWorkOrchestratorImpl(
-				"Lucene read work orchestrator - " + eventContext.render(), similarity
+				"Lucene read work orchestrator - " + eventContext.render(), similarity, threads, filterCache,
+				mergeController
 		);
 		this.multiTenancyStrategy = multiTenancyStrategy;
 
 		this.indexManagerBackendContext = new IndexManagerBackendContext(
 				this, eventContext, threads, similarity,
-				workFactory, multiTenancyStrategy,
+				workFactory, multiTenancyStrategy, bitSetFilterCache, ordinalMapCache,
+				filterCache != null && filterCache.needsFilterClauseMarking(),
+				writerMemoryController, mergeController,
 				timingSource, analysisDefinitionRegistry,
 				failureHandler,
 				readOrchestrator
@@ -87,6 +112,10 @@ public String toString() {
 	@Override
 	public void start(BackendStartContext context) {
 		threads.onStart( context.configurationPropertySource(), context.threadPoolProvider() );
+		if ( writerMemoryController != null ) {
+			writerMemoryController.start( threads.getWriteExecutor() );
+		}
+		mergeController.start( threads.getWriteExecutor() );
 	}
 
 	@Override
@@ -99,7 +128,12 @@ public CompletableFuture<?> preStop() {
 	public void stop() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
 			closer.push( LuceneSyncWorkOrchestratorImpl::stop, readOrchestrator );
+			closer.push( IndexWriterMemoryController::stop, writerMemoryController );
+			closer.push( IndexMergeController::stop, mergeController );
 			closer.push( BackendThreads::onStop, threads );
+			closer.push( LuceneFilterCache::clear, filterCache );
+			closer.push( BitSetFilterCache::clear, bitSetFilterCache );
+			closer.push( OrdinalMapCache::clear, ordinalMapCache );
 		}
 	}
 
@@ -129,6 +163,16 @@ public Optional<Analyzer> normalizer(String name) {
 		return Optional.ofNullable( analysisDefinitionRegistry.getNormalizerDefinition( name ) );
 	}
 
+	@Override
+	public Optional<LuceneFilterCacheStatistics> filterCacheStatistics() {
+		return Optional.ofNullable( filterCache );
+	}
+
+	@Override
+	public LuceneMergeStatistics mergeStatistics() {
+		return mergeController;
+	}
+
 	@Override
 	public IndexManagerBuilder createIndexManagerBuilder(
 			String indexName, String mappedTypeName,
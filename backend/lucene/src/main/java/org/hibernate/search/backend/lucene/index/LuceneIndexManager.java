@@ -6,9 +6,11 @@
  */
 package org.hibernate.search.backend.lucene.index;
 
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
 import org.hibernate.search.backend.lucene.LuceneBackend;
+import org.hibernate.search.backend.lucene.cache.LuceneCacheStatistics;
 import org.hibernate.search.engine.backend.index.IndexManager;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -42,4 +44,20 @@ public interface LuceneIndexManager extends IndexManager {
 	 */
 	CompletionStage<Long> computeSizeInBytesAsync();
 
+	/**
+	 * @return Statistics about the query result cache of this index,
+	 * or an empty optional if the query result cache is disabled.
+	 * Results removed because the index was refreshed are not counted as evictions.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings#QUERY_RESULT_CACHE_SIZE
+	 */
+	Optional<LuceneCacheStatistics> queryResultCacheStatistics();
+
+	/**
+	 * @return The amount of memory currently used by the indexing buffers of the index writers of this index,
+	 * i.e. documents that were indexed but not yet flushed to a new segment, in bytes.
+	 * Index writers that are not currently open do not use any memory.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#IO_WRITER_TOTAL_RAM_BUFFER_SIZE
+	 */
+	long indexingBufferRamBytesUsed();
+
 }
@@ -6,18 +6,29 @@
  */
 package org.hibernate.search.backend.lucene.index.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.hibernate.search.backend.lucene.LuceneBackend;
 import org.hibernate.search.backend.lucene.analysis.model.impl.LuceneAnalysisDefinitionRegistry;
+import org.hibernate.search.backend.lucene.cache.impl.BitSetFilterCache;
 import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
 import org.hibernate.search.backend.lucene.document.impl.LuceneIndexEntryFactory;
 import org.hibernate.search.backend.lucene.document.model.impl.LuceneIndexModel;
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
 import org.hibernate.search.backend.lucene.lowlevel.index.IOStrategyName;
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.DebugIOStrategy;
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.IOStrategy;
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.IndexAccessorImpl;
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.NearRealTimeIOStrategy;
+import org.hibernate.search.backend.lucene.lowlevel.reader.impl.FieldDataSegmentWarmer;
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.HibernateSearchIndexReaderWarmer;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterConfigSource;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.backend.lucene.orchestration.impl.LuceneBatchedWorkProcessor;
 import org.hibernate.search.backend.lucene.orchestration.impl.LuceneParallelWorkOrchestratorImpl;
@@ -29,6 +40,7 @@
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchContext;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchIndexesContext;
 import org.hibernate.search.backend.lucene.search.projection.impl.LuceneSearchProjection;
+import org.hibernate.search.backend.lucene.search.query.impl.LuceneQueryResultCache;
 import org.hibernate.search.backend.lucene.search.query.impl.LuceneSearchQueryBuilder;
 import org.hibernate.search.backend.lucene.search.query.impl.SearchBackendContext;
 import org.hibernate.search.backend.lucene.work.execution.impl.LuceneIndexIndexer;
@@ -54,6 +66,7 @@
 import org.hibernate.search.util.common.impl.SuppressingCloser;
 import org.hibernate.search.util.common.reporting.EventContext;
 
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.similarities.Similarity;
 
 public class IndexManagerBackendContext implements WorkExecutionBackendContext, SearchBackendContext {
@@ -64,6 +77,30 @@ public class IndexManagerBackendContext implements WorkExecutionBackendContext,
 					.withDefault( LuceneIndexSettings.Defaults.IO_STRATEGY )
 					.build();
 
+	private static final ConfigurationProperty<List<String>> WARMING_FIELDS =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_WARMING_FIELDS )
+					.asString().multivalued()
+					.withDefault( Collections.emptyList() )
+					.build();
+
+	private static final ConfigurationProperty<List<String>> INDEX_SORT =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_WRITER_INDEX_SORT )
+					.asString().multivalued()
+					.withDefault( Collections.emptyList() )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> COALESCE_WORKS =
+			ConfigurationProperty.forKey( LuceneIndexSettings.INDEXING_COALESCE_WORKS )
+					.asBoolean()
+					.withDefault( LuceneIndexSettings.Defaults.INDEXING_COALESCE_WORKS )
+					.build();
+
+	private static final ConfigurationProperty<Integer> QUERY_RESULT_CACHE_SIZE =
+			ConfigurationProperty.forKey( LuceneIndexSettings.QUERY_RESULT_CACHE_SIZE )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.QUERY_RESULT_CACHE_SIZE )
+					.build();
+
 	private final LuceneBackend backendAPI;
 	private final EventContext eventContext;
 
@@ -71,6 +108,11 @@ public class IndexManagerBackendContext implements WorkExecutionBackendContext,
 	private final Similarity similarity;
 	private final LuceneWorkFactory workFactory;
 	private final MultiTenancyStrategy multiTenancyStrategy;
+	private final BitSetFilterCache bitSetFilterCacheOrNull;
+	private final OrdinalMapCache ordinalMapCache;
+	private final boolean filterClauseMarking;
+	private final IndexWriterMemoryController writerMemoryControllerOrNull;
+	private final IndexMergeController mergeController;
 	private final TimingSource timingSource;
 	private final LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry;
 	private final FailureHandler failureHandler;
@@ -82,6 +124,11 @@ public IndexManagerBackendContext(LuceneBackend backendAPI,
 			Similarity similarity,
 			LuceneWorkFactory workFactory,
 			MultiTenancyStrategy multiTenancyStrategy,
+			BitSetFilterCache bitSetFilterCacheOrNull,
+			OrdinalMapCache ordinalMapCache,
+			boolean filterClauseMarking,
+			IndexWriterMemoryController writerMemoryControllerOrNull,
+			IndexMergeController mergeController,
 			TimingSource timingSource,
 			LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry,
 			FailureHandler failureHandler,
@@ -91,6 +138,11 @@ public IndexManagerBackendContext(LuceneBackend backendAPI,
 		this.threads = threads;
 		this.similarity = similarity;
 		this.multiTenancyStrategy = multiTenancyStrategy;
+		this.bitSetFilterCacheOrNull = bitSetFilterCacheOrNull;
+		this.ordinalMapCache = ordinalMapCache;
+		this.filterClauseMarking = filterClauseMarking;
+		this.writerMemoryControllerOrNull = writerMemoryControllerOrNull;
+		this.mergeController = mergeController;
 		this.timingSource = timingSource;
 		this.analysisDefinitionRegistry = analysisDefinitionRegistry;
 		this.workFactory = workFactory;
@@ -149,8 +201,8 @@ public IndexWorkspace createWorkspace(WorkExecutionIndexManagerContext indexMana
 	public LuceneSearchContext createSearchContext(BackendMappingContext mappingContext,
 			LuceneSearchIndexesContext indexes) {
 		return new LuceneSearchContext(
-				mappingContext, analysisDefinitionRegistry, multiTenancyStrategy,
-				timingSource,
+				mappingContext, analysisDefinitionRegistry, multiTenancyStrategy, bitSetFilterCacheOrNull,
+				ordinalMapCache, filterClauseMarking, timingSource,
 				indexes
 		);
 	}
@@ -188,25 +240,36 @@ LuceneIndexEntryFactory createLuceneIndexEntryFactory(LuceneIndexModel model) {
 	IOStrategy createIOStrategy(ConfigurationPropertySource propertySource) {
 		switch ( IO_STRATEGY.get( propertySource ) ) {
 			case DEBUG:
-				return DebugIOStrategy.create( threads, failureHandler );
+				return DebugIOStrategy.create( threads, failureHandler, writerMemoryControllerOrNull,
+						mergeController );
 			case NEAR_REAL_TIME:
 			default:
-				return NearRealTimeIOStrategy.create( propertySource, timingSource, threads, failureHandler );
+				return NearRealTimeIOStrategy.create( propertySource, timingSource, threads, failureHandler,
+						writerMemoryControllerOrNull, mergeController );
 		}
 	}
 
+	LuceneQueryResultCache createQueryResultCacheOrNull(ConfigurationPropertySource propertySource) {
+		int maxSize = QUERY_RESULT_CACHE_SIZE.get( propertySource );
+		return maxSize > 0 ? new LuceneQueryResultCache( maxSize ) : null;
+	}
+
 	LuceneIndexSchemaManager createSchemaManager(SchemaManagementIndexManagerContext context) {
 		return new LuceneIndexSchemaManager( workFactory, context );
 	}
 
 	Shard createShard(LuceneIndexModel model, EventContext shardEventContext, DirectoryHolder directoryHolder,
-			IOStrategy ioStrategy, ConfigurationPropertySource propertySource) {
+			IOStrategy ioStrategy, List<? extends SegmentWarmer> segmentWarmers,
+			ConfigurationPropertySource propertySource) {
 		LuceneParallelWorkOrchestratorImpl managementOrchestrator;
 		LuceneSerialWorkOrchestratorImpl indexingOrchestrator;
 		IndexAccessorImpl indexAccessor = null;
 		String indexName = model.hibernateSearchName();
+		Sort indexSort = IndexSorts.createOrNull( model, INDEX_SORT.get( propertySource ), model.getEventContext() );
+		HibernateSearchIndexReaderWarmer readerWarmer = createIndexReaderWarmerOrNull( shardEventContext,
+				segmentWarmers, propertySource );
 		IndexWriterConfigSource writerConfigSource = IndexWriterConfigSource.create(
-				similarity, model.getIndexingAnalyzer(), propertySource, shardEventContext
+				similarity, model.getIndexingAnalyzer(), indexSort, readerWarmer, propertySource, shardEventContext
 		);
 
 		try {
@@ -214,7 +277,8 @@ Shard createShard(LuceneIndexModel model, EventContext shardEventContext, Direct
 					indexName, shardEventContext, directoryHolder, writerConfigSource
 			);
 			managementOrchestrator = createIndexManagementOrchestrator( shardEventContext, indexAccessor );
-			indexingOrchestrator = createIndexingOrchestrator( shardEventContext, indexAccessor );
+			indexingOrchestrator = createIndexingOrchestrator( shardEventContext, indexAccessor,
+					COALESCE_WORKS.get( propertySource ) );
 
 			Shard shard = new Shard(
 					shardEventContext, indexAccessor,
@@ -230,6 +294,17 @@ Shard createShard(LuceneIndexModel model, EventContext shardEventContext, Direct
 		}
 	}
 
+	private HibernateSearchIndexReaderWarmer createIndexReaderWarmerOrNull(EventContext shardEventContext,
+			List<? extends SegmentWarmer> segmentWarmers, ConfigurationPropertySource propertySource) {
+		List<SegmentWarmer> allWarmers = new ArrayList<>();
+		List<String> warmedFields = WARMING_FIELDS.get( propertySource );
+		if ( !warmedFields.isEmpty() ) {
+			allWarmers.add( new FieldDataSegmentWarmer( warmedFields ) );
+		}
+		allWarmers.addAll( segmentWarmers );
+		return allWarmers.isEmpty() ? null : new HibernateSearchIndexReaderWarmer( allWarmers, shardEventContext );
+	}
+
 	private LuceneParallelWorkOrchestratorImpl createIndexManagementOrchestrator(EventContext eventContext,
 			IndexAccessorImpl indexAccessor) {
 		return new LuceneParallelWorkOrchestratorImpl(
@@ -241,14 +316,15 @@ private LuceneParallelWorkOrchestratorImpl createIndexManagementOrchestrator(Eve
 	}
 
 	private LuceneSerialWorkOrchestratorImpl createIndexingOrchestrator(EventContext eventContext,
-			IndexAccessorImpl indexAccessor) {
+			IndexAccessorImpl indexAccessor, boolean coalesceWorks) {
 		return new LuceneSerialWorkOrchestratorImpl(
 				"Lucene indexing orchestrator for " + eventContext.render(),
-				new LuceneBatchedWorkProcessor(
-						eventContext, indexAccessor
+				() -> new LuceneBatchedWorkProcessor(
+						eventContext, indexAccessor, coalesceWorks
 				),
 				threads,
-				failureHandler
+				failureHandler,
+				mergeController
 		);
 	}
 }
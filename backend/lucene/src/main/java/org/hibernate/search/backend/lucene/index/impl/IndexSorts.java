@@ -0,0 +1,117 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.index.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import org.hibernate.search.backend.lucene.document.model.impl.AbstractLuceneIndexSchemaFieldNode;
+import org.hibernate.search.backend.lucene.document.model.impl.LuceneIndexModel;
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.types.codec.impl.AbstractLuceneNumericFieldCodec;
+import org.hibernate.search.backend.lucene.types.codec.impl.LuceneFieldCodec;
+import org.hibernate.search.backend.lucene.types.codec.impl.LuceneStringFieldCodec;
+import org.hibernate.search.backend.lucene.types.lowlevel.impl.LuceneNumericDomain;
+import org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl.LuceneNumericFieldComparatorSource;
+import org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl.LuceneTextFieldComparatorSource;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedSetSelector;
+
+/**
+ * Creates the index sort from the configuration.
+ * <p>
+ * Index sort fields must be exactly equal to the sort fields used in search queries
+ * for Lucene to take advantage of index sorting,
+ * so they are created using the same defaults as search sorts (see {@code LuceneStandardFieldSort}):
+ * multi-valued fields are sorted by their minimum value in ascending order and maximum value in descending order,
+ * and documents with a missing value are sorted last.
+ */
+final class IndexSorts {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final char ORDER_SEPARATOR = ':';
+	private static final String ORDER_ASC = "asc";
+	private static final String ORDER_DESC = "desc";
+
+	private IndexSorts() {
+	}
+
+	/**
+	 * @param model The index model.
+	 * @param elements The index sort elements, as defined in
+	 * {@link org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings#IO_WRITER_INDEX_SORT}.
+	 * @param eventContext The event context of the index.
+	 * @return The index sort, or {@code null} if the index should not be sorted.
+	 */
+	static Sort createOrNull(LuceneIndexModel model, List<String> elements, EventContext eventContext) {
+		if ( elements.isEmpty() ) {
+			return null;
+		}
+		if ( model.hasNestedDocuments() ) {
+			// Lucene does not preserve document blocks when sorting the index.
+			throw log.indexSortWithNestedDocuments( eventContext );
+		}
+		SortField[] sortFields = new SortField[elements.size()];
+		for ( int i = 0; i < sortFields.length; i++ ) {
+			sortFields[i] = createSortField( model, elements.get( i ), eventContext );
+		}
+		return new Sort( sortFields );
+	}
+
+	private static SortField createSortField(LuceneIndexModel model, String element, EventContext eventContext) {
+		String absoluteFieldPath = element.trim();
+		boolean reversed = false;
+		int separatorIndex = absoluteFieldPath.lastIndexOf( ORDER_SEPARATOR );
+		if ( separatorIndex >= 0 ) {
+			String order = absoluteFieldPath.substring( separatorIndex + 1 ).trim();
+			absoluteFieldPath = absoluteFieldPath.substring( 0, separatorIndex ).trim();
+			if ( ORDER_DESC.equalsIgnoreCase( order ) ) {
+				reversed = true;
+			}
+			else if ( !ORDER_ASC.equalsIgnoreCase( order ) ) {
+				throw log.invalidIndexSortElement( element, eventContext );
+			}
+		}
+		if ( absoluteFieldPath.isEmpty() ) {
+			throw log.invalidIndexSortElement( element, eventContext );
+		}
+
+		AbstractLuceneIndexSchemaFieldNode field = model.fieldOrNull( absoluteFieldPath );
+		if ( field == null ) {
+			throw log.unknownFieldForIndexSort( absoluteFieldPath, eventContext );
+		}
+		if ( !field.isValueField() || !field.toValueField().type().sortable() ) {
+			throw log.unsupportedFieldForIndexSort( absoluteFieldPath, eventContext );
+		}
+
+		LuceneFieldCodec<?> codec = field.toValueField().type().codec();
+		if ( codec instanceof AbstractLuceneNumericFieldCodec ) {
+			return createNumericSortField( absoluteFieldPath,
+					( (AbstractLuceneNumericFieldCodec<?, ?>) codec ).getDomain(), reversed );
+		}
+		else if ( codec instanceof LuceneStringFieldCodec ) {
+			return LuceneTextFieldComparatorSource.createNativeSortField( absoluteFieldPath, reversed,
+					reversed ? SortedSetSelector.Type.MAX : SortedSetSelector.Type.MIN, true );
+		}
+		else {
+			throw log.unsupportedFieldForIndexSort( absoluteFieldPath, eventContext );
+		}
+	}
+
+	private static <E extends Number> SortField createNumericSortField(String absoluteFieldPath,
+			LuceneNumericDomain<E> domain, boolean reversed) {
+		return LuceneNumericFieldComparatorSource.createNativeSortField( absoluteFieldPath, domain, reversed,
+				reversed ? SortedNumericSelector.Type.MAX : SortedNumericSelector.Type.MIN,
+				reversed ? domain.getMinValue() : domain.getMaxValue() );
+	}
+}
@@ -9,15 +9,18 @@
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import org.hibernate.search.backend.lucene.LuceneBackend;
+import org.hibernate.search.backend.lucene.cache.LuceneCacheStatistics;
 import org.hibernate.search.backend.lucene.document.impl.LuceneIndexEntryFactory;
 import org.hibernate.search.backend.lucene.index.LuceneIndexManager;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.DirectoryReaderCollector;
 import org.hibernate.search.backend.lucene.schema.management.impl.LuceneIndexSchemaManager;
 import org.hibernate.search.backend.lucene.scope.model.impl.LuceneScopeIndexManagerContext;
+import org.hibernate.search.backend.lucene.search.query.impl.LuceneQueryResultCache;
 import org.hibernate.search.engine.backend.common.spi.EntityReferenceFactory;
 import org.hibernate.search.engine.backend.metamodel.IndexDescriptor;
 import org.hibernate.search.engine.backend.schema.management.spi.IndexSchemaManager;
@@ -60,6 +63,8 @@
 
 	private final LuceneIndexSchemaManager schemaManager;
 
+	private LuceneQueryResultCache queryResultCache;
+
 	LuceneIndexManagerImpl(IndexManagerBackendContext backendContext,
 			String indexName, LuceneIndexModel model, LuceneIndexEntryFactory indexEntryFactory) {
 		this.backendContext = backendContext;
@@ -84,6 +89,7 @@ public String toString() {
 	@Override
 	public void start(IndexManagerStartContext context) {
 		shardHolder.start( context );
+		queryResultCache = backendContext.createQueryResultCacheOrNull( context.configurationPropertySource() );
 	}
 
 	@Override
@@ -95,6 +101,7 @@ public CompletableFuture<?> preStop() {
 	public void stop() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
 			closer.push( ShardHolder::stop, shardHolder );
+			closer.push( LuceneQueryResultCache::clear, queryResultCache );
 			closer.push( LuceneIndexModel::close, model );
 		}
 	}
@@ -162,6 +169,21 @@ public ToDocumentIdentifierValueConverter<?> idDslConverter() {
 		return model.idDslConverter();
 	}
 
+	@Override
+	public LuceneQueryResultCache queryResultCacheOrNull() {
+		return queryResultCache;
+	}
+
+	@Override
+	public Optional<LuceneCacheStatistics> queryResultCacheStatistics() {
+		return Optional.ofNullable( queryResultCache );
+	}
+
+	@Override
+	public long indexingBufferRamBytesUsed() {
+		return shardHolder.indexingBufferRamBytesUsed();
+	}
+
 	@Override
 	public IndexManager toAPI() {
 		return this;
@@ -78,6 +78,10 @@ DirectoryReader openReader() throws IOException {
 		return indexAccessor.getIndexReader();
 	}
 
+	long indexingBufferRamBytesUsed() {
+		return indexAccessor.indexingBufferRamBytesUsed();
+	}
+
 	LuceneSerialWorkOrchestrator indexingOrchestrator() {
 		return indexingOrchestrator;
 	}
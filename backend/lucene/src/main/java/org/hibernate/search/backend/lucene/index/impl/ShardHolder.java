@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -16,27 +17,39 @@
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
 import org.hibernate.search.backend.lucene.document.model.impl.LuceneIndexModel;
 import org.hibernate.search.backend.lucene.index.spi.ShardingStrategy;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.DirectoryReaderCollector;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.ReadIndexManagerContext;
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
 import org.hibernate.search.backend.lucene.orchestration.impl.LuceneParallelWorkOrchestrator;
 import org.hibernate.search.backend.lucene.orchestration.impl.LuceneSerialWorkOrchestrator;
 import org.hibernate.search.backend.lucene.schema.management.impl.SchemaManagementIndexManagerContext;
 import org.hibernate.search.backend.lucene.work.execution.impl.WorkExecutionIndexManagerContext;
 import org.hibernate.search.engine.backend.index.spi.IndexManagerStartContext;
+import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
 import org.hibernate.search.engine.environment.bean.BeanHolder;
+import org.hibernate.search.engine.environment.bean.BeanReference;
 import org.hibernate.search.util.common.impl.Closer;
 import org.hibernate.search.util.common.impl.SuppressingCloser;
 
 class ShardHolder implements ReadIndexManagerContext, WorkExecutionIndexManagerContext,
 		SchemaManagementIndexManagerContext {
 
+	private static final ConfigurationProperty<List<BeanReference<? extends SegmentWarmer>>> SEGMENT_WARMERS =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_WARMING_SEGMENT_WARMER )
+					.asBeanReference( SegmentWarmer.class )
+					.multivalued()
+					.withDefault( Collections.emptyList() )
+					.build();
+
 	private final IndexManagerBackendContext backendContext;
 	private final LuceneIndexModel model;
 
 	private BeanHolder<? extends ShardingStrategy> shardingStrategyHolder;
+	private BeanHolder<List<SegmentWarmer>> segmentWarmersHolder;
 	private final Map<String, Shard> shards = new LinkedHashMap<>();
 	private final List<LuceneParallelWorkOrchestrator> managementOrchestrators = new ArrayList<>();
 
@@ -54,8 +67,11 @@ void start(IndexManagerStartContext startContext) {
 		ConfigurationPropertySource propertySource = startContext.configurationPropertySource();
 
 		try {
+			this.segmentWarmersHolder = SEGMENT_WARMERS.getAndTransform( propertySource,
+					startContext.beanResolver()::resolve );
 			ShardingStrategyInitializationContextImpl initializationContext =
-					new ShardingStrategyInitializationContextImpl( backendContext, model, startContext, propertySource );
+					new ShardingStrategyInitializationContextImpl( backendContext, model, startContext, propertySource,
+							segmentWarmersHolder.get() );
 			this.shardingStrategyHolder = initializationContext.create( shards );
 
 			if ( startContext.failureCollector().hasFailure() ) {
@@ -70,8 +86,10 @@ void start(IndexManagerStartContext startContext) {
 		}
 		catch (RuntimeException e) {
 			new SuppressingCloser( e )
-					.pushAll( Shard::stop, shards.values() );
+					.pushAll( Shard::stop, shards.values() )
+					.push( segmentWarmersHolder );
 			shards.clear();
+			segmentWarmersHolder = null;
 			managementOrchestrators.clear();
 			throw e;
 		}
@@ -90,8 +108,11 @@ CompletableFuture<?> preStop() {
 	void stop() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
 			closer.pushAll( Shard::stop, shards.values() );
+			// Warmers may be used by shards until they are stopped.
+			closer.push( BeanHolder::close, segmentWarmersHolder );
 			shards.clear();
 			managementOrchestrators.clear();
+			segmentWarmersHolder = null;
 		}
 	}
 
@@ -104,6 +125,14 @@ public void openIndexReaders(Set<String> routingKeys, DirectoryReaderCollector r
 		}
 	}
 
+	long indexingBufferRamBytesUsed() {
+		long total = 0L;
+		for ( Shard shard : shards.values() ) {
+			total += shard.indexingBufferRamBytesUsed();
+		}
+		return total;
+	}
+
 	@Override
 	public String indexName() {
 		return model.hibernateSearchName();
@@ -8,6 +8,7 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -22,6 +23,7 @@
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryProvider;
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.IOStrategy;
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
 import org.hibernate.search.engine.backend.index.spi.IndexManagerStartContext;
 import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
@@ -57,17 +59,19 @@ class ShardingStrategyInitializationContextImpl implements ShardingStrategyIniti
 	private final IndexManagerStartContext startContext;
 	private final ConfigurationPropertySource indexPropertySource;
 	private final ConfigurationPropertySource shardingPropertySource;
+	private final List<? extends SegmentWarmer> segmentWarmers;
 
 	private Set<String> shardIdentifiers = new LinkedHashSet<>();
 
 	ShardingStrategyInitializationContextImpl(IndexManagerBackendContext backendContext,
 			LuceneIndexModel model, IndexManagerStartContext startContext,
-			ConfigurationPropertySource indexPropertySource) {
+			ConfigurationPropertySource indexPropertySource, List<? extends SegmentWarmer> segmentWarmers) {
 		this.backendContext = backendContext;
 		this.model = model;
 		this.startContext = startContext;
 		this.indexPropertySource = indexPropertySource;
 		this.shardingPropertySource = indexPropertySource.withMask( "sharding" );
+		this.segmentWarmers = segmentWarmers;
 	}
 
 	@Override
@@ -139,7 +143,7 @@ private void contributeShardWithSilentFailure(Map<String, Shard> shardCollector,
 			IOStrategy ioStrategy = backendContext.createIOStrategy( shardPropertySource );
 
 			Shard shard = backendContext.createShard( model, shardEventContext, directoryHolder, ioStrategy,
-					shardPropertySource );
+					segmentWarmers, shardPropertySource );
 			shardCollector.put( shardId.orElse( null ), shard );
 		}
 		catch (RuntimeException e) {
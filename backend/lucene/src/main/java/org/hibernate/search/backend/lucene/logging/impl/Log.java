@@ -636,4 +636,104 @@ SearchException cannotUseQueryElementForObjectFieldBecauseCreationException(Stri
 			value = "Unable to create instance of analysis component '%1$s': %2$s")
 	SearchException unableToCreateAnalysisComponent(@FormatWith(ClassFormatter.class) Class<?> type, String causeMessage,
 			@Cause Exception cause);
+
+	@Message(id = ID_OFFSET + 143,
+			value = "Unable to refresh the index reader: %1$s")
+	SearchException unableToRefreshIndexReader(String causeMessage, @Param EventContext context, @Cause Exception cause);
+
+	@Message(id = ID_OFFSET + 144,
+			value = "Invalid refresh interval: '%1$s'. Background refresh requires a strictly positive refresh interval."
+					+ " Set the refresh interval to a value higher than 0, or disable background refresh.")
+	SearchException invalidRefreshIntervalForBackgroundRefresh(int refreshInterval);
+
+	@Message(id = ID_OFFSET + 145,
+			value = "Invalid index sort element: '%1$s'."
+					+ " Index sort elements must be a field path, optionally followed by ':asc' or ':desc'.")
+	SearchException invalidIndexSortElement(String element, @Param EventContext context);
+
+	@Message(id = ID_OFFSET + 146,
+			value = "Unknown field '%1$s' in the index sort.")
+	SearchException unknownFieldForIndexSort(String absoluteFieldPath, @Param EventContext context);
+
+	@Message(id = ID_OFFSET + 147,
+			value = "Cannot sort the index by field '%1$s'."
+					+ " Make sure the field is marked as sortable, and that it has a string, numeric, boolean or temporal type.")
+	SearchException unsupportedFieldForIndexSort(String absoluteFieldPath, @Param EventContext context);
+
+	@Message(id = ID_OFFSET + 148,
+			value = "Cannot sort an index that contains nested documents."
+					+ " Remove the index sort, or do not use nested object fields in this index.")
+	SearchException indexSortWithNestedDocuments(@Param EventContext context);
+
+	@Message(id = ID_OFFSET + 149,
+			value = "Invalid filter caching policy name: '%1$s'. Valid names are: %2$s.")
+	SearchException invalidFilterCachingPolicyName(String invalidRepresentation, List<String> validRepresentations);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = ID_OFFSET + 150,
+			value = "Unable to flush the index writer to free memory: %1$s %2$s")
+	void unableToFlushIndexWriter(String causeMessage,
+			@FormatWith(EventContextFormatter.class) EventContext context, @Cause Exception cause);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = ID_OFFSET + 151,
+			value = "Unable to enforce the memory budget of index writers: %1$s")
+	void unableToEnforceIndexWriterMemoryBudget(String causeMessage, @Cause Exception cause);
+
+	@Message(id = ID_OFFSET + 152,
+			value = "Invalid check interval for the memory budget of index writers: '%1$s'."
+					+ " The check interval must be strictly positive.")
+	SearchException invalidIndexWriterMemoryCheckInterval(int checkInterval);
+
+	@Message(id = ID_OFFSET + 153,
+			value = "Unable to preload index files with extensions %1$s: the directory '%2$s' does not use memory mapping."
+					+ " Set the filesystem access strategy to 'mmap' in order to preload index files.")
+	SearchException unableToPreloadWithoutMemoryMapping(Collection<String> extensions, Directory directory,
+			@Param EventContext context);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = ID_OFFSET + 154,
+			value = "Unable to warm up segment '%1$s' with warmer '%2$s': %3$s %4$s")
+	void unableToWarmSegment(Object segment, Object warmer, String causeMessage,
+			@FormatWith(EventContextFormatter.class) EventContext context, @Cause Exception cause);
+
+	@Message(id = ID_OFFSET + 155,
+			value = "Invalid check interval for merge throttling: '%1$s'."
+					+ " The check interval must be strictly positive.")
+	SearchException invalidMergeThrottleCheckInterval(int checkInterval);
+
+	@Message(id = ID_OFFSET + 156,
+			value = "Invalid write rate for throttled merges: '%1$s'."
+					+ " The write rate must be strictly positive.")
+	SearchException invalidMergeThrottledRate(int throttledMBPerSec);
+
+	@Message(id = ID_OFFSET + 157,
+			value = "Unable to enable the translog: the directory '%1$s' is not stored on the local filesystem."
+					+ " Set the directory type to 'local-filesystem' in order to enable the translog.")
+	SearchException translogRequiresFileSystemDirectory(Directory directory, @Param EventContext context);
+
+	@Message(id = ID_OFFSET + 158,
+			value = "Unable to sync the translog to disk: %1$s")
+	SearchException unableToSyncTranslog(String causeMessage, @Param EventContext context, @Cause Exception cause);
+
+	@Message(id = ID_OFFSET + 159,
+			value = "Unable to write field '%1$s' to the translog: the field has a value of type '%2$s', which is not supported.")
+	SearchException unsupportedTranslogFieldValue(String fieldName, @FormatWith(ClassFormatter.class) Class<?> valueType,
+			@Param EventContext context);
+
+	@Message(id = ID_OFFSET + 160,
+			value = "Invalid translog file '%1$s': this file was not written by this version of Hibernate Search.")
+	SearchException invalidTranslogFile(Path path, @Param EventContext context);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = ID_OFFSET + 161,
+			value = "The index contains documents indexed with discriminator-based multi-tenancy"
+					+ " by a previous version of Hibernate Search."
+					+ " Updates and deletes will be slower until the index is rebuilt, e.g. through mass indexing. %1$s")
+	void legacyDiscriminatorMultiTenancyDocuments(@FormatWith(EventContextFormatter.class) EventContext context);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = ID_OFFSET + 162,
+			value = "Unable to check whether merges should be throttled: %1$s")
+	void unableToCheckMergeThrottling(String causeMessage, @Cause Exception cause);
 }
@@ -13,6 +13,7 @@
 
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public final class CollectorExecutionContext {
 
@@ -22,15 +23,18 @@ public final class CollectorExecutionContext {
 
 	private final Query luceneQuery;
 
+	private final BitSetProducer parentFilter;
+
 	private final int maxDocs;
 
 	public CollectorExecutionContext(IndexReaderMetadataResolver metadataResolver,
 			IndexSearcher indexSearcher,
-			Query luceneQuery,
+			Query luceneQuery, BitSetProducer parentFilter,
 			int maxDocs) {
 		this.metadataResolver = metadataResolver;
 		this.indexSearcher = indexSearcher;
 		this.luceneQuery = luceneQuery;
+		this.parentFilter = parentFilter;
 		this.maxDocs = maxDocs;
 	}
 
@@ -43,11 +47,11 @@ public IndexSearcher getIndexSearcher() {
 	}
 
 	public NestedDocsProvider createNestedDocsProvider(String nestedDocumentPath) {
-		return new NestedDocsProvider( nestedDocumentPath, luceneQuery );
+		return new NestedDocsProvider( parentFilter, nestedDocumentPath, luceneQuery );
 	}
 
 	public NestedDocsProvider createNestedDocsProvider(Set<String> nestedDocumentPaths) {
-		return new NestedDocsProvider( nestedDocumentPaths, luceneQuery );
+		return new NestedDocsProvider( parentFilter, nestedDocumentPaths, luceneQuery );
 	}
 
 	public int getMaxDocs() {
@@ -9,11 +9,22 @@
 import java.io.IOException;
 
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 
-public interface CollectorFactory<C extends Collector> {
+/**
+ * A factory for collector managers.
+ * <p>
+ * Collectors are created through a {@link CollectorManager} so that multiple collectors
+ * can be used concurrently when searching multiple index segments in parallel,
+ * their results being merged through {@link CollectorManager#reduce(java.util.Collection)}.
+ *
+ * @param <C> The type of collector.
+ * @param <T> The type of the result of reducing collectors.
+ */
+public interface CollectorFactory<C extends Collector, T> {
 
-	C createCollector(CollectorExecutionContext context) throws IOException;
+	CollectorManager<C, T> createCollectorManager(CollectorExecutionContext context) throws IOException;
 
-	CollectorKey<C> getCollectorKey();
+	CollectorKey<C, T> getCollectorKey();
 
 }
@@ -7,35 +7,50 @@
 package org.hibernate.search.backend.lucene.lowlevel.collector.impl;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
 
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderMetadataResolver;
 import org.hibernate.search.backend.lucene.search.impl.LuceneDocumentReference;
 import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
 import org.hibernate.search.engine.backend.common.DocumentReference;
 
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
 
+/**
+ * Collects document references.
+ * <p>
+ * To limit allocations, this collector only copies the raw bytes of document identifiers when collecting,
+ * and document references are only created (and identifiers only decoded) when {@link #get(int) retrieved}.
+ */
 public final class DocumentReferenceCollector extends SimpleCollector {
 
-	public static final CollectorKey<DocumentReferenceCollector> KEY = CollectorKey.create();
+	public static final CollectorKey<DocumentReferenceCollector, DocumentReferenceCollector> KEY =
+			CollectorKey.create();
 
-	public static final CollectorFactory<DocumentReferenceCollector> FACTORY = new CollectorFactory<DocumentReferenceCollector>() {
-		@Override
-		public DocumentReferenceCollector createCollector(CollectorExecutionContext context) {
-			return new DocumentReferenceCollector( context );
-		}
+	public static final CollectorFactory<DocumentReferenceCollector, DocumentReferenceCollector> FACTORY =
+			new CollectorFactory<DocumentReferenceCollector, DocumentReferenceCollector>() {
+				@Override
+				public CollectorManager<DocumentReferenceCollector, DocumentReferenceCollector> createCollectorManager(
+						CollectorExecutionContext context) {
+					return new Manager( context );
+				}
 
-		@Override
-		public CollectorKey<DocumentReferenceCollector> getCollectorKey() {
-			return KEY;
-		}
-	};
+				@Override
+				public CollectorKey<DocumentReferenceCollector, DocumentReferenceCollector> getCollectorKey() {
+					return KEY;
+				}
+			};
 
 	private final IndexReaderMetadataResolver metadataResolver;
 
@@ -43,19 +58,37 @@ public CollectorKey<DocumentReferenceCollector> getCollectorKey() {
 	private BinaryDocValues currentLeafIdDocValues;
 	private int currentLeafDocBase;
 
-	private Map<Integer, DocumentReference> collected = new HashMap<>();
+	// Position of each collected document in the arrays below, by global doc ID
+	private final IntIntHashMap positionByDocId = new IntIntHashMap();
+	private int size = 0;
+	private String[] mappedTypeNames = new String[16];
+	// The bytes of the identifier at position i are idBytes[idOffsets[i]] to idBytes[idOffsets[i + 1] - 1]
+	private int[] idOffsets = new int[17];
+	private byte[] idBytes = new byte[256];
 
 	private DocumentReferenceCollector(CollectorExecutionContext executionContext) {
 		this.metadataResolver = executionContext.getMetadataResolver();
 	}
 
+	/**
+	 * @param docId The global ID of a collected document.
+	 * @return A reference to this document, or {@code null} if this document was not collected.
+	 */
+	public DocumentReference get(int docId) {
+		int position = positionByDocId.getOrDefault( docId, -1 );
+		if ( position < 0 ) {
+			return null;
+		}
+		int offset = idOffsets[position];
+		String id = new String( idBytes, offset, idOffsets[position + 1] - offset, StandardCharsets.UTF_8 );
+		return new LuceneDocumentReference( mappedTypeNames[position], id );
+	}
+
 	@Override
 	public void collect(int doc) throws IOException {
 		currentLeafIdDocValues.advance( doc );
-		collected.put( currentLeafDocBase + doc, new LuceneDocumentReference(
-				currentLeafMappedTypeName,
-				currentLeafIdDocValues.binaryValue().utf8ToString()
-		) );
+		BytesRef id = currentLeafIdDocValues.binaryValue();
+		add( currentLeafDocBase + doc, currentLeafMappedTypeName, id.bytes, id.offset, id.length );
 	}
 
 	@Override
@@ -63,14 +96,56 @@ public ScoreMode scoreMode() {
 		return ScoreMode.COMPLETE_NO_SCORES;
 	}
 
-	public DocumentReference get(int doc) {
-		return collected.get( doc );
-	}
-
 	@Override
 	protected void doSetNextReader(LeafReaderContext context) throws IOException {
 		this.currentLeafMappedTypeName = metadataResolver.resolveMappedTypeName( context );
 		this.currentLeafIdDocValues = DocValues.getBinary( context.reader(), MetadataFields.idFieldName() );
 		this.currentLeafDocBase = context.docBase;
 	}
+
+	private void add(int docId, String mappedTypeName, byte[] bytes, int offset, int length) {
+		int position = size++;
+		mappedTypeNames = ArrayUtil.grow( mappedTypeNames, size );
+		mappedTypeNames[position] = mappedTypeName;
+		idOffsets = ArrayUtil.grow( idOffsets, size + 1 );
+		int start = idOffsets[position];
+		idBytes = ArrayUtil.grow( idBytes, start + length );
+		// Copy the bytes: Lucene may reuse its buffer for the next document.
+		System.arraycopy( bytes, offset, idBytes, start, length );
+		idOffsets[position + 1] = start + length;
+		positionByDocId.put( docId, position );
+	}
+
+	private void addAll(DocumentReferenceCollector other) {
+		for ( IntIntCursor cursor : other.positionByDocId ) {
+			int position = cursor.value;
+			int offset = other.idOffsets[position];
+			add( cursor.key, other.mappedTypeNames[position],
+					other.idBytes, offset, other.idOffsets[position + 1] - offset );
+		}
+	}
+
+	private static class Manager
+			implements CollectorManager<DocumentReferenceCollector, DocumentReferenceCollector> {
+		private final CollectorExecutionContext executionContext;
+
+		private Manager(CollectorExecutionContext executionContext) {
+			this.executionContext = executionContext;
+		}
+
+		@Override
+		public DocumentReferenceCollector newCollector() {
+			return new DocumentReferenceCollector( executionContext );
+		}
+
+		@Override
+		public DocumentReferenceCollector reduce(Collection<DocumentReferenceCollector> collectors) {
+			Iterator<DocumentReferenceCollector> iterator = collectors.iterator();
+			DocumentReferenceCollector result = iterator.next();
+			while ( iterator.hasNext() ) {
+				result.addAll( iterator.next() );
+			}
+			return result;
+		}
+	}
 }
@@ -8,9 +8,12 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.DoubleValues;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Scorable;
@@ -36,7 +39,12 @@ public class GeoPointDistanceCollector implements Collector {
 
 	private final SpatialResultsCollector distances;
 
-	public GeoPointDistanceCollector(String absoluteFieldPath, NestedDocsProvider nestedDocsProvider,
+	public static CollectorManager<GeoPointDistanceCollector, GeoPointDistanceCollector> manager(
+			String absoluteFieldPath, NestedDocsProvider nestedDocsProvider, GeoPoint center, int hitsCount) {
+		return new Manager( absoluteFieldPath, nestedDocsProvider, center, hitsCount );
+	}
+
+	private GeoPointDistanceCollector(String absoluteFieldPath, NestedDocsProvider nestedDocsProvider,
 			GeoPoint center, int hitsCount) {
 		// TODO HSEARCH-3391 project to multiple values instead of using the min
 		this.valuesSource = new GeoPointDistanceMultiValuesToSingleValuesSource(
@@ -126,6 +134,42 @@ public Double get(int docId) {
 		void put(int documentId, Double distance) {
 			orderedEntries.add( new HitEntry( documentId, distance ) );
 		}
+
+		void putAll(SpatialResultsCollector other) {
+			orderedEntries.addAll( other.orderedEntries );
+		}
+	}
+
+	private static class Manager implements CollectorManager<GeoPointDistanceCollector, GeoPointDistanceCollector> {
+		private final String absoluteFieldPath;
+		private final NestedDocsProvider nestedDocsProvider;
+		private final GeoPoint center;
+		private final int hitsCount;
+
+		private Manager(String absoluteFieldPath, NestedDocsProvider nestedDocsProvider,
+				GeoPoint center, int hitsCount) {
+			this.absoluteFieldPath = absoluteFieldPath;
+			this.nestedDocsProvider = nestedDocsProvider;
+			this.center = center;
+			this.hitsCount = hitsCount;
+		}
+
+		@Override
+		public GeoPointDistanceCollector newCollector() {
+			return new GeoPointDistanceCollector( absoluteFieldPath, nestedDocsProvider, center, hitsCount );
+		}
+
+		@Override
+		public GeoPointDistanceCollector reduce(Collection<GeoPointDistanceCollector> collectors) {
+			Iterator<GeoPointDistanceCollector> iterator = collectors.iterator();
+			GeoPointDistanceCollector result = iterator.next();
+			// Collectors are passed in the order of index segments,
+			// so appending entries preserves the monotonic order expected by SpatialResultsCollector.
+			while ( iterator.hasNext() ) {
+				result.distances.putAll( iterator.next().distances );
+			}
+			return result;
+		}
 	}
 
 	private class DistanceLeafCollector implements LeafCollector {
@@ -0,0 +1,131 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.collector.impl;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+
+import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.SingleValueDocValuesReader;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+/**
+ * Collects the value of a single-valued field from doc values, for each collected document.
+ * <p>
+ * Meant to be used on top documents only, as an alternative to {@link StoredFieldsCollector}:
+ * doc values are read column by column, segment by segment,
+ * instead of decompressing a block of stored fields for each document.
+ *
+ * @param <F> The type of field values.
+ */
+public class SingleValueDocValuesCollector<F> extends SimpleCollector {
+
+	public static <F> CollectorFactory<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> factory(
+			String absoluteFieldPath, SingleValueDocValuesReader<F> reader) {
+		Key<F> key = new Key<>( absoluteFieldPath );
+		return new CollectorFactory<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>>() {
+			@Override
+			public CollectorManager<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> createCollectorManager(
+					CollectorExecutionContext context) {
+				return new Manager<>( reader );
+			}
+
+			@Override
+			public CollectorKey<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> getCollectorKey() {
+				return key;
+			}
+		};
+	}
+
+	private final SingleValueDocValuesReader<F> reader;
+
+	private final IntObjectHashMap<F> values = new IntObjectHashMap<>();
+
+	private int currentLeafDocBase;
+	private SingleValueDocValuesReader.Leaf<F> currentLeafReader;
+
+	private SingleValueDocValuesCollector(SingleValueDocValuesReader<F> reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public void collect(int doc) throws IOException {
+		F value = currentLeafReader.read( doc );
+		if ( value != null ) {
+			values.put( currentLeafDocBase + doc, value );
+		}
+	}
+
+	@Override
+	public ScoreMode scoreMode() {
+		return ScoreMode.COMPLETE_NO_SCORES;
+	}
+
+	@Override
+	protected void doSetNextReader(LeafReaderContext context) throws IOException {
+		this.currentLeafDocBase = context.docBase;
+		this.currentLeafReader = reader.leaf( context );
+	}
+
+	private static class Manager<F> implements CollectorManager<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> {
+		private final SingleValueDocValuesReader<F> reader;
+
+		private Manager(SingleValueDocValuesReader<F> reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public SingleValueDocValuesCollector<F> newCollector() {
+			return new SingleValueDocValuesCollector<>( reader );
+		}
+
+		@Override
+		public IntObjectHashMap<F> reduce(Collection<SingleValueDocValuesCollector<F>> collectors) {
+			Iterator<SingleValueDocValuesCollector<F>> iterator = collectors.iterator();
+			IntObjectHashMap<F> result = iterator.next().values;
+			while ( iterator.hasNext() ) {
+				result.putAll( iterator.next().values );
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Necessary in order to share a single collector if there are multiple projections on the same field.
+	 */
+	private static final class Key<F> implements CollectorKey<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> {
+
+		private final String absoluteFieldPath;
+
+		private Key(String absoluteFieldPath) {
+			this.absoluteFieldPath = absoluteFieldPath;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( obj == null || !obj.getClass().equals( getClass() ) ) {
+				return false;
+			}
+			Key<?> other = (Key<?>) obj;
+			return absoluteFieldPath.equals( other.absoluteFieldPath );
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash( getClass(), absoluteFieldPath );
+		}
+	}
+}
@@ -7,19 +7,19 @@
 package org.hibernate.search.backend.lucene.lowlevel.collector.impl;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.Set;
 
 import org.hibernate.search.backend.lucene.lowlevel.join.impl.NestedDocsProvider;
 import org.hibernate.search.backend.lucene.search.extraction.impl.ReusableDocumentStoredFieldVisitor;
 import org.hibernate.search.util.common.AssertionFailure;
 
+import com.carrotsearch.hppc.IntObjectHashMap;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.DocIdSetIterator;
-import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.search.Weight;
@@ -33,27 +33,32 @@
  */
 public class StoredFieldsCollector extends SimpleCollector {
 
-	public static final CollectorKey<StoredFieldsCollector> KEY = CollectorKey.create();
+	public static final CollectorKey<StoredFieldsCollector, IntObjectHashMap<Document>> KEY = CollectorKey.create();
 
-	public static CollectorFactory<StoredFieldsCollector> factory(
+	public static CollectorFactory<StoredFieldsCollector, IntObjectHashMap<Document>> factory(
 			ReusableDocumentStoredFieldVisitor storedFieldVisitor,
 			Set<String> requiredNestedDocumentPathsForStoredFields) {
-		return new CollectorFactory<StoredFieldsCollector>() {
+		return new CollectorFactory<StoredFieldsCollector, IntObjectHashMap<Document>>() {
 			@Override
-			public StoredFieldsCollector createCollector(CollectorExecutionContext context) throws IOException {
+			public CollectorManager<StoredFieldsCollector, IntObjectHashMap<Document>> createCollectorManager(
+					CollectorExecutionContext context) throws IOException {
 				NestedDocsProvider nestedDocsProvider;
+				Weight childrenWeight;
 				if ( requiredNestedDocumentPathsForStoredFields.isEmpty() ) {
 					nestedDocsProvider = null;
+					childrenWeight = null;
 				}
 				else {
 					nestedDocsProvider = context.createNestedDocsProvider( requiredNestedDocumentPathsForStoredFields );
+					// The weight is thread-safe and can be shared among collectors.
+					childrenWeight = nestedDocsProvider.childDocsWeight( context.getIndexSearcher() );
 				}
 
-				return new StoredFieldsCollector( nestedDocsProvider, storedFieldVisitor, context.getIndexSearcher() );
+				return new Manager( nestedDocsProvider, childrenWeight, storedFieldVisitor );
 			}
 
 			@Override
-			public CollectorKey<StoredFieldsCollector> getCollectorKey() {
+			public CollectorKey<StoredFieldsCollector, IntObjectHashMap<Document>> getCollectorKey() {
 				return KEY;
 			}
 		};
@@ -68,12 +73,11 @@ public CollectorKey<StoredFieldsCollector> getCollectorKey() {
 	private DocIdSetIterator currentLeafChildDocs;
 	private LeafReader currentLeafReader;
 
-	private final Map<Integer, Document> documents = new HashMap<>();
+	private final IntObjectHashMap<Document> documents = new IntObjectHashMap<>();
 
-	public StoredFieldsCollector(NestedDocsProvider nestedDocsProvider,
-			ReusableDocumentStoredFieldVisitor storedFieldVisitor,
-			IndexSearcher indexSearcher) throws IOException {
-		this.childrenWeight = nestedDocsProvider == null ? null : nestedDocsProvider.childDocsWeight( indexSearcher );
+	private StoredFieldsCollector(NestedDocsProvider nestedDocsProvider, Weight childrenWeight,
+			ReusableDocumentStoredFieldVisitor storedFieldVisitor) {
+		this.childrenWeight = childrenWeight;
 		this.nestedDocsProvider = nestedDocsProvider;
 		this.storedFieldVisitor = storedFieldVisitor;
 	}
@@ -128,10 +132,6 @@ public ScoreMode scoreMode() {
 		return ScoreMode.COMPLETE_NO_SCORES;
 	}
 
-	public Document getDocument(int docId) {
-		return documents.get( docId );
-	}
-
 	@Override
 	protected void doSetNextReader(LeafReaderContext context) throws IOException {
 		this.currentLeafDocBase = context.docBase;
@@ -140,4 +140,35 @@ protected void doSetNextReader(LeafReaderContext context) throws IOException {
 
 		this.currentLeafChildDocs = nestedDocsProvider == null ? null : nestedDocsProvider.childDocs( childrenWeight, context );
 	}
+
+	private static class Manager implements CollectorManager<StoredFieldsCollector, IntObjectHashMap<Document>> {
+		private final NestedDocsProvider nestedDocsProvider;
+		private final Weight childrenWeight;
+		private final ReusableDocumentStoredFieldVisitor storedFieldVisitor;
+
+		private Manager(NestedDocsProvider nestedDocsProvider, Weight childrenWeight,
+				ReusableDocumentStoredFieldVisitor storedFieldVisitor) {
+			this.nestedDocsProvider = nestedDocsProvider;
+			this.childrenWeight = childrenWeight;
+			this.storedFieldVisitor = storedFieldVisitor;
+		}
+
+		@Override
+		public StoredFieldsCollector newCollector() {
+			// The visitor is stateful: each collector needs its own.
+			return new StoredFieldsCollector( nestedDocsProvider, childrenWeight, storedFieldVisitor.copy() );
+		}
+
+		@Override
+		public IntObjectHashMap<Document> reduce(Collection<StoredFieldsCollector> collectors) {
+			if ( collectors.size() == 1 ) {
+				return collectors.iterator().next().documents;
+			}
+			IntObjectHashMap<Document> result = new IntObjectHashMap<>();
+			for ( StoredFieldsCollector collector : collectors ) {
+				result.putAll( collector.documents );
+			}
+			return result;
+		}
+	}
 }
@@ -40,6 +40,8 @@ public class MetadataFields {
 
 	private static final String TENANT_ID_FIELD_NAME = internalFieldName( "tenantId" );
 
+	private static final String TENANT_AND_ID_FIELD_NAME = internalFieldName( "tenant_and_id" );
+
 	private static final String TYPE_FIELD_NAME = internalFieldName( "type" );
 
 	private static final String FIELD_NAMES_FIELD_NAME = internalFieldName( "field_names" );
@@ -80,6 +82,10 @@ public static String tenantIdFieldName() {
 		return TENANT_ID_FIELD_NAME;
 	}
 
+	public static String tenantAndIdFieldName() {
+		return TENANT_AND_ID_FIELD_NAME;
+	}
+
 	public static String typeFieldName() {
 		return TYPE_FIELD_NAME;
 	}
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.file.Path;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
@@ -17,24 +18,36 @@
 import org.hibernate.search.util.common.reporting.EventContext;
 
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FileSwitchDirectory;
 import org.apache.lucene.store.LockFactory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
 
 final class LocalFileSystemDirectoryHolder implements DirectoryHolder {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
+	private static final String PRELOAD_ALL = "*";
+
 	private final Path directoryPath;
 	private final FileSystemAccessStrategy accessStrategy;
 	private final Supplier<LockFactory> lockFactorySupplier;
+	private final Set<String> preloadedExtensions;
+	private final NRTCachingSettings nrtCachingSettingsOrNull;
 	private final EventContext eventContext;
 
 	private Directory directory;
 
 	LocalFileSystemDirectoryHolder(Path directoryPath, FileSystemAccessStrategy accessStrategy,
-			Supplier<LockFactory> lockFactorySupplier, EventContext eventContext) {
+			Supplier<LockFactory> lockFactorySupplier,
+			Set<String> preloadedExtensions, NRTCachingSettings nrtCachingSettingsOrNull,
+			EventContext eventContext) {
 		this.directoryPath = directoryPath;
 		this.accessStrategy = accessStrategy;
 		this.lockFactorySupplier = lockFactorySupplier;
+		this.preloadedExtensions = preloadedExtensions;
+		this.nrtCachingSettingsOrNull = nrtCachingSettingsOrNull;
 		this.eventContext = eventContext;
 	}
 
@@ -47,7 +60,17 @@ public void start() throws IOException {
 			throw log.unableToInitializeIndexDirectory( e.getMessage(), eventContext, e );
 		}
 
-		this.directory = accessStrategy.createDirectory( directoryPath, lockFactorySupplier.get() );
+		LockFactory lockFactory = lockFactorySupplier.get();
+		FSDirectory fsDirectory = accessStrategy.createDirectory( directoryPath, lockFactory );
+		Directory createdDirectory = fsDirectory;
+		if ( !preloadedExtensions.isEmpty() ) {
+			createdDirectory = withPreload( fsDirectory, lockFactory );
+		}
+		if ( nrtCachingSettingsOrNull != null ) {
+			createdDirectory = new NRTCachingDirectory( createdDirectory,
+					nrtCachingSettingsOrNull.maxMergeSizeMB, nrtCachingSettingsOrNull.maxCachedMB );
+		}
+		this.directory = createdDirectory;
 	}
 
 	@Override
@@ -62,4 +85,21 @@ public void close() throws IOException {
 	public Directory get() {
 		return directory;
 	}
+
+	private Directory withPreload(FSDirectory fsDirectory, LockFactory lockFactory) throws IOException {
+		if ( !( fsDirectory instanceof MMapDirectory ) ) {
+			fsDirectory.close();
+			throw log.unableToPreloadWithoutMemoryMapping( preloadedExtensions, fsDirectory, eventContext );
+		}
+		MMapDirectory mmapDirectory = (MMapDirectory) fsDirectory;
+		if ( preloadedExtensions.contains( PRELOAD_ALL ) ) {
+			mmapDirectory.setPreload( true );
+			return mmapDirectory;
+		}
+		// Lucene can only preload all files of a MMapDirectory:
+		// use a second MMapDirectory on the same path for the files that must be preloaded.
+		MMapDirectory preloadingDirectory = new MMapDirectory( directoryPath, lockFactory );
+		preloadingDirectory.setPreload( true );
+		return new FileSwitchDirectory( preloadedExtensions, preloadingDirectory, mmapDirectory, true );
+	}
 }
@@ -9,7 +9,11 @@
 import java.lang.invoke.MethodHandles;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
@@ -43,6 +47,30 @@ public class LocalFileSystemDirectoryProvider implements DirectoryProvider {
 					.withDefault( LuceneIndexSettings.Defaults.DIRECTORY_FILESYSTEM_ACCESS_STRATEGY )
 					.build();
 
+	private static final ConfigurationProperty<List<String>> FILESYSTEM_ACCESS_PRELOAD =
+			ConfigurationProperty.forKey( LuceneIndexSettings.DirectoryRadicals.FILESYSTEM_ACCESS_PRELOAD )
+					.asString().multivalued()
+					.withDefault( Collections.emptyList() )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> NRT_CACHING_ENABLED =
+			ConfigurationProperty.forKey( LuceneIndexSettings.DirectoryRadicals.NRT_CACHING_ENABLED )
+					.asBoolean()
+					.withDefault( LuceneIndexSettings.Defaults.DIRECTORY_NRT_CACHING_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Integer> NRT_CACHING_MAX_MERGE_SIZE =
+			ConfigurationProperty.forKey( LuceneIndexSettings.DirectoryRadicals.NRT_CACHING_MAX_MERGE_SIZE )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> NRT_CACHING_MAX_CACHED_SIZE =
+			ConfigurationProperty.forKey( LuceneIndexSettings.DirectoryRadicals.NRT_CACHING_MAX_CACHED_SIZE )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE )
+					.build();
+
 	@Override
 	@SuppressWarnings("deprecation")
 	public DirectoryHolder createDirectoryHolder(DirectoryCreationContext context) {
@@ -54,6 +82,12 @@ public DirectoryHolder createDirectoryHolder(DirectoryCreationContext context) {
 					context.eventContext() );
 		}
 		FileSystemAccessStrategy accessStrategy = FileSystemAccessStrategy.get( accessStrategyName );
+		Set<String> preloadedExtensions = new LinkedHashSet<>( FILESYSTEM_ACCESS_PRELOAD.get( propertySource ) );
+		NRTCachingSettings nrtCachingSettings = null;
+		if ( NRT_CACHING_ENABLED.get( propertySource ) ) {
+			nrtCachingSettings = new NRTCachingSettings( NRT_CACHING_MAX_MERGE_SIZE.get( propertySource ),
+					NRT_CACHING_MAX_CACHED_SIZE.get( propertySource ) );
+		}
 		Supplier<LockFactory> lockFactorySupplier = context.createConfiguredLockFactorySupplier()
 				.orElseGet( () -> FSLockFactory::getDefault );
 
@@ -64,7 +98,9 @@ public DirectoryHolder createDirectoryHolder(DirectoryCreationContext context) {
 		}
 
 		return new LocalFileSystemDirectoryHolder(
-				directoryPath, accessStrategy, lockFactorySupplier, context.eventContext()
+				directoryPath, accessStrategy, lockFactorySupplier,
+				Collections.unmodifiableSet( preloadedExtensions ), nrtCachingSettings,
+				context.eventContext()
 		);
 	}
 
@@ -0,0 +1,18 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.directory.impl;
+
+final class NRTCachingSettings {
+
+	final double maxMergeSizeMB;
+	final double maxCachedMB;
+
+	NRTCachingSettings(int maxMergeSizeMB, int maxCachedMB) {
+		this.maxMergeSizeMB = maxMergeSizeMB;
+		this.maxCachedMB = maxCachedMB;
+	}
+}
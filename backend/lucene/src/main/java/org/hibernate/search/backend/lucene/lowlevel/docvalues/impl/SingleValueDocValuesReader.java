@@ -0,0 +1,39 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.docvalues.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.LeafReaderContext;
+
+/**
+ * Reads the value of a single-valued field from doc values, segment by segment.
+ *
+ * @param <F> The type of values.
+ */
+public interface SingleValueDocValuesReader<F> {
+
+	/**
+	 * @param context The context of an index segment.
+	 * @return A reader of values for documents in the given segment.
+	 * @throws IOException If Lucene throws an {@link IOException}.
+	 */
+	Leaf<F> leaf(LeafReaderContext context) throws IOException;
+
+	interface Leaf<F> {
+
+		/**
+		 * @param docId The ID of a document in the segment.
+		 * Must be greater than the ID passed in the previous call, if any.
+		 * @return The value of the field for the given document, or {@code null} if there is none.
+		 * @throws IOException If Lucene throws an {@link IOException}.
+		 */
+		F read(int docId) throws IOException;
+
+	}
+
+}
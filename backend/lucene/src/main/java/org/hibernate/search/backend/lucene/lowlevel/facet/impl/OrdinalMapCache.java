@@ -0,0 +1,118 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.facet.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiDocValues;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.packed.PackedInts;
+
+/**
+ * A cache of {@link OrdinalMap}s, i.e. of mappings from segment ordinals to global ordinals,
+ * per index reader and per field.
+ * <p>
+ * Building an {@link OrdinalMap} requires iterating over all terms of all segments,
+ * which is expensive for fields with many distinct values.
+ * Since index readers are immutable, the mapping can be reused as long as the reader stays open:
+ * this cache keeps a mapping for each {@link IndexReader.CacheHelper#getKey() reader key}
+ * and evicts it as soon as the reader is closed.
+ * <p>
+ * Only reuse this cache for long-lived, shared readers (typically the {@code DirectoryReader} of each shard);
+ * readers created for a single query would only pollute the cache.
+ * <p>
+ * There is one instance per backend, cleared when the backend stops.
+ */
+public final class OrdinalMapCache {
+
+	private final ConcurrentMap<IndexReader.CacheKey, ConcurrentMap<String, OrdinalMap>> ordinalMaps =
+			new ConcurrentHashMap<>();
+
+	public void clear() {
+		ordinalMaps.clear();
+	}
+
+	/**
+	 * Equivalent to {@link MultiDocValues#getSortedSetValues(IndexReader, String)},
+	 * except the ordinal map is retrieved from the cache when possible.
+	 *
+	 * @param reader A reader, generally a {@code DirectoryReader}.
+	 * @param field The name of a field with sorted set doc values.
+	 * @return Doc values for the given field on the given reader,
+	 * or {@code null} if the field doesn't have doc values in this reader.
+	 * @throws IOException If Lucene throws an {@link IOException}.
+	 */
+	public SortedSetDocValues getSortedSetValues(IndexReader reader, String field) throws IOException {
+		List<LeafReaderContext> leaves = reader.leaves();
+		int size = leaves.size();
+		if ( size <= 1 ) {
+			// No need for an ordinal map
+			return MultiDocValues.getSortedSetValues( reader, field );
+		}
+
+		boolean anyReal = false;
+		SortedSetDocValues[] values = new SortedSetDocValues[size];
+		int[] starts = new int[size + 1];
+		long totalCost = 0;
+		for ( int i = 0; i < size; i++ ) {
+			LeafReaderContext context = leaves.get( i );
+			SortedSetDocValues leafValues = context.reader().getSortedSetDocValues( field );
+			if ( leafValues == null ) {
+				leafValues = DocValues.emptySortedSet();
+			}
+			else {
+				anyReal = true;
+				totalCost += leafValues.cost();
+			}
+			values[i] = leafValues;
+			starts[i] = context.docBase;
+		}
+		starts[size] = reader.maxDoc();
+
+		if ( !anyReal ) {
+			return null;
+		}
+
+		OrdinalMap ordinalMap = getOrCreateOrdinalMap( reader, field, values );
+		return new MultiDocValues.MultiSortedSetDocValues( values, starts, ordinalMap, totalCost );
+	}
+
+	private OrdinalMap getOrCreateOrdinalMap(IndexReader reader, String field, SortedSetDocValues[] values)
+			throws IOException {
+		IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+		if ( cacheHelper == null ) {
+			// This reader cannot be cached
+			return OrdinalMap.build( null, values, PackedInts.DEFAULT );
+		}
+
+		IndexReader.CacheKey key = cacheHelper.getKey();
+		ConcurrentMap<String, OrdinalMap> ordinalMapsForReader = ordinalMaps.computeIfAbsent( key, ignored -> {
+			// Evict the reader's entry as soon as the reader is closed.
+			cacheHelper.addClosedListener( ordinalMaps::remove );
+			return new ConcurrentHashMap<>();
+		} );
+
+		OrdinalMap ordinalMap = ordinalMapsForReader.get( field );
+		if ( ordinalMap == null ) {
+			// Concurrent queries may build the same map twice, but that's fine: the result will be the same.
+			ordinalMap = OrdinalMap.build( key, values, PackedInts.DEFAULT );
+			OrdinalMap previous = ordinalMapsForReader.putIfAbsent( field, ordinalMap );
+			if ( previous != null ) {
+				ordinalMap = previous;
+			}
+		}
+		return ordinalMap;
+	}
+
+}
@@ -7,13 +7,20 @@
 package org.hibernate.search.backend.lucene.lowlevel.facet.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.TextMultiValues;
 import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.TextMultiValuesSource;
 
 import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
+import com.carrotsearch.hppc.cursors.ObjectIntCursor;
 import com.carrotsearch.hppc.procedures.IntProcedure;
 import org.apache.lucene.facet.FacetResult;
 import org.apache.lucene.facet.Facets;
@@ -22,7 +29,7 @@
 import org.apache.lucene.facet.LabelAndValue;
 import org.apache.lucene.facet.TopOrdAndIntQueue;
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.MultiDocValues;
+import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.MultiDocValues.MultiSortedSetDocValues;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.ReaderUtil;
@@ -30,32 +37,28 @@
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.PriorityQueue;
 
 /**
  * Copied with some changes from {@code org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts}
  * of <a href="https://lucene.apache.org/">Apache Lucene project</a>.
+ * <p>
+ * Counting is performed separately for each shard (each sub-reader of the top-level reader),
+ * using global ordinals that are {@link OrdinalMapCache cached} as long as the shard's reader stays open,
+ * and counts from all shards are only merged (by term) at the very end.
  */
 public class TextMultiValueFacetCounts extends Facets {
 
-	final SortedSetDocValues dv;
 	final String field;
-	final int ordCount;
-	final int[] counts;
+	private final OrdinalMapCache ordinalMapCache;
+	final List<ShardCounts> shardCounts;
 
-	public TextMultiValueFacetCounts(IndexReader reader, String field, TextMultiValuesSource valuesSource, FacetsCollector hits)
+	public TextMultiValueFacetCounts(IndexReader reader, String field, TextMultiValuesSource valuesSource, FacetsCollector hits,
+			OrdinalMapCache ordinalMapCache)
 			throws IOException {
 		this.field = field;
-		dv = MultiDocValues.getSortedSetValues( reader, field );
-		if ( dv != null && dv.getValueCount() > Integer.MAX_VALUE ) {
-			// We may want to remove this limitation?
-			// Note that DefaultSortedSetDocValuesReaderState has the same limitation,
-			// so this is no worse than the "legacy" facets from Search 5.
-			throw new IllegalStateException(
-					"Cannot aggregate when more than " + Integer.MAX_VALUE + " terms are indexed" );
-		}
-		ordCount = dv == null ? 0 : (int) dv.getValueCount();
-		counts = new int[ordCount];
-		count( reader, valuesSource, hits.getMatchingDocs() );
+		this.ordinalMapCache = ordinalMapCache;
+		this.shardCounts = count( reader, valuesSource, hits.getMatchingDocs() );
 	}
 
 	@Override
@@ -69,10 +72,18 @@ public FacetResult getTopChildren(int topN, String dim, String... path) throws I
 		if ( path.length != 0 ) {
 			throw new IllegalArgumentException( "path.length should be 0" );
 		}
-		return getTopChildrenSortByCount( topN );
+		if ( shardCounts.isEmpty() ) {
+			return null;
+		}
+		else if ( shardCounts.size() == 1 ) {
+			return getTopChildrenSortByCount( shardCounts.get( 0 ), topN );
+		}
+		else {
+			return getTopChildrenSortByCountAcrossShards( topN );
+		}
 	}
 
-	private FacetResult getTopChildrenSortByCount(int topN) throws IOException {
+	private FacetResult getTopChildrenSortByCount(ShardCounts shard, int topN) throws IOException {
 		TopOrdAndIntQueue q = null;
 
 		int bottomCount = 0;
@@ -82,7 +93,8 @@ private FacetResult getTopChildrenSortByCount(int topN) throws IOException {
 
 		TopOrdAndIntQueue.OrdAndValue reuse = null;
 
-		for ( int ord = 0; ord < ordCount; ord++ ) {
+		int[] counts = shard.counts;
+		for ( int ord = 0; ord < counts.length; ord++ ) {
 			if ( counts[ord] > 0 ) {
 				totCount += counts[ord];
 				childCount++;
@@ -112,15 +124,65 @@ private FacetResult getTopChildrenSortByCount(int topN) throws IOException {
 		LabelAndValue[] labelValues = new LabelAndValue[q.size()];
 		for ( int i = labelValues.length - 1; i >= 0; i-- ) {
 			TopOrdAndIntQueue.OrdAndValue ordAndValue = q.pop();
-			final BytesRef term = dv.lookupOrd( ordAndValue.ord );
+			final BytesRef term = shard.dv.lookupOrd( ordAndValue.ord );
 			labelValues[i] = new LabelAndValue( term.utf8ToString(), ordAndValue.value );
 		}
 
 		return new FacetResult( field, new String[0], totCount, labelValues, childCount );
 	}
 
-	private void countOneSegment(OrdinalMap ordinalMap, TextMultiValues segValues, int segOrd, MatchingDocs hits)
-			throws IOException {
+	private static class Entry {
+		int count;
+		BytesRef term;
+	}
+
+	private FacetResult getTopChildrenSortByCountAcrossShards(int topN) throws IOException {
+		// Ordinals are specific to each shard: we need to merge counts by term.
+		ObjectIntHashMap<BytesRef> mergedCounts = new ObjectIntHashMap<>();
+		int totCount = 0;
+		for ( ShardCounts shard : shardCounts ) {
+			int[] counts = shard.counts;
+			for ( int ord = 0; ord < counts.length; ord++ ) {
+				int count = counts[ord];
+				if ( count > 0 ) {
+					totCount += count;
+					mergedCounts.addTo( BytesRef.deepCopyOf( shard.dv.lookupOrd( ord ) ), count );
+				}
+			}
+		}
+
+		if ( mergedCounts.isEmpty() ) {
+			return null;
+		}
+
+		PriorityQueue<Entry> pq = new PriorityQueue<Entry>( Math.min( topN, mergedCounts.size() ) ) {
+			@Override
+			protected boolean lessThan(Entry a, Entry b) {
+				// sort by count descending, breaking ties by term ascending (same as ordinals):
+				return a.count < b.count || ( a.count == b.count && a.term.compareTo( b.term ) > 0 );
+			}
+		};
+		Entry e = null;
+		for ( ObjectIntCursor<BytesRef> cursor : mergedCounts ) {
+			if ( e == null ) {
+				e = new Entry();
+			}
+			e.term = cursor.key;
+			e.count = cursor.value;
+			e = pq.insertWithOverflow( e );
+		}
+
+		LabelAndValue[] labelValues = new LabelAndValue[pq.size()];
+		while ( pq.size() != 0 ) {
+			Entry entry = pq.pop();
+			labelValues[pq.size()] = new LabelAndValue( entry.term.utf8ToString(), entry.count );
+		}
+
+		return new FacetResult( field, new String[0], totCount, labelValues, mergedCounts.size() );
+	}
+
+	private static void countOneSegment(int[] counts, OrdinalMap ordinalMap, TextMultiValues segValues, int segOrd,
+			MatchingDocs hits) throws IOException {
 		if ( segValues == null ) {
 			// nothing to count
 			return;
@@ -129,38 +191,35 @@ private void countOneSegment(OrdinalMap ordinalMap, TextMultiValues segValues, i
 
 		DocIdSetIterator docs = hits.bits.iterator();
 
-		// TODO: yet another option is to count all segs
-		// first, only in seg-ord space, and then do a
-		// merge-sort-PQ in the end to only "resolve to
-		// global" those seg ords that can compete, if we know
-		// we just want top K?  ie, this is the same algo
-		// that'd be used for merging facets across shards
-		// (distributed faceting).  but this has much higher
-		// temp ram req'ts (sum of number of ords across all
-		// segs)
 		if ( ordinalMap != null ) {
+			// Count in seg-ord space first, and only remap the ordinals that were actually hit to global ords:
+			// this avoids a remapping for every single value of every single matching document.
 			final LongValues ordMap = ordinalMap.getGlobalOrds( segOrd );
 
 			int numSegOrds = (int) segValues.getValueCount();
 
 			if ( hits.totalHits < numSegOrds / 10 ) {
-				IntProcedure incrementCountForOrdinal = ord -> counts[ord]++;
-				// Remap every ord to global ord as we iterate:
+				// Sparse case: avoid allocating an array as large as the number of ords in this segment.
+				final IntIntHashMap segCounts = new IntIntHashMap();
+				IntProcedure incrementCountForOrdinal = ord -> segCounts.addTo( ord, 1 );
 				for ( int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc() ) {
 					if ( !segValues.advanceExact( doc ) ) {
 						continue; // No value for this doc
 					}
 					while ( segValues.hasNextValue() ) {
 						int term = (int) segValues.nextOrd();
-						int globalOrd = (int) ordMap.get( term );
-						uniqueOrdinalsForDocument.add( globalOrd );
+						uniqueOrdinalsForDocument.add( term );
 					}
 					uniqueOrdinalsForDocument.forEach( incrementCountForOrdinal );
 					uniqueOrdinalsForDocument.clear();
 				}
+
+				// Then, migrate to global ords:
+				for ( IntIntCursor cursor : segCounts ) {
+					counts[(int) ordMap.get( cursor.key )] += cursor.value;
+				}
 			}
 			else {
-				// First count in seg-ord space:
 				final int[] segCounts = new int[numSegOrds];
 				IntProcedure incrementCountForOrdinal = ord -> segCounts[ord]++;
 				for ( int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc() ) {
@@ -205,18 +264,9 @@ private void countOneSegment(OrdinalMap ordinalMap, TextMultiValues segValues, i
 	/**
 	 * Does all the "real work" of tallying up the counts.
 	 */
-	private void count(IndexReader reader, TextMultiValuesSource valuesSource, List<MatchingDocs> matchingDocs) throws IOException {
-		OrdinalMap ordinalMap;
-
-		// TODO: is this right?  really, we need a way to
-		// verify that this ordinalMap "matches" the leaves in
-		// matchingDocs...
-		if ( dv instanceof MultiSortedSetDocValues && matchingDocs.size() > 1 ) {
-			ordinalMap = ( (MultiSortedSetDocValues) dv ).mapping;
-		}
-		else {
-			ordinalMap = null;
-		}
+	private List<ShardCounts> count(IndexReader reader, TextMultiValuesSource valuesSource,
+			List<MatchingDocs> matchingDocs) throws IOException {
+		Map<IndexReaderContext, ShardCounts> countsByShard = new LinkedHashMap<>();
 
 		for ( MatchingDocs hits : matchingDocs ) {
 
@@ -229,8 +279,45 @@ private void count(IndexReader reader, TextMultiValuesSource valuesSource, List<
 						"the SortedSetDocValuesReaderState provided to this class does not match the reader being searched; you must create a new SortedSetDocValuesReaderState every time you open a new IndexReader" );
 			}
 
-			countOneSegment( ordinalMap, valuesSource.getValues( hits.context ), hits.context.ord, hits );
+			// Each shard is a separate sub-reader of the top-level reader:
+			// the parent context of a leaf identifies its shard.
+			IndexReaderContext shardContext = hits.context.parent == null ? hits.context : hits.context.parent;
+			ShardCounts shard = countsByShard.get( shardContext );
+			if ( shard == null ) {
+				shard = createShardCounts( shardContext.reader() );
+				countsByShard.put( shardContext, shard );
+			}
+			if ( shard.dv == null ) {
+				// No value for this field in this shard
+				continue;
+			}
+
+			OrdinalMap ordinalMap = shard.dv instanceof MultiSortedSetDocValues
+					? ( (MultiSortedSetDocValues) shard.dv ).mapping
+					: null;
+			countOneSegment( shard.counts, ordinalMap, valuesSource.getValues( hits.context ),
+					hits.context.ordInParent, hits );
 		}
+
+		List<ShardCounts> result = new ArrayList<>( countsByShard.size() );
+		for ( ShardCounts shard : countsByShard.values() ) {
+			if ( shard.dv != null ) {
+				result.add( shard );
+			}
+		}
+		return result;
+	}
+
+	private ShardCounts createShardCounts(IndexReader shardReader) throws IOException {
+		SortedSetDocValues dv = ordinalMapCache.getSortedSetValues( shardReader, field );
+		if ( dv != null && dv.getValueCount() > Integer.MAX_VALUE ) {
+			// We may want to remove this limitation?
+			// Note that DefaultSortedSetDocValuesReaderState has the same limitation,
+			// so this is no worse than the "legacy" facets from Search 5.
+			throw new IllegalStateException(
+					"Cannot aggregate when more than " + Integer.MAX_VALUE + " terms are indexed" );
+		}
+		return new ShardCounts( dv );
 	}
 
 	@Override
@@ -243,4 +330,14 @@ public List<FacetResult> getAllDims(int topN) throws IOException {
 		return Collections.singletonList( getTopChildren( topN, field ) );
 	}
 
+	private static final class ShardCounts {
+		final SortedSetDocValues dv;
+		final int[] counts;
+
+		ShardCounts(SortedSetDocValues dv) {
+			this.dv = dv;
+			this.counts = dv == null ? null : new int[(int) dv.getValueCount()];
+		}
+	}
+
 }
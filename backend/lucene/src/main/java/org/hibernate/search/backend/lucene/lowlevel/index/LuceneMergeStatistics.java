@@ -0,0 +1,66 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.index;
+
+/**
+ * Statistics about the merges executed in the background by the index writers of a Lucene backend,
+ * across all indexes of that backend.
+ * <p>
+ * Merges combine multiple index segments into a larger one,
+ * so that queries have fewer segments to look into and deleted documents get purged.
+ * They can be limited and throttled so that they don't compete with queries and indexing for disk and CPU:
+ * see the {@code io.merge.total_*} and {@code io.merge.throttle*} settings in
+ * {@link org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings}.
+ */
+public interface LuceneMergeStatistics {
+
+	/**
+	 * @return The number of merges currently executing.
+	 */
+	int runningMergeCount();
+
+	/**
+	 * @return The number of merges currently waiting for other merges to finish before they can start,
+	 * because of the merge thread budget.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#IO_MERGE_TOTAL_THREAD_COUNT
+	 */
+	int waitingMergeCount();
+
+	/**
+	 * @return The number of merges that finished executing, successfully or not.
+	 */
+	long completedMergeCount();
+
+	/**
+	 * @return The total number of documents in the segments merged by completed merges.
+	 */
+	long mergedDocCount();
+
+	/**
+	 * @return The total size of the segments merged by completed merges, in bytes.
+	 */
+	long mergedBytes();
+
+	/**
+	 * @return The total time spent executing completed merges, in milliseconds.
+	 */
+	long totalMergeTimeMillis();
+
+	/**
+	 * @return {@code true} if merges are currently throttled because of query latency or indexing queue size,
+	 * {@code false} otherwise.
+	 * @see org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings#IO_MERGE_THROTTLED_MB_PER_SEC
+	 */
+	boolean throttled();
+
+	/**
+	 * @return The maximum rate at which merges currently write to disk, across all indexes combined,
+	 * in megabytes per second, or {@code 0} if the rate is not limited.
+	 */
+	double maxMBPerSec();
+
+}
@@ -10,6 +10,8 @@
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.NotSharedIndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterConfigSource;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
 import org.hibernate.search.engine.reporting.FailureHandler;
@@ -17,12 +19,16 @@
 
 public class DebugIOStrategy extends IOStrategy {
 
-	public static DebugIOStrategy create(BackendThreads threads, FailureHandler failureHandler) {
-		return new DebugIOStrategy( threads, failureHandler );
+	public static DebugIOStrategy create(BackendThreads threads, FailureHandler failureHandler,
+			IndexWriterMemoryController writerMemoryControllerOrNull, IndexMergeController mergeController) {
+		return new DebugIOStrategy( threads, failureHandler, writerMemoryControllerOrNull, mergeController );
 	}
 
-	private DebugIOStrategy(BackendThreads threads, FailureHandler failureHandler) {
-		super( threads, failureHandler );
+	private DebugIOStrategy(BackendThreads threads, FailureHandler failureHandler,
+			IndexWriterMemoryController writerMemoryControllerOrNull, IndexMergeController mergeController) {
+		// Commits are rare with this strategy: no need to wait for other commit requests.
+		// Index readers are not shared with this strategy: no need to close idle ones.
+		super( threads, failureHandler, writerMemoryControllerOrNull, mergeController, 0, null, 0 );
 	}
 
 	@Override
@@ -33,12 +39,16 @@ IndexWriterProvider createIndexWriterProvider(String indexName, EventContext eve
 				directoryHolder, configSource,
 				null, 0,
 				threads,
-				failureHandler
+				failureHandler,
+				writerMemoryControllerOrNull,
+				mergeController,
+				// Every change is committed immediately with this strategy: no need for a translog.
+				false
 		);
 	}
 
 	@Override
-	IndexReaderProvider createIndexReaderProvider(DirectoryHolder directoryHolder,
+	IndexReaderProvider createIndexReaderProvider(EventContext eventContext, DirectoryHolder directoryHolder,
 			IndexWriterProvider indexWriterProvider) {
 		return new NotSharedIndexReaderProvider( directoryHolder );
 	}
@@ -0,0 +1,104 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.index.impl;
+
+/**
+ * An operation that may be requested by many threads concurrently,
+ * but only needs to be executed once for all the requests that were issued before it started.
+ * <p>
+ * This is typically used for "group commits":
+ * when multiple threads request a commit at the same time,
+ * a single commit executed after all requests were issued is enough to satisfy all of them.
+ * <p>
+ * Each execution is assigned a sequence number when it starts.
+ * A request is satisfied as soon as an execution with a sequence number
+ * strictly higher than the last sequence number known at the time of the request completes.
+ * Threads whose request is not satisfied yet wait for the current execution to finish,
+ * then either return immediately if another thread executed the operation on their behalf,
+ * or execute the operation themselves.
+ * <p>
+ * Optionally, the thread executing the operation can wait for a given amount of time before starting the execution,
+ * so that requests issued during that time are satisfied by the same execution.
+ */
+final class GroupedOperation {
+
+	private final Runnable operation;
+	private final int groupingWindow;
+
+	private final Object lock = new Object();
+
+	/**
+	 * The sequence number of the last execution that was started.
+	 * Only incremented while holding {@link #lock}.
+	 */
+	private volatile long startedSequenceNumber = 0L;
+	/**
+	 * The sequence number of the last execution that completed successfully.
+	 * Only updated while holding {@link #lock}.
+	 */
+	private volatile long completedSequenceNumber = 0L;
+
+	/**
+	 * @param operation The operation to execute.
+	 * @param groupingWindow How long, in milliseconds, to wait for other requests before executing the operation.
+	 */
+	GroupedOperation(Runnable operation, int groupingWindow) {
+		this.operation = operation;
+		this.groupingWindow = groupingWindow;
+	}
+
+	/**
+	 * Make sure the operation gets executed after this call,
+	 * either in the current thread or in another thread,
+	 * and wait for the execution to complete.
+	 * <p>
+	 * If the execution fails, the exception is propagated to the thread that executed the operation only;
+	 * other threads will try to execute the operation themselves.
+	 */
+	void execute() {
+		// Any execution started after this point will satisfy this request.
+		long targetSequenceNumber = startedSequenceNumber + 1;
+		synchronized (lock) {
+			if ( completedSequenceNumber >= targetSequenceNumber ) {
+				// Another thread executed the operation on our behalf while we were waiting for the lock.
+				return;
+			}
+			boolean interrupted = waitForOtherRequests();
+			try {
+				// Requests issued before this point, even while we were waiting, will be satisfied by this execution.
+				long sequenceNumber = startedSequenceNumber + 1;
+				startedSequenceNumber = sequenceNumber;
+				operation.run();
+				completedSequenceNumber = sequenceNumber;
+			}
+			finally {
+				if ( interrupted ) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if the thread was interrupted while waiting.
+	 * The interrupt flag is cleared in that case, so that the operation can execute normally:
+	 * Lucene I/O may fail when the current thread is interrupted.
+	 */
+	private boolean waitForOtherRequests() {
+		if ( groupingWindow <= 0 ) {
+			return false;
+		}
+		try {
+			Thread.sleep( groupingWindow );
+			return false;
+		}
+		catch (InterruptedException e) {
+			// Just execute the operation immediately.
+			return true;
+		}
+	}
+}
@@ -8,9 +8,12 @@
 
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderProvider;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterConfigSource;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
 import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.util.common.impl.SuppressingCloser;
 import org.hibernate.search.util.common.reporting.EventContext;
@@ -19,10 +22,23 @@ public abstract class IOStrategy {
 
 	final BackendThreads threads;
 	final FailureHandler failureHandler;
+	final IndexWriterMemoryController writerMemoryControllerOrNull;
+	final IndexMergeController mergeController;
+	private final int groupCommitWindow;
+	private final TimingSource timingSource;
+	private final int idleTimeout;
 
-	protected IOStrategy(BackendThreads threads, FailureHandler failureHandler) {
+	protected IOStrategy(BackendThreads threads, FailureHandler failureHandler,
+			IndexWriterMemoryController writerMemoryControllerOrNull, IndexMergeController mergeController,
+			int groupCommitWindow,
+			TimingSource timingSource, int idleTimeout) {
 		this.threads = threads;
 		this.failureHandler = failureHandler;
+		this.writerMemoryControllerOrNull = writerMemoryControllerOrNull;
+		this.mergeController = mergeController;
+		this.groupCommitWindow = groupCommitWindow;
+		this.timingSource = timingSource;
+		this.idleTimeout = idleTimeout;
 	}
 
 	public IndexAccessorImpl createIndexAccessor(String indexName, EventContext eventContext,
@@ -31,10 +47,12 @@ public IndexAccessorImpl createIndexAccessor(String indexName, EventContext even
 		IndexReaderProvider indexReaderProvider = null;
 		try {
 			indexWriterProvider = createIndexWriterProvider( indexName, eventContext, directoryHolder, writerConfigSource );
-			indexReaderProvider = createIndexReaderProvider( directoryHolder, indexWriterProvider );
+			indexReaderProvider = createIndexReaderProvider( eventContext, directoryHolder, indexWriterProvider );
 			return new IndexAccessorImpl(
 					eventContext,
-					directoryHolder, indexWriterProvider, indexReaderProvider
+					directoryHolder, indexWriterProvider, indexReaderProvider,
+					groupCommitWindow,
+					timingSource, idleTimeout, threads.getWriteExecutor(), failureHandler
 			);
 		}
 		catch (RuntimeException e) {
@@ -49,7 +67,7 @@ public IndexAccessorImpl createIndexAccessor(String indexName, EventContext even
 	abstract IndexWriterProvider createIndexWriterProvider(String indexName, EventContext eventContext,
 			DirectoryHolder directoryHolder, IndexWriterConfigSource configSource);
 
-	abstract IndexReaderProvider createIndexReaderProvider(DirectoryHolder directoryHolder,
+	abstract IndexReaderProvider createIndexReaderProvider(EventContext eventContext, DirectoryHolder directoryHolder,
 			IndexWriterProvider indexWriterProvider);
 
 }
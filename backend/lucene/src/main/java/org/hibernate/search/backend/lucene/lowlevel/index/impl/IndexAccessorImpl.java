@@ -9,6 +9,9 @@
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.common.impl.AnalyzerConstants;
@@ -17,6 +20,9 @@
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegator;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegatorImpl;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
+import org.hibernate.search.engine.reporting.FailureContext;
+import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.util.common.impl.Closer;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 import org.hibernate.search.util.common.reporting.EventContext;
@@ -38,22 +44,50 @@ public class IndexAccessorImpl implements AutoCloseable, IndexAccessor {
 	private final DirectoryHolder directoryHolder;
 	private final IndexWriterProvider indexWriterProvider;
 	private final IndexReaderProvider indexReaderProvider;
+	private final GroupedOperation groupedCommit;
+
+	private final TimingSource timingSource;
+	private final int idleTimeout;
+	private final ScheduledExecutorService idleCheckExecutor;
+	private final FailureHandler failureHandler;
+
+	private volatile long lastAccess;
+	private Future<?> scheduledIdleCheck;
 
 	public IndexAccessorImpl(EventContext eventContext,
 			DirectoryHolder directoryHolder,
-			IndexWriterProvider indexWriterProvider, IndexReaderProvider indexReaderProvider) {
+			IndexWriterProvider indexWriterProvider, IndexReaderProvider indexReaderProvider,
+			int groupCommitWindow,
+			TimingSource timingSource, int idleTimeout,
+			ScheduledExecutorService idleCheckExecutor, FailureHandler failureHandler) {
 		this.eventContext = eventContext;
 		this.directoryHolder = directoryHolder;
 		this.indexWriterProvider = indexWriterProvider;
 		this.indexReaderProvider = indexReaderProvider;
+		// Forced commits requested concurrently, e.g. by multiple indexing queues, are merged into a single commit.
+		this.groupedCommit = new GroupedOperation( this::doCommit, groupCommitWindow );
+		this.timingSource = timingSource;
+		this.idleTimeout = idleTimeout;
+		this.idleCheckExecutor = idleCheckExecutor;
+		this.failureHandler = failureHandler;
 	}
 
 	public void start() throws IOException {
 		directoryHolder.start();
+		indexWriterProvider.start();
+		if ( idleTimeout > 0 ) {
+			lastAccess = timingSource.monotonicTimeEstimate();
+			scheduledIdleCheck = idleCheckExecutor.scheduleWithFixedDelay( this::closeIfIdle,
+					idleTimeout, idleTimeout, TimeUnit.MILLISECONDS );
+		}
 	}
 
 	@Override
 	public void close() {
+		if ( scheduledIdleCheck != null ) {
+			scheduledIdleCheck.cancel( false );
+			scheduledIdleCheck = null;
+		}
 		try ( Closer<IOException> closer = new Closer<>() ) {
 			closer.push( IndexWriterProvider::clear, indexWriterProvider );
 			closer.push( IndexReaderProvider::clear, indexReaderProvider );
@@ -129,6 +163,11 @@ private synchronized void clear() throws IOException {
 
 	@Override
 	public void commit() {
+		touch();
+		groupedCommit.execute();
+	}
+
+	private void doCommit() {
 		IndexWriterDelegatorImpl delegator = indexWriterProvider.getOrNull();
 		if ( delegator != null ) {
 			delegator.commit();
@@ -137,6 +176,7 @@ public void commit() {
 
 	@Override
 	public void commitOrDelay() {
+		touch();
 		IndexWriterDelegatorImpl delegator = indexWriterProvider.getOrNull();
 		if ( delegator != null ) {
 			delegator.commitOrDelay();
@@ -145,11 +185,13 @@ public void commitOrDelay() {
 
 	@Override
 	public void refresh() {
+		touch();
 		indexReaderProvider.refresh();
 	}
 
 	@Override
 	public void mergeSegments() {
+		touch();
 		try {
 			indexWriterProvider.getOrCreate().mergeSegments();
 		}
@@ -160,11 +202,13 @@ public void mergeSegments() {
 
 	@Override
 	public IndexWriterDelegator getIndexWriterDelegator() throws IOException {
+		touch();
 		return indexWriterProvider.getOrCreate();
 	}
 
 	@Override
 	public DirectoryReader getIndexReader() throws IOException {
+		touch();
 		return indexReaderProvider.getOrCreate();
 	}
 
@@ -205,6 +249,15 @@ public long computeSizeInBytes() {
 		return totalSize;
 	}
 
+	/**
+	 * @return The amount of RAM used by the indexing buffer of the index writer, in bytes,
+	 * or {@code 0} if no index writer is currently open.
+	 */
+	public long indexingBufferRamBytesUsed() {
+		IndexWriterDelegatorImpl indexWriterDelegator = indexWriterProvider.getOrNull();
+		return indexWriterDelegator == null ? 0L : indexWriterDelegator.ramBytesUsed();
+	}
+
 	public Directory getDirectoryForTests() {
 		return directoryHolder.get();
 	}
@@ -213,6 +266,48 @@ public IndexWriter getWriterForTests() throws IOException {
 		return indexWriterProvider.getOrCreate().getDelegateForTests();
 	}
 
+	/**
+	 * Records an access to the index writer or reader.
+	 * <p>
+	 * Must be called <em>before</em> retrieving the index writer or reader,
+	 * so that {@link #closeIfIdle()} never closes them while they are in use.
+	 */
+	private void touch() {
+		if ( idleTimeout <= 0 ) {
+			return;
+		}
+		long now = timingSource.monotonicTimeEstimate();
+		// Avoid writing to the volatile field when the (coarse-grained) time estimate didn't change.
+		if ( lastAccess != now ) {
+			lastAccess = now;
+		}
+	}
+
+	private boolean isIdle() {
+		return timingSource.monotonicTimeEstimate() - lastAccess >= idleTimeout;
+	}
+
+	synchronized void closeIfIdle() {
+		try {
+			if ( !isIdle() || indexWriterProvider.getOrNull() == null ) {
+				return;
+			}
+			// NRT readers are opened from the index writer and cannot be refreshed once it's closed:
+			// close the reader first, the next query will open a new one.
+			indexReaderProvider.clear();
+			if ( indexWriterProvider.clearIfIdle( this::isIdle ) ) {
+				log.tracef( "Closed idle index writer and reader for %s", eventContext.render() );
+			}
+		}
+		catch (Throwable t) {
+			FailureContext.Builder failureContextBuilder = FailureContext.builder();
+			failureContextBuilder.throwable( t );
+			failureContextBuilder.failingOperation( "Closing the idle index writer and reader for "
+					+ eventContext.render() );
+			failureHandler.handle( failureContextBuilder.build() );
+		}
+	}
+
 	private void initializeDirectory(Directory directory) throws IOException {
 		try {
 			IndexWriterConfig iwriterConfig = new IndexWriterConfig( AnalyzerConstants.KEYWORD_ANALYZER )
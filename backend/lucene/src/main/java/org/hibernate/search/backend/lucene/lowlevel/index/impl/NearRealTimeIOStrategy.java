@@ -6,21 +6,30 @@
  */
 package org.hibernate.search.backend.lucene.lowlevel.index.impl;
 
+import java.lang.invoke.MethodHandles;
+
 import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
+import org.hibernate.search.backend.lucene.lowlevel.reader.impl.BackgroundRefreshIndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.NearRealTimeIndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterConfigSource;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterMemoryController;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
 import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
 import org.hibernate.search.engine.common.timing.spi.TimingSource;
 import org.hibernate.search.engine.reporting.FailureHandler;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 import org.hibernate.search.util.common.reporting.EventContext;
 
 public class NearRealTimeIOStrategy extends IOStrategy {
 
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
 	private static final ConfigurationProperty<Integer> COMMIT_INTERVAL =
 			ConfigurationProperty.forKey( LuceneIndexSettings.IO_COMMIT_INTERVAL )
 					.asInteger()
@@ -33,27 +42,70 @@ public class NearRealTimeIOStrategy extends IOStrategy {
 					.withDefault( LuceneIndexSettings.Defaults.IO_REFRESH_INTERVAL )
 					.build();
 
+	private static final ConfigurationProperty<Boolean> BACKGROUND_REFRESH =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_BACKGROUND_REFRESH )
+					.asBoolean()
+					.withDefault( LuceneIndexSettings.Defaults.IO_BACKGROUND_REFRESH )
+					.build();
+
+	private static final ConfigurationProperty<Integer> GROUP_COMMIT_WINDOW =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_GROUP_COMMIT_WINDOW )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.IO_GROUP_COMMIT_WINDOW )
+					.build();
+
+	private static final ConfigurationProperty<Integer> IDLE_TIMEOUT =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_IDLE_TIMEOUT )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.IO_IDLE_TIMEOUT )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> TRANSLOG_ENABLED =
+			ConfigurationProperty.forKey( LuceneIndexSettings.IO_TRANSLOG_ENABLED )
+					.asBoolean()
+					.withDefault( LuceneIndexSettings.Defaults.IO_TRANSLOG_ENABLED )
+					.build();
+
 	public static NearRealTimeIOStrategy create(ConfigurationPropertySource propertySource,
-			TimingSource timingSource, BackendThreads threads, FailureHandler failureHandler) {
+			TimingSource timingSource, BackendThreads threads, FailureHandler failureHandler,
+			IndexWriterMemoryController writerMemoryControllerOrNull, IndexMergeController mergeController) {
 		int commitInterval = COMMIT_INTERVAL.get( propertySource );
 		int refreshInterval = REFRESH_INTERVAL.get( propertySource );
+		boolean backgroundRefresh = BACKGROUND_REFRESH.get( propertySource );
+		if ( backgroundRefresh && refreshInterval <= 0 ) {
+			throw log.invalidRefreshIntervalForBackgroundRefresh( refreshInterval );
+		}
+		int groupCommitWindow = GROUP_COMMIT_WINDOW.get( propertySource );
+		int idleTimeout = IDLE_TIMEOUT.get( propertySource );
+		if ( idleTimeout > 0 ) {
+			timingSource.ensureTimeEstimateIsInitialized();
+		}
+		boolean translogEnabled = TRANSLOG_ENABLED.get( propertySource );
 		return new NearRealTimeIOStrategy(
-				timingSource, commitInterval, refreshInterval,
-				threads, failureHandler
+				timingSource, commitInterval, refreshInterval, backgroundRefresh,
+				threads, failureHandler, writerMemoryControllerOrNull, mergeController, groupCommitWindow, idleTimeout,
+				translogEnabled
 		);
 	}
 
 	private final TimingSource timingSource;
 	private final int commitInterval;
 	private final int refreshInterval;
+	private final boolean backgroundRefresh;
+	private final boolean translogEnabled;
 
 	private NearRealTimeIOStrategy(TimingSource timingSource, int commitInterval, int refreshInterval,
-			BackendThreads threads,
-			FailureHandler failureHandler) {
-		super( threads, failureHandler );
+			boolean backgroundRefresh, BackendThreads threads,
+			FailureHandler failureHandler, IndexWriterMemoryController writerMemoryControllerOrNull,
+			IndexMergeController mergeController, int groupCommitWindow, int idleTimeout,
+			boolean translogEnabled) {
+		super( threads, failureHandler, writerMemoryControllerOrNull, mergeController, groupCommitWindow,
+				timingSource, idleTimeout );
 		this.timingSource = timingSource;
 		this.commitInterval = commitInterval;
 		this.refreshInterval = refreshInterval;
+		this.backgroundRefresh = backgroundRefresh;
+		this.translogEnabled = translogEnabled;
 	}
 
 	@Override
@@ -66,13 +118,19 @@ IndexWriterProvider createIndexWriterProvider(String indexName, EventContext eve
 				indexName, eventContext,
 				directoryHolder, configSource,
 				timingSource, commitInterval, threads,
-				failureHandler
+				failureHandler, writerMemoryControllerOrNull, mergeController,
+				translogEnabled
 		);
 	}
 
 	@Override
-	IndexReaderProvider createIndexReaderProvider(DirectoryHolder directoryHolder,
+	IndexReaderProvider createIndexReaderProvider(EventContext eventContext, DirectoryHolder directoryHolder,
 			IndexWriterProvider indexWriterProvider) {
+		if ( backgroundRefresh ) {
+			// Refreshes happen in the same thread pool as (delayed) commits.
+			return new BackgroundRefreshIndexReaderProvider( indexWriterProvider, eventContext,
+					threads.getWriteExecutor(), refreshInterval, failureHandler );
+		}
 		if ( refreshInterval != 0 ) {
 			timingSource.ensureTimeEstimateIsInitialized();
 		}
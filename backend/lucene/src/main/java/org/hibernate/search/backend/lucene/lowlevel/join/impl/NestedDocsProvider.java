@@ -36,23 +36,27 @@ public class NestedDocsProvider {
 	private final BitSetProducer parentFilter;
 	private final Query childQuery;
 
-	public NestedDocsProvider(String nestedDocumentPath, Query originalParentQuery) {
-		this( Collections.singleton( nestedDocumentPath ), originalParentQuery, null );
+	/**
+	 * @param parentFilter A bitset producer matching *all* main documents, not just the matched ones.
+	 * Otherwise we will not "see" non-matched parents,
+	 * and we will consider its matching children as children of the next matching parent.
+	 */
+	public NestedDocsProvider(BitSetProducer parentFilter, String nestedDocumentPath, Query originalParentQuery) {
+		this( parentFilter, Collections.singleton( nestedDocumentPath ), originalParentQuery, null );
 	}
 
-	public NestedDocsProvider(String nestedDocumentPath, Query originalParentQuery, Query nestedFilter) {
-		this( Collections.singleton( nestedDocumentPath ), originalParentQuery, nestedFilter );
+	public NestedDocsProvider(BitSetProducer parentFilter, String nestedDocumentPath, Query originalParentQuery,
+			Query nestedFilter) {
+		this( parentFilter, Collections.singleton( nestedDocumentPath ), originalParentQuery, nestedFilter );
 	}
 
-	public NestedDocsProvider(Set<String> nestedDocumentPaths, Query originalParentQuery) {
-		this( nestedDocumentPaths, originalParentQuery, null );
+	public NestedDocsProvider(BitSetProducer parentFilter, Set<String> nestedDocumentPaths, Query originalParentQuery) {
+		this( parentFilter, nestedDocumentPaths, originalParentQuery, null );
 	}
 
-	public NestedDocsProvider(Set<String> nestedDocumentPaths, Query originalParentQuery, Query nestedFilter) {
-		// Note: this filter should include *all* parents, not just the matched ones.
-		// Otherwise we will not "see" non-matched parents,
-		// and we will consider its matching children as children of the next matching parent.
-		this.parentFilter = Queries.parentFilter( null );
+	public NestedDocsProvider(BitSetProducer parentFilter, Set<String> nestedDocumentPaths, Query originalParentQuery,
+			Query nestedFilter) {
+		this.parentFilter = parentFilter;
 		this.childQuery = Queries.findChildQuery( parentFilter, nestedDocumentPaths, originalParentQuery, nestedFilter );
 	}
 
@@ -65,6 +69,8 @@ public DocIdSetIterator childDocs(LeafReaderContext context) throws IOException
 
 		// Maybe we can cache on shard-base. See Elasticsearch code.
 		IndexSearcher indexSearcher = new IndexSearcher( topLevelCtx );
+		// Don't pollute the query cache shared by the whole JVM.
+		indexSearcher.setQueryCache( null );
 
 		Weight weight = childDocsWeight( indexSearcher );
 		return childDocs( weight, context );
@@ -0,0 +1,86 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.query.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Weight;
+
+/**
+ * A query wrapping the query of a {@code filter} clause in a boolean predicate,
+ * so that the query caching policy can recognize it.
+ * <p>
+ * Apart from that, this query is transparent:
+ * it matches the same documents as the wrapped query, has the same string representation,
+ * and is equal to another instance wrapping an equal query.
+ */
+public final class FilterClauseQuery extends Query {
+
+	private final Query delegate;
+
+	FilterClauseQuery(Query delegate) {
+		this.delegate = delegate;
+	}
+
+	public Query getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public String toString(String field) {
+		return delegate.toString( field );
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return sameClassAs( obj )
+				&& delegate.equals( ( (FilterClauseQuery) obj ).delegate );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * classHash() + delegate.hashCode();
+	}
+
+	@Override
+	public Query rewrite(IndexReader reader) throws IOException {
+		Query rewritten = delegate.rewrite( reader );
+		return rewritten == delegate ? this : new FilterClauseQuery( rewritten );
+	}
+
+	@Override
+	public void visit(QueryVisitor visitor) {
+		delegate.visit( visitor.getSubVisitor( BooleanClause.Occur.FILTER, this ) );
+	}
+
+	@Override
+	public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+		// Don't call searcher.createWeight(delegate, ...): the delegate would be cached separately.
+		Weight delegateWeight = delegate.createWeight( searcher, scoreMode, boost );
+		return new FilterWeight( this, delegateWeight ) {
+			@Override
+			public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+				return in.scorerSupplier( context );
+			}
+
+			@Override
+			public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+				return in.bulkScorer( context );
+			}
+		};
+	}
+}
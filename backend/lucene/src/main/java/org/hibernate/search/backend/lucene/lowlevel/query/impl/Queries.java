@@ -61,10 +61,22 @@ public static Query boolFilter(Query must, List<Query> filters) {
 		return queryBuilder.build();
 	}
 
+	public static Query filterClause(Query query) {
+		return new FilterClauseQuery( query );
+	}
+
 	public static Query term(String absoluteFieldPath, String value) {
 		return new TermQuery( new Term( absoluteFieldPath, value ) );
 	}
 
+	public static Query allTerms(Term... terms) {
+		BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+		for ( Term term : terms ) {
+			queryBuilder.add( new TermQuery( term ), Occur.FILTER );
+		}
+		return queryBuilder.build();
+	}
+
 	public static Query anyTerm(String absoluteFieldPath, Set<String> values) {
 		BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
 		for ( String routingKey : values ) {
@@ -76,15 +88,17 @@ public static Query anyTerm(String absoluteFieldPath, Set<String> values) {
 		return queryBuilder.build();
 	}
 
-	public static BitSetProducer parentFilter(String parentNestedDocumentPath) {
-		Query parentQuery;
+	public static Query parentQuery(String parentNestedDocumentPath) {
 		if ( parentNestedDocumentPath == null ) {
-			parentQuery = Queries.mainDocumentQuery();
+			return Queries.mainDocumentQuery();
 		}
 		else {
-			parentQuery = Queries.nestedDocumentPathQuery( parentNestedDocumentPath );
+			return Queries.nestedDocumentPathQuery( parentNestedDocumentPath );
 		}
-		return new QueryBitSetProducer( parentQuery );
+	}
+
+	public static BitSetProducer parentFilter(String parentNestedDocumentPath) {
+		return new QueryBitSetProducer( parentQuery( parentNestedDocumentPath ) );
 	}
 
 	public static BooleanQuery findChildQuery(BitSetProducer parentFilter,
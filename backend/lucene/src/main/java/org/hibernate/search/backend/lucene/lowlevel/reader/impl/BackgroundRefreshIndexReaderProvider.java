@@ -0,0 +1,183 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.reader.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
+import org.hibernate.search.engine.reporting.FailureContext;
+import org.hibernate.search.engine.reporting.FailureHandler;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.apache.lucene.index.DirectoryReader;
+
+/**
+ * An index reader holder that opens an index reader from the index writer,
+ * thereby providing a near-real-time view on the index,
+ * and refreshes that reader periodically in a background task.
+ * <p>
+ * Contrary to {@link NearRealTimeIndexReaderProvider},
+ * search queries never refresh the index reader themselves:
+ * they simply grab the current reader, without any locking nor any I/O.
+ * The only exception is the very first query, which has to open the first reader.
+ * <p>
+ * Forced refreshes (see {@link #refresh()}) are executed synchronously,
+ * but concurrent requests are coalesced:
+ * a caller whose request is fulfilled by a refresh started by another thread
+ * will simply wait for that refresh to complete instead of triggering another one.
+ */
+public class BackgroundRefreshIndexReaderProvider implements IndexReaderProvider {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final IndexWriterProvider indexWriterProvider;
+	private final EventContext eventContext;
+	private final ScheduledExecutorService refreshExecutor;
+	private final int refreshInterval;
+	private final FailureHandler failureHandler;
+
+	private final Object refreshLock = new Object();
+
+	/**
+	 * Current open IndexReader, or null when closed.
+	 */
+	private volatile DirectoryReader currentReader = null;
+
+	/**
+	 * The number of refreshes that were started.
+	 * Only incremented while holding {@link #refreshLock}.
+	 */
+	private volatile long startedRefreshGeneration = 0L;
+	/**
+	 * The number of refreshes that were completed.
+	 * Only updated while holding {@link #refreshLock}.
+	 */
+	private volatile long completedRefreshGeneration = 0L;
+
+	/**
+	 * The periodic refresh task, or null when there is no reader to refresh.
+	 * Only accessed while holding {@link #refreshLock}.
+	 */
+	private Future<?> scheduledRefresh;
+
+	public BackgroundRefreshIndexReaderProvider(IndexWriterProvider indexWriterProvider, EventContext eventContext,
+			ScheduledExecutorService refreshExecutor, int refreshInterval,
+			FailureHandler failureHandler) {
+		this.indexWriterProvider = indexWriterProvider;
+		this.eventContext = eventContext;
+		this.refreshExecutor = refreshExecutor;
+		this.refreshInterval = refreshInterval;
+		this.failureHandler = failureHandler;
+	}
+
+	@Override
+	public void clear() throws IOException {
+		synchronized (refreshLock) {
+			if ( scheduledRefresh != null ) {
+				scheduledRefresh.cancel( false );
+				scheduledRefresh = null;
+			}
+			setCurrentReader( null );
+		}
+	}
+
+	@Override
+	public void refresh() {
+		// Any refresh started after this point will take into account the changes preceding this call.
+		long targetGeneration = startedRefreshGeneration + 1;
+		synchronized (refreshLock) {
+			if ( currentReader == null ) {
+				// No reader yet: the next call to getOrCreate() will open an up-to-date reader.
+				return;
+			}
+			if ( completedRefreshGeneration >= targetGeneration ) {
+				// Another thread refreshed the reader while we were waiting for the lock.
+				return;
+			}
+			try {
+				doRefresh();
+			}
+			catch (RuntimeException | IOException e) {
+				throw log.unableToRefreshIndexReader( e.getMessage(), eventContext, e );
+			}
+		}
+	}
+
+	@Override
+	public DirectoryReader getOrCreate() throws IOException {
+		DirectoryReader reader = currentReader;
+		// Optimistic check to avoid synchronization:
+		// the reader may get closed by a concurrent refresh between the read and the call to tryIncRef,
+		// in which case we simply retry with the new reader.
+		while ( reader != null ) {
+			if ( reader.tryIncRef() ) {
+				return reader;
+			}
+			reader = currentReader;
+		}
+
+		synchronized (refreshLock) {
+			reader = currentReader;
+			if ( reader == null ) {
+				reader = indexWriterProvider.getOrCreate().openReader();
+				setCurrentReader( reader );
+				scheduledRefresh = refreshExecutor.scheduleWithFixedDelay( this::backgroundRefresh,
+						refreshInterval, refreshInterval, TimeUnit.MILLISECONDS );
+			}
+			// At this point the reference count is at least one, for the holder.
+			// Let's also increment the reference for the caller.
+			reader.incRef();
+			return reader;
+		}
+	}
+
+	private void backgroundRefresh() {
+		try {
+			synchronized (refreshLock) {
+				if ( currentReader == null ) {
+					// The provider was cleared in the meantime.
+					return;
+				}
+				doRefresh();
+			}
+		}
+		catch (Throwable t) {
+			FailureContext.Builder failureContextBuilder = FailureContext.builder();
+			failureContextBuilder.throwable( t );
+			failureContextBuilder.failingOperation( "Background refresh of the index reader for "
+					+ eventContext.render() );
+			failureHandler.handle( failureContextBuilder.build() );
+		}
+	}
+
+	// Must be called while holding refreshLock
+	private void doRefresh() throws IOException {
+		long generation = startedRefreshGeneration + 1;
+		startedRefreshGeneration = generation;
+		DirectoryReader newReaderOrNull = indexWriterProvider.getOrCreate().openReaderIfChanged( currentReader );
+		if ( newReaderOrNull != null ) {
+			setCurrentReader( newReaderOrNull );
+		}
+		completedRefreshGeneration = generation;
+	}
+
+	// Must be called while holding refreshLock
+	private void setCurrentReader(DirectoryReader newReader) throws IOException {
+		DirectoryReader oldReader = currentReader;
+		currentReader = newReader;
+		if ( oldReader != null ) {
+			// Make sure to close the old reader as soon as no user thread is using it.
+			oldReader.decRef();
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.reader.impl;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+
+/**
+ * A segment warmer reading the whole data of a given set of fields,
+ * i.e. their terms, norms and doc values,
+ * so that this data is loaded into the OS cache before search queries need it.
+ */
+public final class FieldDataSegmentWarmer implements SegmentWarmer {
+
+	private final List<String> absoluteFieldPaths;
+
+	public FieldDataSegmentWarmer(List<String> absoluteFieldPaths) {
+		this.absoluteFieldPaths = absoluteFieldPaths;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + absoluteFieldPaths + "]";
+	}
+
+	@Override
+	public void warm(LeafReader segmentReader) throws IOException {
+		for ( String absoluteFieldPath : absoluteFieldPaths ) {
+			FieldInfo fieldInfo = segmentReader.getFieldInfos().fieldInfo( absoluteFieldPath );
+			if ( fieldInfo == null ) {
+				// No document in this segment has a value for this field.
+				continue;
+			}
+			warmTerms( segmentReader, absoluteFieldPath );
+			if ( fieldInfo.hasNorms() ) {
+				consume( segmentReader.getNormValues( absoluteFieldPath ) );
+			}
+			warmDocValues( segmentReader, absoluteFieldPath, fieldInfo.getDocValuesType() );
+		}
+	}
+
+	private static void warmTerms(LeafReader segmentReader, String absoluteFieldPath) throws IOException {
+		Terms terms = segmentReader.terms( absoluteFieldPath );
+		if ( terms == null ) {
+			return;
+		}
+		TermsEnum termsEnum = terms.iterator();
+		while ( termsEnum.next() != null ) {
+			// Just load the terms.
+		}
+	}
+
+	private static void warmDocValues(LeafReader segmentReader, String absoluteFieldPath, DocValuesType type)
+			throws IOException {
+		switch ( type ) {
+			case NUMERIC: {
+				consume( segmentReader.getNumericDocValues( absoluteFieldPath ) );
+				break;
+			}
+			case BINARY: {
+				BinaryDocValues values = segmentReader.getBinaryDocValues( absoluteFieldPath );
+				while ( values != null && values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+					values.binaryValue();
+				}
+				break;
+			}
+			case SORTED: {
+				SortedDocValues values = segmentReader.getSortedDocValues( absoluteFieldPath );
+				while ( values != null && values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+					values.ordValue();
+				}
+				break;
+			}
+			case SORTED_NUMERIC: {
+				SortedNumericDocValues values = segmentReader.getSortedNumericDocValues( absoluteFieldPath );
+				while ( values != null && values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+					for ( int i = 0; i < values.docValueCount(); i++ ) {
+						values.nextValue();
+					}
+				}
+				break;
+			}
+			case SORTED_SET: {
+				SortedSetDocValues values = segmentReader.getSortedSetDocValues( absoluteFieldPath );
+				while ( values != null && values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+					while ( values.nextOrd() != SortedSetDocValues.NO_MORE_ORDS ) {
+						// Just load the ords.
+					}
+				}
+				break;
+			}
+			case NONE:
+			default:
+				break;
+		}
+	}
+
+	private static void consume(NumericDocValues values) throws IOException {
+		while ( values != null && values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+			values.longValue();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.reader.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+
+/**
+ * An {@link IndexSearcher} that optionally searches multiple index segments concurrently,
+ * using the given executor.
+ * <p>
+ * Only {@link #search(Query, CollectorManager)} and methods relying on it can leverage the executor:
+ * {@link #search(Query, Collector)} always executes in the calling thread.
+ * <p>
+ * When searching concurrently, segments are grouped into slices that never span multiple shards
+ * (or multiple indexes): each shard is searched independently, as in a scatter/gather approach,
+ * and results are merged when reducing collectors.
+ * Large shards are further split into multiple slices, so that each slice holds a reasonable amount of work.
+ */
+public class HibernateSearchIndexSearcher extends IndexSearcher {
+
+	// Same limits as the ones used by default in more recent versions of Lucene.
+	private static final int MAX_DOCS_PER_SLICE = 250_000;
+	private static final int MAX_SEGMENTS_PER_SLICE = 5;
+
+	public HibernateSearchIndexSearcher(IndexReader reader, Executor executorOrNull) {
+		super( reader, executorOrNull );
+	}
+
+	@Override
+	protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+		List<LeafSlice> slices = new ArrayList<>();
+		for ( List<LeafReaderContext> shardLeaves : groupByShard( leaves ).values() ) {
+			addShardSlices( slices, shardLeaves );
+		}
+		return slices.toArray( new LeafSlice[0] );
+	}
+
+	@Override
+	public <C extends Collector, T> T search(Query query, CollectorManager<C, T> collectorManager)
+			throws IOException {
+		try {
+			return super.search( query, collectorManager );
+		}
+		catch (RuntimeException e) {
+			// When searching concurrently, Lucene wraps failures in other threads
+			// into a RuntimeException wrapping an ExecutionException.
+			// Unwrap them so that callers get the same exceptions regardless of the presence of an executor.
+			Throwable cause = e.getCause();
+			if ( cause instanceof ExecutionException ) {
+				Throwable originalException = cause.getCause();
+				if ( originalException instanceof IOException ) {
+					throw (IOException) originalException;
+				}
+				else if ( originalException instanceof RuntimeException ) {
+					throw (RuntimeException) originalException;
+				}
+				else if ( originalException instanceof Error ) {
+					throw (Error) originalException;
+				}
+			}
+			throw e;
+		}
+	}
+
+	private static Map<IndexReaderContext, List<LeafReaderContext>> groupByShard(List<LeafReaderContext> leaves) {
+		// Each shard is a separate DirectoryReader in the HibernateSearchMultiReader,
+		// so the parent context of a leaf identifies its shard.
+		Map<IndexReaderContext, List<LeafReaderContext>> result = new LinkedHashMap<>();
+		for ( LeafReaderContext leaf : leaves ) {
+			IndexReaderContext shardContext = leaf.parent == null ? leaf : leaf.parent;
+			result.computeIfAbsent( shardContext, ignored -> new ArrayList<>() ).add( leaf );
+		}
+		return result;
+	}
+
+	private static void addShardSlices(List<LeafSlice> slices, List<LeafReaderContext> shardLeaves) {
+		// Leaves are grouped in the order of their doc base, so that slices are ordered by doc ID:
+		// since top docs from multiple slices are merged with ties broken by slice index,
+		// this is necessary for tie-breaking to be consistent with a sequential search.
+		// In particular, pagination with "searchAfter" relies on ties being ordered by doc ID.
+		List<LeafReaderContext> currentGroup = new ArrayList<>();
+		long currentDocCount = 0;
+		for ( LeafReaderContext leaf : shardLeaves ) {
+			currentGroup.add( leaf );
+			currentDocCount += leaf.reader().maxDoc();
+			if ( currentDocCount > MAX_DOCS_PER_SLICE || currentGroup.size() >= MAX_SEGMENTS_PER_SLICE ) {
+				slices.add( new LeafSlice( currentGroup.toArray( new LeafReaderContext[0] ) ) );
+				currentGroup.clear();
+				currentDocCount = 0;
+			}
+		}
+		if ( !currentGroup.isEmpty() ) {
+			slices.add( new LeafSlice( currentGroup.toArray( new LeafReaderContext[0] ) ) );
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.reader.spi;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.LeafReader;
+
+/**
+ * A component warming up new index segments before they become visible to search queries,
+ * so that the first search queries hitting these segments don't have to load data from disk.
+ * <p>
+ * Segment warmers are invoked for segments resulting from a merge, before the merge completes,
+ * and for segments added to the index reader upon refresh, before the refreshed reader is used.
+ * Warmers may for example execute warm-up queries on the given reader
+ * using a {@link org.apache.lucene.search.IndexSearcher},
+ * or read the doc values of fields used in sorts and aggregations.
+ * <p>
+ * Segment warmers must be thread-safe:
+ * they may be invoked concurrently for different segments of the same index.
+ */
+public interface SegmentWarmer {
+
+	/**
+	 * Warms up a new segment.
+	 * <p>
+	 * Failures will be logged and ignored: the segment will become visible to search queries regardless.
+	 *
+	 * @param segmentReader A reader on the new segment.
+	 * This reader must not be closed nor retained after this method returns.
+	 * @throws IOException If an I/O failure occurs.
+	 */
+	void warm(LeafReader segmentReader) throws IOException;
+
+}
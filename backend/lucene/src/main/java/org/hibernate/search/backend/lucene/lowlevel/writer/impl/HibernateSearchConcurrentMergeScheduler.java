@@ -6,6 +6,7 @@
  */
 package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
@@ -16,12 +17,15 @@
 
 import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.ThreadInterruptedException;
 
 /**
- * We customize Lucene's ConcurrentMergeScheduler to route eventual exceptions to our configurable failure handler
- * and override the name of merge threads.
+ * We customize Lucene's ConcurrentMergeScheduler to route eventual exceptions to our configurable failure handler,
+ * override the name of merge threads,
+ * and subject merges to the thread budget and write rate shared by all indexes of the backend.
  *
+ * @see IndexMergeController
  * @see FailureHandler
  * @since 3.3
  * @author Sanne Grinovero
@@ -35,14 +39,33 @@ class HibernateSearchConcurrentMergeScheduler extends ConcurrentMergeScheduler {
 	private final String contextDescription;
 	private final ThreadProvider threadProvider;
 	private final FailureHandler failureHandler;
+	private final IndexMergeController mergeController;
 
 	HibernateSearchConcurrentMergeScheduler(String indexName, String contextDescription,
 			ThreadProvider threadProvider,
-			FailureHandler failureHandler) {
+			FailureHandler failureHandler,
+			IndexMergeController mergeController) {
 		this.indexName = indexName;
 		this.contextDescription = contextDescription;
 		this.threadProvider = threadProvider;
 		this.failureHandler = failureHandler;
+		this.mergeController = mergeController;
+	}
+
+	@Override
+	protected void doMerge(MergeSource mergeSource, MergePolicy.OneMerge merge) throws IOException {
+		long startNanos = mergeController.beforeMerge();
+		try {
+			super.doMerge( mergeSource, merge );
+		}
+		finally {
+			mergeController.afterMerge( merge, startNanos );
+		}
+	}
+
+	@Override
+	public Directory wrapForMerge(MergePolicy.OneMerge merge, Directory in) {
+		return mergeController.wrapForMerge( super.wrapForMerge( merge, in ) );
 	}
 
 	@Override
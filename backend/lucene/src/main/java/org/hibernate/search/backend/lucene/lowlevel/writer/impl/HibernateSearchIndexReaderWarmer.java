@@ -0,0 +1,115 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+
+/**
+ * Applies {@link SegmentWarmer}s to segments resulting from a merge,
+ * and to segments that were added to an index reader upon refresh.
+ * <p>
+ * Warming failures are logged and ignored:
+ * they must not make merges fail or prevent refreshes.
+ */
+public final class HibernateSearchIndexReaderWarmer implements IndexWriter.IndexReaderWarmer {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final List<? extends SegmentWarmer> warmers;
+	private final EventContext eventContext;
+
+	// Core keys of segments that were warmed upon merge, and should not be warmed again upon refresh.
+	// Keys are removed when the segment core is closed.
+	private final Set<IndexReader.CacheKey> mergedSegmentKeys = ConcurrentHashMap.newKeySet();
+
+	public HibernateSearchIndexReaderWarmer(List<? extends SegmentWarmer> warmers, EventContext eventContext) {
+		this.warmers = warmers;
+		this.eventContext = eventContext;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + warmers + "]";
+	}
+
+	/**
+	 * Warms up a segment resulting from a merge.
+	 * <p>
+	 * Called by the index writer, before the merge is published.
+	 *
+	 * @param reader A reader on the merged segment.
+	 */
+	@Override
+	public void warm(LeafReader reader) {
+		doWarm( reader );
+		IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+		if ( cacheHelper != null ) {
+			IndexReader.CacheKey key = cacheHelper.getKey();
+			mergedSegmentKeys.add( key );
+			cacheHelper.addClosedListener( mergedSegmentKeys::remove );
+		}
+	}
+
+	private void doWarm(LeafReader reader) {
+		for ( SegmentWarmer warmer : warmers ) {
+			try {
+				warmer.warm( reader );
+			}
+			catch (RuntimeException | IOException e) {
+				log.unableToWarmSegment( reader, warmer, e.getMessage(), eventContext, e );
+			}
+		}
+	}
+
+	/**
+	 * Warms up the segments of a new reader that were not present in the old reader,
+	 * unless they were already warmed up upon merge.
+	 *
+	 * @param oldReaderOrNull The reader being refreshed, or {@code null} if the new reader is the first one.
+	 * @param newReader The new reader.
+	 */
+	void warmNewSegments(DirectoryReader oldReaderOrNull, DirectoryReader newReader) {
+		Set<IndexReader.CacheKey> oldSegmentKeys = new HashSet<>();
+		if ( oldReaderOrNull != null ) {
+			for ( LeafReaderContext leaf : oldReaderOrNull.leaves() ) {
+				IndexReader.CacheHelper cacheHelper = leaf.reader().getCoreCacheHelper();
+				if ( cacheHelper != null ) {
+					oldSegmentKeys.add( cacheHelper.getKey() );
+				}
+			}
+		}
+		for ( LeafReaderContext leaf : newReader.leaves() ) {
+			IndexReader.CacheHelper cacheHelper = leaf.reader().getCoreCacheHelper();
+			// Segments that were already in the old reader, possibly with different deletions, are warm already.
+			// So are segments resulting from a merge: the merged segment warmer took care of them.
+			if ( cacheHelper == null ) {
+				doWarm( leaf.reader() );
+				continue;
+			}
+			IndexReader.CacheKey key = cacheHelper.getKey();
+			if ( !oldSegmentKeys.contains( key ) && !mergedSegmentKeys.contains( key ) ) {
+				doWarm( leaf.reader() );
+			}
+		}
+	}
+}
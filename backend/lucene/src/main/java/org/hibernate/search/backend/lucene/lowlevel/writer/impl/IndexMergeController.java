@@ -0,0 +1,280 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.index.LuceneMergeStatistics;
+import org.hibernate.search.engine.backend.orchestration.spi.BatchingExecutor;
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RateLimitedIndexOutput;
+import org.apache.lucene.util.ThreadInterruptedException;
+
+/**
+ * Controls the merges of all the index writers of a backend.
+ * <p>
+ * Enforces a merge thread budget and a maximum write rate shared by all the merges of the backend,
+ * and throttles merges while the average query latency or the size of indexing queues exceed thresholds,
+ * so that merges don't compete with queries and indexing for disk and CPU.
+ * Also collects statistics about merges.
+ */
+public final class IndexMergeController implements LuceneMergeStatistics {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final Semaphore threadBudgetOrNull;
+	private final int maxMBPerSec;
+	private final int throttledMBPerSec;
+	private final long queryLatencyThresholdNanos;
+	private final int indexingQueueSizeThreshold;
+	private final int checkInterval;
+	private final SharedMergeRateLimiter rateLimiterOrNull;
+	private final TimingSource timingSource;
+
+	private final Set<BatchingExecutor<?>> indexingQueues = ConcurrentHashMap.newKeySet();
+	private final LongAdder queryCount = new LongAdder();
+	private final LongAdder queryLatencyNanos = new LongAdder();
+
+	private final AtomicInteger runningMergeCount = new AtomicInteger();
+	private final AtomicInteger waitingMergeCount = new AtomicInteger();
+	private final LongAdder completedMergeCount = new LongAdder();
+	private final LongAdder mergedDocCount = new LongAdder();
+	private final LongAdder mergedBytes = new LongAdder();
+	private final LongAdder totalMergeTimeNanos = new LongAdder();
+
+	private volatile boolean throttled;
+	private ScheduledFuture<?> scheduledCheck;
+
+	/**
+	 * @param maxThreadCount The maximum number of concurrent merges, or {@code 0} for no limit.
+	 * @param maxMBPerSec The maximum combined write rate of merges, or {@code 0} for no limit.
+	 * @param throttledMBPerSec The maximum combined write rate of merges while throttled.
+	 * @param queryLatencyThreshold The average query latency, in milliseconds, above which merges are throttled,
+	 * or {@code 0} to ignore query latency.
+	 * @param indexingQueueSizeThreshold The indexing queue size above which merges are throttled,
+	 * or {@code 0} to ignore indexing queues.
+	 * @param checkInterval How often to check query latency and indexing queues, in milliseconds.
+	 * @param timingSource The timing source used to measure the duration of queries and merges.
+	 */
+	public IndexMergeController(int maxThreadCount, int maxMBPerSec, int throttledMBPerSec,
+			int queryLatencyThreshold, int indexingQueueSizeThreshold, int checkInterval,
+			TimingSource timingSource) {
+		this.threadBudgetOrNull = maxThreadCount > 0 ? new Semaphore( maxThreadCount, true ) : null;
+		this.maxMBPerSec = maxMBPerSec;
+		this.throttledMBPerSec = throttledMBPerSec;
+		this.queryLatencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos( queryLatencyThreshold );
+		this.indexingQueueSizeThreshold = indexingQueueSizeThreshold;
+		this.checkInterval = checkInterval;
+		this.rateLimiterOrNull = maxMBPerSec > 0 || isThrottlingEnabled()
+				? new SharedMergeRateLimiter( maxMBPerSec )
+				: null;
+		this.timingSource = timingSource;
+	}
+
+	public void start(ScheduledExecutorService executor) {
+		if ( isThrottlingEnabled() ) {
+			scheduledCheck = executor.scheduleWithFixedDelay( this::check,
+					checkInterval, checkInterval, TimeUnit.MILLISECONDS );
+		}
+	}
+
+	public void stop() {
+		if ( scheduledCheck != null ) {
+			scheduledCheck.cancel( false );
+			scheduledCheck = null;
+		}
+		indexingQueues.clear();
+	}
+
+	public void registerIndexingQueue(BatchingExecutor<?> indexingQueue) {
+		if ( indexingQueueSizeThreshold > 0 ) {
+			indexingQueues.add( indexingQueue );
+		}
+	}
+
+	public void unregisterIndexingQueue(BatchingExecutor<?> indexingQueue) {
+		indexingQueues.remove( indexingQueue );
+	}
+
+	/**
+	 * @return The start time of a query, to pass to {@link #afterQuery(long)}.
+	 */
+	public long beforeQuery() {
+		return timingSource.nanoTime();
+	}
+
+	/**
+	 * @param startNanos The start time of the query, as returned by {@link #beforeQuery()}.
+	 */
+	public void afterQuery(long startNanos) {
+		recordQueryLatency( timingSource.nanoTime() - startNanos );
+	}
+
+	/**
+	 * @param latencyNanos The time it took to execute a query, in nanoseconds.
+	 */
+	void recordQueryLatency(long latencyNanos) {
+		if ( queryLatencyThresholdNanos > 0 ) {
+			queryCount.increment();
+			queryLatencyNanos.add( latencyNanos );
+		}
+	}
+
+	@Override
+	public int runningMergeCount() {
+		return runningMergeCount.get();
+	}
+
+	@Override
+	public int waitingMergeCount() {
+		return waitingMergeCount.get();
+	}
+
+	@Override
+	public long completedMergeCount() {
+		return completedMergeCount.sum();
+	}
+
+	@Override
+	public long mergedDocCount() {
+		return mergedDocCount.sum();
+	}
+
+	@Override
+	public long mergedBytes() {
+		return mergedBytes.sum();
+	}
+
+	@Override
+	public long totalMergeTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis( totalMergeTimeNanos.sum() );
+	}
+
+	@Override
+	public boolean throttled() {
+		return throttled;
+	}
+
+	@Override
+	public double maxMBPerSec() {
+		return rateLimiterOrNull == null ? 0.0 : rateLimiterOrNull.getMBPerSec();
+	}
+
+	/**
+	 * Waits until the merge thread budget allows one more merge to execute.
+	 * <p>
+	 * Must be followed by a call to {@link #afterMerge(MergePolicy.OneMerge, long)}.
+	 *
+	 * @return The start time of the merge, to pass to {@link #afterMerge(MergePolicy.OneMerge, long)}.
+	 */
+	long beforeMerge() {
+		if ( threadBudgetOrNull != null ) {
+			waitingMergeCount.incrementAndGet();
+			try {
+				threadBudgetOrNull.acquire();
+			}
+			catch (InterruptedException e) {
+				throw new ThreadInterruptedException( e );
+			}
+			finally {
+				waitingMergeCount.decrementAndGet();
+			}
+		}
+		runningMergeCount.incrementAndGet();
+		return timingSource.nanoTime();
+	}
+
+	/**
+	 * @param merge The merge that just ended.
+	 * @param startNanos The start time of the merge, as returned by {@link #beforeMerge()}.
+	 */
+	void afterMerge(MergePolicy.OneMerge merge, long startNanos) {
+		long durationNanos = timingSource.nanoTime() - startNanos;
+		runningMergeCount.decrementAndGet();
+		if ( threadBudgetOrNull != null ) {
+			threadBudgetOrNull.release();
+		}
+		completedMergeCount.increment();
+		mergedDocCount.add( merge.totalNumDocs() );
+		mergedBytes.add( merge.totalBytesSize() );
+		totalMergeTimeNanos.add( durationNanos );
+	}
+
+	/**
+	 * @param directory The directory a merge writes to.
+	 * @return A directory whose outputs are subject to the write rate shared by all merges of the backend.
+	 */
+	Directory wrapForMerge(Directory directory) {
+		if ( rateLimiterOrNull == null ) {
+			return directory;
+		}
+		return new FilterDirectory( directory ) {
+			@Override
+			public IndexOutput createOutput(String name, IOContext context) throws IOException {
+				return new RateLimitedIndexOutput( rateLimiterOrNull, in.createOutput( name, context ) );
+			}
+		};
+	}
+
+	void check() {
+		try {
+			boolean queryLatencyExceeded = false;
+			if ( queryLatencyThresholdNanos > 0 ) {
+				long count = queryCount.sumThenReset();
+				long latencyNanos = queryLatencyNanos.sumThenReset();
+				queryLatencyExceeded = count > 0 && latencyNanos / count > queryLatencyThresholdNanos;
+			}
+			boolean indexingQueueSizeExceeded = false;
+			if ( indexingQueueSizeThreshold > 0 ) {
+				for ( BatchingExecutor<?> indexingQueue : indexingQueues ) {
+					if ( indexingQueue.queueSize() > indexingQueueSizeThreshold ) {
+						indexingQueueSizeExceeded = true;
+						break;
+					}
+				}
+			}
+
+			boolean newThrottled = queryLatencyExceeded || indexingQueueSizeExceeded;
+			if ( newThrottled == throttled ) {
+				return;
+			}
+			throttled = newThrottled;
+			rateLimiterOrNull.setMBPerSec( newThrottled ? throttledMBPerSec() : maxMBPerSec );
+			log.debugf( "Merge throttling %s (query latency exceeded: %s, indexing queue size exceeded: %s)",
+					newThrottled ? "enabled" : "disabled", queryLatencyExceeded, indexingQueueSizeExceeded );
+		}
+		catch (RuntimeException e) {
+			// Don't let the exception cancel further executions of the scheduled check.
+			log.unableToCheckMergeThrottling( e.getMessage(), e );
+		}
+	}
+
+	private int throttledMBPerSec() {
+		return maxMBPerSec > 0 ? Math.min( maxMBPerSec, throttledMBPerSec ) : throttledMBPerSec;
+	}
+
+	private boolean isThrottlingEnabled() {
+		return queryLatencyThresholdNanos > 0 || indexingQueueSizeThreshold > 0;
+	}
+}
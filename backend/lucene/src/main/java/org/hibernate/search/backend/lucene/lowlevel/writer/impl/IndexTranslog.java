@@ -0,0 +1,372 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FileSwitchDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.util.IOUtils;
+
+/**
+ * A write-ahead log of the operations applied to an index writer, a.k.a. translog.
+ * <p>
+ * Operations are appended to a translog file in the index directory,
+ * and that file is synced to disk by {@link #sync()}, typically at the end of each batch of works.
+ * Concurrent calls to {@link #sync()} are grouped, so that a single sync makes operations from all callers durable.
+ * <p>
+ * Each commit of the index writer {@link #roll() rolls} the translog over to a new generation (a new file),
+ * and records that generation in the commit's user data.
+ * When the index writer is re-opened, e.g. after a crash, operations from that generation onwards
+ * are applied again and committed: see {@link #recover(IndexWriter)}.
+ * <p>
+ * Callers must make sure no operation is appended while the translog is rolled over and the index writer committed,
+ * so that the generation recorded in a commit matches exactly the operations included in that commit.
+ */
+final class IndexTranslog implements Closeable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	static final String COMMIT_USER_DATA_GENERATION = "hibernate_search.translog_generation";
+
+	private static final String FILE_NAME_PREFIX = "hsearch_translog-";
+	private static final String FILE_NAME_SUFFIX = ".tlog";
+	private static final int FILE_HEADER_MAGIC = 0x48535452; // "HSTR"
+	private static final int FILE_FORMAT_VERSION = 1;
+	private static final int FILE_HEADER_SIZE = Integer.BYTES * 2;
+	private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES;
+
+	/**
+	 * The size above which pending records are written to the translog file, even before the next sync.
+	 */
+	private static final int MAX_PENDING_BYTES = 64 * 1024;
+
+	/**
+	 * @param directory The directory of an index.
+	 * @return The path of that directory on the local filesystem, or {@code null} if it is not stored on the filesystem.
+	 */
+	static Path fileSystemPathOrNull(Directory directory) {
+		Directory unwrapped = FilterDirectory.unwrap( directory );
+		if ( unwrapped instanceof FileSwitchDirectory ) {
+			// Used for preloading: the secondary directory is the original one.
+			unwrapped = FilterDirectory.unwrap( ( (FileSwitchDirectory) unwrapped ).getSecondaryDir() );
+		}
+		return unwrapped instanceof FSDirectory ? ( (FSDirectory) unwrapped ).getDirectory() : null;
+	}
+
+	private final Path directoryPath;
+	private final EventContext eventContext;
+
+	private final Object syncLock = new Object();
+
+	// Guarded by "this"
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	private FileChannel channel;
+	private long generation;
+	private long writtenBytes;
+
+	// Guarded by syncLock
+	private long syncedBytes;
+
+	IndexTranslog(Path directoryPath, EventContext eventContext) {
+		this.directoryPath = directoryPath;
+		this.eventContext = eventContext;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if ( channel != null ) {
+			flushPending();
+			channel.close();
+			channel = null;
+		}
+	}
+
+	/**
+	 * Applies operations logged since the last commit of the given writer, if any,
+	 * then commits the writer and opens a new translog generation.
+	 * <p>
+	 * Must be called once, before any other method.
+	 *
+	 * @param writer A newly opened index writer.
+	 */
+	void recover(IndexWriter writer) throws IOException {
+		Long committedGeneration = committedGeneration( writer );
+		List<Long> generations = listGenerations();
+		long maxGeneration = committedGeneration == null ? 0L : committedGeneration;
+		int replayedOperationCount = 0;
+		for ( Long fileGeneration : generations ) {
+			maxGeneration = Math.max( maxGeneration, fileGeneration );
+			// Without a generation in the commit, translog files are left over from a previous use of the translog
+			// and the index was committed without the translog since: ignore them.
+			if ( committedGeneration != null && fileGeneration >= committedGeneration ) {
+				replayedOperationCount += replay( path( fileGeneration ), writer );
+			}
+		}
+
+		synchronized ( this ) {
+			generation = maxGeneration + 1;
+			channel = createFile( generation );
+		}
+		commit( writer );
+		if ( replayedOperationCount > 0 ) {
+			log.debugf( "Applied %d operations from the translog for %s", replayedOperationCount,
+					eventContext.render() );
+		}
+	}
+
+	/*
+	 * Records are encoded separately from appending them,
+	 * so that callers can encode records before applying the operation to the index writer,
+	 * and only append them afterwards, while preventing commits.
+	 */
+
+	byte[] encodeAdd(Iterable<? extends Iterable<? extends IndexableField>> docs) throws IOException {
+		ByteBuffersDataOutput record = new ByteBuffersDataOutput();
+		TranslogCodec.writeAdd( record, docs, eventContext );
+		return frame( record );
+	}
+
+	byte[] encodeUpdate(Term term, Iterable<? extends Iterable<? extends IndexableField>> docs) throws IOException {
+		ByteBuffersDataOutput record = new ByteBuffersDataOutput();
+		TranslogCodec.writeUpdate( record, term, docs, eventContext );
+		return frame( record );
+	}
+
+	byte[] encodeDelete(Term term) throws IOException {
+		ByteBuffersDataOutput record = new ByteBuffersDataOutput();
+		TranslogCodec.writeDelete( record, term );
+		return frame( record );
+	}
+
+	byte[] encodeDeleteMatchingAll(Term[] terms) throws IOException {
+		ByteBuffersDataOutput record = new ByteBuffersDataOutput();
+		TranslogCodec.writeDeleteMatchingAll( record, terms );
+		return frame( record );
+	}
+
+	/**
+	 * Appends a record to the translog.
+	 * <p>
+	 * The record will only be durable after the next call to {@link #sync()}.
+	 *
+	 * @param record A record returned by one of the {@code encode*} methods.
+	 */
+	void append(byte[] record) throws IOException {
+		synchronized ( this ) {
+			pending.write( record, 0, record.length );
+			if ( pending.size() >= MAX_PENDING_BYTES ) {
+				flushPending();
+			}
+		}
+	}
+
+	/**
+	 * Makes all operations appended so far durable.
+	 * <p>
+	 * Callers syncing concurrently wait for each other,
+	 * and the operations of all callers are made durable with a single sync whenever possible.
+	 */
+	void sync() throws IOException {
+		long target;
+		synchronized ( this ) {
+			flushPending();
+			target = writtenBytes;
+		}
+		synchronized ( syncLock ) {
+			if ( syncedBytes >= target ) {
+				// Another caller synced our operations in the meantime.
+				return;
+			}
+			long upTo;
+			FileChannel channelToSync;
+			synchronized ( this ) {
+				// Operations appended after we started waiting will be synced too.
+				flushPending();
+				upTo = writtenBytes;
+				channelToSync = channel;
+			}
+			channelToSync.force( false );
+			syncedBytes = upTo;
+		}
+	}
+
+	/**
+	 * Commits the given writer, recording a new translog generation in the commit,
+	 * then deletes older translog generations, which are no longer needed.
+	 */
+	void commit(IndexWriter writer) throws IOException {
+		long newGeneration = roll();
+		writer.setLiveCommitData( Collections.singletonMap( COMMIT_USER_DATA_GENERATION,
+				String.valueOf( newGeneration ) ).entrySet() );
+		writer.commit();
+		deleteGenerationsBefore( newGeneration );
+	}
+
+	private long roll() throws IOException {
+		synchronized ( syncLock ) {
+			synchronized ( this ) {
+				flushPending();
+				// Sync the previous generation in case the commit fails.
+				channel.force( false );
+				channel.close();
+				generation++;
+				channel = createFile( generation );
+				syncedBytes = writtenBytes;
+				return generation;
+			}
+		}
+	}
+
+	private static byte[] frame(ByteBuffersDataOutput record) {
+		byte[] payload = record.toArrayCopy();
+		CRC32 checksum = new CRC32();
+		checksum.update( payload, 0, payload.length );
+		ByteBuffer framed = ByteBuffer.allocate( RECORD_OVERHEAD + payload.length );
+		framed.putInt( payload.length );
+		framed.put( payload );
+		framed.putLong( checksum.getValue() );
+		return framed.array();
+	}
+
+	// Must be called while holding the lock on "this"
+	private void flushPending() throws IOException {
+		if ( pending.size() == 0 ) {
+			return;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap( pending.toByteArray() );
+		while ( buffer.hasRemaining() ) {
+			channel.write( buffer );
+		}
+		writtenBytes += pending.size();
+		pending.reset();
+	}
+
+	private FileChannel createFile(long fileGeneration) throws IOException {
+		Path path = path( fileGeneration );
+		FileChannel newChannel = FileChannel.open( path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE );
+		try {
+			ByteBuffer header = ByteBuffer.allocate( FILE_HEADER_SIZE );
+			header.putInt( FILE_HEADER_MAGIC );
+			header.putInt( FILE_FORMAT_VERSION );
+			header.flip();
+			while ( header.hasRemaining() ) {
+				newChannel.write( header );
+			}
+			newChannel.force( false );
+			// Make sure the new file itself survives a crash.
+			IOUtils.fsync( directoryPath, true );
+			return newChannel;
+		}
+		catch (IOException | RuntimeException e) {
+			IOUtils.closeWhileHandlingException( newChannel );
+			throw e;
+		}
+	}
+
+	private int replay(Path path, IndexWriter writer) throws IOException {
+		byte[] content = Files.readAllBytes( path );
+		ByteBuffer buffer = ByteBuffer.wrap( content );
+		if ( content.length < FILE_HEADER_SIZE
+				|| buffer.getInt() != FILE_HEADER_MAGIC || buffer.getInt() != FILE_FORMAT_VERSION ) {
+			throw log.invalidTranslogFile( path, eventContext );
+		}
+		int operationCount = 0;
+		CRC32 checksum = new CRC32();
+		while ( buffer.remaining() >= RECORD_OVERHEAD ) {
+			int length = buffer.getInt();
+			if ( length < 0 || buffer.remaining() < length + Long.BYTES ) {
+				break;
+			}
+			int payloadOffset = buffer.position();
+			buffer.position( payloadOffset + length );
+			checksum.reset();
+			checksum.update( content, payloadOffset, length );
+			if ( checksum.getValue() != buffer.getLong() ) {
+				break;
+			}
+			TranslogCodec.apply( new ByteArrayDataInput( content, payloadOffset, length ), writer );
+			++operationCount;
+		}
+		if ( buffer.hasRemaining() ) {
+			// Expected after a crash: the last records were not completely written to disk.
+			log.debugf( "Ignoring %d bytes of incomplete records at the end of translog file '%s' for %s",
+					buffer.remaining(), path, eventContext.render() );
+		}
+		return operationCount;
+	}
+
+	private void deleteGenerationsBefore(long minGeneration) throws IOException {
+		for ( Long fileGeneration : listGenerations() ) {
+			if ( fileGeneration < minGeneration ) {
+				Files.deleteIfExists( path( fileGeneration ) );
+			}
+		}
+	}
+
+	private List<Long> listGenerations() throws IOException {
+		List<Long> generations = new ArrayList<>();
+		try ( DirectoryStream<Path> stream = Files.newDirectoryStream( directoryPath,
+				FILE_NAME_PREFIX + "*" + FILE_NAME_SUFFIX ) ) {
+			for ( Path path : stream ) {
+				String fileName = path.getFileName().toString();
+				String generationString = fileName.substring( FILE_NAME_PREFIX.length(),
+						fileName.length() - FILE_NAME_SUFFIX.length() );
+				try {
+					generations.add( Long.parseLong( generationString ) );
+				}
+				catch (NumberFormatException e) {
+					// Not a translog file: ignore it.
+				}
+			}
+		}
+		Collections.sort( generations );
+		return generations;
+	}
+
+	private Path path(long fileGeneration) {
+		return directoryPath.resolve( FILE_NAME_PREFIX + fileGeneration + FILE_NAME_SUFFIX );
+	}
+
+	private static Long committedGeneration(IndexWriter writer) {
+		Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+		if ( commitData == null ) {
+			return null;
+		}
+		for ( Map.Entry<String, String> entry : commitData ) {
+			if ( COMMIT_USER_DATA_GENERATION.equals( entry.getKey() ) ) {
+				return Long.parseLong( entry.getValue() );
+			}
+		}
+		return null;
+	}
+}
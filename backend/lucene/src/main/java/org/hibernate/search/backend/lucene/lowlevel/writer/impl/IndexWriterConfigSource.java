@@ -14,6 +14,7 @@
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LogByteSizeMergePolicy;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.similarities.Similarity;
 
 /**
@@ -29,19 +30,25 @@
  */
 public class IndexWriterConfigSource {
 
-	public static IndexWriterConfigSource create(Similarity similarity, Analyzer analyzer,
+	public static IndexWriterConfigSource create(Similarity similarity, Analyzer analyzer, Sort indexSort,
+			HibernateSearchIndexReaderWarmer readerWarmerOrNull,
 			ConfigurationPropertySource propertySource, EventContext eventContext) {
 		List<IndexWriterSettingValue<?>> values = IndexWriterSettings.extractAll( propertySource, eventContext );
-		return new IndexWriterConfigSource( similarity, analyzer, values );
+		return new IndexWriterConfigSource( similarity, analyzer, indexSort, readerWarmerOrNull, values );
 	}
 
 	private final Similarity similarity;
 	private final Analyzer analyzer;
+	private final Sort indexSort;
+	private final HibernateSearchIndexReaderWarmer readerWarmerOrNull;
 	private final List<IndexWriterSettingValue<?>> values;
 
-	private IndexWriterConfigSource(Similarity similarity, Analyzer analyzer, List<IndexWriterSettingValue<?>> values) {
+	private IndexWriterConfigSource(Similarity similarity, Analyzer analyzer, Sort indexSort,
+			HibernateSearchIndexReaderWarmer readerWarmerOrNull, List<IndexWriterSettingValue<?>> values) {
 		this.similarity = similarity;
 		this.analyzer = analyzer;
+		this.indexSort = indexSort;
+		this.readerWarmerOrNull = readerWarmerOrNull;
 		this.values = values;
 	}
 
@@ -57,6 +64,13 @@ public String toString() {
 	public IndexWriterConfig createIndexWriterConfig() {
 		IndexWriterConfig writerConfig = new IndexWriterConfig( analyzer );
 		writerConfig.setSimilarity( similarity );
+		if ( indexSort != null ) {
+			writerConfig.setIndexSort( indexSort );
+		}
+		if ( readerWarmerOrNull != null ) {
+			// Merged segments will be warmed up before they become visible to NRT readers.
+			writerConfig.setMergedSegmentWarmer( readerWarmerOrNull );
+		}
 		for ( IndexWriterSettingValue<?> value : values ) {
 			value.applySetting( writerConfig );
 		}
@@ -64,6 +78,10 @@ public IndexWriterConfig createIndexWriterConfig() {
 		return writerConfig;
 	}
 
+	HibernateSearchIndexReaderWarmer readerWarmerOrNull() {
+		return readerWarmerOrNull;
+	}
+
 	private LogByteSizeMergePolicy createMergePolicy() {
 		LogByteSizeMergePolicy logByteSizeMergePolicy = new LogByteSizeMergePolicy();
 		for ( IndexWriterSettingValue<?> value : values ) {
@@ -26,6 +26,25 @@ public interface IndexWriterDelegator {
 
 	long deleteDocuments(Term term) throws IOException;
 
+	/**
+	 * Deletes documents matching all the given terms.
+	 * <p>
+	 * Unlike {@link #deleteDocuments(Query)}, this operation can be written to the translog
+	 * and thus never requires an immediate commit.
+	 *
+	 * @param terms The terms that documents must all match in order to be deleted.
+	 * @return The sequence number of the operation.
+	 */
+	long deleteDocumentsMatchingAll(Term... terms) throws IOException;
+
 	long deleteDocuments(Query query) throws IOException;
 
+	/**
+	 * @return {@code true} if the index may contain documents indexed with discriminator-based multi-tenancy
+	 * by a previous version of Hibernate Search, i.e. without the field
+	 * {@link org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields#tenantAndIdFieldName()}.
+	 * Such documents cannot be updated or deleted by term.
+	 */
+	boolean mayContainLegacyTenantDocuments() throws IOException;
+
 }
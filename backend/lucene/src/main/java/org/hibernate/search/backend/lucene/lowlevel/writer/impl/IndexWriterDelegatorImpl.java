@@ -12,8 +12,12 @@
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.engine.common.timing.spi.TimingSource;
 import org.hibernate.search.engine.reporting.FailureContext;
 import org.hibernate.search.engine.reporting.FailureHandler;
@@ -25,8 +29,12 @@
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
 
 /**
  * @author Sanne Grinovero (C) 2011 Red Hat Inc.
@@ -40,22 +48,36 @@ public class IndexWriterDelegatorImpl implements IndexWriterDelegator {
 	private final TimingSource timingSource;
 	private final int commitInterval;
 	private final FailureHandler failureHandler;
+	private final HibernateSearchIndexReaderWarmer readerWarmerOrNull;
+	private final IndexTranslog translogOrNull;
 
 	private final SingletonTask delayedCommitTask;
 	private final Object commitLock = new Object();
+	/*
+	 * Only used with a translog:
+	 * operations hold the read lock while they are applied to the index writer and appended to the translog,
+	 * commits hold the write lock so that the translog generation they record matches exactly the committed operations.
+	 */
+	private final ReentrantReadWriteLock translogLock = new ReentrantReadWriteLock();
 
 	private long commitExpiration;
 
+	private volatile Boolean mayContainLegacyTenantDocuments;
+
 	public IndexWriterDelegatorImpl(IndexWriter delegate, EventContext eventContext,
 			ScheduledExecutorService delayedCommitExecutor,
 			TimingSource timingSource, int commitInterval,
 			FailureHandler failureHandler,
-			DelayedCommitFailureHandler delayedCommitFailureHandler) {
+			DelayedCommitFailureHandler delayedCommitFailureHandler,
+			HibernateSearchIndexReaderWarmer readerWarmerOrNull,
+			IndexTranslog translogOrNull) {
 		this.delegate = delegate;
 		this.eventContext = eventContext;
 		this.timingSource = timingSource;
 		this.commitInterval = commitInterval;
 		this.failureHandler = failureHandler;
+		this.readerWarmerOrNull = readerWarmerOrNull;
+		this.translogOrNull = translogOrNull;
 
 		if ( commitInterval == 0L ) {
 			delayedCommitTask = null;
@@ -74,22 +96,102 @@ public IndexWriterDelegatorImpl(IndexWriter delegate, EventContext eventContext,
 
 	@Override
 	public long addDocuments(Iterable<? extends Iterable<? extends IndexableField>> docs) throws IOException {
-		return delegate.addDocuments( docs );
+		if ( translogOrNull == null ) {
+			return delegate.addDocuments( docs );
+		}
+		// Encode the record before applying the operation to the index writer:
+		// if encoding fails, the operation must not be applied, and encoding should not delay commits.
+		byte[] record = translogOrNull.encodeAdd( docs );
+		Lock lock = translogLock.readLock();
+		lock.lock();
+		try {
+			long sequenceNumber = delegate.addDocuments( docs );
+			translogOrNull.append( record );
+			return sequenceNumber;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public long updateDocuments(Term term, Iterable<? extends Iterable<? extends IndexableField>> docs) throws IOException {
-		return delegate.updateDocuments( term, docs );
+		if ( translogOrNull == null ) {
+			return delegate.updateDocuments( term, docs );
+		}
+		byte[] record = translogOrNull.encodeUpdate( term, docs );
+		Lock lock = translogLock.readLock();
+		lock.lock();
+		try {
+			long sequenceNumber = delegate.updateDocuments( term, docs );
+			translogOrNull.append( record );
+			return sequenceNumber;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public long deleteDocuments(Term term) throws IOException {
-		return delegate.deleteDocuments( term );
+		if ( translogOrNull == null ) {
+			return delegate.deleteDocuments( term );
+		}
+		byte[] record = translogOrNull.encodeDelete( term );
+		Lock lock = translogLock.readLock();
+		lock.lock();
+		try {
+			long sequenceNumber = delegate.deleteDocuments( term );
+			translogOrNull.append( record );
+			return sequenceNumber;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long deleteDocumentsMatchingAll(Term... terms) throws IOException {
+		Query query = Queries.allTerms( terms );
+		if ( translogOrNull == null ) {
+			return delegate.deleteDocuments( query );
+		}
+		byte[] record = translogOrNull.encodeDeleteMatchingAll( terms );
+		Lock lock = translogLock.readLock();
+		lock.lock();
+		try {
+			long sequenceNumber = delegate.deleteDocuments( query );
+			translogOrNull.append( record );
+			return sequenceNumber;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public long deleteDocuments(Query query) throws IOException {
-		return delegate.deleteDocuments( query );
+		long sequenceNumber = delegate.deleteDocuments( query );
+		if ( translogOrNull != null ) {
+			// Arbitrary queries cannot be written to the translog: commit immediately to make the deletion durable.
+			doCommit();
+		}
+		return sequenceNumber;
+	}
+
+	@Override
+	public boolean mayContainLegacyTenantDocuments() throws IOException {
+		Boolean result = mayContainLegacyTenantDocuments;
+		if ( result == null ) {
+			// Documents indexed through this writer always have the field,
+			// so the result cannot change until the writer is re-opened.
+			result = hasDocumentsWithoutTenantAndId( delegate.getDirectory() );
+			if ( result ) {
+				log.legacyDiscriminatorMultiTenancyDocuments( eventContext );
+			}
+			mayContainLegacyTenantDocuments = result;
+		}
+		return result;
 	}
 
 	public void mergeSegments() throws IOException {
@@ -108,6 +210,7 @@ public void commitOrDelay() {
 
 		if ( delayCommit() ) {
 			// The commit was delayed
+			syncTranslog();
 			return;
 		}
 
@@ -117,6 +220,7 @@ public void commitOrDelay() {
 		synchronized (commitLock) {
 			if ( delayCommit() ) {
 				// The commit was delayed
+				syncTranslog();
 				return;
 			}
 
@@ -125,12 +229,57 @@ public void commitOrDelay() {
 		}
 	}
 
+	/**
+	 * @return The amount of RAM used by the indexing buffer of this writer, in bytes.
+	 */
+	public long ramBytesUsed() {
+		try {
+			return delegate.ramBytesUsed();
+		}
+		catch (AlreadyClosedException e) {
+			return 0L;
+		}
+	}
+
+	/**
+	 * @return {@code true} if merges are pending or running, {@code false} otherwise.
+	 */
+	boolean isMerging() {
+		return delegate.hasPendingMerges() || !delegate.getMergingSegments().isEmpty();
+	}
+
+	/**
+	 * Flushes the indexing buffer of this writer to a new segment, without committing.
+	 * <p>
+	 * Failures are logged and ignored: they will surface again on the next write or commit.
+	 */
+	void flushIndexingBuffer() {
+		try {
+			delegate.flush();
+		}
+		catch (AlreadyClosedException e) {
+			// The writer is being closed: its buffer will be flushed or discarded anyway.
+		}
+		catch (RuntimeException | IOException e) {
+			log.unableToFlushIndexWriter( e.getMessage(), eventContext, e );
+		}
+	}
+
 	public DirectoryReader openReader() throws IOException {
-		return DirectoryReader.open( delegate );
+		DirectoryReader newReader = DirectoryReader.open( delegate );
+		if ( readerWarmerOrNull != null ) {
+			readerWarmerOrNull.warmNewSegments( null, newReader );
+		}
+		return newReader;
 	}
 
 	public DirectoryReader openReaderIfChanged(DirectoryReader oldReader) throws IOException {
-		return DirectoryReader.openIfChanged( oldReader, delegate );
+		DirectoryReader newReaderOrNull = DirectoryReader.openIfChanged( oldReader, delegate );
+		if ( newReaderOrNull != null && readerWarmerOrNull != null ) {
+			// Warm up new segments before the caller publishes the new reader.
+			readerWarmerOrNull.warmNewSegments( oldReader, newReaderOrNull );
+		}
+		return newReaderOrNull;
 	}
 
 	public IndexWriter getDelegateForTests() {
@@ -143,8 +292,13 @@ void close() throws IOException {
 			// Avoid problems with closing while a (delayed) commit is in progress:
 			// Lucene throws an exception in that case.
 			synchronized (commitLock) {
+				if ( translogOrNull != null ) {
+					// Commit explicitly, so that the commit records the new translog generation.
+					closer.push( IndexWriterDelegatorImpl::commitWithTranslog, this );
+				}
 				closer.push( IndexWriter::close, delegate );
 			}
+			closer.push( IndexTranslog::close, translogOrNull );
 			log.trace( "IndexWriter closed" );
 		}
 	}
@@ -175,7 +329,12 @@ void closeAfterFailure(Throwable throwable, Object failingOperation) {
 	private void doCommit() {
 		try {
 			synchronized (commitLock) {
-				delegate.commit();
+				if ( translogOrNull != null ) {
+					commitWithTranslog();
+				}
+				else {
+					delegate.commit();
+				}
 				updateCommitExpiration();
 			}
 		}
@@ -184,6 +343,51 @@ private void doCommit() {
 		}
 	}
 
+	private void commitWithTranslog() throws IOException {
+		Lock lock = translogLock.writeLock();
+		lock.lock();
+		try {
+			translogOrNull.commit( delegate );
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Makes operations executed since the last commit durable, if there is a translog.
+	 */
+	private void syncTranslog() {
+		if ( translogOrNull == null ) {
+			return;
+		}
+		try {
+			translogOrNull.sync();
+		}
+		catch (RuntimeException | IOException e) {
+			throw log.unableToSyncTranslog( e.getMessage(), eventContext, e );
+		}
+	}
+
+	private static boolean hasDocumentsWithoutTenantAndId(Directory directory) throws IOException {
+		if ( !DirectoryReader.indexExists( directory ) ) {
+			return false;
+		}
+		// Checking the last commit is enough: documents that are not committed yet were indexed through this writer.
+		try ( DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			for ( LeafReaderContext leafContext : reader.leaves() ) {
+				LeafReader leafReader = leafContext.reader();
+				// Deleted documents are taken into account here,
+				// so this may return true for documents that were already deleted, but never misses a live document.
+				if ( leafReader.getDocCount( MetadataFields.tenantIdFieldName() )
+						> leafReader.getDocCount( MetadataFields.tenantAndIdFieldName() ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * @return {@code true} if the commit was delayed, {@code false} if it wasn't and must happen now.
 	 */
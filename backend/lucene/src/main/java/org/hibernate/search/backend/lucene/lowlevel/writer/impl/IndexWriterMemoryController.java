@@ -0,0 +1,128 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+
+/**
+ * Enforces a memory budget shared by all the index writers of a backend.
+ * <p>
+ * Periodically sums the RAM used by the indexing buffers of all open index writers,
+ * and when the total exceeds the budget, flushes the writers using the most RAM
+ * until the total is back under the budget.
+ */
+public final class IndexWriterMemoryController {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final Comparator<WriterRamUsage> LARGEST_FIRST =
+			Comparator.comparingLong( (WriterRamUsage usage) -> usage.ramBytesUsed ).reversed();
+
+	private final long maxRamBytes;
+	private final int checkInterval;
+
+	private final Set<IndexWriterDelegatorImpl> writers = ConcurrentHashMap.newKeySet();
+	private final ReentrantLock checkLock = new ReentrantLock();
+
+	private ScheduledFuture<?> scheduledCheck;
+
+	public IndexWriterMemoryController(long maxRamBytes, int checkInterval) {
+		this.maxRamBytes = maxRamBytes;
+		this.checkInterval = checkInterval;
+	}
+
+	public void start(ScheduledExecutorService executor) {
+		scheduledCheck = executor.scheduleWithFixedDelay( this::check,
+				checkInterval, checkInterval, TimeUnit.MILLISECONDS );
+	}
+
+	public void stop() {
+		if ( scheduledCheck != null ) {
+			scheduledCheck.cancel( false );
+			scheduledCheck = null;
+		}
+		writers.clear();
+	}
+
+	void register(IndexWriterDelegatorImpl writer) {
+		writers.add( writer );
+	}
+
+	void unregister(IndexWriterDelegatorImpl writer) {
+		writers.remove( writer );
+	}
+
+	/**
+	 * @return The amount of RAM currently used by the indexing buffers of all open index writers, in bytes.
+	 */
+	public long ramBytesUsed() {
+		long total = 0L;
+		for ( IndexWriterDelegatorImpl writer : writers ) {
+			total += writer.ramBytesUsed();
+		}
+		return total;
+	}
+
+	void check() {
+		if ( !checkLock.tryLock() ) {
+			// Another check is in progress: no need to run another one.
+			return;
+		}
+		try {
+			// Take a snapshot, since the RAM usage of each writer changes concurrently.
+			WriterRamUsage[] usages = writers.stream()
+					.map( writer -> new WriterRamUsage( writer, writer.ramBytesUsed() ) )
+					.toArray( WriterRamUsage[]::new );
+			long total = 0L;
+			for ( WriterRamUsage usage : usages ) {
+				total += usage.ramBytesUsed;
+			}
+			if ( total <= maxRamBytes ) {
+				return;
+			}
+
+			log.debugf( "Index writers use %d bytes of RAM, exceeding the budget of %d bytes: flushing the largest writers",
+					total, maxRamBytes );
+			Arrays.sort( usages, LARGEST_FIRST );
+			for ( WriterRamUsage usage : usages ) {
+				if ( total <= maxRamBytes || usage.ramBytesUsed == 0L ) {
+					break;
+				}
+				usage.writer.flushIndexingBuffer();
+				total -= usage.ramBytesUsed;
+			}
+		}
+		catch (RuntimeException e) {
+			// Don't let the exception cancel further executions of the scheduled check.
+			log.unableToEnforceIndexWriterMemoryBudget( e.getMessage(), e );
+		}
+		finally {
+			checkLock.unlock();
+		}
+	}
+
+	private static final class WriterRamUsage {
+		private final IndexWriterDelegatorImpl writer;
+		private final long ramBytesUsed;
+
+		private WriterRamUsage(IndexWriterDelegatorImpl writer, long ramBytesUsed) {
+			this.writer = writer;
+			this.ramBytesUsed = ramBytesUsed;
+		}
+	}
+}
@@ -8,14 +8,17 @@
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
 import org.hibernate.search.engine.common.timing.spi.TimingSource;
 import org.hibernate.search.engine.reporting.FailureHandler;
+import org.hibernate.search.util.common.impl.Closer;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 import org.hibernate.search.util.common.reporting.EventContext;
 
@@ -23,6 +26,7 @@
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.MergeScheduler;
+import org.apache.lucene.store.Directory;
 
 /**
  * @author Sanne Grinovero (C) 2011 Red Hat Inc.
@@ -39,6 +43,11 @@ public class IndexWriterProvider {
 	private final int commitInterval;
 	private BackendThreads threads;
 	private final FailureHandler failureHandler;
+	private final IndexWriterMemoryController memoryControllerOrNull;
+	private final IndexMergeController mergeController;
+	private final boolean translogEnabled;
+
+	private Path translogDirectoryPath;
 
 	/**
 	 * Current open IndexWriter, or null when closed.
@@ -54,7 +63,10 @@ public IndexWriterProvider(String indexName, EventContext eventContext,
 			DirectoryHolder directoryHolder, IndexWriterConfigSource configSource,
 			TimingSource timingSource, int commitInterval,
 			BackendThreads threads,
-			FailureHandler failureHandler) {
+			FailureHandler failureHandler,
+			IndexWriterMemoryController memoryControllerOrNull,
+			IndexMergeController mergeController,
+			boolean translogEnabled) {
 		this.indexName = indexName;
 		this.eventContext = eventContext;
 		this.directoryHolder = directoryHolder;
@@ -63,6 +75,24 @@ public IndexWriterProvider(String indexName, EventContext eventContext,
 		this.commitInterval = commitInterval;
 		this.threads = threads;
 		this.failureHandler = failureHandler;
+		this.memoryControllerOrNull = memoryControllerOrNull;
+		this.mergeController = mergeController;
+		this.translogEnabled = translogEnabled;
+	}
+
+	/**
+	 * Checks that the directory is compatible with the configuration, so that incompatibilities are detected on startup.
+	 * <p>
+	 * Must be called once the directory holder is started, before any index writer is opened.
+	 */
+	public void start() {
+		if ( translogEnabled ) {
+			Directory directory = directoryHolder.get();
+			translogDirectoryPath = IndexTranslog.fileSystemPathOrNull( directory );
+			if ( translogDirectoryPath == null ) {
+				throw log.translogRequiresFileSystemDirectory( directory, eventContext );
+			}
+		}
 	}
 
 	/**
@@ -73,6 +103,7 @@ public IndexWriterProvider(String indexName, EventContext eventContext,
 	public void clear() throws IOException {
 		IndexWriterDelegatorImpl indexWriterDelegator = currentWriter.getAndSet( null );
 		if ( indexWriterDelegator != null ) {
+			unregister( indexWriterDelegator );
 			indexWriterDelegator.close();
 		}
 	}
@@ -95,6 +126,7 @@ public void clearAfterFailure(Throwable throwable, Object failingOperation) {
 		try {
 			indexWriterDelegator = currentWriter.getAndSet( null );
 			if ( indexWriterDelegator != null ) {
+				unregister( indexWriterDelegator );
 				indexWriterDelegator.closeAfterFailure( throwable, failingOperation );
 			}
 		}
@@ -103,6 +135,42 @@ public void clearAfterFailure(Throwable throwable, Object failingOperation) {
 		}
 	}
 
+	/**
+	 * Closes the index writer if it is idle, i.e. if no merge is running
+	 * and the given condition is still true after the writer was made unavailable to other threads.
+	 * <p>
+	 * Callers retrieving the index writer concurrently must make sure the condition becomes false
+	 * <em>before</em> they retrieve the writer,
+	 * so that the writer is never closed while they use it.
+	 *
+	 * @param idleCondition A condition that is true when the index writer is idle.
+	 * @return {@code true} if an index writer was closed, {@code false} otherwise.
+	 */
+	public boolean clearIfIdle(BooleanSupplier idleCondition) throws IOException {
+		currentWriterModificationLock.lock();
+		try {
+			IndexWriterDelegatorImpl indexWriterDelegator = currentWriter.get();
+			if ( indexWriterDelegator == null || indexWriterDelegator.isMerging() ) {
+				return false;
+			}
+			currentWriter.set( null );
+			// Another thread may have retrieved the writer just before we removed it:
+			// in that case it will have updated the condition, so check it again.
+			if ( !idleCondition.getAsBoolean() ) {
+				currentWriter.set( indexWriterDelegator );
+				return false;
+			}
+			unregister( indexWriterDelegator );
+			// With the default settings, this will trigger a commit.
+			indexWriterDelegator.close();
+			log.trace( "IndexWriter closed because it was idle" );
+			return true;
+		}
+		finally {
+			currentWriterModificationLock.unlock();
+		}
+	}
+
 	public IndexWriterDelegatorImpl getOrNull() {
 		return currentWriter.get();
 	}
@@ -115,15 +183,21 @@ public IndexWriterDelegatorImpl getOrCreate() throws IOException {
 				indexWriterDelegator = currentWriter.get();
 				if ( indexWriterDelegator == null ) {
 					IndexWriter indexWriter = createNewIndexWriter();
+					IndexTranslog translog = translogEnabled ? openTranslog( indexWriter ) : null;
 					indexWriterDelegator = new IndexWriterDelegatorImpl(
 							indexWriter, eventContext,
 							threads.getWriteExecutor(),
 							timingSource, commitInterval,
 							failureHandler,
-							this::clearAfterFailure
+							this::clearAfterFailure,
+							configSource.readerWarmerOrNull(),
+							translog
 					);
 					log.trace( "IndexWriter opened" );
 					currentWriter.set( indexWriterDelegator );
+					if ( memoryControllerOrNull != null ) {
+						memoryControllerOrNull.register( indexWriterDelegator );
+					}
 				}
 			}
 			finally {
@@ -133,17 +207,44 @@ public IndexWriterDelegatorImpl getOrCreate() throws IOException {
 		return indexWriterDelegator;
 	}
 
+	private void unregister(IndexWriterDelegatorImpl indexWriterDelegator) {
+		if ( memoryControllerOrNull != null ) {
+			memoryControllerOrNull.unregister( indexWriterDelegator );
+		}
+	}
+
 	private IndexWriter createNewIndexWriter() throws IOException {
 		// Each writer config can be attached only once to an IndexWriter
 		final IndexWriterConfig indexWriterConfig = createWriterConfig();
 		return new IndexWriter( directoryHolder.get(), indexWriterConfig );
 	}
 
+	private IndexTranslog openTranslog(IndexWriter indexWriter) throws IOException {
+		IndexTranslog translog = null;
+		try {
+			translog = new IndexTranslog( translogDirectoryPath, eventContext );
+			// Applies operations that were not committed before the previous writer was closed, e.g. because of a crash.
+			translog.recover( indexWriter );
+			return translog;
+		}
+		catch (RuntimeException | IOException e) {
+			try ( Closer<IOException> closer = new Closer<>() ) {
+				closer.push( IndexTranslog::close, translog );
+				// Do not commit anything: the translog must be recovered again when the writer is re-opened.
+				closer.push( IndexWriter::rollback, indexWriter );
+			}
+			catch (RuntimeException | IOException closeException) {
+				e.addSuppressed( closeException );
+			}
+			throw e;
+		}
+	}
+
 	private IndexWriterConfig createWriterConfig() {
 		IndexWriterConfig writerConfig = configSource.createIndexWriterConfig();
 		MergeScheduler mergeScheduler = new HibernateSearchConcurrentMergeScheduler(
 				indexName, eventContext.render(),
-				threads.getThreadProvider(), failureHandler
+				threads.getThreadProvider(), failureHandler, mergeController
 		);
 		writerConfig.setMergeScheduler( mergeScheduler );
 		writerConfig.setOpenMode( OpenMode.CREATE_OR_APPEND );
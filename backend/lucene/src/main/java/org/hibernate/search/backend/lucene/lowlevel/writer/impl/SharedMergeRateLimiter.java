@@ -0,0 +1,92 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import org.apache.lucene.store.RateLimiter;
+import org.apache.lucene.util.ThreadInterruptedException;
+
+/**
+ * A rate limiter shared by all the merges of a backend,
+ * so that their combined write rate stays under a given limit.
+ * <p>
+ * Unlike {@link RateLimiter.SimpleRateLimiter}, this rate limiter can be used concurrently by multiple threads:
+ * each call to {@link #pause(long)} reserves a time slot proportional to the number of bytes written,
+ * after the slots reserved by previous calls, then waits for this time slot to end.
+ */
+final class SharedMergeRateLimiter extends RateLimiter {
+
+	/**
+	 * How often the rate is checked when it is limited, in milliseconds.
+	 * Same as in {@link RateLimiter.SimpleRateLimiter}.
+	 */
+	private static final int MIN_PAUSE_CHECK_MSEC = 5;
+
+	/**
+	 * How often the rate is checked when it is not limited, in bytes.
+	 * Small enough that a newly set limit applies quickly.
+	 */
+	private static final long UNLIMITED_PAUSE_CHECK_BYTES = 1024L * 1024L;
+
+	private volatile double mbPerSec;
+	private volatile long minPauseCheckBytes;
+
+	private long nextPauseEndNS;
+
+	SharedMergeRateLimiter(double mbPerSec) {
+		setMBPerSec( mbPerSec );
+	}
+
+	/**
+	 * @param mbPerSec The maximum rate, in megabytes per second, or {@code 0} to not limit the rate.
+	 */
+	@Override
+	public void setMBPerSec(double mbPerSec) {
+		this.mbPerSec = mbPerSec;
+		this.minPauseCheckBytes = mbPerSec > 0.0
+				? Math.max( 1L, (long) ( ( MIN_PAUSE_CHECK_MSEC / 1000.0 ) * mbPerSec * 1024 * 1024 ) )
+				: UNLIMITED_PAUSE_CHECK_BYTES;
+	}
+
+	@Override
+	public double getMBPerSec() {
+		return mbPerSec;
+	}
+
+	@Override
+	public long getMinPauseCheckBytes() {
+		return minPauseCheckBytes;
+	}
+
+	@Override
+	public long pause(long bytes) {
+		double currentMBPerSec = mbPerSec;
+		if ( currentMBPerSec <= 0.0 ) {
+			return 0L;
+		}
+
+		long durationNS = (long) ( 1_000_000_000.0 * bytes / ( currentMBPerSec * 1024 * 1024 ) );
+		long startNS = System.nanoTime();
+		long pauseEndNS;
+		synchronized ( this ) {
+			// If no merge wrote anything recently, the time slot starts now.
+			pauseEndNS = Math.max( startNS, nextPauseEndNS ) + durationNS;
+			nextPauseEndNS = pauseEndNS;
+		}
+
+		long remainingNS = pauseEndNS - startNS;
+		while ( remainingNS > 0 ) {
+			try {
+				Thread.sleep( remainingNS / 1_000_000, (int) ( remainingNS % 1_000_000 ) );
+			}
+			catch (InterruptedException e) {
+				throw new ThreadInterruptedException( e );
+			}
+			remainingNS = pauseEndNS - System.nanoTime();
+		}
+		return System.nanoTime() - startNS;
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexableFieldType;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Encodes index writer operations into translog records, and applies decoded records to an index writer.
+ * <p>
+ * Documents are encoded field by field, each field with its complete {@link IndexableFieldType type},
+ * so that any field built from a string, binary or numeric value can be re-created identically.
+ */
+final class TranslogCodec {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final byte OPERATION_ADD = 0;
+	private static final byte OPERATION_UPDATE = 1;
+	private static final byte OPERATION_DELETE = 2;
+	private static final byte OPERATION_DELETE_MATCHING_ALL = 3;
+
+	private static final byte VALUE_STRING = 0;
+	private static final byte VALUE_BINARY = 1;
+	private static final byte VALUE_INT = 2;
+	private static final byte VALUE_LONG = 3;
+	private static final byte VALUE_FLOAT = 4;
+	private static final byte VALUE_DOUBLE = 5;
+
+	private static final int FLAG_STORED = 1;
+	private static final int FLAG_TOKENIZED = 1 << 1;
+	private static final int FLAG_STORE_TERM_VECTORS = 1 << 2;
+	private static final int FLAG_STORE_TERM_VECTOR_OFFSETS = 1 << 3;
+	private static final int FLAG_STORE_TERM_VECTOR_POSITIONS = 1 << 4;
+	private static final int FLAG_STORE_TERM_VECTOR_PAYLOADS = 1 << 5;
+	private static final int FLAG_OMIT_NORMS = 1 << 6;
+
+	private TranslogCodec() {
+	}
+
+	static void writeAdd(DataOutput out, Iterable<? extends Iterable<? extends IndexableField>> docs,
+			EventContext eventContext) throws IOException {
+		out.writeByte( OPERATION_ADD );
+		writeDocuments( out, docs, eventContext );
+	}
+
+	static void writeUpdate(DataOutput out, Term term, Iterable<? extends Iterable<? extends IndexableField>> docs,
+			EventContext eventContext) throws IOException {
+		out.writeByte( OPERATION_UPDATE );
+		writeTerm( out, term );
+		writeDocuments( out, docs, eventContext );
+	}
+
+	static void writeDelete(DataOutput out, Term term) throws IOException {
+		out.writeByte( OPERATION_DELETE );
+		writeTerm( out, term );
+	}
+
+	static void writeDeleteMatchingAll(DataOutput out, Term[] terms) throws IOException {
+		out.writeByte( OPERATION_DELETE_MATCHING_ALL );
+		out.writeVInt( terms.length );
+		for ( Term term : terms ) {
+			writeTerm( out, term );
+		}
+	}
+
+	/**
+	 * Decodes a single operation and applies it to the given index writer.
+	 */
+	static void apply(DataInput in, IndexWriter writer) throws IOException {
+		byte operation = in.readByte();
+		switch ( operation ) {
+			case OPERATION_ADD:
+				writer.addDocuments( readDocuments( in ) );
+				break;
+			case OPERATION_UPDATE:
+				Term term = readTerm( in );
+				writer.updateDocuments( term, readDocuments( in ) );
+				break;
+			case OPERATION_DELETE:
+				writer.deleteDocuments( readTerm( in ) );
+				break;
+			case OPERATION_DELETE_MATCHING_ALL:
+				Term[] terms = new Term[in.readVInt()];
+				for ( int i = 0; i < terms.length; i++ ) {
+					terms[i] = readTerm( in );
+				}
+				writer.deleteDocuments( Queries.allTerms( terms ) );
+				break;
+			default:
+				throw new IOException( "Unknown translog operation: " + operation );
+		}
+	}
+
+	private static void writeTerm(DataOutput out, Term term) throws IOException {
+		out.writeString( term.field() );
+		writeBytesRef( out, term.bytes() );
+	}
+
+	private static Term readTerm(DataInput in) throws IOException {
+		String field = in.readString();
+		return new Term( field, readBytesRef( in ) );
+	}
+
+	private static void writeDocuments(DataOutput out, Iterable<? extends Iterable<? extends IndexableField>> docs,
+			EventContext eventContext) throws IOException {
+		List<Iterable<? extends IndexableField>> docList = new ArrayList<>();
+		for ( Iterable<? extends IndexableField> doc : docs ) {
+			docList.add( doc );
+		}
+		out.writeVInt( docList.size() );
+		List<IndexableField> fields = new ArrayList<>();
+		for ( Iterable<? extends IndexableField> doc : docList ) {
+			fields.clear();
+			for ( IndexableField field : doc ) {
+				fields.add( field );
+			}
+			out.writeVInt( fields.size() );
+			for ( IndexableField field : fields ) {
+				writeField( out, field, eventContext );
+			}
+		}
+	}
+
+	private static List<List<IndexableField>> readDocuments(DataInput in) throws IOException {
+		int docCount = in.readVInt();
+		List<List<IndexableField>> docs = new ArrayList<>( docCount );
+		for ( int i = 0; i < docCount; i++ ) {
+			int fieldCount = in.readVInt();
+			List<IndexableField> doc = new ArrayList<>( fieldCount );
+			for ( int j = 0; j < fieldCount; j++ ) {
+				doc.add( readField( in ) );
+			}
+			docs.add( doc );
+		}
+		return docs;
+	}
+
+	private static void writeField(DataOutput out, IndexableField field, EventContext eventContext) throws IOException {
+		out.writeString( field.name() );
+		writeFieldType( out, field.fieldType() );
+
+		// Check binary values first: points also expose their (packed) value as a number.
+		// Then check numeric values: Field#stringValue() also returns numeric values, converted to strings.
+		BytesRef binaryValue = field.binaryValue();
+		Number numericValue = field.numericValue();
+		String stringValue = field.stringValue();
+		if ( binaryValue != null ) {
+			out.writeByte( VALUE_BINARY );
+			writeBytesRef( out, binaryValue );
+		}
+		else if ( numericValue instanceof Integer ) {
+			out.writeByte( VALUE_INT );
+			out.writeInt( numericValue.intValue() );
+		}
+		else if ( numericValue instanceof Long ) {
+			out.writeByte( VALUE_LONG );
+			out.writeLong( numericValue.longValue() );
+		}
+		else if ( numericValue instanceof Float ) {
+			out.writeByte( VALUE_FLOAT );
+			out.writeInt( Float.floatToIntBits( numericValue.floatValue() ) );
+		}
+		else if ( numericValue instanceof Double ) {
+			out.writeByte( VALUE_DOUBLE );
+			out.writeLong( Double.doubleToLongBits( numericValue.doubleValue() ) );
+		}
+		else if ( numericValue == null && stringValue != null ) {
+			out.writeByte( VALUE_STRING );
+			out.writeString( stringValue );
+		}
+		else {
+			// Reader or token stream values cannot be read twice, and Hibernate Search never uses them anyway.
+			Object value = numericValue != null ? numericValue : field.readerValue();
+			throw log.unsupportedTranslogFieldValue( field.name(),
+					value == null ? TokenStream.class : value.getClass(), eventContext );
+		}
+	}
+
+	private static IndexableField readField(DataInput in) throws IOException {
+		String name = in.readString();
+		FieldType type = readFieldType( in );
+		byte valueType = in.readByte();
+		Object value;
+		switch ( valueType ) {
+			case VALUE_STRING:
+				value = in.readString();
+				break;
+			case VALUE_BINARY:
+				value = readBytesRef( in );
+				break;
+			case VALUE_INT:
+				value = in.readInt();
+				break;
+			case VALUE_LONG:
+				value = in.readLong();
+				break;
+			case VALUE_FLOAT:
+				value = Float.intBitsToFloat( in.readInt() );
+				break;
+			case VALUE_DOUBLE:
+				value = Double.longBitsToDouble( in.readLong() );
+				break;
+			default:
+				throw new IOException( "Unknown translog field value type: " + valueType );
+		}
+		return new TranslogField( name, type, value );
+	}
+
+	private static void writeFieldType(DataOutput out, IndexableFieldType type) throws IOException {
+		int flags = 0;
+		flags |= type.stored() ? FLAG_STORED : 0;
+		flags |= type.tokenized() ? FLAG_TOKENIZED : 0;
+		flags |= type.storeTermVectors() ? FLAG_STORE_TERM_VECTORS : 0;
+		flags |= type.storeTermVectorOffsets() ? FLAG_STORE_TERM_VECTOR_OFFSETS : 0;
+		flags |= type.storeTermVectorPositions() ? FLAG_STORE_TERM_VECTOR_POSITIONS : 0;
+		flags |= type.storeTermVectorPayloads() ? FLAG_STORE_TERM_VECTOR_PAYLOADS : 0;
+		flags |= type.omitNorms() ? FLAG_OMIT_NORMS : 0;
+		out.writeVInt( flags );
+		out.writeString( type.indexOptions().name() );
+		out.writeString( type.docValuesType().name() );
+		out.writeVInt( type.pointDimensionCount() );
+		out.writeVInt( type.pointIndexDimensionCount() );
+		out.writeVInt( type.pointNumBytes() );
+		Map<String, String> attributes = type.getAttributes();
+		out.writeMapOfStrings( attributes == null ? Collections.emptyMap() : attributes );
+	}
+
+	private static FieldType readFieldType(DataInput in) throws IOException {
+		FieldType type = new FieldType();
+		int flags = in.readVInt();
+		type.setStored( ( flags & FLAG_STORED ) != 0 );
+		type.setTokenized( ( flags & FLAG_TOKENIZED ) != 0 );
+		type.setStoreTermVectors( ( flags & FLAG_STORE_TERM_VECTORS ) != 0 );
+		type.setStoreTermVectorOffsets( ( flags & FLAG_STORE_TERM_VECTOR_OFFSETS ) != 0 );
+		type.setStoreTermVectorPositions( ( flags & FLAG_STORE_TERM_VECTOR_POSITIONS ) != 0 );
+		type.setStoreTermVectorPayloads( ( flags & FLAG_STORE_TERM_VECTOR_PAYLOADS ) != 0 );
+		type.setOmitNorms( ( flags & FLAG_OMIT_NORMS ) != 0 );
+		type.setIndexOptions( IndexOptions.valueOf( in.readString() ) );
+		type.setDocValuesType( DocValuesType.valueOf( in.readString() ) );
+		int pointDimensionCount = in.readVInt();
+		int pointIndexDimensionCount = in.readVInt();
+		int pointNumBytes = in.readVInt();
+		if ( pointDimensionCount > 0 ) {
+			type.setDimensions( pointDimensionCount, pointIndexDimensionCount, pointNumBytes );
+		}
+		for ( Map.Entry<String, String> attribute : in.readMapOfStrings().entrySet() ) {
+			type.putAttribute( attribute.getKey(), attribute.getValue() );
+		}
+		type.freeze();
+		return type;
+	}
+
+	private static void writeBytesRef(DataOutput out, BytesRef bytes) throws IOException {
+		out.writeVInt( bytes.length );
+		out.writeBytes( bytes.bytes, bytes.offset, bytes.length );
+	}
+
+	private static BytesRef readBytesRef(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readVInt()];
+		in.readBytes( bytes, 0, bytes.length );
+		return new BytesRef( bytes );
+	}
+
+	/**
+	 * A field re-created from the translog.
+	 * <p>
+	 * Sets the value directly, bypassing the consistency checks of {@link Field}'s public constructors,
+	 * which the original field already went through.
+	 */
+	private static final class TranslogField extends Field {
+		private TranslogField(String name, IndexableFieldType type, Object value) {
+			super( name, type );
+			this.fieldsData = value;
+		}
+	}
+}
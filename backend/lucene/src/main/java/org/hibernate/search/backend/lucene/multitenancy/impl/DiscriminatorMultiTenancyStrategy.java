@@ -15,6 +15,7 @@
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
 
 public class DiscriminatorMultiTenancyStrategy implements MultiTenancyStrategy {
@@ -27,8 +28,11 @@ public boolean isMultiTenancySupported() {
 	}
 
 	@Override
-	public void contributeToIndexedDocument(Document document, String tenantId) {
+	public void contributeToIndexedDocument(Document document, String tenantId, String rootId) {
 		document.add( MetadataFields.searchableMetadataField( MetadataFields.tenantIdFieldName(), tenantId ) );
+		// Allows updating/deleting documents of a given tenant with a single term instead of a query.
+		document.add( MetadataFields.searchableMetadataField( MetadataFields.tenantAndIdFieldName(),
+				tenantAndId( tenantId, rootId ) ) );
 	}
 
 	@Override
@@ -36,10 +40,28 @@ public Query filterOrNull(String tenantId) {
 		return Queries.term( MetadataFields.tenantIdFieldName(), tenantId );
 	}
 
+	@Override
+	public Term tenantTermOrNull(String tenantId) {
+		return new Term( MetadataFields.tenantIdFieldName(), tenantId );
+	}
+
+	@Override
+	public Term documentIdTerm(String tenantId, String id) {
+		return new Term( MetadataFields.tenantAndIdFieldName(), tenantAndId( tenantId, id ) );
+	}
+
 	@Override
 	public void checkTenantId(String tenantId, EventContext backendContext) {
 		if ( tenantId == null ) {
 			throw log.multiTenancyEnabledButNoTenantIdProvided( backendContext );
 		}
 	}
+
+	private static String tenantAndId(String tenantId, String id) {
+		// Prefix with the length of the tenant ID,
+		// so that e.g. tenant "a_b" with ID "c" and tenant "a" with ID "b_c" lead to different values.
+		StringBuilder sb = new StringBuilder( tenantId.length() + id.length() + 8 );
+		sb.append( tenantId.length() ).append( '_' ).append( tenantId ).append( id );
+		return sb.toString();
+	}
 }
@@ -7,6 +7,7 @@
 package org.hibernate.search.backend.lucene.multitenancy.impl;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
 import org.hibernate.search.util.common.reporting.EventContext;
 
@@ -27,8 +28,9 @@ public interface MultiTenancyStrategy {
 	 *
 	 * @param document The indexed document.
 	 * @param tenantId The tenant id.
+	 * @param rootId The identifier of the root document, for both the root document and its nested documents.
 	 */
-	void contributeToIndexedDocument(Document document, String tenantId);
+	void contributeToIndexedDocument(Document document, String tenantId, String rootId);
 
 	/**
 	 * Generate a filter for the given tenant ID, to be applied to search queries
@@ -39,6 +41,27 @@ public interface MultiTenancyStrategy {
 	 */
 	Query filterOrNull(String tenantId);
 
+	/**
+	 * Generate a term matching all documents of the given tenant,
+	 * to be used in update/delete operations that cannot rely on {@link #documentIdTerm(String, String)}.
+	 *
+	 * @param tenantId The tenant id.
+	 * @return The term, or {@code null} if no filter is necessary.
+	 */
+	Term tenantTermOrNull(String tenantId);
+
+	/**
+	 * Generate a term matching the given document and its nested documents, and only those,
+	 * to be used in update/delete operations.
+	 * <p>
+	 * Using a term rather than a query allows the index writer to buffer deletes efficiently.
+	 *
+	 * @param tenantId The tenant id.
+	 * @param id The identifier of the root document.
+	 * @return The term.
+	 */
+	Term documentIdTerm(String tenantId, String id);
+
 	/**
 	 * Check that the tenant id value is consistent with the strategy.
 	 *
@@ -15,6 +15,8 @@
 	public final IndexingWork<T> work;
 	public final CompletableFuture<T> future;
 
+	private T result;
+
 	LuceneBatchedWork(IndexingWork<T> work, CompletableFuture<T> future) {
 		this.work = work;
 		this.future = future;
@@ -22,15 +24,24 @@
 
 	@Override
 	public void submitTo(LuceneBatchedWorkProcessor processor) {
+		processor.submit( this );
+	}
+
+	void execute(LuceneBatchedWorkProcessor processor) {
 		try {
-			T result = processor.submit( work );
-			future.complete( result );
+			result = processor.submit( work );
+			// Complete the future at the end of the batch only, once the changes are committed or at least durable.
+			processor.completeAtEndOfBatch( this );
 		}
 		catch (RuntimeException e) {
 			markAsFailed( e );
 		}
 	}
 
+	void complete() {
+		future.complete( result );
+	}
+
 	@Override
 	public void markAsFailed(Throwable t) {
 		future.completeExceptionally( t );
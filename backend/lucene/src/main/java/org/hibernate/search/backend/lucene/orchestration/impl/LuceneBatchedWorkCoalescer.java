@@ -0,0 +1,127 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.orchestration.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.hibernate.search.backend.lucene.work.impl.IndexingWork;
+import org.hibernate.search.backend.lucene.work.impl.SingleDocumentIndexingWork;
+import org.hibernate.search.util.common.impl.Futures;
+
+/**
+ * Collects the works of a batch, then executes them while skipping redundant works.
+ * <p>
+ * A work targeting a single document is redundant if it is followed, in the same batch,
+ * by a work targeting the same document that {@link SingleDocumentIndexingWork#overridesPreviousWorks() overrides}
+ * previous works (update, delete),
+ * without any work targeting multiple documents (e.g. delete by query) in-between.
+ * Redundant works are not executed: instead, their future is completed with the outcome of the overriding work.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+final class LuceneBatchedWorkCoalescer {
+
+	private final List<LuceneBatchedWork<?>> works = new ArrayList<>();
+	private final List<LuceneBatchedWork<?>> overridingWorks = new ArrayList<>();
+	private final Map<DocumentKey, LuceneBatchedWork<?>> overridingWorksByDocument = new HashMap<>();
+
+	void add(LuceneBatchedWork<?> work) {
+		works.add( work );
+	}
+
+	void executeAndClear(LuceneBatchedWorkProcessor processor) {
+		try {
+			findOverridingWorks();
+			for ( int i = 0; i < works.size(); i++ ) {
+				if ( overridingWorks.get( i ) == null ) {
+					works.get( i ).execute( processor );
+				}
+			}
+			// At this point, all overriding works have been executed:
+			// their future will be completed at the end of the batch.
+			for ( int i = 0; i < works.size(); i++ ) {
+				LuceneBatchedWork<?> overridingWork = overridingWorks.get( i );
+				if ( overridingWork != null ) {
+					copyOutcome( overridingWork, works.get( i ) );
+				}
+			}
+		}
+		finally {
+			works.clear();
+			overridingWorks.clear();
+			overridingWorksByDocument.clear();
+		}
+	}
+
+	/*
+	 * Walk the works backwards, remembering the last overriding work for each document,
+	 * so that we know for each work whether it is overridden by a later work.
+	 */
+	private void findOverridingWorks() {
+		int size = works.size();
+		for ( int i = 0; i < size; i++ ) {
+			overridingWorks.add( null );
+		}
+		for ( int i = size - 1; i >= 0; i-- ) {
+			IndexingWork<?> work = works.get( i ).work;
+			if ( !( work instanceof SingleDocumentIndexingWork ) ) {
+				// This work may affect any document:
+				// works before it must be executed before it.
+				overridingWorksByDocument.clear();
+				continue;
+			}
+			SingleDocumentIndexingWork singleDocumentWork = (SingleDocumentIndexingWork) work;
+			DocumentKey key = new DocumentKey( singleDocumentWork.getTenantId(),
+					singleDocumentWork.getDocumentIdentifier() );
+			LuceneBatchedWork<?> overridingWork = overridingWorksByDocument.get( key );
+			if ( overridingWork != null ) {
+				overridingWorks.set( i, overridingWork );
+			}
+			else if ( singleDocumentWork.overridesPreviousWorks() ) {
+				overridingWorksByDocument.put( key, works.get( i ) );
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked") // Both works are single-document works, whose result is a Long
+	private static void copyOutcome(LuceneBatchedWork<?> source, LuceneBatchedWork<?> target) {
+		( (LuceneBatchedWork<Long>) source ).future
+				.whenComplete( Futures.copyHandler( ( (LuceneBatchedWork<Long>) target ).future ) );
+	}
+
+	private static final class DocumentKey {
+		private final String tenantId;
+		private final String documentIdentifier;
+
+		private DocumentKey(String tenantId, String documentIdentifier) {
+			this.tenantId = tenantId;
+			this.documentIdentifier = documentIdentifier;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( obj == null || obj.getClass() != getClass() ) {
+				return false;
+			}
+			DocumentKey other = (DocumentKey) obj;
+			return Objects.equals( tenantId, other.tenantId )
+					&& documentIdentifier.equals( other.documentIdentifier );
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Objects.hashCode( tenantId ) + documentIdentifier.hashCode();
+		}
+	}
+}
@@ -6,6 +6,8 @@
  */
 package org.hibernate.search.backend.lucene.orchestration.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.IndexAccessor;
@@ -15,7 +17,10 @@
 import org.hibernate.search.util.common.reporting.EventContext;
 
 /**
- * A thread-safe component responsible for applying write works to an index writer.
+ * A component responsible for applying write works to an index writer.
+ * <p>
+ * This component holds per-batch state and is not thread-safe:
+ * each batching executor must use its own instance.
  * <p>
  * Ported from Search 5's LuceneBackendQueueTask, in particular.
  */
@@ -23,11 +28,25 @@ public class LuceneBatchedWorkProcessor implements BatchedWorkProcessor {
 
 	private final IndexAccessor indexAccessor;
 	private final IndexAccessorWorkExecutionContext context;
+	private final LuceneBatchedWorkCoalescer coalescer;
+	private final List<LuceneBatchedWork<?>> worksToComplete = new ArrayList<>();
 
 	public LuceneBatchedWorkProcessor(EventContext eventContext,
 			IndexAccessor indexAccessor) {
+		this( eventContext, indexAccessor, false );
+	}
+
+	/**
+	 * @param eventContext The event context of the index.
+	 * @param indexAccessor The accessor to the index.
+	 * @param coalesceWorks Whether to skip works that are made redundant by a later work in the same batch.
+	 * If {@code true}, works are only executed at the end of each batch.
+	 */
+	public LuceneBatchedWorkProcessor(EventContext eventContext,
+			IndexAccessor indexAccessor, boolean coalesceWorks) {
 		this.indexAccessor = indexAccessor;
 		this.context = new IndexAccessorWorkExecutionContext( eventContext, indexAccessor );
+		this.coalescer = coalesceWorks ? new LuceneBatchedWorkCoalescer() : null;
 	}
 
 	@Override
@@ -38,11 +57,29 @@ public void beginBatch() {
 	@Override
 	public CompletableFuture<?> endBatch() {
 		try {
-			indexAccessor.commitOrDelay();
+			if ( coalescer != null ) {
+				coalescer.executeAndClear( this );
+			}
+			try {
+				indexAccessor.commitOrDelay();
+			}
+			catch (RuntimeException e) {
+				indexAccessor.cleanUpAfterFailure( e, "Commit after a batch of index works" );
+				// The exception was reported to the failure handler, no need to propagate it.
+				// However, the changes were lost: works of this batch must not be reported as successful.
+				for ( LuceneBatchedWork<?> work : worksToComplete ) {
+					work.markAsFailed( e );
+				}
+				worksToComplete.clear();
+			}
+			// Only complete works now, so that callers only get notified once changes are durable:
+			// either committed, or synced to the translog if there is one.
+			for ( LuceneBatchedWork<?> work : worksToComplete ) {
+				work.complete();
+			}
 		}
-		catch (RuntimeException e) {
-			indexAccessor.cleanUpAfterFailure( e, "Commit after a batch of index works" );
-			// The exception was reported to the failure handler, no need to propagate it.
+		finally {
+			worksToComplete.clear();
 		}
 		// Everything was already executed, so just return a completed future.
 		return CompletableFuture.completedFuture( null );
@@ -59,6 +96,20 @@ public void complete() {
 		}
 	}
 
+	void submit(LuceneBatchedWork<?> work) {
+		if ( coalescer != null ) {
+			// Defer execution to the end of the batch, so that we know which works are redundant.
+			coalescer.add( work );
+		}
+		else {
+			work.execute( this );
+		}
+	}
+
+	void completeAtEndOfBatch(LuceneBatchedWork<?> work) {
+		worksToComplete.add( work );
+	}
+
 	public <T> T submit(IndexManagementWork<T> work) {
 		try {
 			return work.execute( context );
@@ -7,13 +7,17 @@
 package org.hibernate.search.backend.lucene.orchestration.impl;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
 import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
 import org.hibernate.search.engine.backend.orchestration.spi.AbstractWorkOrchestrator;
 import org.hibernate.search.engine.backend.orchestration.spi.BatchingExecutor;
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 import org.hibernate.search.engine.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.engine.cfg.spi.ConfigurationPropertySource;
+import org.hibernate.search.engine.cfg.spi.OptionalConfigurationProperty;
 import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.util.common.data.impl.SimpleHashFunction;
 import org.hibernate.search.util.common.impl.Closer;
@@ -34,26 +38,57 @@
 					.withDefault( LuceneIndexSettings.Defaults.INDEXING_QUEUE_SIZE )
 					.build();
 
+	private static final ConfigurationProperty<Integer> MAX_LINGER =
+			ConfigurationProperty.forKey( LuceneIndexSettings.INDEXING_MAX_LINGER )
+					.asInteger()
+					.withDefault( LuceneIndexSettings.Defaults.INDEXING_MAX_LINGER )
+					.build();
+
+	private static final OptionalConfigurationProperty<Integer> LINGER_BATCH_SIZE =
+			ConfigurationProperty.forKey( LuceneIndexSettings.INDEXING_LINGER_BATCH_SIZE )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<IndexingQueueOverflowPolicyName> QUEUE_OVERFLOW_POLICY =
+			ConfigurationProperty.forKey( LuceneIndexSettings.INDEXING_QUEUE_OVERFLOW_POLICY )
+					.as( IndexingQueueOverflowPolicyName.class, IndexingQueueOverflowPolicyName::of )
+					.withDefault( LuceneIndexSettings.Defaults.INDEXING_QUEUE_OVERFLOW_POLICY )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> LOCK_FREE_QUEUE =
+			ConfigurationProperty.forKey( LuceneIndexSettings.INDEXING_LOCK_FREE_QUEUE )
+					.asBoolean()
+					.withDefault( LuceneIndexSettings.Defaults.INDEXING_LOCK_FREE_QUEUE )
+					.build();
+
+	private final Supplier<LuceneBatchedWorkProcessor> processorFactory;
+	// Only used for commits and refreshes, which do not involve any per-batch state.
 	private final LuceneBatchedWorkProcessor processor;
 	private final BackendThreads threads;
 	private final FailureHandler failureHandler;
+	private final IndexMergeController mergeController;
 
 	private BatchingExecutor<LuceneBatchedWorkProcessor>[] executors;
 
 	/**
 	 * @param name The name of the orchestrator thread (and of this orchestrator when reporting errors)
-	 * @param processor A processor to use in the background thread.
+	 * @param processorFactory A factory for processors to use in the background threads.
+	 * Processors may hold per-batch state, so one processor is created for each queue.
 	 * @param threads The threads for this backend.
 	 * @param failureHandler A failure handler to report failures of the background thread.
+	 * @param mergeController The merge controller of the backend, which throttles merges when queues grow too large.
 	 */
 	public LuceneSerialWorkOrchestratorImpl(
-			String name, LuceneBatchedWorkProcessor processor,
+			String name, Supplier<LuceneBatchedWorkProcessor> processorFactory,
 			BackendThreads threads,
-			FailureHandler failureHandler) {
+			FailureHandler failureHandler,
+			IndexMergeController mergeController) {
 		super( name );
-		this.processor = processor;
+		this.processorFactory = processorFactory;
+		this.processor = processorFactory.get();
 		this.threads = threads;
 		this.failureHandler = failureHandler;
+		this.mergeController = mergeController;
 	}
 
 	@Override
@@ -71,20 +106,29 @@ public void forceRefreshInCurrentThread() {
 	protected void doStart(ConfigurationPropertySource propertySource) {
 		int queueCount = QUEUE_COUNT.get( propertySource );
 		int queueSize = QUEUE_SIZE.get( propertySource );
+		int maxLinger = MAX_LINGER.get( propertySource );
+		int lingerBatchSize = LINGER_BATCH_SIZE.get( propertySource ).orElse( queueSize );
+		IndexingQueueOverflowPolicyName overflowPolicy = QUEUE_OVERFLOW_POLICY.get( propertySource );
+		boolean lockFreeQueue = LOCK_FREE_QUEUE.get( propertySource );
 
 		executors = new BatchingExecutor[queueCount];
 		for ( int i = 0; i < executors.length; i++ ) {
 			executors[i] = new BatchingExecutor<>(
 					name() + " - " + i,
-					processor,
+					processorFactory.get(),
 					queueSize,
 					true,
+					lockFreeQueue,
+					maxLinger,
+					lingerBatchSize,
+					overflowPolicy,
 					failureHandler
 			);
 		}
 
 		for ( BatchingExecutor<?> executor : executors ) {
 			executor.start( threads.getWriteExecutor() );
+			mergeController.registerIndexingQueue( executor );
 		}
 	}
 
@@ -106,6 +150,7 @@ protected CompletableFuture<?> completion() {
 	@Override
 	protected void doStop() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
+			closer.pushAll( mergeController::unregisterIndexingQueue, executors );
 			closer.pushAll( BatchingExecutor::stop, executors );
 		}
 	}
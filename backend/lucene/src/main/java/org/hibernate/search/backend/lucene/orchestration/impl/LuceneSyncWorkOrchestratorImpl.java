@@ -11,11 +11,16 @@
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.hibernate.search.backend.lucene.cache.impl.LuceneFilterCache;
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.reader.impl.HibernateSearchIndexSearcher;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.HibernateSearchMultiReader;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderMetadataResolver;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.ReadIndexManagerContext;
+import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexMergeController;
+import org.hibernate.search.backend.lucene.resources.impl.BackendThreads;
 import org.hibernate.search.backend.lucene.work.impl.ReadWork;
 import org.hibernate.search.backend.lucene.work.impl.ReadWorkExecutionContext;
 import org.hibernate.search.engine.backend.orchestration.spi.AbstractWorkOrchestrator;
@@ -35,10 +40,17 @@
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
 	private final Similarity similarity;
+	private final BackendThreads threads;
+	private final LuceneFilterCache filterCacheOrNull;
+	private final IndexMergeController mergeController;
 
-	public LuceneSyncWorkOrchestratorImpl(String name, Similarity similarity) {
+	public LuceneSyncWorkOrchestratorImpl(String name, Similarity similarity, BackendThreads threads,
+			LuceneFilterCache filterCacheOrNull, IndexMergeController mergeController) {
 		super( name );
 		this.similarity = similarity;
+		this.threads = threads;
+		this.filterCacheOrNull = filterCacheOrNull;
+		this.mergeController = mergeController;
 		start( null ); // Nothing to start, just force the superclass to go to the right state.
 	}
 
@@ -47,9 +59,11 @@ public <T> T submit(Set<String> indexNames, Collection<? extends ReadIndexManage
 			Set<String> routingKeys, ReadWork<T> work,
 			HibernateSearchMultiReader indexReader) {
 		WorkExecution<T> workExecution = new WorkExecution<>(
-				similarity, indexNames, indexManagerContexts, routingKeys, work, indexReader
+				similarity, threads.getQueryExecutorOrNull(), filterCacheOrNull,
+				indexNames, indexManagerContexts, routingKeys, work, indexReader
 		);
 		Throwable throwable = null;
+		long startNanos = mergeController.beforeQuery();
 		try {
 			submit( workExecution );
 			// If we get there, the task succeeded and we are sure there is a result.
@@ -61,6 +75,8 @@ public <T> T submit(Set<String> indexNames, Collection<? extends ReadIndexManage
 			throw t;
 		}
 		finally {
+			// Merges get throttled when queries become too slow.
+			mergeController.afterQuery( startNanos );
 			if ( throwable == null ) {
 				workExecution.close();
 			}
@@ -95,6 +111,8 @@ protected void doStop() {
 
 	static class WorkExecution<T> implements AutoCloseable, ReadWorkExecutionContext {
 		private final Similarity similarity;
+		private final Executor executorOrNull;
+		private final LuceneFilterCache filterCacheOrNull;
 		private final Set<String> indexNames;
 		private final HibernateSearchMultiReader indexReader;
 		private final ReadWork<T> work;
@@ -102,11 +120,14 @@ protected void doStop() {
 
 		private T result;
 
-		WorkExecution(Similarity similarity, Set<String> indexNames,
+		WorkExecution(Similarity similarity, Executor executorOrNull, LuceneFilterCache filterCacheOrNull,
+				Set<String> indexNames,
 				Collection<? extends ReadIndexManagerContext> indexManagerContexts,
 				Set<String> routingKeys, ReadWork<T> work,
 				HibernateSearchMultiReader indexReader) {
 			this.similarity = similarity;
+			this.executorOrNull = executorOrNull;
+			this.filterCacheOrNull = filterCacheOrNull;
 			this.indexNames = indexNames;
 			this.work = work;
 
@@ -122,8 +143,14 @@ protected void doStop() {
 
 		@Override
 		public IndexSearcher createSearcher() {
-			IndexSearcher searcher = new IndexSearcher( indexReader );
+			IndexSearcher searcher = new HibernateSearchIndexSearcher( indexReader, executorOrNull );
 			searcher.setSimilarity( similarity );
+			if ( filterCacheOrNull != null ) {
+				filterCacheOrNull.applyTo( searcher );
+			}
+			else {
+				searcher.setQueryCache( null );
+			}
 			return searcher;
 		}
 
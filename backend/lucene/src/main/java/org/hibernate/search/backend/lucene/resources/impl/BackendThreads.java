@@ -25,10 +25,17 @@ public class BackendThreads {
 					.asInteger()
 					.build();
 
+	private static final ConfigurationProperty<Integer> QUERY_PARALLELISM =
+			ConfigurationProperty.forKey( LuceneBackendSettings.QUERY_PARALLELISM )
+					.asInteger()
+					.withDefault( LuceneBackendSettings.Defaults.QUERY_PARALLELISM )
+					.build();
+
 	private final String prefix;
 
 	private ThreadPoolProvider threadPoolProvider;
 	private ScheduledExecutorService writeExecutor;
+	private ExecutorService queryExecutor;
 
 	public BackendThreads(String prefix) {
 		this.prefix = prefix;
@@ -48,11 +55,21 @@ public void onStart(ConfigurationPropertySource propertySource, ThreadPoolProvid
 		this.writeExecutor = threadPoolProvider.newScheduledExecutor(
 				threadPoolSize, prefix + " - Worker thread"
 		);
+
+		int queryParallelism = QUERY_PARALLELISM.get( propertySource );
+		if ( queryParallelism > 1 ) {
+			// A separate pool, so that queries never wait for write works (and vice-versa),
+			// and so that query threads never submit tasks to their own pool, which could lead to deadlocks.
+			this.queryExecutor = threadPoolProvider.newFixedThreadPool(
+					queryParallelism, prefix + " - Query thread"
+			);
+		}
 	}
 
 	public void onStop() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
 			closer.push( ExecutorService::shutdownNow, writeExecutor );
+			closer.push( ExecutorService::shutdownNow, queryExecutor );
 		}
 	}
 
@@ -66,6 +83,15 @@ public ScheduledExecutorService getWriteExecutor() {
 		return writeExecutor;
 	}
 
+	/**
+	 * @return The executor to use to search index segments concurrently within a single query,
+	 * or {@code null} if queries should be executed in the calling thread only.
+	 */
+	public ExecutorService getQueryExecutorOrNull() {
+		checkStarted();
+		return queryExecutor;
+	}
+
 	private void checkStarted() {
 		if ( writeExecutor == null ) {
 			throw new AssertionFailure(
@@ -7,43 +7,45 @@
 package org.hibernate.search.backend.lucene.search.aggregation.impl;
 
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorKey;
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
 import org.hibernate.search.backend.lucene.lowlevel.join.impl.NestedDocsProvider;
 import org.hibernate.search.backend.lucene.search.extraction.impl.CollectorSet;
-import org.hibernate.search.engine.backend.types.converter.runtime.FromDocumentFieldValueConvertContext;
 
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public class AggregationExtractContext {
 
 	private final IndexReader indexReader;
 	private final Query luceneQuery;
-	private final FromDocumentFieldValueConvertContext convertContext;
+	private final BitSetProducer parentFilter;
 	private final CollectorSet collectors;
+	private final OrdinalMapCache ordinalMapCache;
 
-	public AggregationExtractContext(IndexReader indexReader, Query luceneQuery,
-			FromDocumentFieldValueConvertContext convertContext,
-			CollectorSet collectors) {
+	public AggregationExtractContext(IndexReader indexReader, Query luceneQuery, BitSetProducer parentFilter,
+			CollectorSet collectors, OrdinalMapCache ordinalMapCache) {
 		this.indexReader = indexReader;
 		this.luceneQuery = luceneQuery;
-		this.convertContext = convertContext;
+		this.parentFilter = parentFilter;
 		this.collectors = collectors;
+		this.ordinalMapCache = ordinalMapCache;
 	}
 
 	public IndexReader getIndexReader() {
 		return indexReader;
 	}
 
-	public FromDocumentFieldValueConvertContext getConvertContext() {
-		return convertContext;
+	public OrdinalMapCache getOrdinalMapCache() {
+		return ordinalMapCache;
 	}
 
-	public <C extends Collector> C getCollector(CollectorKey<C> key) {
+	public <C extends Collector, T> T getCollectorResult(CollectorKey<C, T> key) {
 		return collectors.get( key );
 	}
 
 	public NestedDocsProvider createNestedDocsProvider(String nestedDocumentPath, Query nestedFilter) {
-		return new NestedDocsProvider( nestedDocumentPath, luceneQuery, nestedFilter );
+		return new NestedDocsProvider( parentFilter, nestedDocumentPath, luceneQuery, nestedFilter );
 	}
 }
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.util.Set;
 
+import org.hibernate.search.engine.backend.types.converter.runtime.FromDocumentFieldValueConvertContext;
 import org.hibernate.search.engine.search.aggregation.SearchAggregation;
 
 public interface LuceneSearchAggregation<A> extends SearchAggregation<A> {
@@ -25,13 +26,27 @@
 
 	/**
 	 * Extract the result of the aggregation from the response.
+	 * <p>
+	 * Values are not converted at this point:
+	 * the returned result does not depend on the session and may be reused across executions of the same query.
 	 *
 	 * @param context The extract context, to extract information from the response's JSON body
 	 * or retrieve information that was stored earlier in {@link #request(AggregationRequestContext)}.
-	 * @return The aggregation result extracted from the response.
+	 * @return The unconverted aggregation result extracted from the response.
 	 */
-	A extract(AggregationExtractContext context) throws IOException;
+	Extracted<A> extract(AggregationExtractContext context) throws IOException;
 
 	Set<String> getIndexNames();
 
+	interface Extracted<A> {
+
+		/**
+		 * @param context The convert context of the current execution.
+		 * @return The aggregation result, with values converted using the given context.
+		 * The result is a new object on each call.
+		 */
+		A convert(FromDocumentFieldValueConvertContext context);
+
+	}
+
 }
@@ -7,7 +7,11 @@
 package org.hibernate.search.backend.lucene.search.extraction.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -17,28 +21,37 @@
 import org.hibernate.search.backend.lucene.search.timeout.impl.LuceneCounterAdapter;
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
 import org.hibernate.search.engine.common.timing.spi.Deadline;
+import org.hibernate.search.util.common.AssertionFailure;
 
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TimeLimitingCollector;
 
+/**
+ * The results of a set of collectors, after they have been reduced.
+ * <p>
+ * See {@link Builder} to build a {@link CollectorManager} that will create the collectors
+ * and reduce them into a {@link CollectorSet}.
+ */
 public class CollectorSet {
 
-	private final Collector composed;
-	private final Map<CollectorKey<?>, Collector> components;
+	static final CollectorSet EMPTY = new CollectorSet( Collections.emptyMap() );
 
-	private CollectorSet(Collector composed, Map<CollectorKey<?>, Collector> components) {
-		this.composed = composed;
-		this.components = components;
-	}
+	private final Map<CollectorKey<?, ?>, Object> results;
 
-	public Collector getComposed() {
-		return composed;
+	private CollectorSet(Map<CollectorKey<?, ?>, Object> results) {
+		this.results = results;
 	}
 
 	@SuppressWarnings("unchecked")
-	public <C extends Collector> C get(CollectorKey<C> key) {
-		return (C) components.get( key );
+	public <C extends Collector, T> T get(CollectorKey<C, T> key) {
+		return (T) results.get( key );
 	}
 
 	public static class Builder {
@@ -46,41 +59,158 @@ public static class Builder {
 		private final CollectorExecutionContext executionContext;
 		private final TimeoutManager timeoutManager;
 
-		private final Map<CollectorKey<?>, Collector> components = new LinkedHashMap<>();
+		private final Map<CollectorKey<?, ?>, CollectorManager<?, ?>> components = new LinkedHashMap<>();
 
 		public Builder(CollectorExecutionContext executionContext, TimeoutManager timeoutManager) {
 			this.executionContext = executionContext;
 			this.timeoutManager = timeoutManager;
 		}
 
-		public <C extends Collector> void add(CollectorKey<C> key, C collector) {
-			components.put( key, collector );
+		public <C extends Collector, T> void add(CollectorKey<C, T> key, CollectorManager<C, T> collectorManager) {
+			components.put( key, collectorManager );
 		}
 
-		public void addAll(Set<CollectorFactory<?>> collectorFactories) throws IOException {
-			for ( CollectorFactory<?> collectorFactory : collectorFactories ) {
-				Collector collector = collectorFactory.createCollector( executionContext );
-				components.put( collectorFactory.getCollectorKey(), collector );
+		public void addAll(Set<CollectorFactory<?, ?>> collectorFactories) throws IOException {
+			for ( CollectorFactory<?, ?> collectorFactory : collectorFactories ) {
+				CollectorManager<?, ?> collectorManager = collectorFactory.createCollectorManager( executionContext );
+				components.put( collectorFactory.getCollectorKey(), collectorManager );
 			}
 		}
 
-		public CollectorSet build() {
+		/**
+		 * @return A collector manager producing a {@link CollectorSet}, or {@code null} if there is nothing to collect.
+		 */
+		public CollectorManager<?, CollectorSet> build() {
 			if ( components.isEmpty() ) {
-				return new CollectorSet( null, components );
+				return null;
+			}
+
+			return new ComposedCollectorManager( new ArrayList<>( components.keySet() ),
+					new ArrayList<>( components.values() ), timeoutManager );
+		}
+	}
+
+	/**
+	 * A collector delegating to multiple components,
+	 * and turning timeouts into an early termination so that the components can still be reduced
+	 * (which is necessary to return partial results on soft timeouts).
+	 */
+	private static final class ComposedCollector implements Collector {
+
+		private final Collector[] components;
+		private final Collector delegate;
+
+		private TimeLimitingCollector.TimeExceededException timeExceededException;
+
+		private ComposedCollector(Collector[] components, Collector delegate) {
+			this.components = components;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+			LeafCollector leafCollector;
+			try {
+				leafCollector = delegate.getLeafCollector( context );
+			}
+			catch (TimeLimitingCollector.TimeExceededException e) {
+				throw onTimeExceeded( e );
+			}
+			if ( !( delegate instanceof TimeLimitingCollector ) ) {
+				return leafCollector;
 			}
+			return new FilterLeafCollector( leafCollector ) {
+				@Override
+				public void collect(int doc) throws IOException {
+					try {
+						super.collect( doc );
+					}
+					catch (TimeLimitingCollector.TimeExceededException e) {
+						throw onTimeExceeded( e );
+					}
+				}
+			};
+		}
+
+		@Override
+		public ScoreMode scoreMode() {
+			return delegate.scoreMode();
+		}
 
+		private CollectionTerminatedException onTimeExceeded(TimeLimitingCollector.TimeExceededException e) {
+			if ( timeExceededException == null ) {
+				timeExceededException = e;
+			}
+			// Lucene will skip the rest of this segment, and we'll skip the next segments
+			// since the TimeLimitingCollector will throw again as soon as we call it.
+			return new CollectionTerminatedException();
+		}
+	}
+
+	private static final class ComposedCollectorManager implements CollectorManager<ComposedCollector, CollectorSet> {
+
+		private final List<CollectorKey<?, ?>> keys;
+		private final List<CollectorManager<?, ?>> managers;
+		private final TimeoutManager timeoutManager;
+
+		private ComposedCollectorManager(List<CollectorKey<?, ?>> keys, List<CollectorManager<?, ?>> managers,
+				TimeoutManager timeoutManager) {
+			this.keys = keys;
+			this.managers = managers;
+			this.timeoutManager = timeoutManager;
+		}
+
+		@Override
+		public ComposedCollector newCollector() throws IOException {
+			Collector[] components = new Collector[managers.size()];
+			for ( int i = 0; i < components.length; i++ ) {
+				components[i] = managers.get( i ).newCollector();
+			}
 			Collector composed = wrapTimeLimitingCollectorIfNecessary(
 					// avoid to use a multi collector if we have just one collector,
 					// as MultiCollector explicitly ignores the total hit count optimization
-					( components.size() == 1 ) ? components.values().iterator().next() :
-							MultiCollector.wrap( components.values() ),
+					( components.length == 1 ) ? components[0] : MultiCollector.wrap( components ),
 					timeoutManager
 			);
+			return new ComposedCollector( components, composed );
+		}
+
+		@Override
+		public CollectorSet reduce(Collection<ComposedCollector> collectors) throws IOException {
+			TimeLimitingCollector.TimeExceededException timeExceededException = null;
+			for ( ComposedCollector collector : collectors ) {
+				if ( collector.timeExceededException != null ) {
+					timeExceededException = collector.timeExceededException;
+					break;
+				}
+			}
+			if ( timeExceededException != null ) {
+				Deadline deadline = timeoutManager.deadlineOrNull();
+				if ( deadline == null ) {
+					throw new AssertionFailure( "Timeout reached, but no timeout was defined", timeExceededException );
+				}
+				// Will throw an exception on hard timeouts, and just mark the query as timed out on soft timeouts.
+				deadline.forceTimeout( timeExceededException );
+			}
+
+			Map<CollectorKey<?, ?>, Object> results = new LinkedHashMap<>();
+			for ( int i = 0; i < managers.size(); i++ ) {
+				List<Collector> components = new ArrayList<>( collectors.size() );
+				for ( ComposedCollector collector : collectors ) {
+					components.add( collector.components[i] );
+				}
+				results.put( keys.get( i ), reduce( managers.get( i ), components ) );
+			}
+			return new CollectorSet( results );
+		}
 
-			return new CollectorSet( composed, components );
+		@SuppressWarnings({ "unchecked", "rawtypes" }) // Collectors were created by this very manager
+		private static Object reduce(CollectorManager manager, List<Collector> collectors) throws IOException {
+			return manager.reduce( collectors );
 		}
 
-		private Collector wrapTimeLimitingCollectorIfNecessary(Collector collector, TimeoutManager timeoutManager) {
+		private static Collector wrapTimeLimitingCollectorIfNecessary(Collector collector,
+				TimeoutManager timeoutManager) {
 			final Deadline deadline = timeoutManager.deadlineOrNull();
 			if ( deadline != null ) {
 				TimeLimitingCollector wrapped = new TimeLimitingCollector( collector,
@@ -7,26 +7,38 @@
 package org.hibernate.search.backend.lucene.search.extraction.impl;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorExecutionContext;
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorFactory;
+import org.hibernate.search.backend.lucene.lowlevel.collector.impl.TotalHitCountCollectorManager;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderMetadataResolver;
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.StoredFieldsCollector;
+import org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl.LuceneFieldComparatorSource;
+import org.hibernate.search.engine.search.query.SearchResultTotal;
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
 
+import com.carrotsearch.hppc.IntObjectHashMap;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.FieldComparatorSource;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopDocsCollector;
 import org.apache.lucene.search.TopFieldCollector;
 import org.apache.lucene.search.TopScoreDocCollector;
-import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.join.BitSetProducer;
 
 /**
  * Regroups information about the data used as input of extraction (projections or aggregations):
@@ -35,8 +47,8 @@
 public final class ExtractionRequirements {
 
 	private final boolean requireScore;
-	private final Set<CollectorFactory<?>> requiredCollectorForAllMatchingDocsFactories;
-	private final Set<CollectorFactory<?>> requiredCollectorForTopDocsFactories;
+	private final Set<CollectorFactory<?, ?>> requiredCollectorForAllMatchingDocsFactories;
+	private final Set<CollectorFactory<?, ?>> requiredCollectorForTopDocsFactories;
 
 	private ExtractionRequirements(Builder builder) {
 		requireScore = builder.requireScore;
@@ -44,9 +56,44 @@ private ExtractionRequirements(Builder builder) {
 		requiredCollectorForTopDocsFactories = builder.requiredCollectorForTopDocsFactories;
 	}
 
-	public LuceneCollectors createCollectors(IndexSearcher indexSearcher, Query originalLuceneQuery, Sort sort,
-			IndexReaderMetadataResolver metadataResolver, int maxDocs, TimeoutManager timeoutManager,
-			int requestedTotalHitCountThreshold)
+	/**
+	 * @return {@code true} if scores must be computed for top docs, {@code false} otherwise.
+	 */
+	public boolean isScoreRequired() {
+		return requireScore;
+	}
+
+	/**
+	 * Creates collectors whose matching docs were already collected, e.g. by a previous execution of the same query.
+	 *
+	 * @param topDocs The top docs collected previously.
+	 * @param resultTotal The result total collected previously.
+	 */
+	public LuceneCollectors createCollectorsForCollectedMatchingDocs(IndexSearcher indexSearcher,
+			Query originalLuceneQuery, BitSetProducer parentFilter, IndexReaderMetadataResolver metadataResolver,
+			TimeoutManager timeoutManager, TopDocs topDocs, SearchResultTotal resultTotal) {
+		LuceneCollectors luceneCollectors = new LuceneCollectors(
+				metadataResolver,
+				indexSearcher,
+				originalLuceneQuery, parentFilter,
+				false, null,
+				null,
+				requiredCollectorForTopDocsFactories,
+				timeoutManager
+		);
+		luceneCollectors.restoreMatchingDocs( topDocs, resultTotal );
+		return luceneCollectors;
+	}
+
+	/**
+	 * @param after The last hit of the previous page when paginating with {@code searchAfter}, or {@code null}.
+	 * When non-null, top docs will only include hits that sort strictly after this hit.
+	 * Must be a {@link FieldDoc} if {@code sort} is not a descending score sort.
+	 */
+	public LuceneCollectors createCollectors(IndexSearcher indexSearcher, Query originalLuceneQuery,
+			BitSetProducer parentFilter, Sort sort,
+			IndexReaderMetadataResolver metadataResolver, int maxDocs, ScoreDoc after,
+			TimeoutManager timeoutManager, int requestedTotalHitCountThreshold)
 			throws IOException {
 		// Necessary to unwrap boolean queries with a single clause, in particular:
 		// we have optimizations in place when there is a single query and this query is a MatchAllDocsQuery.
@@ -63,19 +110,23 @@ public LuceneCollectors createCollectors(IndexSearcher indexSearcher, Query orig
 			totalHitCountThreshold = requestedTotalHitCountThreshold;
 		}
 
-		TopDocsCollector<?> topDocsCollector = null;
+		CollectorManager<? extends TopDocsCollector<?>, ? extends TopDocs> topDocsCollectorManager = null;
 		Integer scoreSortFieldIndexForRescoring = null;
 		boolean requireFieldDocRescoring = false;
 
 		CollectorExecutionContext executionContext =
-				new CollectorExecutionContext( metadataResolver, indexSearcher, rewrittenLuceneQuery, maxDocs );
+				new CollectorExecutionContext( metadataResolver, indexSearcher, rewrittenLuceneQuery, parentFilter,
+						maxDocs );
 
 		CollectorSet.Builder collectorsForAllMatchingDocsBuilder =
 				new CollectorSet.Builder( executionContext, timeoutManager );
 
 		if ( maxDocs > 0 ) {
 			if ( sort == null || isDescendingScoreSort( sort ) ) {
-				topDocsCollector = TopScoreDocCollector.create( maxDocs, totalHitCountThreshold );
+				topDocsCollectorManager = TopScoreDocCollector.createSharedManager( maxDocs,
+						// Lucene expects a FieldDoc here, but only uses its doc ID and score.
+						after == null || after instanceof FieldDoc ? (FieldDoc) after : new FieldDoc( after.doc, after.score ),
+						totalHitCountThreshold );
 			}
 			else {
 				if ( requireScore ) {
@@ -86,33 +137,49 @@ public LuceneCollectors createCollectors(IndexSearcher indexSearcher, Query orig
 					// If there's a SCORE sort field, make sure we remember that, so that later we can optimize rescoring
 					scoreSortFieldIndexForRescoring = getScoreSortFieldIndexOrNull( sort );
 				}
-				topDocsCollector = TopFieldCollector.create( sort, maxDocs, totalHitCountThreshold );
+				Sort indexSortPrefix = getEquivalentIndexSortPrefixOrNull( indexSearcher, sort );
+				if ( indexSortPrefix != null ) {
+					// The requested sort is equivalent to a prefix of the index sort.
+					// Use the index sort prefix instead, so that TopFieldCollector detects it can
+					// stop collecting each segment early, as soon as enough top docs were collected
+					// and the total hit count threshold was reached.
+					sort = indexSortPrefix;
+				}
+				topDocsCollectorManager = TopFieldCollector.createSharedManager( sort, maxDocs, (FieldDoc) after,
+						totalHitCountThreshold );
 			}
-			collectorsForAllMatchingDocsBuilder.add( LuceneCollectors.TOP_DOCS_KEY, topDocsCollector );
+			collectorsForAllMatchingDocsBuilder.add( LuceneCollectors.TOP_DOCS_KEY,
+					topDocsCollectorManager( topDocsCollectorManager ) );
 		}
 
-		if ( topDocsCollector == null && totalHitCountThreshold > 0 ) {
+		if ( topDocsCollectorManager == null && totalHitCountThreshold > 0 ) {
 			// Normally the topDocsCollector collects the total hit count,
 			// but if it's not there and not all docs are matched, we need a separate collector.
 			// Note that adding this collector can have a significant cost in some situations
 			// (e.g. for queries matching many hits), so we only add it if it's really necessary.
-			TotalHitCountCollector totalHitCountCollector = new TotalHitCountCollector();
-			collectorsForAllMatchingDocsBuilder.add( LuceneCollectors.TOTAL_HIT_COUNT_KEY, totalHitCountCollector );
+			collectorsForAllMatchingDocsBuilder.add( LuceneCollectors.TOTAL_HIT_COUNT_KEY,
+					TotalHitCountCollectorManager.INSTANCE );
 		}
 		collectorsForAllMatchingDocsBuilder.addAll( requiredCollectorForAllMatchingDocsFactories );
-		CollectorSet collectorsForAllMatchingDocs = collectorsForAllMatchingDocsBuilder.build();
+		CollectorManager<?, CollectorSet> collectorsForAllMatchingDocsManager = collectorsForAllMatchingDocsBuilder.build();
 
 		return new LuceneCollectors(
 				metadataResolver,
 				indexSearcher,
-				rewrittenLuceneQuery,
+				rewrittenLuceneQuery, parentFilter,
 				requireFieldDocRescoring, scoreSortFieldIndexForRescoring,
-				collectorsForAllMatchingDocs,
+				collectorsForAllMatchingDocsManager,
 				requiredCollectorForTopDocsFactories,
 				timeoutManager
 		);
 	}
 
+	@SuppressWarnings("unchecked") // Collectors are only ever passed to the manager that created them
+	private static CollectorManager<TopDocsCollector<?>, TopDocs> topDocsCollectorManager(
+			CollectorManager<? extends TopDocsCollector<?>, ? extends TopDocs> collectorManager) {
+		return (CollectorManager<TopDocsCollector<?>, TopDocs>) collectorManager;
+	}
+
 	private boolean isDescendingScoreSort(Sort sort) {
 		SortField[] fields = sort.getSort();
 		return fields.length == 1 && isDescendingScoreSort( fields[0] );
@@ -122,6 +189,42 @@ private boolean isDescendingScoreSort(SortField sortField) {
 		return SortField.Type.SCORE == sortField.getType() && !sortField.getReverse();
 	}
 
+	/**
+	 * @return A prefix of the index sort that sorts documents exactly as the given sort,
+	 * or {@code null} if the index is not sorted or if there is no such prefix.
+	 */
+	private static Sort getEquivalentIndexSortPrefixOrNull(IndexSearcher indexSearcher, Sort sort) {
+		Sort indexSort = null;
+		for ( LeafReaderContext leafReaderContext : indexSearcher.getIndexReader().leaves() ) {
+			indexSort = leafReaderContext.reader().getMetaData().getSort();
+			if ( indexSort != null ) {
+				break;
+			}
+		}
+		if ( indexSort == null ) {
+			return null;
+		}
+
+		SortField[] sortFields = sort.getSort();
+		SortField[] indexSortFields = indexSort.getSort();
+		if ( sortFields.length > indexSortFields.length ) {
+			return null;
+		}
+		for ( int i = 0; i < sortFields.length; i++ ) {
+			SortField sortField = sortFields[i];
+			FieldComparatorSource comparatorSource = sortField.getComparatorSource();
+			if ( !( comparatorSource instanceof LuceneFieldComparatorSource ) ) {
+				return null;
+			}
+			SortField nativeSortField = ( (LuceneFieldComparatorSource) comparatorSource )
+					.toNativeSortFieldOrNull( sortField.getField(), sortField.getReverse() );
+			if ( !indexSortFields[i].equals( nativeSortField ) ) {
+				return null;
+			}
+		}
+		return new Sort( Arrays.copyOf( indexSortFields, sortFields.length ) );
+	}
+
 	private Integer getScoreSortFieldIndexOrNull(Sort sort) {
 		SortField[] sortFields = sort.getSort();
 		for ( int i = 0; i < sortFields.length; i++ ) {
@@ -136,8 +239,8 @@ private Integer getScoreSortFieldIndexOrNull(Sort sort) {
 	public static class Builder {
 
 		private boolean requireScore;
-		private final Set<CollectorFactory<?>> requiredCollectorForAllMatchingDocsFactories = new LinkedHashSet<>();
-		private final Set<CollectorFactory<?>> requiredCollectorForTopDocsFactories = new LinkedHashSet<>();
+		private final Set<CollectorFactory<?, ?>> requiredCollectorForAllMatchingDocsFactories = new LinkedHashSet<>();
+		private final Set<CollectorFactory<?, ?>> requiredCollectorForTopDocsFactories = new LinkedHashSet<>();
 
 		private boolean requireAllStoredFields = false;
 		private final Set<String> requiredStoredFields = new HashSet<>();
@@ -147,11 +250,11 @@ public void requireScore() {
 			this.requireScore = true;
 		}
 
-		public <C extends Collector> void requireCollectorForAllMatchingDocs(CollectorFactory<C> collectorFactory) {
+		public <C extends Collector, T> void requireCollectorForAllMatchingDocs(CollectorFactory<C, T> collectorFactory) {
 			requiredCollectorForAllMatchingDocsFactories.add( collectorFactory );
 		}
 
-		public <C extends Collector> void requireCollectorForTopDocs(CollectorFactory<C> collectorFactory) {
+		public <C extends Collector, T> void requireCollectorForTopDocs(CollectorFactory<C, T> collectorFactory) {
 			requiredCollectorForTopDocsFactories.add( collectorFactory );
 		}
 
@@ -170,14 +273,15 @@ public void requireStoredField(String absoluteFieldPath, String nestedDocumentPa
 		}
 
 		public ExtractionRequirements build() {
-			CollectorFactory<StoredFieldsCollector> storedFieldCollectorFactory = createStoredFieldCollectorFactoryOrNull();
+			CollectorFactory<StoredFieldsCollector, IntObjectHashMap<Document>> storedFieldCollectorFactory =
+					createStoredFieldCollectorFactoryOrNull();
 			if ( storedFieldCollectorFactory != null ) {
 				requiredCollectorForTopDocsFactories.add( storedFieldCollectorFactory );
 			}
 			return new ExtractionRequirements( this );
 		}
 
-		private CollectorFactory<StoredFieldsCollector> createStoredFieldCollectorFactoryOrNull() {
+		private CollectorFactory<StoredFieldsCollector, IntObjectHashMap<Document>> createStoredFieldCollectorFactoryOrNull() {
 			ReusableDocumentStoredFieldVisitor storedFieldVisitor;
 			if ( requireAllStoredFields ) {
 				storedFieldVisitor = new ReusableDocumentStoredFieldVisitor();
@@ -7,6 +7,10 @@
 package org.hibernate.search.backend.lucene.search.extraction.impl;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorExecutionContext;
@@ -14,41 +18,49 @@
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorKey;
 import org.hibernate.search.backend.lucene.lowlevel.query.impl.ExplicitDocIdsQuery;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderMetadataResolver;
-import org.hibernate.search.engine.common.timing.spi.Deadline;
 import org.hibernate.search.engine.search.query.SearchResultTotal;
 import org.hibernate.search.engine.search.query.spi.SimpleSearchResultTotal;
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
-import org.hibernate.search.util.common.AssertionFailure;
 
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.ScoreDoc;
-import org.apache.lucene.search.TimeLimitingCollector;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopDocsCollector;
 import org.apache.lucene.search.TopFieldCollector;
 import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public class LuceneCollectors {
 
-	static final CollectorKey<TotalHitCountCollector> TOTAL_HIT_COUNT_KEY = CollectorKey.create();
-	static final CollectorKey<TopDocsCollector<?>> TOP_DOCS_KEY = CollectorKey.create();
+	static final CollectorKey<TotalHitCountCollector, Integer> TOTAL_HIT_COUNT_KEY = CollectorKey.create();
+	static final CollectorKey<TopDocsCollector<?>, TopDocs> TOP_DOCS_KEY = CollectorKey.create();
+
+	private static final Comparator<ScoreDoc> SCORE_DOC_ID_COMPARATOR = Comparator.comparingInt( scoreDoc -> scoreDoc.doc );
 
 	private final IndexReaderMetadataResolver metadataResolver;
 
 	private final IndexSearcher indexSearcher;
 	private final Query rewrittenLuceneQuery;
+	private final BitSetProducer parentFilter;
 
 	private final boolean requireFieldDocRescoring;
 	private final Integer scoreSortFieldIndexForRescoring;
 
-	private final CollectorSet collectorsForAllMatchingDocs;
-	private final Set<CollectorFactory<?>> collectorsForTopDocsFactories;
+	private final CollectorManager<?, CollectorSet> collectorsForAllMatchingDocsManager;
+	private final Set<CollectorFactory<?, ?>> collectorsForTopDocsFactories;
+	private CollectorSet collectorsForAllMatchingDocs;
 	private CollectorSet collectorsForTopDocs;
 
 	private final TimeoutManager timeoutManager;
@@ -57,16 +69,18 @@ public class LuceneCollectors {
 	private TopDocs topDocs = null;
 
 	LuceneCollectors(IndexReaderMetadataResolver metadataResolver, IndexSearcher indexSearcher, Query rewrittenLuceneQuery,
+			BitSetProducer parentFilter,
 			boolean requireFieldDocRescoring, Integer scoreSortFieldIndexForRescoring,
-			CollectorSet collectorsForAllMatchingDocs,
-			Set<CollectorFactory<?>> collectorsForTopDocsFactories,
+			CollectorManager<?, CollectorSet> collectorsForAllMatchingDocsManager,
+			Set<CollectorFactory<?, ?>> collectorsForTopDocsFactories,
 			TimeoutManager timeoutManager) {
 		this.metadataResolver = metadataResolver;
 		this.indexSearcher = indexSearcher;
 		this.rewrittenLuceneQuery = rewrittenLuceneQuery;
+		this.parentFilter = parentFilter;
 		this.requireFieldDocRescoring = requireFieldDocRescoring;
 		this.scoreSortFieldIndexForRescoring = scoreSortFieldIndexForRescoring;
-		this.collectorsForAllMatchingDocs = collectorsForAllMatchingDocs;
+		this.collectorsForAllMatchingDocsManager = collectorsForAllMatchingDocsManager;
 		this.collectorsForTopDocsFactories = collectorsForTopDocsFactories;
 		this.timeoutManager = timeoutManager;
 	}
@@ -81,23 +95,20 @@ public class LuceneCollectors {
 	 */
 	public void collectMatchingDocs(int offset, Integer limit) throws IOException {
 		if ( timeoutManager.checkTimedOut() ) {
+			collectorsForAllMatchingDocs = CollectorSet.EMPTY;
 			resultTotal = SimpleSearchResultTotal.lowerBound( 0L );
 			// in case of timeout before the query execution, skip the query
 			return;
 		}
 
-		try {
-			Collector composed = collectorsForAllMatchingDocs.getComposed();
-			if ( composed != null ) {
-				indexSearcher.search( rewrittenLuceneQuery, composed );
-			}
+		if ( collectorsForAllMatchingDocsManager == null ) {
+			collectorsForAllMatchingDocs = CollectorSet.EMPTY;
 		}
-		catch (TimeLimitingCollector.TimeExceededException e) {
-			Deadline deadline = timeoutManager.deadlineOrNull();
-			if ( deadline == null ) {
-				throw new AssertionFailure( "Timeout reached, but no timeout was defined", e );
-			}
-			deadline.forceTimeout( e );
+		else {
+			// Timeouts are handled when reducing collectors: see CollectorSet.
+			// Note this may execute the search concurrently on multiple segments, if the searcher has an executor.
+			collectorsForAllMatchingDocs = indexSearcher.search( rewrittenLuceneQuery,
+					collectorsForAllMatchingDocsManager );
 		}
 
 		processCollectedMatchingDocs( offset, limit );
@@ -109,22 +120,22 @@ private void processCollectedMatchingDocs(int offset, Integer limit) throws IOEx
 			resultTotal = SimpleSearchResultTotal.exact( indexSearcher.getIndexReader().numDocs() );
 		}
 		else {
-			TotalHitCountCollector totalHitCountCollector = collectorsForAllMatchingDocs.get( TOTAL_HIT_COUNT_KEY );
-			if ( totalHitCountCollector != null ) {
+			Integer totalHitCount = collectorsForAllMatchingDocs.get( TOTAL_HIT_COUNT_KEY );
+			if ( totalHitCount != null ) {
 				boolean exact = !timeoutManager.isTimedOut();
-				resultTotal = SimpleSearchResultTotal.of( totalHitCountCollector.getTotalHits(), exact );
+				resultTotal = SimpleSearchResultTotal.of( totalHitCount, exact );
 			}
 		}
 
-		TopDocsCollector<?> topDocsCollector = collectorsForAllMatchingDocs.get( TOP_DOCS_KEY );
-		if ( topDocsCollector == null ) {
+		TopDocs allTopDocs = collectorsForAllMatchingDocs.get( TOP_DOCS_KEY );
+		if ( allTopDocs == null ) {
 			if ( resultTotal == null ) {
 				resultTotal = SimpleSearchResultTotal.lowerBound( 0 );
 			}
 			return;
 		}
 
-		extractTopDocs( topDocsCollector, offset, limit );
+		extractTopDocs( allTopDocs, offset, limit );
 		if ( resultTotal == null ) {
 			boolean exact = TotalHits.Relation.EQUAL_TO.equals( topDocs.totalHits.relation )
 					&& !timeoutManager.isTimedOut();
@@ -142,6 +153,20 @@ else if ( resultTotal.isHitCountExact() ) {
 		}
 	}
 
+	/**
+	 * Alternative to phase 1: restore matching docs collected previously.
+	 * <p>
+	 * Collectors for all matching docs will be empty.
+	 *
+	 * @param topDocs The top docs collected previously.
+	 * @param resultTotal The result total collected previously.
+	 */
+	void restoreMatchingDocs(TopDocs topDocs, SearchResultTotal resultTotal) {
+		this.collectorsForAllMatchingDocs = CollectorSet.EMPTY;
+		this.topDocs = topDocs;
+		this.resultTotal = resultTotal;
+	}
+
 	public CollectorSet getCollectorsForAllMatchingDocs() {
 		return collectorsForAllMatchingDocs;
 	}
@@ -159,19 +184,12 @@ public void collectTopDocsData(int startInclusive, int endExclusive) throws IOEx
 			this.collectorsForTopDocs = null;
 			return;
 		}
-		try {
-			ScoreDoc[] scoreDocs = topDocs.scoreDocs;
-			ExplicitDocIdsQuery topDocsQuery = new ExplicitDocIdsQuery( scoreDocs, startInclusive, endExclusive );
-			this.collectorsForTopDocs = buildTopdDocsDataCollectors( topDocsQuery );
-			indexSearcher.search( topDocsQuery, collectorsForTopDocs.getComposed() );
-		}
-		catch (TimeLimitingCollector.TimeExceededException e) {
-			Deadline deadline = timeoutManager.deadlineOrNull();
-			if ( deadline == null ) {
-				throw new AssertionFailure( "Timeout reached, but no timeout was defined", e );
-			}
-			deadline.forceTimeout( e );
-		}
+		ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+		// Only used to join nested documents, if necessary: we won't execute a search with this query.
+		ExplicitDocIdsQuery topDocsQuery = new ExplicitDocIdsQuery( scoreDocs, startInclusive, endExclusive );
+		CollectorManager<?, CollectorSet> collectorManager = buildTopDocsDataCollectorManager( topDocsQuery );
+		// Timeouts are handled when reducing collectors: see CollectorSet.
+		this.collectorsForTopDocs = collectTopDocsData( collectorManager, scoreDocs, startInclusive, endExclusive );
 	}
 
 	public CollectorSet getCollectorsForTopDocs() {
@@ -186,28 +204,21 @@ public TopDocs getTopDocs() {
 		return topDocs;
 	}
 
-	private void extractTopDocs(TopDocsCollector<?> topDocsCollector, int offset, Integer limit) {
-		if ( offset >= topDocsCollector.getTotalHits() ) {
-			// Hack.
-			// In this case, we cannot execute the code below as Lucene considers we passed incorrect arguments
-			// and returns a TopDocs instance with no ScoreDocs (correct)
-			// and a total hit count set to 0 (not always correct).
-			// Also, we cannot reconstruct the total hit count from just the collector
-			// since we don't have access to the relation (EQUAL/GT_OR_EQUAL).
-			// So we get just one topDoc, and infer everything from there.
-			TopDocs firstTopDoc = topDocsCollector.topDocs( 0, 1 );
-			topDocs = firstTopDoc instanceof TopFieldDocs
-					? new TopFieldDocs( firstTopDoc.totalHits, new FieldDoc[0], ( (TopFieldDocs) firstTopDoc ).fields )
-					: new TopDocs( firstTopDoc.totalHits, new ScoreDoc[0] );
+	private void extractTopDocs(TopDocs allTopDocs, int offset, Integer limit) {
+		// allTopDocs contains the top (offset + limit) docs, merged from all collectors:
+		// we just need to skip the first offset docs.
+		ScoreDoc[] allScoreDocs = allTopDocs.scoreDocs;
+		int startInclusive = Math.min( offset, allScoreDocs.length );
+		int endExclusive = limit == null ? allScoreDocs.length
+				: (int) Math.min( (long) startInclusive + limit, allScoreDocs.length );
+		if ( startInclusive == 0 && endExclusive == allScoreDocs.length ) {
+			topDocs = allTopDocs;
 			return;
 		}
-
-		if ( limit == null ) {
-			topDocs = topDocsCollector.topDocs( offset );
-		}
-		else {
-			topDocs = topDocsCollector.topDocs( offset, limit );
-		}
+		ScoreDoc[] scoreDocs = Arrays.copyOfRange( allScoreDocs, startInclusive, endExclusive );
+		topDocs = allTopDocs instanceof TopFieldDocs
+				? new TopFieldDocs( allTopDocs.totalHits, scoreDocs, ( (TopFieldDocs) allTopDocs ).fields )
+				: new TopDocs( allTopDocs.totalHits, scoreDocs );
 	}
 
 	private void handleRescoring() throws IOException {
@@ -225,11 +236,49 @@ private void handleRescoring() throws IOException {
 		}
 	}
 
-	private CollectorSet buildTopdDocsDataCollectors(Query topDocsQuery) throws IOException {
+	/*
+	 * We already know which documents to collect, so we feed them to the collectors directly,
+	 * leaf by leaf and in increasing doc ID order, as IndexSearcher would.
+	 * This avoids the overhead of executing a second search (weight, scorers, ...).
+	 */
+	private <C extends Collector> CollectorSet collectTopDocsData(CollectorManager<C, CollectorSet> collectorManager,
+			ScoreDoc[] scoreDocs, int startInclusive, int endExclusive) throws IOException {
+		ScoreDoc[] sortedScoreDocs = Arrays.copyOfRange( scoreDocs, startInclusive, endExclusive );
+		Arrays.sort( sortedScoreDocs, SCORE_DOC_ID_COMPARATOR );
+
+		C collector = collectorManager.newCollector();
+		List<LeafReaderContext> leaves = indexSearcher.getIndexReader().leaves();
+		TopDocScorable scorer = new TopDocScorable();
+		int i = 0;
+		while ( i < sortedScoreDocs.length ) {
+			LeafReaderContext leaf = leaves.get( ReaderUtil.subIndex( sortedScoreDocs[i].doc, leaves ) );
+			int leafEndExclusive = leaf.docBase + leaf.reader().maxDoc();
+			try {
+				LeafCollector leafCollector = collector.getLeafCollector( leaf );
+				leafCollector.setScorer( scorer );
+				for ( ; i < sortedScoreDocs.length && sortedScoreDocs[i].doc < leafEndExclusive; i++ ) {
+					int leafDoc = sortedScoreDocs[i].doc - leaf.docBase;
+					scorer.score = sortedScoreDocs[i].score;
+					scorer.leafDoc = leafDoc;
+					leafCollector.collect( leafDoc );
+				}
+			}
+			catch (CollectionTerminatedException e) {
+				// Collection was terminated prematurely for this leaf: skip the rest of it.
+				while ( i < sortedScoreDocs.length && sortedScoreDocs[i].doc < leafEndExclusive ) {
+					i++;
+				}
+			}
+		}
+
+		return collectorManager.reduce( Collections.singletonList( collector ) );
+	}
+
+	private CollectorManager<?, CollectorSet> buildTopDocsDataCollectorManager(Query topDocsQuery) throws IOException {
 		CollectorExecutionContext executionContext = new CollectorExecutionContext(
 				metadataResolver, indexSearcher,
 				// Only join nested documents for the top documents (not for all documents matching this.luceneQuery).
-				topDocsQuery,
+				topDocsQuery, parentFilter,
 				// Allocate just enough memory to handle the top documents.
 				topDocs.scoreDocs.length
 		);
@@ -239,4 +288,20 @@ private CollectorSet buildTopdDocsDataCollectors(Query topDocsQuery) throws IOEx
 		collectorForTopDocsBuilder.addAll( collectorsForTopDocsFactories );
 		return collectorForTopDocsBuilder.build();
 	}
+
+	private static final class TopDocScorable extends Scorable {
+		private float score;
+		// Relative to the current leaf, like the doc ID passed to LeafCollector#collect.
+		private int leafDoc = -1;
+
+		@Override
+		public float score() {
+			return score;
+		}
+
+		@Override
+		public int docID() {
+			return leafDoc;
+		}
+	}
 }
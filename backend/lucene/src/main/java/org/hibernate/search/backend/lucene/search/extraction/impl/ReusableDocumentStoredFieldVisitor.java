@@ -24,7 +24,7 @@
  * for small amounts of accepted fields.
  *
  * A ReusableDocumentStoredFieldVisitor is NOT threadsafe: in case you need one
- * for multiple threads make a clone for each thread.
+ * for multiple threads make a copy for each thread, see {@link #copy()}.
  *
  * @see org.apache.lucene.document.DocumentStoredFieldVisitor
  * @author Sanne Grinovero
@@ -56,6 +56,17 @@ public ReusableDocumentStoredFieldVisitor(Set<String> fieldsToLoad) {
 		this.rootAcceptor = previous;
 	}
 
+	private ReusableDocumentStoredFieldVisitor(FieldAcceptor rootAcceptor) {
+		this.rootAcceptor = rootAcceptor;
+	}
+
+	/**
+	 * @return A new visitor accepting the same fields as this one, but with its own state.
+	 */
+	public ReusableDocumentStoredFieldVisitor copy() {
+		return new ReusableDocumentStoredFieldVisitor( rootAcceptor );
+	}
+
 	@Override
 	public void binaryField(FieldInfo fieldInfo, byte[] value) {
 		getDocument().add( new StoredField( fieldInfo.name, value ) );
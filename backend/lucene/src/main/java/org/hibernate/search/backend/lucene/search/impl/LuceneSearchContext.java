@@ -9,6 +9,9 @@
 import java.util.concurrent.TimeUnit;
 
 import org.hibernate.search.backend.lucene.analysis.model.impl.LuceneAnalysisDefinitionRegistry;
+import org.hibernate.search.backend.lucene.cache.impl.BitSetFilterCache;
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.engine.backend.types.converter.runtime.ToDocumentFieldValueConvertContext;
 import org.hibernate.search.engine.backend.types.converter.runtime.spi.ToDocumentIdentifierValueConvertContext;
@@ -19,6 +22,7 @@
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
 
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public final class LuceneSearchContext {
 
@@ -29,6 +33,9 @@ public final class LuceneSearchContext {
 	// Backend context
 	private final LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry;
 	private final MultiTenancyStrategy multiTenancyStrategy;
+	private final BitSetFilterCache bitSetFilterCacheOrNull;
+	private final OrdinalMapCache ordinalMapCache;
+	private final boolean filterClauseMarking;
 
 	// Global timing source
 	private final TimingSource timingSource;
@@ -39,12 +46,18 @@ public final class LuceneSearchContext {
 	public LuceneSearchContext(BackendMappingContext mappingContext,
 			LuceneAnalysisDefinitionRegistry analysisDefinitionRegistry,
 			MultiTenancyStrategy multiTenancyStrategy,
+			BitSetFilterCache bitSetFilterCacheOrNull,
+			OrdinalMapCache ordinalMapCache,
+			boolean filterClauseMarking,
 			TimingSource timingSource,
 			LuceneSearchIndexesContext indexes) {
 		this.toDocumentIdentifierValueConvertContext = new ToDocumentIdentifierValueConvertContextImpl( mappingContext );
 		this.toDocumentFieldValueConvertContext = new ToDocumentFieldValueConvertContextImpl( mappingContext );
 		this.analysisDefinitionRegistry = analysisDefinitionRegistry;
 		this.multiTenancyStrategy = multiTenancyStrategy;
+		this.bitSetFilterCacheOrNull = bitSetFilterCacheOrNull;
+		this.ordinalMapCache = ordinalMapCache;
+		this.filterClauseMarking = filterClauseMarking;
 		this.timingSource = timingSource;
 		this.indexes = indexes;
 	}
@@ -66,11 +79,48 @@ public LuceneSearchIndexesContext indexes() {
 	}
 
 	public Query filterOrNull(String tenantId) {
-		return multiTenancyStrategy.filterOrNull( tenantId );
+		Query filter = multiTenancyStrategy.filterOrNull( tenantId );
+		if ( filter == null ) {
+			return null;
+		}
+		// Tenant filters are added as a boolean filter clause:
+		// if they are not cached as bitsets, let the filter cache recognize them as such.
+		return bitSetFilterCacheOrNull == null ? filterClause( filter ) : bitSetFilterCacheOrNull.cachedFilter( filter );
+	}
+
+	public Query mainDocumentFilter() {
+		return cachedIfPossible( Queries.mainDocumentQuery() );
+	}
+
+	/**
+	 * @param query The query of a boolean {@code filter} clause.
+	 * @return The given query, marked as a filter clause if the filter caching policy needs to recognize those.
+	 */
+	public Query filterClause(Query query) {
+		return filterClauseMarking ? Queries.filterClause( query ) : query;
+	}
+
+	/**
+	 * @param parentNestedDocumentPath The path of the parent nested documents, or {@code null} for main documents.
+	 * @return A bitset producer matching all parent documents, to be used in block joins.
+	 */
+	public BitSetProducer parentFilter(String parentNestedDocumentPath) {
+		if ( bitSetFilterCacheOrNull == null ) {
+			return Queries.parentFilter( parentNestedDocumentPath );
+		}
+		return bitSetFilterCacheOrNull.bitSetProducer( Queries.parentQuery( parentNestedDocumentPath ) );
+	}
+
+	public OrdinalMapCache ordinalMapCache() {
+		return ordinalMapCache;
 	}
 
 	public TimeoutManager createTimeoutManager(Long timeout, TimeUnit timeUnit, boolean exceptionOnTimeout) {
 		return TimeoutManager.of( timingSource, timeout, timeUnit, exceptionOnTimeout );
 	}
 
+	private Query cachedIfPossible(Query structuralFilter) {
+		return bitSetFilterCacheOrNull == null ? structuralFilter : bitSetFilterCacheOrNull.cachedFilter( structuralFilter );
+	}
+
 }
@@ -7,10 +7,13 @@
 package org.hibernate.search.backend.lucene.search.impl;
 
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.ReadIndexManagerContext;
+import org.hibernate.search.backend.lucene.search.query.impl.LuceneQueryResultCache;
 import org.hibernate.search.engine.backend.types.converter.spi.ToDocumentIdentifierValueConverter;
 
 public interface LuceneSearchIndexContext extends ReadIndexManagerContext {
 
 	ToDocumentIdentifierValueConverter<?> idDslConverter();
 
+	LuceneQueryResultCache queryResultCacheOrNull();
+
 }
@@ -11,6 +11,7 @@
 import java.util.Objects;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.search.impl.LuceneSearchContext;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.search.Query;
@@ -19,8 +20,11 @@ abstract class AbstractLuceneNestablePredicate extends AbstractLuceneSearchPredi
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
+	protected final LuceneSearchContext searchContext;
+
 	AbstractLuceneNestablePredicate(AbstractBuilder builder) {
 		super( builder );
+		searchContext = builder.searchContext;
 	}
 
 	@Override
@@ -65,7 +69,7 @@ public final Query toQuery(PredicateRequestContext context) {
 
 			String parentNestedDocumentPath = ( i == 0 ) ? null // The parent document is the root document
 					: nestedPathHierarchy.get( i - 1 ); // The parent document is a nested document one level higher
-			result = LuceneNestedPredicate.createNestedQuery( parentNestedDocumentPath, path, result );
+			result = LuceneNestedPredicate.createNestedQuery( searchContext, parentNestedDocumentPath, path, result );
 		}
 
 		return result;
@@ -36,8 +36,11 @@ class LuceneBooleanPredicate extends AbstractLuceneSearchPredicate {
 
 	private final NavigableMap<Integer, MinimumShouldMatchConstraint> minimumShouldMatchConstraints;
 
+	private final LuceneSearchContext searchContext;
+
 	private LuceneBooleanPredicate(Builder builder) {
 		super( builder );
+		searchContext = builder.searchContext;
 		mustClauses = builder.mustClauses;
 		mustNotClauses = builder.mustNotClauses;
 		shouldClauses = builder.shouldClauses;
@@ -95,7 +98,12 @@ private void contributeQueries(PredicateRequestContext context, BooleanQuery.Bui
 		}
 
 		for ( LuceneSearchPredicate clause : clauses ) {
-			booleanQueryBuilder.add( clause.toQuery( context ), occur );
+			Query query = clause.toQuery( context );
+			if ( Occur.FILTER.equals( occur ) ) {
+				// Allow the query caching policy to recognize filter clauses, if necessary.
+				query = searchContext.filterClause( query );
+			}
+			booleanQueryBuilder.add( query, occur );
 		}
 	}
 
@@ -32,10 +32,12 @@ private LuceneNestedPredicate(Builder builder) {
 	@Override
 	protected Query doToQuery(PredicateRequestContext context) {
 		PredicateRequestContext childContext = new PredicateRequestContext( absoluteFieldPath );
-		return createNestedQuery( context.getNestedPath(), absoluteFieldPath, nestedPredicate.toQuery( childContext ) );
+		return createNestedQuery( searchContext, context.getNestedPath(), absoluteFieldPath,
+				nestedPredicate.toQuery( childContext ) );
 	}
 
-	public static Query createNestedQuery(String parentNestedDocumentPath, String nestedDocumentPath, Query nestedQuery) {
+	public static Query createNestedQuery(LuceneSearchContext searchContext, String parentNestedDocumentPath,
+			String nestedDocumentPath, Query nestedQuery) {
 		if ( nestedDocumentPath.equals( parentNestedDocumentPath ) ) {
 			return nestedQuery;
 		}
@@ -48,7 +50,7 @@ public static Query createNestedQuery(String parentNestedDocumentPath, String ne
 		// Note: this filter should include *all* parents, not just the matched ones.
 		// Otherwise we will not "see" non-matched parents,
 		// and we will consider its matching children as children of the next matching parent.
-		BitSetProducer parentFilter = Queries.parentFilter( parentNestedDocumentPath );
+		BitSetProducer parentFilter = searchContext.parentFilter( parentNestedDocumentPath );
 
 		// TODO HSEARCH-3090 at some point we should have a parameter for the score mode
 		return new ToParentBlockJoinQuery( childQueryBuilder.build(), parentFilter, ScoreMode.Avg );
@@ -31,6 +31,7 @@
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.util.SloppyMath;
 
 /**
@@ -40,7 +41,7 @@
  * @param <P> The type of aggregated values returned by the projection (after conversion).
  */
 public class LuceneDistanceToFieldProjection<E, P> extends AbstractLuceneProjection<E, P>
-		implements CollectorFactory<GeoPointDistanceCollector> {
+		implements CollectorFactory<GeoPointDistanceCollector, GeoPointDistanceCollector> {
 
 	private static final ProjectionConverter<Double, Double> NO_OP_DOUBLE_CONVERTER = new ProjectionConverter<>(
 			Double.class,
@@ -112,7 +113,7 @@ public E extract(ProjectionHitMapper<?, ?> mapper, LuceneResult documentResult,
 			}
 		}
 		else {
-			GeoPointDistanceCollector distanceCollector = context.getCollector( collectorKey );
+			GeoPointDistanceCollector distanceCollector = context.getCollectorResult( collectorKey );
 			Double distanceOrNull = distanceCollector.getDistance( documentResult.getDocId() );
 			if ( distanceOrNull != null ) {
 				accumulated = accumulator.accumulate( accumulated, unit.fromMeters( distanceOrNull ) );
@@ -129,8 +130,9 @@ public P transform(LoadingResult<?, ?> loadingResult, E extractedData,
 	}
 
 	@Override
-	public GeoPointDistanceCollector createCollector(CollectorExecutionContext context) {
-		return new GeoPointDistanceCollector(
+	public CollectorManager<GeoPointDistanceCollector, GeoPointDistanceCollector> createCollectorManager(
+			CollectorExecutionContext context) {
+		return GeoPointDistanceCollector.manager(
 				absoluteFieldPath,
 				nestedDocumentPath == null ? null : context.createNestedDocsProvider( nestedDocumentPath ),
 				center, context.getMaxDocs()
@@ -138,15 +140,16 @@ public GeoPointDistanceCollector createCollector(CollectorExecutionContext conte
 	}
 
 	@Override
-	public CollectorKey<GeoPointDistanceCollector> getCollectorKey() {
+	public CollectorKey<GeoPointDistanceCollector, GeoPointDistanceCollector> getCollectorKey() {
 		return collectorKey;
 	}
 
 	/**
 	 * Necessary in order to share a single collector if there are multiple similar projections.
-	 * See {@link #createCollector(CollectorExecutionContext)}, {@link #request(SearchProjectionRequestContext)}.
+	 * See {@link #createCollectorManager(CollectorExecutionContext)}, {@link #request(SearchProjectionRequestContext)}.
 	 */
-	private static final class DistanceCollectorKey implements CollectorKey<GeoPointDistanceCollector> {
+	private static final class DistanceCollectorKey
+			implements CollectorKey<GeoPointDistanceCollector, GeoPointDistanceCollector> {
 
 		private final String absoluteFieldPath;
 		private final GeoPoint center;
@@ -35,7 +35,7 @@ public void request(SearchProjectionRequestContext context) {
 	public Object extract(ProjectionHitMapper<?, ?> mapper, LuceneResult documentResult,
 			SearchProjectionExtractContext context) {
 		DocumentReference documentReference =
-				context.getCollector( DocumentReferenceCollector.KEY ).get( documentResult.getDocId() );
+				context.getCollectorResult( DocumentReferenceCollector.KEY ).get( documentResult.getDocId() );
 		return mapper.planLoading( documentReference );
 	}
 
@@ -35,7 +35,7 @@ public void request(SearchProjectionRequestContext context) {
 	@Override
 	public DocumentReference extract(ProjectionHitMapper<?, ?> mapper, LuceneResult documentResult,
 			SearchProjectionExtractContext context) {
-		return context.getCollector( DocumentReferenceCollector.KEY ).get( documentResult.getDocId() );
+		return context.getCollectorResult( DocumentReferenceCollector.KEY ).get( documentResult.getDocId() );
 	}
 
 	@Override
@@ -9,6 +9,9 @@
 import java.lang.invoke.MethodHandles;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
+import org.hibernate.search.backend.lucene.lowlevel.collector.impl.CollectorFactory;
+import org.hibernate.search.backend.lucene.lowlevel.collector.impl.SingleValueDocValuesCollector;
+import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.SingleValueDocValuesReader;
 import org.hibernate.search.backend.lucene.search.extraction.impl.LuceneResult;
 import org.hibernate.search.backend.lucene.search.impl.AbstractLuceneCodecAwareSearchValueFieldQueryElementFactory;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchContext;
@@ -24,6 +27,7 @@
 import org.hibernate.search.engine.search.projection.spi.ProjectionAccumulator;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
+import com.carrotsearch.hppc.IntObjectHashMap;
 import org.apache.lucene.index.IndexableField;
 
 /**
@@ -43,6 +47,8 @@
 	private final ProjectionConverter<F, ? extends V> converter;
 	private final ProjectionAccumulator<F, V, E, P> accumulator;
 
+	private final CollectorFactory<SingleValueDocValuesCollector<F>, IntObjectHashMap<F>> docValuesCollectorFactory;
+
 	private LuceneFieldProjection(Builder<F, V> builder, ProjectionAccumulator<F, V, E, P> accumulator) {
 		super( builder );
 		this.absoluteFieldPath = builder.field.absolutePath();
@@ -50,6 +56,9 @@ private LuceneFieldProjection(Builder<F, V> builder, ProjectionAccumulator<F, V,
 		this.codec = builder.codec;
 		this.converter = builder.converter;
 		this.accumulator = accumulator;
+		SingleValueDocValuesReader<F> docValuesReader = builder.singleValueDocValuesReaderOrNull();
+		this.docValuesCollectorFactory = docValuesReader == null ? null
+				: SingleValueDocValuesCollector.factory( absoluteFieldPath, docValuesReader );
 	}
 
 	@Override
@@ -62,13 +71,27 @@ public String toString() {
 
 	@Override
 	public void request(SearchProjectionRequestContext context) {
-		context.requireStoredField( absoluteFieldPath, nestedDocumentPath );
+		if ( docValuesCollectorFactory != null ) {
+			// For single-valued fields with docvalues, we can avoid loading stored fields.
+			context.requireCollector( docValuesCollectorFactory );
+		}
+		else {
+			context.requireStoredField( absoluteFieldPath, nestedDocumentPath );
+		}
 	}
 
 	@Override
 	public E extract(ProjectionHitMapper<?, ?> mapper, LuceneResult documentResult,
 			SearchProjectionExtractContext context) {
 		E extracted = accumulator.createInitial();
+		if ( docValuesCollectorFactory != null ) {
+			IntObjectHashMap<F> values = context.getCollectorResult( docValuesCollectorFactory.getCollectorKey() );
+			F value = values.get( documentResult.getDocId() );
+			if ( value != null ) {
+				extracted = accumulator.accumulate( extracted, value );
+			}
+			return extracted;
+		}
 		for ( IndexableField field : documentResult.getDocument().getFields() ) {
 			if ( field.name().equals( absoluteFieldPath ) ) {
 				F decoded = codec.decode( field );
@@ -142,5 +165,18 @@ public <P> SearchProjection<P> build(ProjectionAccumulator.Provider<V, P> accumu
 			}
 			return new LuceneFieldProjection<>( this, accumulatorProvider.get() );
 		}
+
+		private SingleValueDocValuesReader<F> singleValueDocValuesReaderOrNull() {
+			if ( field.multiValuedInRoot() || field.nestedDocumentPath() != null ) {
+				// Values of multi-valued fields must be returned in order, which docvalues don't preserve,
+				// and values of nested documents would require a join.
+				return null;
+			}
+			if ( searchContext.indexes().elements().size() != 1 ) {
+				// Compatible codecs in different indexes may still differ regarding docvalues.
+				return null;
+			}
+			return codec.singleValueDocValuesReaderOrNull( field.absolutePath() );
+		}
 	}
 }
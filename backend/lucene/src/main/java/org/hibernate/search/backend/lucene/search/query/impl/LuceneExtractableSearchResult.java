@@ -27,6 +27,7 @@
 import org.hibernate.search.engine.search.query.SearchResultTotal;
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
 
+import com.carrotsearch.hppc.IntObjectHashMap;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
@@ -41,12 +42,26 @@
 	private final LuceneSearchProjection<?, H> rootProjection;
 	private final Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations;
 	private final TimeoutManager timeoutManager;
+	private Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractedAggregations;
 
 	public LuceneExtractableSearchResult(LuceneSearchQueryRequestContext requestContext,
 			IndexSearcher indexSearcher,
 			LuceneCollectors luceneCollectors,
 			LuceneSearchProjection<?, H> rootProjection,
 			Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations, TimeoutManager timeoutManager) {
+		this( requestContext, indexSearcher, luceneCollectors, rootProjection, aggregations, timeoutManager, null );
+	}
+
+	/**
+	 * @param cachedExtractedAggregations Unconverted aggregations extracted by a previous execution of the same query,
+	 * to use instead of extracting aggregations from the collectors, or {@code null}.
+	 */
+	LuceneExtractableSearchResult(LuceneSearchQueryRequestContext requestContext,
+			IndexSearcher indexSearcher,
+			LuceneCollectors luceneCollectors,
+			LuceneSearchProjection<?, H> rootProjection,
+			Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations, TimeoutManager timeoutManager,
+			Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> cachedExtractedAggregations) {
 		this.requestContext = requestContext;
 		this.convertContext = new FromDocumentFieldValueConvertContextImpl( requestContext.getSessionContext() );
 		this.indexSearcher = indexSearcher;
@@ -54,6 +69,7 @@ public LuceneExtractableSearchResult(LuceneSearchQueryRequestContext requestCont
 		this.rootProjection = rootProjection;
 		this.aggregations = aggregations;
 		this.timeoutManager = timeoutManager;
+		this.extractedAggregations = cachedExtractedAggregations;
 	}
 
 	public LuceneLoadableSearchResult<H> extract() throws IOException {
@@ -77,13 +93,21 @@ public LuceneLoadableSearchResult<H> extract(int startInclusive, int endExclusiv
 		ProjectionHitMapper<?, ?> projectionHitMapper = requestContext.getLoadingContext().createProjectionHitMapper();
 		List<Object> extractedData = extractHits( projectionHitMapper, startInclusive, endExclusive );
 
-		Map<AggregationKey<?>, ?> extractedAggregations = aggregations.isEmpty() ?
-				Collections.emptyMap() : extractAggregations();
+		Map<AggregationKey<?>, ?> convertedAggregations;
+		if ( aggregations.isEmpty() ) {
+			convertedAggregations = Collections.emptyMap();
+		}
+		else {
+			if ( extractedAggregations == null ) {
+				extractedAggregations = extractAggregations();
+			}
+			convertedAggregations = convertAggregations();
+		}
 
 		return new LuceneLoadableSearchResult<>(
 				convertContext, rootProjection,
 				luceneCollectors.getResultTotal(), luceneCollectors.getTopDocs(),
-				extractedData, extractedAggregations, projectionHitMapper,
+				extractedData, convertedAggregations, projectionHitMapper,
 				timeoutManager.tookTime(),
 				timeoutManager.isTimedOut(),
 				timeoutManager
@@ -95,10 +119,24 @@ public int hitSize() {
 		return ( topDocs == null ) ? 0 : topDocs.scoreDocs.length;
 	}
 
+	ScoreDoc lastHitOrNull() {
+		TopDocs topDocs = luceneCollectors.getTopDocs();
+		return ( topDocs == null || topDocs.scoreDocs.length == 0 ) ? null
+				: topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+	}
+
 	SearchResultTotal total() {
 		return luceneCollectors.getResultTotal();
 	}
 
+	/**
+	 * @return The unconverted aggregations extracted by {@link #extract(int, int)},
+	 * which do not depend on the session and can be safely reused by other executions of the same query.
+	 */
+	Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractedAggregations() {
+		return aggregations.isEmpty() ? Collections.emptyMap() : extractedAggregations;
+	}
+
 	private List<Object> extractHits(ProjectionHitMapper<?, ?> projectionHitMapper, int startInclusive,
 			int endExclusive) {
 		TopDocs topDocs = luceneCollectors.getTopDocs();
@@ -113,8 +151,8 @@ private List<Object> extractHits(ProjectionHitMapper<?, ?> projectionHitMapper,
 				luceneCollectors.getCollectorsForTopDocs()
 		);
 
-		StoredFieldsCollector storedFieldsCollector =
-				projectionExtractContext.getCollector( StoredFieldsCollector.KEY );
+		IntObjectHashMap<Document> storedFields =
+				projectionExtractContext.getCollectorResult( StoredFieldsCollector.KEY );
 
 		for ( int i = startInclusive; i < endExclusive; i++ ) {
 			// Check for timeout every 16 elements.
@@ -124,7 +162,7 @@ private List<Object> extractHits(ProjectionHitMapper<?, ?> projectionHitMapper,
 			}
 
 			ScoreDoc hit = topDocs.scoreDocs[i];
-			Document document = storedFieldsCollector == null ? null : storedFieldsCollector.getDocument( hit.doc );
+			Document document = storedFields == null ? null : storedFields.get( hit.doc );
 
 			LuceneResult luceneResult = new LuceneResult( document, hit.doc, hit.score );
 
@@ -134,14 +172,13 @@ private List<Object> extractHits(ProjectionHitMapper<?, ?> projectionHitMapper,
 		return extractedData;
 	}
 
-	private Map<AggregationKey<?>, ?> extractAggregations() throws IOException {
+	private Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractAggregations() throws IOException {
 		AggregationExtractContext aggregationExtractContext = new AggregationExtractContext(
-				indexSearcher.getIndexReader(), requestContext.getLuceneQuery(),
-				convertContext,
-				luceneCollectors.getCollectorsForAllMatchingDocs()
+				indexSearcher.getIndexReader(), requestContext.getLuceneQuery(), requestContext.getParentFilter(),
+				luceneCollectors.getCollectorsForAllMatchingDocs(), requestContext.getOrdinalMapCache()
 		);
 
-		Map<AggregationKey<?>, Object> extractedMap = new LinkedHashMap<>();
+		Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractedMap = new LinkedHashMap<>();
 
 		for ( Map.Entry<AggregationKey<?>, LuceneSearchAggregation<?>> entry : aggregations.entrySet() ) {
 			// Check for timeout before every element.
@@ -153,10 +190,18 @@ private List<Object> extractHits(ProjectionHitMapper<?, ?> projectionHitMapper,
 			AggregationKey<?> key = entry.getKey();
 			LuceneSearchAggregation<?> aggregation = entry.getValue();
 
-			Object extracted = aggregation.extract( aggregationExtractContext );
+			LuceneSearchAggregation.Extracted<?> extracted = aggregation.extract( aggregationExtractContext );
 			extractedMap.put( key, extracted );
 		}
 
 		return extractedMap;
 	}
+
+	private Map<AggregationKey<?>, ?> convertAggregations() {
+		Map<AggregationKey<?>, Object> convertedMap = new LinkedHashMap<>();
+		for ( Map.Entry<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> entry : extractedAggregations.entrySet() ) {
+			convertedMap.put( entry.getKey(), entry.getValue().convert( convertContext ) );
+		}
+		return convertedMap;
+	}
 }
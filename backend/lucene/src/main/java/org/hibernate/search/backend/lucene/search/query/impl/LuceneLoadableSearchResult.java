@@ -68,6 +68,14 @@
 		this.timeoutManager = timeoutManager;
 	}
 
+	SearchResultTotal total() {
+		return resultTotal;
+	}
+
+	TopDocs topDocs() {
+		return topDocs;
+	}
+
 	LuceneSearchResult<H> loadBlocking() {
 		SearchProjectionTransformContext transformContext = new SearchProjectionTransformContext( convertContext );
 		LoadingResult<?, ?> loadingResult = projectionHitMapper.loadBlocking( timeoutManager.hardDeadlineOrNull() );
@@ -0,0 +1,199 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.search.query.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.search.backend.lucene.cache.LuceneCacheStatistics;
+import org.hibernate.search.backend.lucene.search.aggregation.impl.LuceneSearchAggregation;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.query.SearchResultTotal;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+
+/**
+ * A size-bounded, least-recently-used cache of search results for a given index.
+ * <p>
+ * Only the results of the first phase of search queries are cached (top docs, total hit count, aggregations):
+ * projections are extracted again for every execution, since they may depend on the session (entity loading).
+ * <p>
+ * Entries are keyed on the {@link IndexReader.CacheKey cache keys} of the index readers they were computed from,
+ * and are removed as soon as one of these index readers is closed,
+ * e.g. when it is replaced with a fresher reader after a refresh.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class LuceneQueryResultCache implements LuceneCacheStatistics {
+
+	private final int maxSize;
+
+	// Guarded by "this"
+	private final Map<Key, Value> entries;
+	// Guarded by "this"
+	private final Set<IndexReader.CacheKey> listenedReaders = new HashSet<>();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	public LuceneQueryResultCache(int maxSize) {
+		this.maxSize = maxSize;
+		// Access order, so that the eldest entry is the least recently used one.
+		this.entries = new LinkedHashMap<Key, Value>( 16, 0.75f, true ) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Value> eldest) {
+				if ( size() > LuceneQueryResultCache.this.maxSize ) {
+					evictionCount.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[maxSize=" + maxSize + "]";
+	}
+
+	@Override
+	public long hitCount() {
+		return hitCount.sum();
+	}
+
+	@Override
+	public long missCount() {
+		return missCount.sum();
+	}
+
+	@Override
+	public long evictionCount() {
+		return evictionCount.sum();
+	}
+
+	@Override
+	public synchronized long size() {
+		return entries.size();
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	Value get(Key key) {
+		Value value;
+		synchronized ( this ) {
+			value = entries.get( key );
+		}
+		if ( value == null ) {
+			missCount.increment();
+		}
+		else {
+			hitCount.increment();
+		}
+		return value;
+	}
+
+	/**
+	 * @param key The key of the cached result.
+	 * @param value The cached result.
+	 * @param readerCacheHelpers The cache helpers of the readers the result was computed from,
+	 * in the same order as {@link Key#readerKeys}.
+	 * The readers must not be closed.
+	 */
+	void put(Key key, Value value, List<IndexReader.CacheHelper> readerCacheHelpers) {
+		synchronized ( this ) {
+			for ( IndexReader.CacheHelper cacheHelper : readerCacheHelpers ) {
+				if ( listenedReaders.add( cacheHelper.getKey() ) ) {
+					cacheHelper.addClosedListener( this::onReaderClosed );
+				}
+			}
+			entries.put( key, value );
+		}
+	}
+
+	private synchronized void onReaderClosed(IndexReader.CacheKey readerKey) {
+		listenedReaders.remove( readerKey );
+		for ( Iterator<Key> iterator = entries.keySet().iterator(); iterator.hasNext(); ) {
+			if ( iterator.next().readerKeys.contains( readerKey ) ) {
+				iterator.remove();
+			}
+		}
+	}
+
+	static final class Key {
+		private final List<IndexReader.CacheKey> readerKeys;
+		private final Query query;
+		private final Sort sort;
+		private final int offset;
+		private final int limit;
+		private final int totalHitCountThreshold;
+		private final boolean scoreRequired;
+		private final Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations;
+
+		Key(List<IndexReader.CacheKey> readerKeys, Query query, Sort sort,
+				int offset, int limit, int totalHitCountThreshold, boolean scoreRequired,
+				Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations) {
+			this.readerKeys = readerKeys;
+			this.query = query;
+			this.sort = sort;
+			this.offset = offset;
+			this.limit = limit;
+			this.totalHitCountThreshold = totalHitCountThreshold;
+			this.scoreRequired = scoreRequired;
+			this.aggregations = aggregations;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( obj == null || obj.getClass() != getClass() ) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return offset == other.offset
+					&& limit == other.limit
+					&& totalHitCountThreshold == other.totalHitCountThreshold
+					&& scoreRequired == other.scoreRequired
+					&& readerKeys.equals( other.readerKeys )
+					&& query.equals( other.query )
+					&& Objects.equals( sort, other.sort )
+					&& aggregations.equals( other.aggregations );
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash( readerKeys, query, sort, offset, limit, totalHitCountThreshold, scoreRequired,
+					aggregations );
+		}
+	}
+
+	static final class Value {
+		final TopDocs topDocs;
+		final SearchResultTotal resultTotal;
+		final Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractedAggregations;
+
+		Value(TopDocs topDocs, SearchResultTotal resultTotal,
+				Map<AggregationKey<?>, LuceneSearchAggregation.Extracted<?>> extractedAggregations) {
+			this.topDocs = topDocs;
+			this.resultTotal = resultTotal;
+			this.extractedAggregations = extractedAggregations;
+		}
+	}
+}
@@ -8,6 +8,7 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -24,6 +25,7 @@
 import org.hibernate.search.backend.lucene.search.extraction.impl.ExtractionRequirements;
 import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchContext;
+import org.hibernate.search.backend.lucene.search.impl.LuceneSearchIndexContext;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchQueryElementCollector;
 import org.hibernate.search.backend.lucene.search.projection.impl.LuceneSearchProjection;
 import org.hibernate.search.backend.lucene.search.projection.impl.SearchProjectionRequestContext;
@@ -44,6 +46,7 @@
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public class LuceneSearchQueryBuilder<H>
 		implements SearchQueryBuilder<H, LuceneSearchQueryElementCollector>, LuceneSearchQueryElementCollector {
@@ -176,7 +179,7 @@ public LuceneSearchQuery<H> build() {
 		luceneQueryBuilder.add( luceneQuery, Occur.MUST );
 		if ( searchContext.indexes().hasNestedDocuments() ) {
 			// HSEARCH-4018: this filter has a (small) cost, so we only add it if necessary.
-			luceneQueryBuilder.add( Queries.mainDocumentQuery(), Occur.FILTER );
+			luceneQueryBuilder.add( searchContext.mainDocumentFilter(), Occur.FILTER );
 		}
 		if ( !routingKeys.isEmpty() ) {
 			Query routingKeysQuery = Queries.anyTerm( MetadataFields.routingKeyFieldName(), routingKeys );
@@ -195,14 +198,18 @@ public LuceneSearchQuery<H> build() {
 			luceneSort = new Sort( sortFields.toArray( new SortField[0] ) );
 		}
 
+		// Note: this filter should include *all* parents, not just the matched ones.
+		BitSetProducer parentFilter = searchContext.parentFilter( null );
+
 		if ( nestedFieldSorts != null ) {
 			for ( LuceneFieldComparatorSource nestedField : nestedFieldSorts ) {
-				nestedField.setOriginalParentQuery( definitiveLuceneQuery );
+				nestedField.setOriginalParentQuery( parentFilter, definitiveLuceneQuery );
 			}
 		}
 
 		LuceneSearchQueryRequestContext requestContext = new LuceneSearchQueryRequestContext(
-				sessionContext, loadingContext, definitiveLuceneQuery, luceneSort
+				sessionContext, loadingContext, definitiveLuceneQuery, luceneSort, parentFilter,
+				searchContext.ordinalMapCache()
 		);
 
 		ExtractionRequirements.Builder extractionRequirementsBuilder = new ExtractionRequirements.Builder();
@@ -225,7 +232,8 @@ public LuceneSearchQuery<H> build() {
 				rootProjection,
 				aggregations == null ? Collections.emptyMap() : aggregations,
 				extractionRequirements,
-				timeoutManager
+				timeoutManager,
+				queryResultCacheOrNull()
 		);
 
 		return new LuceneSearchQueryImpl<>(
@@ -240,4 +248,13 @@ public LuceneSearchQuery<H> build() {
 				searcher, totalHitCountThreshold
 		);
 	}
+
+	private LuceneQueryResultCache queryResultCacheOrNull() {
+		Collection<? extends LuceneSearchIndexContext> indexes = searchContext.indexes().elements();
+		if ( indexes.size() != 1 ) {
+			// Results are only cached for single-index queries.
+			return null;
+		}
+		return indexes.iterator().next().queryResultCacheOrNull();
+	}
 }
@@ -6,11 +6,13 @@
  */
 package org.hibernate.search.backend.lucene.search.query.impl;
 
+import org.hibernate.search.backend.lucene.lowlevel.facet.impl.OrdinalMapCache;
 import org.hibernate.search.engine.backend.session.spi.BackendSessionContext;
 import org.hibernate.search.engine.search.loading.context.spi.LoadingContext;
 
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.join.BitSetProducer;
 
 /**
  * The context holding all the useful information pertaining to the Lucene search query,
@@ -22,16 +24,22 @@ class LuceneSearchQueryRequestContext {
 	private final LoadingContext<?, ?> loadingContext;
 	private final Query luceneQuery;
 	private final Sort luceneSort;
+	private final BitSetProducer parentFilter;
+	private final OrdinalMapCache ordinalMapCache;
 
 	LuceneSearchQueryRequestContext(
 			BackendSessionContext sessionContext,
 			LoadingContext<?, ?> loadingContext,
 			Query luceneQuery,
-			Sort luceneSort) {
+			Sort luceneSort,
+			BitSetProducer parentFilter,
+			OrdinalMapCache ordinalMapCache) {
 		this.sessionContext = sessionContext;
 		this.loadingContext = loadingContext;
 		this.luceneQuery = luceneQuery;
 		this.luceneSort = luceneSort;
+		this.parentFilter = parentFilter;
+		this.ordinalMapCache = ordinalMapCache;
 	}
 
 	BackendSessionContext getSessionContext() {
@@ -50,4 +58,12 @@ Sort getLuceneSort() {
 		return luceneSort;
 	}
 
+	BitSetProducer getParentFilter() {
+		return parentFilter;
+	}
+
+	OrdinalMapCache getOrdinalMapCache() {
+		return ordinalMapCache;
+	}
+
 }
@@ -25,6 +25,8 @@
 import org.hibernate.search.engine.search.timeout.spi.TimeoutManager;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
+import org.apache.lucene.search.ScoreDoc;
+
 public class LuceneSearchScrollImpl<H> implements LuceneSearchScroll<H> {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
@@ -41,11 +43,10 @@
 	// specific to this scroll instance:
 	private final HibernateSearchMultiReader indexReader;
 	private final int chunkSize;
+	private final int pageSize;
 
-	private int nextChunkOffset = 0;
-	private int currentPageLimit;
 	private LuceneExtractableSearchResult<H> currentPage;
-	private int currentPageOffset = 0;
+	private int nextChunkStartIndexInPage = 0;
 
 	public LuceneSearchScrollImpl(LuceneSyncWorkOrchestrator queryOrchestrator,
 			LuceneWorkFactory workFactory, LuceneSearchContext searchContext,
@@ -63,7 +64,8 @@ public LuceneSearchScrollImpl(LuceneSyncWorkOrchestrator queryOrchestrator,
 		this.totalHitCountThreshold = totalHitCountThreshold;
 		this.indexReader = indexReader;
 		this.chunkSize = chunkSize;
-		this.currentPageLimit = chunkSize * 4; // Will fetch the topdocs for the first 4 pages initially
+		// Each execution of the query will fetch the topdocs for 4 chunks
+		this.pageSize = chunkSize <= Integer.MAX_VALUE / 4 ? chunkSize * 4 : chunkSize;
 	}
 
 	@Override
@@ -88,17 +90,16 @@ public LuceneSearchScrollResult<H> next() {
 	}
 
 	private LuceneSearchScrollResult<H> doNext() {
-		if ( currentPage == null || nextChunkOffset + chunkSize > currentPageLimit + currentPageOffset ) {
-			if ( currentPage != null ) {
-				currentPageLimit *= 2;
-			}
-			currentPageOffset = nextChunkOffset;
-			currentPage = doSubmitWithIndexReader(
-					workFactory.scroll( searcher, currentPageOffset, currentPageLimit, totalHitCountThreshold ),
-					indexReader );
+		if ( currentPage == null ) {
+			currentPage = fetchPage( null );
+		}
+		else if ( nextChunkStartIndexInPage >= currentPage.hitSize() && currentPage.hitSize() >= pageSize ) {
+			// The current page is exhausted, but it was full so there may be more hits:
+			// fetch the next page, starting right after the last hit of the current page.
+			// Since the index reader is pinned, the hits will be consistent with previous pages.
+			currentPage = fetchPage( currentPage.lastHitOrNull() );
+			nextChunkStartIndexInPage = 0;
 		}
-
-		int nextChunkStartIndexInPage = nextChunkOffset - currentPageOffset;
 
 		// no more results check
 		if ( nextChunkStartIndexInPage >= currentPage.hitSize() ) {
@@ -127,11 +128,16 @@ private LuceneSearchScrollResult<H> doNext() {
 		LuceneSearchResult<H> result = loadableSearchResult.loadBlocking();
 
 		// increasing the index for further next(s)
-		nextChunkOffset += chunkSize;
+		nextChunkStartIndexInPage += chunkSize;
 		return new LuceneSearchScrollResultImpl<>( currentPage.total(), true, result.hits(),
 				result.took(), result.timedOut() );
 	}
 
+	private LuceneExtractableSearchResult<H> fetchPage(ScoreDoc after) {
+		return doSubmitWithIndexReader( workFactory.scroll( searcher, after, pageSize, totalHitCountThreshold ),
+				indexReader );
+	}
+
 	private <T> T doSubmitWithIndexReader(ReadWork<T> work, HibernateSearchMultiReader indexReader) {
 		return queryOrchestrator.submit(
 				searchContext.indexes().indexNames(),
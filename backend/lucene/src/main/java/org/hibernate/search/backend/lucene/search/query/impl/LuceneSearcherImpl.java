@@ -7,6 +7,8 @@
 package org.hibernate.search.backend.lucene.search.query.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
@@ -24,9 +26,11 @@
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 
 class LuceneSearcherImpl<H> implements LuceneSearcher<LuceneLoadableSearchResult<H>, LuceneExtractableSearchResult<H>> {
 
@@ -40,6 +44,7 @@
 	private final LuceneSearchProjection<?, H> rootProjection;
 	private final Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations;
 	private final ExtractionRequirements extractionRequirements;
+	private final LuceneQueryResultCache queryResultCacheOrNull;
 
 	private TimeoutManager timeoutManager;
 
@@ -47,12 +52,14 @@
 			LuceneSearchProjection<?, H> rootProjection,
 			Map<AggregationKey<?>, LuceneSearchAggregation<?>> aggregations,
 			ExtractionRequirements extractionRequirements,
-			TimeoutManager timeoutManager) {
+			TimeoutManager timeoutManager,
+			LuceneQueryResultCache queryResultCacheOrNull) {
 		this.requestContext = requestContext;
 		this.rootProjection = rootProjection;
 		this.aggregations = aggregations;
 		this.extractionRequirements = extractionRequirements;
 		this.timeoutManager = timeoutManager;
+		this.queryResultCacheOrNull = queryResultCacheOrNull;
 	}
 
 	@Override
@@ -69,19 +76,20 @@ public String toString() {
 	public LuceneLoadableSearchResult<H> search(IndexSearcher indexSearcher,
 			IndexReaderMetadataResolver metadataResolver,
 			int offset, Integer limit, int totalHitCountThreshold) throws IOException {
-		return doSearch( indexSearcher, metadataResolver, offset, limit, totalHitCountThreshold ).extract();
-	}
-
-	@Override
-	public LuceneExtractableSearchResult<H> scroll(IndexSearcher indexSearcher,
-			IndexReaderMetadataResolver metadataResolver,
-			int offset, int limit, int totalHitCountThreshold) throws IOException {
-		return doSearch( indexSearcher, metadataResolver, offset, limit, totalHitCountThreshold );
-	}
+		List<IndexReader.CacheHelper> readerCacheHelpers = null;
+		LuceneQueryResultCache.Key cacheKey = null;
+		// Results of queries without a limit may be very large: we don't cache those.
+		if ( queryResultCacheOrNull != null && limit != null ) {
+			readerCacheHelpers = getReaderCacheHelpersOrNull( indexSearcher.getIndexReader() );
+			if ( readerCacheHelpers != null ) {
+				cacheKey = createQueryResultCacheKey( readerCacheHelpers, offset, limit, totalHitCountThreshold );
+				LuceneQueryResultCache.Value cachedValue = queryResultCacheOrNull.get( cacheKey );
+				if ( cachedValue != null ) {
+					return extractCachedValue( indexSearcher, metadataResolver, cachedValue );
+				}
+			}
+		}
 
-	private LuceneExtractableSearchResult<H> doSearch(IndexSearcher indexSearcher,
-			IndexReaderMetadataResolver metadataResolver,
-			int offset, Integer limit, int totalHitCountThreshold) throws IOException {
 		queryLog.executingLuceneQuery( requestContext.getLuceneQuery() );
 
 		int maxDocs = getMaxDocs( indexSearcher.getIndexReader(), offset, limit );
@@ -89,6 +97,35 @@ private LuceneExtractableSearchResult<H> doSearch(IndexSearcher indexSearcher,
 				collectMatchingDocs( indexSearcher, metadataResolver, offset, limit, maxDocs, totalHitCountThreshold ) :
 				collectMatchingDocsWithPrefetch( indexSearcher, metadataResolver, offset, limit, maxDocs, totalHitCountThreshold );
 
+		LuceneExtractableSearchResult<H> extractableResult = new LuceneExtractableSearchResult<>( requestContext,
+				indexSearcher, luceneCollectors, rootProjection, aggregations, timeoutManager );
+		LuceneLoadableSearchResult<H> result = extractableResult.extract();
+
+		// Results of timed out queries may be incomplete: we don't cache those.
+		// Aggregations are cached before conversion: converters may depend on the session.
+		if ( cacheKey != null && !timeoutManager.isTimedOut() ) {
+			queryResultCacheOrNull.put( cacheKey,
+					new LuceneQueryResultCache.Value( result.topDocs(), result.total(),
+							extractableResult.extractedAggregations() ),
+					readerCacheHelpers );
+		}
+
+		return result;
+	}
+
+	@Override
+	public LuceneExtractableSearchResult<H> scroll(IndexSearcher indexSearcher,
+			IndexReaderMetadataResolver metadataResolver,
+			ScoreDoc after, int limit, int totalHitCountThreshold) throws IOException {
+		queryLog.executingLuceneQuery( requestContext.getLuceneQuery() );
+
+		int maxDocs = getMaxDocs( indexSearcher.getIndexReader(), 0, limit );
+		// Only collect the top docs following the last hit of the previous page:
+		// this keeps the priority queue small, regardless of how far we are in the scroll.
+		LuceneCollectors luceneCollectors = buildCollectors( indexSearcher, metadataResolver,
+				maxDocs, after, totalHitCountThreshold );
+		luceneCollectors.collectMatchingDocs( 0, limit );
+
 		return new LuceneExtractableSearchResult<>( requestContext, indexSearcher, luceneCollectors,
 				rootProjection, aggregations, timeoutManager );
 	}
@@ -123,11 +160,57 @@ public void setTimeoutManager(TimeoutManager timeoutManager) {
 		this.timeoutManager = timeoutManager;
 	}
 
+	private LuceneLoadableSearchResult<H> extractCachedValue(IndexSearcher indexSearcher,
+			IndexReaderMetadataResolver metadataResolver, LuceneQueryResultCache.Value cachedValue)
+			throws IOException {
+		// Skip the collection of matching docs, but extract projections again:
+		// they may depend on the session.
+		LuceneCollectors luceneCollectors = extractionRequirements.createCollectorsForCollectedMatchingDocs(
+				indexSearcher, requestContext.getLuceneQuery(), requestContext.getParentFilter(),
+				metadataResolver, timeoutManager,
+				cachedValue.topDocs, cachedValue.resultTotal
+		);
+		return new LuceneExtractableSearchResult<>( requestContext, indexSearcher, luceneCollectors,
+				rootProjection, aggregations, timeoutManager, cachedValue.extractedAggregations ).extract();
+	}
+
+	private LuceneQueryResultCache.Key createQueryResultCacheKey(List<IndexReader.CacheHelper> readerCacheHelpers,
+			int offset, int limit, int totalHitCountThreshold) {
+		List<IndexReader.CacheKey> readerKeys = new ArrayList<>( readerCacheHelpers.size() );
+		for ( IndexReader.CacheHelper readerCacheHelper : readerCacheHelpers ) {
+			readerKeys.add( readerCacheHelper.getKey() );
+		}
+		return new LuceneQueryResultCache.Key( readerKeys,
+				requestContext.getLuceneQuery(), requestContext.getLuceneSort(),
+				offset, limit, totalHitCountThreshold, extractionRequirements.isScoreRequired(),
+				aggregations );
+	}
+
+	/**
+	 * @return The cache helpers of the top-level readers composing the given reader (one per index shard),
+	 * or {@code null} if one of these readers cannot be cached.
+	 */
+	private static List<IndexReader.CacheHelper> getReaderCacheHelpersOrNull(IndexReader indexReader) {
+		List<IndexReaderContext> subReaderContexts = indexReader.getContext().children();
+		if ( subReaderContexts == null ) {
+			return null;
+		}
+		List<IndexReader.CacheHelper> result = new ArrayList<>( subReaderContexts.size() );
+		for ( IndexReaderContext subReaderContext : subReaderContexts ) {
+			IndexReader.CacheHelper cacheHelper = subReaderContext.reader().getReaderCacheHelper();
+			if ( cacheHelper == null ) {
+				return null;
+			}
+			result.add( cacheHelper );
+		}
+		return result;
+	}
+
 	private LuceneCollectors collectMatchingDocs(IndexSearcher indexSearcher,
 			IndexReaderMetadataResolver metadataResolver, int offset, Integer limit,
 			int maxDocs, int totalHitCountThreshold) throws IOException {
 		LuceneCollectors luceneCollectors = buildCollectors( indexSearcher, metadataResolver,
-				maxDocs, totalHitCountThreshold );
+				maxDocs, null, totalHitCountThreshold );
 		luceneCollectors.collectMatchingDocs( offset, limit );
 		return luceneCollectors;
 	}
@@ -157,10 +240,10 @@ private LuceneCollectors collectMatchingDocsWithPrefetch(IndexSearcher indexSear
 	}
 
 	private LuceneCollectors buildCollectors(IndexSearcher indexSearcher, IndexReaderMetadataResolver metadataResolver,
-			int maxDocs, int totalHitCountThreshold) throws IOException {
+			int maxDocs, ScoreDoc after, int totalHitCountThreshold) throws IOException {
 		return extractionRequirements.createCollectors(
-				indexSearcher, requestContext.getLuceneQuery(), requestContext.getLuceneSort(),
-				metadataResolver, maxDocs, timeoutManager, totalHitCountThreshold
+				indexSearcher, requestContext.getLuceneQuery(), requestContext.getParentFilter(),
+				requestContext.getLuceneSort(), metadataResolver, maxDocs, after, timeoutManager, totalHitCountThreshold
 		);
 	}
 
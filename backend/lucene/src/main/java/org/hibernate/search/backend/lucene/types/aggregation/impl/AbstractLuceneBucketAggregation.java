@@ -30,6 +30,21 @@
 		this.absoluteFieldPath = builder.field.absolutePath();
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		AbstractLuceneBucketAggregation<?, ?> other = (AbstractLuceneBucketAggregation<?, ?>) obj;
+		return indexNames.equals( other.indexNames )
+				&& absoluteFieldPath.equals( other.absoluteFieldPath );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + absoluteFieldPath.hashCode();
+	}
+
 	@Override
 	public Set<String> getIndexNames() {
 		return indexNames;
@@ -12,6 +12,7 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.hibernate.search.backend.lucene.lowlevel.collector.impl.FacetsCollectorFactory;
@@ -53,15 +54,31 @@
 		this.minDocCount = builder.minDocCount;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		AbstractLuceneFacetsBasedTermsAggregation<?, ?, ?> other = (AbstractLuceneFacetsBasedTermsAggregation<?, ?, ?>) obj;
+		return fromFieldValueConverter.isCompatibleWith( other.fromFieldValueConverter )
+				&& order.equals( other.order )
+				&& maxTermCount == other.maxTermCount
+				&& minDocCount == other.minDocCount;
+	}
+
+	@Override
+	public int hashCode() {
+		// The converter is left out on purpose: compatible converters may have different hash codes.
+		return 31 * super.hashCode() + Objects.hash( order, maxTermCount, minDocCount );
+	}
+
 	@Override
 	public void request(AggregationRequestContext context) {
 		context.requireCollector( FacetsCollectorFactory.INSTANCE );
 	}
 
 	@Override
-	public final Map<K, Long> extract(AggregationExtractContext context) throws IOException {
-		FromDocumentFieldValueConvertContext convertContext = context.getConvertContext();
-
+	public final Extracted<Map<K, Long>> extract(AggregationExtractContext context) throws IOException {
 		List<Bucket<T>> buckets = getTopBuckets( context );
 
 		if ( BucketOrder.COUNT_DESC.equals( order ) && (minDocCount > 0 || buckets.size() >= maxTermCount ) ) {
@@ -69,7 +86,7 @@ public final Map<K, Long> extract(AggregationExtractContext context) throws IOEx
 			 * Optimization: in this case, minDocCount and sorting can be safely ignored.
 			 * We already have all the buckets we need, and they are already sorted.
 			 */
-			return toMap( convertContext, buckets );
+			return convertContext -> toMap( convertContext, buckets );
 		}
 
 		if ( minDocCount <= 0 ) {
@@ -90,10 +107,10 @@ public final Map<K, Long> extract(AggregationExtractContext context) throws IOEx
 			buckets.subList( maxTermCount, buckets.size() ).clear();
 		}
 
-		return toMap( convertContext, buckets );
+		return convertContext -> toMap( convertContext, buckets );
 	}
 
-	abstract FacetResult getTopChildren(IndexReader reader, FacetsCollector facetsCollector,
+	abstract FacetResult getTopChildren(AggregationExtractContext context, FacetsCollector facetsCollector,
 			NestedDocsProvider nestedDocsProvider, int limit) throws IOException;
 
 	abstract Set<T> collectFirstTerms(IndexReader reader, boolean descending, int limit)
@@ -106,7 +123,7 @@ abstract Set<T> collectFirstTerms(IndexReader reader, boolean descending, int li
 	abstract F termToFieldValue(T key);
 
 	private List<Bucket<T>> getTopBuckets(AggregationExtractContext context) throws IOException {
-		FacetsCollector facetsCollector = context.getCollector( FacetsCollectorFactory.KEY );
+		FacetsCollector facetsCollector = context.getCollectorResult( FacetsCollectorFactory.KEY );
 
 		NestedDocsProvider nestedDocsProvider = createNestedDocsProvider( context );
 
@@ -121,7 +138,7 @@ private List<Bucket<T>> getTopBuckets(AggregationExtractContext context) throws
 		 *  To improve on this, we would need to re-implement the facet collections.
 		 */
 		int limit = maxTermCount;
-		FacetResult facetResult = getTopChildren( context.getIndexReader(), facetsCollector, nestedDocsProvider, limit );
+		FacetResult facetResult = getTopChildren( context, facetsCollector, nestedDocsProvider, limit );
 
 		List<Bucket<T>> buckets = new ArrayList<>();
 
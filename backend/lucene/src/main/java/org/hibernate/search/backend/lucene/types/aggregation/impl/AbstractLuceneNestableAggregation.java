@@ -7,6 +7,7 @@
 package org.hibernate.search.backend.lucene.types.aggregation.impl;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Objects;
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.join.impl.NestedDocsProvider;
@@ -34,6 +35,29 @@
 		this.nestedFilter = builder.nestedFilter;
 	}
 
+	/*
+	 * Aggregations are compared by configuration,
+	 * so that equivalent aggregations built for different queries are equal.
+	 * This is useful when caching search results.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if ( obj == this ) {
+			return true;
+		}
+		if ( obj == null || obj.getClass() != getClass() ) {
+			return false;
+		}
+		AbstractLuceneNestableAggregation<?> other = (AbstractLuceneNestableAggregation<?>) obj;
+		return Objects.equals( nestedDocumentPath, other.nestedDocumentPath )
+				&& Objects.equals( nestedFilter, other.nestedFilter );
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash( getClass(), nestedDocumentPath, nestedFilter );
+	}
+
 	protected NestedDocsProvider createNestedDocsProvider(AggregationExtractContext context) {
 		NestedDocsProvider nestedDocsProvider = null;
 		if ( nestedDocumentPath != null ) {
@@ -57,16 +57,33 @@ private LuceneNumericRangeAggregation(Builder<F, E, K> builder) {
 		this.encodedRangesInOrder = builder.encodedRangesInOrder;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		LuceneNumericRangeAggregation<?, ?, ?> other = (LuceneNumericRangeAggregation<?, ?, ?>) obj;
+		return codec.isCompatibleWith( other.codec )
+				&& rangesInOrder.equals( other.rangesInOrder )
+				&& encodedRangesInOrder.equals( other.encodedRangesInOrder );
+	}
+
+	@Override
+	public int hashCode() {
+		// The codec is left out on purpose: compatible codecs may have different hash codes.
+		return 31 * super.hashCode() + encodedRangesInOrder.hashCode();
+	}
+
 	@Override
 	public void request(AggregationRequestContext context) {
 		context.requireCollector( FacetsCollectorFactory.INSTANCE );
 	}
 
 	@Override
-	public Map<Range<K>, Long> extract(AggregationExtractContext context) throws IOException {
+	public Extracted<Map<Range<K>, Long>> extract(AggregationExtractContext context) throws IOException {
 		LuceneNumericDomain<E> numericDomain = codec.getDomain();
 
-		FacetsCollector facetsCollector = context.getCollector( FacetsCollectorFactory.KEY );
+		FacetsCollector facetsCollector = context.getCollectorResult( FacetsCollectorFactory.KEY );
 
 		NestedDocsProvider nestedDocsProvider = createNestedDocsProvider( context );
 
@@ -82,7 +99,8 @@ public Map<Range<K>, Long> extract(AggregationExtractContext context) throws IOE
 			result.put( rangesInOrder.get( i ), (long) (Integer) facetResult.labelValues[i].value );
 		}
 
-		return result;
+		// Range keys were converted when building the aggregation: nothing left to convert.
+		return ignored -> new LinkedHashMap<>( result );
 	}
 
 	public static class Factory<F>
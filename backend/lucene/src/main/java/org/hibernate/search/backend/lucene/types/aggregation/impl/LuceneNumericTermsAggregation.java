@@ -12,6 +12,7 @@
 import java.util.TreeSet;
 
 import org.hibernate.search.backend.lucene.lowlevel.join.impl.NestedDocsProvider;
+import org.hibernate.search.backend.lucene.search.aggregation.impl.AggregationExtractContext;
 import org.hibernate.search.backend.lucene.search.impl.AbstractLuceneCodecAwareSearchValueFieldQueryElementFactory;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchContext;
 import org.hibernate.search.backend.lucene.search.impl.LuceneSearchValueFieldContext;
@@ -50,7 +51,22 @@ private LuceneNumericTermsAggregation(Builder<F, E, K> builder) {
 	}
 
 	@Override
-	FacetResult getTopChildren(IndexReader reader, FacetsCollector facetsCollector,
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		LuceneNumericTermsAggregation<?, ?, ?> other = (LuceneNumericTermsAggregation<?, ?, ?>) obj;
+		return codec.isCompatibleWith( other.codec );
+	}
+
+	@Override
+	public int hashCode() {
+		// The codec is left out on purpose: compatible codecs may have different hash codes.
+		return super.hashCode();
+	}
+
+	@Override
+	FacetResult getTopChildren(AggregationExtractContext context, FacetsCollector facetsCollector,
 			NestedDocsProvider nestedDocsProvider, int limit) throws IOException {
 		Facets facetCounts = numericDomain.createTermsFacetCounts(
 				absoluteFieldPath, facetsCollector, nestedDocsProvider
@@ -6,8 +6,14 @@
  */
 package org.hibernate.search.backend.lucene.types.codec.impl;
 
+import java.io.IOException;
+
+import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.SingleValueDocValuesReader;
 import org.hibernate.search.backend.lucene.types.lowlevel.impl.LuceneNumericDomain;
 
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+
 public abstract class AbstractLuceneNumericFieldCodec<F, E extends Number>
 		implements LuceneStandardFieldCodec<F, E> {
 
@@ -63,8 +69,37 @@ public boolean isCompatibleWith(LuceneFieldCodec<?> obj) {
 		return getClass() == obj.getClass();
 	}
 
+	@Override
+	public SingleValueDocValuesReader<F> singleValueDocValuesReaderOrNull(String absoluteFieldPath) {
+		if ( DocValues.ENABLED != docValues || !isEncodingLossless() ) {
+			return null;
+		}
+		LuceneNumericDomain<E> domain = getDomain();
+		return new SingleValueDocValuesReader<F>() {
+			@Override
+			public Leaf<F> leaf(LeafReaderContext context) throws IOException {
+				SortedNumericDocValues values = context.reader().getSortedNumericDocValues( absoluteFieldPath );
+				if ( values == null ) {
+					return docId -> null;
+				}
+				return docId -> values.advanceExact( docId )
+						? decode( domain.sortedDocValueToTerm( values.nextValue() ) )
+						: null;
+			}
+		};
+	}
+
 	public abstract F decode(E encoded);
 
+	/**
+	 * @return {@code true} if {@code decode(encode(value))} always returns a value equal to {@code value},
+	 * which means values can be projected from doc values instead of stored fields.
+	 * {@code false} otherwise, or when in doubt.
+	 */
+	protected boolean isEncodingLossless() {
+		return false;
+	}
+
 	public abstract LuceneNumericDomain<E> getDomain();
 
 	abstract void addStoredToDocument(LuceneDocumentContent documentBuilder, String absoluteFieldPath,
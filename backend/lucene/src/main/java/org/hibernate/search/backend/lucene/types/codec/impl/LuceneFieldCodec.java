@@ -6,6 +6,7 @@
  */
 package org.hibernate.search.backend.lucene.types.codec.impl;
 
+import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.SingleValueDocValuesReader;
 
 import org.apache.lucene.index.IndexableField;
 
@@ -55,4 +56,18 @@
 	 * in doubt.
 	 */
 	boolean isCompatibleWith(LuceneFieldCodec<?> other);
+
+	/**
+	 * Create a reader of the value of a single-valued field from doc values.
+	 * <p>
+	 * Typically used in projections, to avoid loading stored fields.
+	 *
+	 * @param absoluteFieldPath The absolute path of the field.
+	 * @return A reader returning exactly the same values as {@link #decode(IndexableField)} would,
+	 * or {@code null} if this codec does not add docvalues,
+	 * or if the values cannot be decoded from doc values without loss (e.g. normalized strings, truncated dates).
+	 */
+	default SingleValueDocValuesReader<F> singleValueDocValuesReaderOrNull(String absoluteFieldPath) {
+		return null;
+	}
 }
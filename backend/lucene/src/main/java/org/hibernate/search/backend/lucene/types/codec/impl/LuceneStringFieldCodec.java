@@ -6,13 +6,18 @@
  */
 package org.hibernate.search.backend.lucene.types.codec.impl;
 
+import java.io.IOException;
+
 import org.hibernate.search.backend.lucene.lowlevel.common.impl.AnalyzerConstants;
+import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.SingleValueDocValuesReader;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.util.BytesRef;
 
 public final class LuceneStringFieldCodec implements LuceneStandardFieldCodec<String, String> {
@@ -68,6 +73,26 @@ public boolean isCompatibleWith(LuceneFieldCodec<?> obj) {
 		return LuceneStringFieldCodec.class == obj.getClass();
 	}
 
+	@Override
+	public SingleValueDocValuesReader<String> singleValueDocValuesReaderOrNull(String absoluteFieldPath) {
+		if ( !DocValues.ENABLED.equals( docValues ) || analyzerOrNormalizer != AnalyzerConstants.KEYWORD_ANALYZER ) {
+			// Without docvalues or with a normalizer, we can't retrieve the original value from docvalues.
+			return null;
+		}
+		return new SingleValueDocValuesReader<String>() {
+			@Override
+			public Leaf<String> leaf(LeafReaderContext context) throws IOException {
+				SortedSetDocValues values = context.reader().getSortedSetDocValues( absoluteFieldPath );
+				if ( values == null ) {
+					return docId -> null;
+				}
+				return docId -> values.advanceExact( docId )
+						? values.lookupOrd( values.nextOrd() ).utf8ToString()
+						: null;
+			}
+		};
+	}
+
 	@Override
 	public String encode(String value) {
 		return value;
@@ -27,6 +27,7 @@
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
 
 public class LuceneLongDomain implements LuceneNumericDomain<Long> {
 	private static final LuceneNumericDomain<Long> INSTANCE = new LuceneLongDomain();
@@ -113,6 +114,11 @@ public IndexableField createSortedDocValuesField(String absoluteFieldPath, Long
 		return new SortedNumericDocValuesField( absoluteFieldPath, numericValue );
 	}
 
+	@Override
+	public SortField.Type getSortFieldType() {
+		return SortField.Type.LONG;
+	}
+
 	@Override
 	public FieldComparator<Long> createFieldComparator(String fieldName, int numHits,
 			Long missingValue, boolean reversed, int sortPos, MultiValueMode multiValueMode,
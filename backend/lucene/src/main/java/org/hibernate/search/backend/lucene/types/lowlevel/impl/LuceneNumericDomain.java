@@ -19,6 +19,7 @@
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
 
 public interface LuceneNumericDomain<E extends Number> {
 
@@ -49,6 +50,12 @@ Facets createRangeFacetCounts(String absoluteFieldPath,
 
 	IndexableField createSortedDocValuesField(String absoluteFieldPath, E numericValue);
 
+	/**
+	 * @return The type to use in Lucene's built-in {@link org.apache.lucene.search.SortedNumericSortField}
+	 * in order to decode values indexed with {@link #createSortedDocValuesField(String, Number)}.
+	 */
+	SortField.Type getSortFieldType();
+
 	FieldComparator<E> createFieldComparator(String absoluteFieldPath, int numHits,
 			E missingValue, boolean reversed, int sortPos, MultiValueMode multiValueMode,
 			NestedDocsProvider nestedDocsProvider);
@@ -6,10 +6,14 @@
  */
 package org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl;
 
+import java.util.Objects;
+
 import org.hibernate.search.backend.lucene.lowlevel.join.impl.NestedDocsProvider;
 
 import org.apache.lucene.search.FieldComparatorSource;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.join.BitSetProducer;
 
 public abstract class LuceneFieldComparatorSource extends FieldComparatorSource {
 
@@ -23,11 +27,46 @@ public LuceneFieldComparatorSource(String nestedDocumentPath, Query filter) {
 		this.filter = filter;
 	}
 
+	/*
+	 * Comparator sources are compared by configuration only,
+	 * so that equivalent sorts built for different queries are equal.
+	 * The nested docs provider is ignored, as it is derived from the query being sorted.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if ( obj == this ) {
+			return true;
+		}
+		if ( obj == null || obj.getClass() != getClass() ) {
+			return false;
+		}
+		LuceneFieldComparatorSource other = (LuceneFieldComparatorSource) obj;
+		return Objects.equals( nestedDocumentPath, other.nestedDocumentPath )
+				&& Objects.equals( filter, other.filter );
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash( getClass(), nestedDocumentPath, filter );
+	}
+
 	public String getNestedDocumentPath() {
 		return nestedDocumentPath;
 	}
 
-	public void setOriginalParentQuery(Query luceneQuery) {
-		this.nestedDocsProvider = new NestedDocsProvider( nestedDocumentPath, luceneQuery, filter );
+	public void setOriginalParentQuery(BitSetProducer parentFilter, Query luceneQuery) {
+		this.nestedDocsProvider = new NestedDocsProvider( parentFilter, nestedDocumentPath, luceneQuery, filter );
+	}
+
+	/**
+	 * @param fieldName The name of the sorted field.
+	 * @param reversed Whether the sort is reversed.
+	 * @return A sort field relying on Lucene's built-in comparators
+	 * that sorts documents exactly as this comparator source would,
+	 * or {@code null} if there is no such sort field.
+	 * Useful to take advantage of index sorting, which relies on built-in comparators.
+	 */
+	public SortField toNativeSortFieldOrNull(String fieldName, boolean reversed) {
+		return null;
 	}
 }
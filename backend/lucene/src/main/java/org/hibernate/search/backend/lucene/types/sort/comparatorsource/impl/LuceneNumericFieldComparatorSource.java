@@ -6,10 +6,15 @@
  */
 package org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl;
 
+import java.util.Objects;
+
 import org.hibernate.search.backend.lucene.types.lowlevel.impl.LuceneNumericDomain;
 
 import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedNumericSortField;
 import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.MultiValueMode;
 
 public class LuceneNumericFieldComparatorSource<E extends Number> extends LuceneFieldComparatorSource {
@@ -25,9 +30,54 @@ public LuceneNumericFieldComparatorSource(String nestedDocumentPath, LuceneNumer
 		this.sortMode = sortMode;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		LuceneNumericFieldComparatorSource<?> other = (LuceneNumericFieldComparatorSource<?>) obj;
+		return numericDomain.equals( other.numericDomain )
+				&& Objects.equals( missingValue, other.missingValue )
+				&& sortMode == other.sortMode;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Objects.hash( numericDomain, missingValue, sortMode );
+	}
+
 	@Override
 	public FieldComparator<?> newComparator(String fieldname, int numHits, int sortPos, boolean reversed) {
 		return numericDomain.createFieldComparator( fieldname, numHits, missingValue, reversed, sortPos,
 				sortMode, nestedDocsProvider );
 	}
+
+	@Override
+	public SortField toNativeSortFieldOrNull(String fieldName, boolean reversed) {
+		if ( nestedDocumentPath != null || filter != null || missingValue == null ) {
+			return null;
+		}
+		SortedNumericSelector.Type selector;
+		switch ( sortMode ) {
+			case MIN:
+				selector = SortedNumericSelector.Type.MIN;
+				break;
+			case MAX:
+				selector = SortedNumericSelector.Type.MAX;
+				break;
+			default:
+				// Built-in comparators do not support other modes
+				return null;
+		}
+		return createNativeSortField( fieldName, numericDomain, reversed, selector, missingValue );
+	}
+
+	public static <E extends Number> SortField createNativeSortField(String fieldName,
+			LuceneNumericDomain<E> numericDomain, boolean reversed, SortedNumericSelector.Type selector,
+			E missingValue) {
+		SortField sortField = new SortedNumericSortField( fieldName, numericDomain.getSortFieldType(),
+				reversed, selector );
+		sortField.setMissingValue( missingValue );
+		return sortField;
+	}
 }
@@ -7,6 +7,7 @@
 package org.hibernate.search.backend.lucene.types.sort.comparatorsource.impl;
 
 import java.io.IOException;
+import java.util.Objects;
 
 import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.MultiValueMode;
 import org.hibernate.search.backend.lucene.lowlevel.docvalues.impl.ReplaceMissingSortedDocValues;
@@ -17,6 +18,9 @@
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedSetSelector;
+import org.apache.lucene.search.SortedSetSortField;
 import org.apache.lucene.util.BytesRef;
 
 public class LuceneTextFieldComparatorSource extends LuceneFieldComparatorSource {
@@ -30,6 +34,21 @@ public LuceneTextFieldComparatorSource(String nestedDocumentPath, Object missing
 		this.multiValueMode = multiValueMode;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if ( !super.equals( obj ) ) {
+			return false;
+		}
+		LuceneTextFieldComparatorSource other = (LuceneTextFieldComparatorSource) obj;
+		return Objects.equals( missingValue, other.missingValue )
+				&& multiValueMode == other.multiValueMode;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Objects.hash( missingValue, multiValueMode );
+	}
+
 	@Override
 	public FieldComparator<?> newComparator(String fieldname, int numHits, int sortPos, boolean reversed) {
 		final boolean sortMissingLast = missingLast() ^ reversed;
@@ -50,6 +69,38 @@ protected SortedDocValues getSortedDocValues(LeafReaderContext context, String f
 		};
 	}
 
+	@Override
+	public SortField toNativeSortFieldOrNull(String fieldName, boolean reversed) {
+		if ( nestedDocumentPath != null || filter != null || !( missingFirst() || missingLast() ) ) {
+			// Built-in comparators do not support replacing missing values with an explicit value
+			return null;
+		}
+		SortedSetSelector.Type selector;
+		switch ( multiValueMode ) {
+			case MIN:
+				selector = SortedSetSelector.Type.MIN;
+				break;
+			case MAX:
+				selector = SortedSetSelector.Type.MAX;
+				break;
+			default:
+				// Built-in comparators do not support other modes
+				return null;
+		}
+		return createNativeSortField( fieldName, reversed, selector, missingLast() );
+	}
+
+	/**
+	 * @param missingLast Whether missing values should appear last, regardless of {@code reversed}.
+	 */
+	public static SortField createNativeSortField(String fieldName, boolean reversed,
+			SortedSetSelector.Type selector, boolean missingLast) {
+		SortField sortField = new SortedSetSortField( fieldName, reversed, selector );
+		// Same logic as in newComparator: built-in comparators reverse the order of missing values, too.
+		sortField.setMissingValue( missingLast ^ reversed ? SortField.STRING_LAST : SortField.STRING_FIRST );
+		return sortField;
+	}
+
 	private boolean missingFirst() {
 		return SortMissingValue.MISSING_FIRST.equals( missingValue );
 	}
@@ -27,6 +27,12 @@ public class AddEntryWork extends AbstractSingleDocumentIndexingWork {
 		this.indexEntry = indexEntry;
 	}
 
+	@Override
+	public boolean overridesPreviousWorks() {
+		// Adding a document doesn't remove previous versions.
+		return false;
+	}
+
 	@Override
 	public Long execute(IndexingWorkExecutionContext context) {
 		try {
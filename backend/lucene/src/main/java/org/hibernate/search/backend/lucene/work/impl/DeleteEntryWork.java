@@ -11,39 +11,43 @@
 
 import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
-import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegator;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.index.Term;
-import org.apache.lucene.search.Query;
-import org.apache.lucene.search.TermQuery;
 
 
 public class DeleteEntryWork extends AbstractSingleDocumentIndexingWork {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
-	private final Query filter;
+	private final Term idTerm;
+	private final Term tenantTerm;
 
 	DeleteEntryWork(String tenantId, String entityTypeName, Object entityIdentifier,
-			String documentIdentifier, Query filter) {
+			String documentIdentifier, Term idTerm, Term tenantTerm) {
 		super( "deleteEntry", tenantId, entityTypeName, entityIdentifier, documentIdentifier );
-		this.filter = filter;
+		this.idTerm = idTerm;
+		this.tenantTerm = tenantTerm;
+	}
+
+	@Override
+	public boolean overridesPreviousWorks() {
+		return true;
 	}
 
 	@Override
 	public Long execute(IndexingWorkExecutionContext context) {
 		try {
 			IndexWriterDelegator indexWriterDelegator = context.getIndexWriterDelegator();
-			Term idTerm = new Term( MetadataFields.idFieldName(), documentIdentifier );
-			if ( filter == null ) {
-				// Pass the term directly instead of a query: presumably more efficient.
-				return indexWriterDelegator.deleteDocuments( idTerm );
-			}
-			else {
-				return indexWriterDelegator.deleteDocuments( Queries.boolFilter( new TermQuery( idTerm ), filter ) );
+			if ( tenantTerm != null && indexWriterDelegator.mayContainLegacyTenantDocuments() ) {
+				// Legacy documents cannot be matched by the tenant-qualified term: match both the ID and the tenant instead.
+				return indexWriterDelegator.deleteDocumentsMatchingAll(
+						new Term( MetadataFields.idFieldName(), documentIdentifier ), tenantTerm );
 			}
+			// Pass the term directly instead of a query: more efficient.
+			// The term is tenant-qualified if necessary.
+			return indexWriterDelegator.deleteDocuments( idTerm );
 		}
 		catch (IOException e) {
 			throw log.unableToDeleteEntryFromIndex(
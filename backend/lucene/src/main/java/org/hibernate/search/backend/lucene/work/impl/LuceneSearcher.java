@@ -14,6 +14,7 @@
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 
 public interface LuceneSearcher<R, ER> {
 
@@ -21,7 +22,7 @@ R search(IndexSearcher indexSearcher, IndexReaderMetadataResolver metadataResolv
 			int offset, Integer limit, int totalHitCountThreshold) throws IOException;
 
 	ER scroll(IndexSearcher indexSearcher, IndexReaderMetadataResolver metadataResolver,
-			int offset, int limit, int totalHitCountThreshold) throws IOException;
+			ScoreDoc after, int limit, int totalHitCountThreshold) throws IOException;
 
 	int count(IndexSearcher indexSearcher) throws IOException;
 
@@ -15,9 +15,11 @@
 import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 
 public class LuceneWorkFactoryImpl implements LuceneWorkFactory {
 
@@ -72,16 +74,18 @@ public SingleDocumentIndexingWork add(String tenantId, String entityTypeName, Ob
 	@Override
 	public SingleDocumentIndexingWork update(String tenantId, String entityTypeName, Object entityIdentifier,
 			String documentIdentifier, LuceneIndexEntry indexEntry) {
-		Query filter = multiTenancyStrategy.filterOrNull( tenantId );
+		Term idTerm = multiTenancyStrategy.documentIdTerm( tenantId, documentIdentifier );
+		Term tenantTerm = multiTenancyStrategy.tenantTermOrNull( tenantId );
 		return new UpdateEntryWork( tenantId, entityTypeName, entityIdentifier,
-				documentIdentifier, filter, indexEntry );
+				documentIdentifier, idTerm, tenantTerm, indexEntry );
 	}
 
 	@Override
 	public SingleDocumentIndexingWork delete(String tenantId, String entityTypeName, Object entityIdentifier,
 			String documentIdentifier) {
-		Query filter = multiTenancyStrategy.filterOrNull( tenantId );
-		return new DeleteEntryWork( tenantId, entityTypeName, entityIdentifier, documentIdentifier, filter );
+		Term idTerm = multiTenancyStrategy.documentIdTerm( tenantId, documentIdentifier );
+		Term tenantTerm = multiTenancyStrategy.tenantTermOrNull( tenantId );
+		return new DeleteEntryWork( tenantId, entityTypeName, entityIdentifier, documentIdentifier, idTerm, tenantTerm );
 	}
 
 	@Override
@@ -104,8 +108,9 @@ public <R> ReadWork<R> search(LuceneSearcher<R, ?> searcher, Integer offset, Int
 	}
 
 	@Override
-	public <ER> ReadWork<ER> scroll(LuceneSearcher<?, ER> searcher, int offset, int limit, int totalHitCountThreshold) {
-		return new ScrollWork<>( searcher, offset, limit, totalHitCountThreshold );
+	public <ER> ReadWork<ER> scroll(LuceneSearcher<?, ER> searcher, ScoreDoc after, int limit,
+			int totalHitCountThreshold) {
+		return new ScrollWork<>( searcher, after, limit, totalHitCountThreshold );
 	}
 
 	@Override
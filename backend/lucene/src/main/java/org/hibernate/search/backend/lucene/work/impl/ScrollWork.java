@@ -13,6 +13,7 @@
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
 
 
 public class ScrollWork<ER> implements ReadWork<ER> {
@@ -21,12 +22,12 @@
 
 	private final LuceneSearcher<?, ER> searcher;
 
-	private final int offset;
+	private final ScoreDoc after;
 	private final int limit;
 	private final int totalHitCountThreshold;
 
-	ScrollWork(LuceneSearcher<?, ER> searcher, int offset, int limit, int totalHitCountThreshold) {
-		this.offset = offset;
+	ScrollWork(LuceneSearcher<?, ER> searcher, ScoreDoc after, int limit, int totalHitCountThreshold) {
+		this.after = after;
 		this.limit = limit;
 		this.searcher = searcher;
 		this.totalHitCountThreshold = totalHitCountThreshold;
@@ -37,7 +38,7 @@ public ER execute(ReadWorkExecutionContext context) {
 		try {
 			IndexSearcher indexSearcher = context.createSearcher();
 
-			return searcher.scroll( indexSearcher, context.getIndexReaderMetadataResolver(), offset, limit,
+			return searcher.scroll( indexSearcher, context.getIndexReaderMetadataResolver(), after, limit,
 					totalHitCountThreshold );
 		}
 		catch (IOException e) {
@@ -51,6 +52,7 @@ public String toString() {
 		StringBuilder sb = new StringBuilder( getClass().getSimpleName() )
 				.append( "[" )
 				.append( "searcher=" ).append( searcher )
+				.append( ", after=" ).append( after )
 				.append( ", limit=" ).append( limit )
 				.append( "]" );
 		return sb.toString();
@@ -13,4 +13,14 @@ public interface SingleDocumentIndexingWork extends IndexingWork<Long> {
 
 	Object getEntityIdentifier();
 
+	String getTenantId();
+
+	String getDocumentIdentifier();
+
+	/**
+	 * @return {@code true} if executing this work removes any previous version of the document from the index,
+	 * so that executing previous works targeting the same document just before this one is unnecessary.
+	 */
+	boolean overridesPreviousWorks();
+
 }
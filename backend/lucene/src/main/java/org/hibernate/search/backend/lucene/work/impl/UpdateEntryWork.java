@@ -12,43 +12,46 @@
 import org.hibernate.search.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.backend.lucene.logging.impl.Log;
 import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
-import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegator;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 import org.apache.lucene.index.Term;
-import org.apache.lucene.search.Query;
-import org.apache.lucene.search.TermQuery;
 
 
 public class UpdateEntryWork extends AbstractSingleDocumentIndexingWork {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
-	private final Query filter;
+	private final Term idTerm;
+	private final Term tenantTerm;
 
 	private final LuceneIndexEntry indexEntry;
 
 	UpdateEntryWork(String tenantId, String entityTypeName, Object entityIdentifier,
-			String documentIdentifier, Query filter, LuceneIndexEntry indexEntry) {
+			String documentIdentifier, Term idTerm, Term tenantTerm, LuceneIndexEntry indexEntry) {
 		super( "updateEntry", tenantId, entityTypeName, entityIdentifier, documentIdentifier );
-		this.filter = filter;
+		this.idTerm = idTerm;
+		this.tenantTerm = tenantTerm;
 		this.indexEntry = indexEntry;
 	}
 
+	@Override
+	public boolean overridesPreviousWorks() {
+		return true;
+	}
+
 	@Override
 	public Long execute(IndexingWorkExecutionContext context) {
 		try {
 			IndexWriterDelegator indexWriterDelegator = context.getIndexWriterDelegator();
-			Term idTerm = new Term( MetadataFields.idFieldName(), documentIdentifier );
-			if ( filter == null ) {
-				// Atomic update: presumably more efficient.
-				return indexWriterDelegator.updateDocuments( idTerm, indexEntry );
-			}
-			else {
-				indexWriterDelegator.deleteDocuments( Queries.boolFilter( new TermQuery( idTerm ), filter ) );
+			if ( tenantTerm != null && indexWriterDelegator.mayContainLegacyTenantDocuments() ) {
+				// Legacy documents cannot be matched by the tenant-qualified term: match both the ID and the tenant instead.
+				indexWriterDelegator.deleteDocumentsMatchingAll(
+						new Term( MetadataFields.idFieldName(), documentIdentifier ), tenantTerm );
 				return indexWriterDelegator.addDocuments( indexEntry );
 			}
+			// Atomic update by term, even with multi-tenancy: the term is tenant-qualified if necessary.
+			return indexWriterDelegator.updateDocuments( idTerm, indexEntry );
 		}
 		catch (IOException e) {
 			throw log.unableToIndexEntry( tenantId, entityTypeName, entityIdentifier, e.getMessage(), context.getEventContext(), e );
@@ -0,0 +1,123 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.cache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BitSet;
+
+public class BitSetFilterCacheTest {
+
+	private static final int DOCUMENT_COUNT = 1000;
+
+	private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+	private DirectoryReader reader;
+
+	@Before
+	public void setUp() throws IOException {
+		try ( IndexWriter writer = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer() ) ) ) {
+			for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+				Document document = new Document();
+				document.add( new StringField( "parity", i % 2 == 0 ? "even" : "odd", Field.Store.NO ) );
+				writer.addDocument( document );
+			}
+		}
+		reader = DirectoryReader.open( directory );
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		if ( reader != null ) {
+			reader.close();
+		}
+		directory.close();
+	}
+
+	@Test
+	public void sharedAcrossProducers() throws IOException {
+		BitSetFilterCache cache = new BitSetFilterCache( 1024L * 1024L );
+		LeafReaderContext leaf = reader.leaves().get( 0 );
+
+		BitSet first = cache.bitSetProducer( evenQuery() ).getBitSet( leaf );
+		assertThat( first.cardinality() ).isEqualTo( DOCUMENT_COUNT / 2 );
+		assertThat( cache.ramBytesUsed() ).isPositive();
+
+		// Another producer for an equal query, e.g. from another search query: same bitset.
+		BitSetProducer otherProducer = cache.bitSetProducer( evenQuery() );
+		assertThat( otherProducer ).isEqualTo( cache.bitSetProducer( evenQuery() ) );
+		assertThat( otherProducer.getBitSet( leaf ) ).isSameAs( first );
+	}
+
+	@Test
+	public void cardinality() throws IOException {
+		BitSetFilterCache cache = new BitSetFilterCache( 1024L * 1024L );
+		LeafReaderContext leaf = reader.leaves().get( 0 );
+
+		BitSetFilterCache.Entry first = cache.getEntry( evenQuery(), leaf );
+		assertThat( first.cardinality ).isEqualTo( DOCUMENT_COUNT / 2 );
+
+		// The cardinality is computed once, and cached along with the bitset.
+		assertThat( cache.getEntry( evenQuery(), leaf ) ).isSameAs( first );
+		assertThat( cache.getBitSet( evenQuery(), leaf ) ).isSameAs( first.bitSet );
+	}
+
+	@Test
+	public void noMatch() throws IOException {
+		BitSetFilterCache cache = new BitSetFilterCache( 1024L * 1024L );
+		LeafReaderContext leaf = reader.leaves().get( 0 );
+
+		Query query = new TermQuery( new Term( "parity", "neither" ) );
+		assertThat( cache.bitSetProducer( query ).getBitSet( leaf ) ).isNull();
+		assertThat( cache.bitSetProducer( query ).getBitSet( leaf ) ).isNull();
+	}
+
+	@Test
+	public void removedOnReaderClose() throws IOException {
+		BitSetFilterCache cache = new BitSetFilterCache( 1024L * 1024L );
+		cache.bitSetProducer( evenQuery() ).getBitSet( reader.leaves().get( 0 ) );
+		assertThat( cache.ramBytesUsed() ).isPositive();
+
+		reader.close();
+		reader = null;
+		assertThat( cache.ramBytesUsed() ).isZero();
+	}
+
+	@Test
+	public void budgetExceeded() throws IOException {
+		// Not even enough for a single bitset.
+		BitSetFilterCache cache = new BitSetFilterCache( 1L );
+		LeafReaderContext leaf = reader.leaves().get( 0 );
+
+		BitSet first = cache.bitSetProducer( evenQuery() ).getBitSet( leaf );
+		assertThat( first.cardinality() ).isEqualTo( DOCUMENT_COUNT / 2 );
+		assertThat( cache.ramBytesUsed() ).isZero();
+		assertThat( cache.bitSetProducer( evenQuery() ).getBitSet( leaf ) ).isNotSameAs( first );
+	}
+
+	private static Query evenQuery() {
+		return new TermQuery( new Term( "parity", "even" ) );
+	}
+}
@@ -8,17 +8,29 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.search.backend.lucene.lowlevel.directory.spi.DirectoryHolder;
 import org.hibernate.search.backend.lucene.lowlevel.reader.impl.IndexReaderProvider;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegatorImpl;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterProvider;
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
+import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.engine.reporting.spi.EventContexts;
 import org.hibernate.search.util.common.reporting.EventContext;
 
@@ -36,6 +48,7 @@
 public class IndexAccessorTest {
 
 	private static final String INDEX_NAME = "SomeIndexName";
+	private static final int IDLE_TIMEOUT = 500;
 
 	@Rule
 	public final MockitoRule mockito = MockitoJUnit.rule().strictness( Strictness.STRICT_STUBS );
@@ -52,14 +65,23 @@ public class IndexAccessorTest {
 	private IndexWriterDelegatorImpl indexWriterDelegatorMock;
 	@Mock
 	private DirectoryReader indexReaderMock;
+	@Mock
+	private TimingSource timingSourceMock;
+	@Mock
+	private ScheduledExecutorService idleCheckExecutorMock;
+	@Mock
+	private FailureHandler failureHandlerMock;
 
 	private IndexAccessorImpl accessor;
 
 	@Before
 	public void start() throws IOException {
 		accessor = new IndexAccessorImpl( indexEventContext, directoryHolderMock,
-				indexWriterProviderMock, indexReaderProviderMock );
+				indexWriterProviderMock, indexReaderProviderMock, 0,
+				null, 0, null, null );
 		accessor.start();
+		// Gives a chance to the writer provider to validate the directory on startup.
+		verify( indexWriterProviderMock ).start();
 	}
 
 	@After
@@ -99,6 +121,50 @@ public void commit_runtimeException() {
 		verifyNoOtherIndexInteractions();
 	}
 
+	@Test
+	public void commit_concurrent() throws InterruptedException {
+		CountDownLatch firstCommitStarted = new CountDownLatch( 1 );
+		CountDownLatch firstCommitMayFinish = new CountDownLatch( 1 );
+		AtomicInteger commitCount = new AtomicInteger();
+
+		when( indexWriterProviderMock.getOrNull() ).thenReturn( indexWriterDelegatorMock );
+		doAnswer( invocation -> {
+			if ( commitCount.incrementAndGet() == 1 ) {
+				firstCommitStarted.countDown();
+				firstCommitMayFinish.await();
+			}
+			return null;
+		} ).when( indexWriterDelegatorMock ).commit();
+
+		Thread firstThread = new Thread( accessor::commit );
+		firstThread.start();
+		firstCommitStarted.await();
+
+		// These commits are requested while the first commit is in progress
+		List<Thread> otherThreads = new ArrayList<>();
+		for ( int i = 0; i < 3; i++ ) {
+			Thread thread = new Thread( accessor::commit );
+			otherThreads.add( thread );
+			thread.start();
+		}
+		for ( Thread thread : otherThreads ) {
+			while ( thread.getState() != Thread.State.BLOCKED ) {
+				Thread.sleep( 10 );
+			}
+		}
+
+		firstCommitMayFinish.countDown();
+		firstThread.join();
+		for ( Thread thread : otherThreads ) {
+			thread.join();
+		}
+
+		// The first commit started before the other requests, so it couldn't satisfy them,
+		// but the other requests should have been grouped into a single commit.
+		verify( indexWriterDelegatorMock, times( 2 ) ).commit();
+		assertThat( commitCount ).hasValue( 2 );
+	}
+
 	@Test
 	public void commitOrDelay() {
 		when( indexWriterProviderMock.getOrNull() ).thenReturn( indexWriterDelegatorMock );
@@ -202,6 +268,63 @@ public void cleanUpAfterFailure_closeFailure() {
 		verifyNoOtherIndexInteractions();
 	}
 
+	@Test
+	public void closeIfIdle() throws IOException {
+		IndexAccessorImpl idleAccessor = startAccessorWithIdleTimeout();
+
+		when( timingSourceMock.monotonicTimeEstimate() ).thenReturn( 1000L + IDLE_TIMEOUT );
+		when( indexWriterProviderMock.getOrNull() ).thenReturn( indexWriterDelegatorMock );
+		when( indexWriterProviderMock.clearIfIdle( any() ) ).thenReturn( true );
+
+		idleAccessor.closeIfIdle();
+
+		// The reader must be closed first, since NRT readers depend on the writer.
+		verify( indexReaderProviderMock ).clear();
+		verify( indexWriterProviderMock ).clearIfIdle( any() );
+		verifyNoOtherIndexInteractions();
+	}
+
+	@Test
+	public void closeIfIdle_recentAccess() throws IOException {
+		IndexAccessorImpl idleAccessor = startAccessorWithIdleTimeout();
+
+		when( timingSourceMock.monotonicTimeEstimate() ).thenReturn( 1000L + IDLE_TIMEOUT - 1 );
+		when( indexReaderProviderMock.getOrCreate() ).thenReturn( indexReaderMock );
+		idleAccessor.getIndexReader();
+
+		when( timingSourceMock.monotonicTimeEstimate() ).thenReturn( 1000L + IDLE_TIMEOUT + 1 );
+		idleAccessor.closeIfIdle();
+
+		// The reader was retrieved less than IDLE_TIMEOUT ago => nothing to close
+		verifyNoOtherIndexInteractions();
+	}
+
+	@Test
+	public void closeIfIdle_noWriter() throws IOException {
+		IndexAccessorImpl idleAccessor = startAccessorWithIdleTimeout();
+
+		when( timingSourceMock.monotonicTimeEstimate() ).thenReturn( 1000L + IDLE_TIMEOUT );
+		when( indexWriterProviderMock.getOrNull() ).thenReturn( null );
+
+		idleAccessor.closeIfIdle();
+
+		// No writer => nothing to close
+		verifyNoOtherIndexInteractions();
+	}
+
+	private IndexAccessorImpl startAccessorWithIdleTimeout() throws IOException {
+		when( timingSourceMock.monotonicTimeEstimate() ).thenReturn( 1000L );
+		IndexAccessorImpl idleAccessor = new IndexAccessorImpl( indexEventContext, directoryHolderMock,
+				indexWriterProviderMock, indexReaderProviderMock, 0,
+				timingSourceMock, IDLE_TIMEOUT, idleCheckExecutorMock, failureHandlerMock );
+		idleAccessor.start();
+		// Once for the default accessor, once for this one.
+		verify( indexWriterProviderMock, times( 2 ) ).start();
+		verify( idleCheckExecutorMock ).scheduleWithFixedDelay( any(), eq( (long) IDLE_TIMEOUT ),
+				eq( (long) IDLE_TIMEOUT ), eq( TimeUnit.MILLISECONDS ) );
+		return idleAccessor;
+	}
+
 	private void verifyNoOtherIndexInteractions() {
 		verifyNoMoreInteractions( indexWriterProviderMock, indexWriterDelegatorMock,
 				indexReaderProviderMock, indexReaderMock );
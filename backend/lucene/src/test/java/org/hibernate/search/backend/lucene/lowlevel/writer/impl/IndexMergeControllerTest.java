@@ -0,0 +1,131 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.engine.common.timing.spi.TimingSource;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.awaitility.Awaitility;
+import org.apache.lucene.index.MergePolicy;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+public class IndexMergeControllerTest {
+
+	private static final int QUERY_LATENCY_THRESHOLD = 100;
+
+	@Rule
+	public final MockitoRule mockito = MockitoJUnit.rule().strictness( Strictness.STRICT_STUBS );
+
+	@Mock
+	private TimingSource timingSourceMock;
+
+	@Test
+	public void throttle_queryLatency() {
+		IndexMergeController controller = new IndexMergeController( 0, 0, 5, QUERY_LATENCY_THRESHOLD, 0, 1000, timingSourceMock );
+		assertThat( controller.throttled() ).isFalse();
+		assertThat( controller.maxMBPerSec() ).isZero();
+
+		controller.recordQueryLatency( TimeUnit.MILLISECONDS.toNanos( 10 ) );
+		controller.recordQueryLatency( TimeUnit.MILLISECONDS.toNanos( 500 ) );
+		controller.check();
+		assertThat( controller.throttled() ).isTrue();
+		assertThat( controller.maxMBPerSec() ).isEqualTo( 5.0 );
+
+		// The average is computed over queries executed since the previous check only.
+		controller.recordQueryLatency( TimeUnit.MILLISECONDS.toNanos( 10 ) );
+		controller.check();
+		assertThat( controller.throttled() ).isFalse();
+		assertThat( controller.maxMBPerSec() ).isZero();
+	}
+
+	@Test
+	public void throttle_queryLatency_timingSource() {
+		IndexMergeController controller = new IndexMergeController( 0, 0, 5, QUERY_LATENCY_THRESHOLD, 0, 1000,
+				timingSourceMock );
+
+		when( timingSourceMock.nanoTime() ).thenReturn( 0L, TimeUnit.MILLISECONDS.toNanos( 500 ) );
+		long startNanos = controller.beforeQuery();
+		controller.afterQuery( startNanos );
+		controller.check();
+		assertThat( controller.throttled() ).isTrue();
+	}
+
+	@Test
+	public void throttle_lowerThanMaxRate() {
+		IndexMergeController controller = new IndexMergeController( 0, 20, 50, QUERY_LATENCY_THRESHOLD, 0, 1000, timingSourceMock );
+		assertThat( controller.maxMBPerSec() ).isEqualTo( 20.0 );
+
+		controller.recordQueryLatency( TimeUnit.MILLISECONDS.toNanos( 500 ) );
+		controller.check();
+		// Throttling never raises the rate above the maximum.
+		assertThat( controller.throttled() ).isTrue();
+		assertThat( controller.maxMBPerSec() ).isEqualTo( 20.0 );
+	}
+
+	@Test
+	public void throttle_disabled() {
+		IndexMergeController controller = new IndexMergeController( 0, 0, 5, 0, 0, 1000, timingSourceMock );
+
+		controller.recordQueryLatency( TimeUnit.MILLISECONDS.toNanos( 500 ) );
+		controller.check();
+		assertThat( controller.throttled() ).isFalse();
+		assertThat( controller.maxMBPerSec() ).isZero();
+	}
+
+	@Test
+	public void threadBudget() {
+		IndexMergeController controller = new IndexMergeController( 1, 0, 5, 0, 0, 1000, timingSourceMock );
+
+		// First merge starts at 0, ends at 10ms; the time at which the second merge starts doesn't matter.
+		when( timingSourceMock.nanoTime() ).thenReturn( 0L, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+		long startNanos = controller.beforeMerge();
+		assertThat( controller.runningMergeCount() ).isEqualTo( 1 );
+
+		CompletableFuture<?> secondMerge = CompletableFuture.runAsync( controller::beforeMerge );
+		Awaitility.await().untilAsserted( () -> assertThat( controller.waitingMergeCount() ).isEqualTo( 1 ) );
+		assertThat( secondMerge ).isNotDone();
+
+		MergePolicy.OneMerge merge = mock( MergePolicy.OneMerge.class );
+		when( merge.totalNumDocs() ).thenReturn( 100 );
+		when( merge.totalBytesSize() ).thenReturn( 4096L );
+		controller.afterMerge( merge, startNanos );
+		secondMerge.join();
+		assertThat( controller.runningMergeCount() ).isEqualTo( 1 );
+		assertThat( controller.waitingMergeCount() ).isZero();
+		assertThat( controller.completedMergeCount() ).isEqualTo( 1 );
+		assertThat( controller.mergedDocCount() ).isEqualTo( 100 );
+		assertThat( controller.mergedBytes() ).isEqualTo( 4096L );
+		assertThat( controller.totalMergeTimeMillis() ).isEqualTo( 10 );
+	}
+
+	@Test
+	public void rateLimiter() {
+		SharedMergeRateLimiter rateLimiter = new SharedMergeRateLimiter( 1.0 );
+
+		long start = System.nanoTime();
+		// Two writers sharing the limit: 0.1MB in total at 1MB/s takes at least 100ms.
+		CompletableFuture<?> otherWriter = CompletableFuture.runAsync( () -> rateLimiter.pause( 52_429 ) );
+		rateLimiter.pause( 52_429 );
+		otherWriter.join();
+		assertThat( System.nanoTime() - start ).isGreaterThanOrEqualTo( TimeUnit.MILLISECONDS.toNanos( 100 ) );
+
+		rateLimiter.setMBPerSec( 0.0 );
+		assertThat( rateLimiter.pause( 1024L * 1024L * 1024L ) ).isZero();
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.backend.lucene.lowlevel.writer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.Queries;
+import org.hibernate.search.engine.reporting.spi.EventContexts;
+import org.hibernate.search.util.common.reporting.EventContext;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+
+public class IndexTranslogTest {
+
+	private static final EventContext EVENT_CONTEXT = EventContexts.fromIndexName( "indexName" );
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void recover_afterCrash() throws IOException {
+		Path path = temporaryFolder.getRoot().toPath();
+		try ( Directory directory = FSDirectory.open( path ) ) {
+			IndexWriter writer = openWriter( directory );
+			IndexTranslog translog = openTranslog( path, writer );
+
+			add( writer, translog, document( "1", "first text", 1 ) );
+			add( writer, translog, document( "2", "second text", 2 ) );
+			commit( writer, translog );
+
+			add( writer, translog, document( "3", "third text", 3 ) );
+			update( writer, translog, "1", document( "1", "first text updated", 10 ) );
+			delete( writer, translog, "2" );
+			add( writer, translog, document( "4", "fourth text", 4 ) );
+			deleteMatchingAll( writer, translog, new Term( "id", "4" ), new Term( "text", "fourth" ) );
+			translog.sync();
+
+			// Simulate a crash: changes since the last commit are lost...
+			writer.rollback();
+			translog.close();
+			assertThat( committedIds( directory ) ).containsExactly( "1", "2" );
+
+			// ... but applied again when the writer is re-opened.
+			writer = openWriter( directory );
+			translog = openTranslog( path, writer );
+			try ( DirectoryReader reader = DirectoryReader.open( directory ) ) {
+				IndexSearcher searcher = new IndexSearcher( reader );
+				// Check that indexed, stored, points and doc values are all restored.
+				assertThat( searcher.count( new TermQuery( new Term( "text", "updated" ) ) ) ).isEqualTo( 1 );
+				assertThat( searcher.count( IntPoint.newRangeQuery( "point", 3, 10 ) ) ).isEqualTo( 2 );
+				TopFieldDocs topDocs = searcher.search( new TermQuery( new Term( "text", "text" ) ), 10,
+						new Sort( new SortField( "numeric", SortField.Type.LONG ) ) );
+				assertThat( topDocs.scoreDocs ).extracting( scoreDoc -> storedId( searcher, scoreDoc.doc ) )
+						.containsExactly( "3", "1" );
+			}
+			assertThat( committedIds( directory ) ).containsExactlyInAnyOrder( "1", "3" );
+
+			writer.close();
+			translog.close();
+		}
+	}
+
+	@Test
+	public void recover_incompleteRecord() throws IOException {
+		Path path = temporaryFolder.getRoot().toPath();
+		try ( Directory directory = FSDirectory.open( path ) ) {
+			IndexWriter writer = openWriter( directory );
+			IndexTranslog translog = openTranslog( path, writer );
+
+			add( writer, translog, document( "1", "first text", 1 ) );
+			translog.sync();
+			writer.rollback();
+			translog.close();
+
+			// Simulate a crash while writing a record.
+			try ( Stream<Path> files = Files.list( path ) ) {
+				Path translogFile = files.filter( file -> file.getFileName().toString().endsWith( ".tlog" ) )
+						.reduce( (first, second) -> second.compareTo( first ) > 0 ? second : first )
+						.get();
+				Files.write( translogFile, new byte[] { 0, 0, 1, 0, 42 }, StandardOpenOption.APPEND );
+			}
+
+			writer = openWriter( directory );
+			translog = openTranslog( path, writer );
+			// Complete records are applied, the incomplete one is ignored.
+			assertThat( committedIds( directory ) ).containsExactly( "1" );
+
+			writer.close();
+			translog.close();
+		}
+	}
+
+	@Test
+	public void recover_noCommittedGeneration() throws IOException {
+		Path path = temporaryFolder.getRoot().toPath();
+		try ( Directory directory = FSDirectory.open( path ) ) {
+			IndexWriter writer = openWriter( directory );
+			IndexTranslog translog = openTranslog( path, writer );
+			add( writer, translog, document( "1", "first text", 1 ) );
+			translog.sync();
+			writer.rollback();
+			translog.close();
+
+			// The index is committed without a translog, e.g. because the translog was disabled.
+			writer = openWriter( directory );
+			writer.setLiveCommitData( Collections.<String, String>emptyMap().entrySet() );
+			writer.addDocument( document( "2", "second text", 2 ) );
+			writer.commit();
+			writer.close();
+
+			writer = openWriter( directory );
+			translog = openTranslog( path, writer );
+			// Stale translog files are ignored.
+			assertThat( committedIds( directory ) ).containsExactly( "2" );
+
+			writer.close();
+			translog.close();
+		}
+	}
+
+	private static IndexWriter openWriter(Directory directory) throws IOException {
+		return new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer() ) );
+	}
+
+	private static IndexTranslog openTranslog(Path path, IndexWriter writer) throws IOException {
+		IndexTranslog translog = new IndexTranslog( path, EVENT_CONTEXT );
+		translog.recover( writer );
+		return translog;
+	}
+
+	private static void add(IndexWriter writer, IndexTranslog translog, List<IndexableField> document)
+			throws IOException {
+		List<List<IndexableField>> docs = Collections.singletonList( document );
+		byte[] record = translog.encodeAdd( docs );
+		writer.addDocuments( docs );
+		translog.append( record );
+	}
+
+	private static void update(IndexWriter writer, IndexTranslog translog, String id, List<IndexableField> document)
+			throws IOException {
+		List<List<IndexableField>> docs = Collections.singletonList( document );
+		Term term = new Term( "id", id );
+		byte[] record = translog.encodeUpdate( term, docs );
+		writer.updateDocuments( term, docs );
+		translog.append( record );
+	}
+
+	private static void delete(IndexWriter writer, IndexTranslog translog, String id) throws IOException {
+		Term term = new Term( "id", id );
+		byte[] record = translog.encodeDelete( term );
+		writer.deleteDocuments( term );
+		translog.append( record );
+	}
+
+	private static void deleteMatchingAll(IndexWriter writer, IndexTranslog translog, Term... terms)
+			throws IOException {
+		byte[] record = translog.encodeDeleteMatchingAll( terms );
+		writer.deleteDocuments( Queries.allTerms( terms ) );
+		translog.append( record );
+	}
+
+	private static void commit(IndexWriter writer, IndexTranslog translog) throws IOException {
+		translog.commit( writer );
+	}
+
+	private static List<IndexableField> document(String id, String text, int number) {
+		Document document = new Document();
+		document.add( new StringField( "id", id, Field.Store.YES ) );
+		document.add( new TextField( "text", text, Field.Store.YES ) );
+		document.add( new IntPoint( "point", number ) );
+		document.add( new NumericDocValuesField( "numeric", number ) );
+		document.add( new SortedDocValuesField( "sorted", new BytesRef( id ) ) );
+		document.add( new StoredField( "stored", number ) );
+		return Arrays.asList( document.getFields().toArray( new IndexableField[0] ) );
+	}
+
+	private static List<String> committedIds(Directory directory) throws IOException {
+		try ( DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			IndexSearcher searcher = new IndexSearcher( reader );
+			Bits liveDocs = MultiBits.getLiveDocs( reader );
+			String[] ids = new String[reader.numDocs()];
+			int i = 0;
+			for ( int doc = 0; doc < reader.maxDoc(); doc++ ) {
+				if ( liveDocs == null || liveDocs.get( doc ) ) {
+					ids[i++] = storedId( searcher, doc );
+				}
+			}
+			Arrays.sort( ids );
+			return Arrays.asList( ids );
+		}
+	}
+
+	private static String storedId(IndexSearcher searcher, int doc) {
+		try {
+			return searcher.doc( doc ).get( "id" );
+		}
+		catch (IOException e) {
+			throw new IllegalStateException( e );
+		}
+	}
+}
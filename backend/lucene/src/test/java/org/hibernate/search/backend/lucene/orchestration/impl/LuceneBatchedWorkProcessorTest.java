@@ -8,6 +8,7 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hibernate.search.util.impl.test.FutureAssert.assertThatFuture;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doNothing;
@@ -20,11 +21,13 @@
 import static org.mockito.Mockito.withSettings;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import org.hibernate.search.backend.lucene.lowlevel.index.impl.IndexAccessor;
 import org.hibernate.search.backend.lucene.lowlevel.writer.impl.IndexWriterDelegator;
 import org.hibernate.search.backend.lucene.work.impl.IndexingWork;
 import org.hibernate.search.backend.lucene.work.impl.IndexingWorkExecutionContext;
+import org.hibernate.search.backend.lucene.work.impl.SingleDocumentIndexingWork;
 import org.hibernate.search.engine.reporting.spi.EventContexts;
 import org.hibernate.search.util.common.reporting.EventContext;
 import org.mockito.ArgumentCaptor;
@@ -179,6 +182,132 @@ public void error_batchCommit() throws IOException {
 		checkCompleteWithNothingToCommit();
 	}
 
+	@Test
+	public void futuresCompletedAtEndOfBatch() throws IOException {
+		processor.beginBatch();
+
+		IndexingWork<Long> work = workMock();
+		when( work.execute( any() ) ).thenReturn( 1L );
+		CompletableFuture<Long> future = submit( work );
+		verify( work ).execute( any() );
+		// Changes are not durable yet: the future must not be completed.
+		assertThatFuture( future ).isPending();
+
+		processor.endBatch();
+		verify( indexAccessorMock ).commitOrDelay();
+		assertThatFuture( future ).isSuccessful( 1L );
+	}
+
+	@Test
+	public void error_batchCommit_futures() throws IOException {
+		RuntimeException commitException = new RuntimeException( "Some message" );
+
+		processor.beginBatch();
+
+		IndexingWork<Long> work = workMock();
+		when( work.execute( any() ) ).thenReturn( 1L );
+		CompletableFuture<Long> future = submit( work );
+
+		doThrow( commitException ).when( indexAccessorMock ).commitOrDelay();
+		processor.endBatch();
+		verify( indexAccessorMock )
+				.cleanUpAfterFailure( commitException, "Commit after a batch of index works" );
+		// Changes were lost: the future must not be reported as successful.
+		assertThatFuture( future ).isFailed( commitException );
+	}
+
+	@Test
+	public void coalesceWorks() throws IOException {
+		processor = new LuceneBatchedWorkProcessor( indexEventContext, indexAccessorMock, true );
+
+		processor.beginBatch();
+		verifyNoOtherIndexInteractionsAndClear();
+
+		SingleDocumentIndexingWork add1 = singleDocumentWorkMock( "1", false );
+		SingleDocumentIndexingWork add2 = singleDocumentWorkMock( "2", false );
+		SingleDocumentIndexingWork update1 = singleDocumentWorkMock( "1", true );
+		SingleDocumentIndexingWork delete1 = singleDocumentWorkMock( "1", true );
+		when( add2.execute( any() ) ).thenReturn( 1L );
+		when( delete1.execute( any() ) ).thenReturn( 2L );
+
+		CompletableFuture<Long> add1Future = submit( add1 );
+		CompletableFuture<Long> add2Future = submit( add2 );
+		CompletableFuture<Long> update1Future = submit( update1 );
+		CompletableFuture<Long> delete1Future = submit( delete1 );
+
+		// Execution is deferred until the end of the batch
+		verify( add1, never() ).execute( any() );
+		verify( add2, never() ).execute( any() );
+		verify( update1, never() ).execute( any() );
+		verify( delete1, never() ).execute( any() );
+		assertThatFuture( delete1Future ).isPending();
+
+		processor.endBatch();
+		// Only the last work for document "1" is executed
+		verify( add1, never() ).execute( any() );
+		verify( update1, never() ).execute( any() );
+		verify( add2 ).execute( any() );
+		verify( delete1 ).execute( any() );
+		verify( indexAccessorMock ).commitOrDelay();
+		verifyNoOtherIndexInteractionsAndClear();
+
+		// ... but all works are considered successful
+		assertThatFuture( add2Future ).isSuccessful( 1L );
+		assertThatFuture( delete1Future ).isSuccessful( 2L );
+		assertThatFuture( add1Future ).isSuccessful( 2L );
+		assertThatFuture( update1Future ).isSuccessful( 2L );
+
+		checkCompleteWithNothingToCommit();
+	}
+
+	@Test
+	public void coalesceWorks_addDoesNotOverride() throws IOException {
+		processor = new LuceneBatchedWorkProcessor( indexEventContext, indexAccessorMock, true );
+
+		processor.beginBatch();
+		SingleDocumentIndexingWork delete1 = singleDocumentWorkMock( "1", true );
+		SingleDocumentIndexingWork add1 = singleDocumentWorkMock( "1", false );
+		submit( delete1 );
+		submit( add1 );
+		processor.endBatch();
+
+		verify( delete1 ).execute( any() );
+		verify( add1 ).execute( any() );
+	}
+
+	@Test
+	public void coalesceWorks_multiDocumentWorkIsBarrier() throws IOException {
+		processor = new LuceneBatchedWorkProcessor( indexEventContext, indexAccessorMock, true );
+
+		processor.beginBatch();
+		SingleDocumentIndexingWork add1 = singleDocumentWorkMock( "1", false );
+		IndexingWork<Long> purge = workMock();
+		SingleDocumentIndexingWork update1 = singleDocumentWorkMock( "1", true );
+		submit( add1 );
+		submit( purge );
+		submit( update1 );
+		processor.endBatch();
+
+		verify( add1 ).execute( any() );
+		verify( purge ).execute( any() );
+		verify( update1 ).execute( any() );
+	}
+
+	@Test
+	public void coalesceWorks_differentTenants() throws IOException {
+		processor = new LuceneBatchedWorkProcessor( indexEventContext, indexAccessorMock, true );
+
+		processor.beginBatch();
+		SingleDocumentIndexingWork update1 = singleDocumentWorkMock( "1", true );
+		SingleDocumentIndexingWork update1OtherTenant = singleDocumentWorkMock( "otherTenant", "1", true );
+		submit( update1 );
+		submit( update1OtherTenant );
+		processor.endBatch();
+
+		verify( update1 ).execute( any() );
+		verify( update1OtherTenant ).execute( any() );
+	}
+
 	private void testSuccessfulWriteWorks(int workCount) throws IOException {
 		ArgumentCaptor<IndexingWorkExecutionContext> contextCapture =
 				ArgumentCaptor.forClass( IndexingWorkExecutionContext.class );
@@ -227,6 +356,28 @@ private <T> IndexingWork<T> workMock() {
 		return workMock;
 	}
 
+	private <T> CompletableFuture<T> submit(IndexingWork<T> work) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		new LuceneBatchedWork<>( work, future ).submitTo( processor );
+		return future;
+	}
+
+	private SingleDocumentIndexingWork singleDocumentWorkMock(String documentIdentifier, boolean overridesPreviousWorks) {
+		return singleDocumentWorkMock( null, documentIdentifier, overridesPreviousWorks );
+	}
+
+	private SingleDocumentIndexingWork singleDocumentWorkMock(String tenantId, String documentIdentifier,
+			boolean overridesPreviousWorks) {
+		int id = nextWorkId++;
+		SingleDocumentIndexingWork workMock = mock( SingleDocumentIndexingWork.class,
+				withSettings().name( workInfo( id ) ).lenient() );
+		when( workMock.getInfo() ).thenReturn( workInfo( id ) );
+		when( workMock.getTenantId() ).thenReturn( tenantId );
+		when( workMock.getDocumentIdentifier() ).thenReturn( documentIdentifier );
+		when( workMock.overridesPreviousWorks() ).thenReturn( overridesPreviousWorks );
+		return workMock;
+	}
+
 	private String workInfo(int index) {
 		return "work_" + index;
 	}
@@ -7,17 +7,24 @@
 package org.hibernate.search.engine.backend.orchestration.spi;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 import org.hibernate.search.engine.logging.impl.Log;
 import org.hibernate.search.engine.reporting.FailureHandler;
 import org.hibernate.search.util.common.AssertionFailure;
+import org.hibernate.search.util.common.impl.Futures;
 import org.hibernate.search.util.common.logging.impl.LoggerFactory;
 
 /**
@@ -36,8 +43,11 @@
 	private final FailureHandler failureHandler;
 
 	private final BlockingQueue<BatchedWork<? super P>> workQueue;
+	private final Overflow<P> overflow;
+	private final AdaptiveLinger linger;
 	private final BatchWorker<P> worker;
 
+	private BatchScheduler scheduler;
 	private SingletonTask processingTask;
 
 	/**
@@ -53,10 +63,47 @@
 	public BatchingExecutor(String name,
 			P processor, int maxTasksPerBatch, boolean fair,
 			FailureHandler failureHandler) {
+		this( name, processor, maxTasksPerBatch, fair, false, 0, maxTasksPerBatch,
+				IndexingQueueOverflowPolicyName.BLOCK, failureHandler );
+	}
+
+	/**
+	 * @param name The name of the executor thread (and of this executor when reporting errors)
+	 * @param processor A task processor. May not be thread-safe.
+	 * @param maxTasksPerBatch The maximum number of tasks to process in a single batch.
+	 * Higher values mean more opportunity for the processor to optimize execution, but higher heap consumption.
+	 * @param fair if {@code true} tasks are always submitted to the
+	 * processor in FIFO order, if {@code false} tasks submitted
+	 * when the internal queue is full may be submitted out of order.
+	 * Ignored if {@code lockFree} is {@code true}.
+	 * @param lockFree if {@code true}, the internal queue is a lock-free ring buffer,
+	 * which reduces contention when many threads submit tasks concurrently,
+	 * and tasks are always submitted to the processor in the order they were accepted in the queue;
+	 * if {@code false}, the internal queue relies on a single lock.
+	 * @param maxLinger The maximum time, in milliseconds, to wait for more tasks before processing a batch,
+	 * when fewer than {@code lingerBatchSize} tasks are queued.
+	 * The actual wait is adjusted automatically based on how long it takes to end a batch,
+	 * so as to process more tasks per batch when ending a batch is costly.
+	 * {@code 0} to never wait.
+	 * @param lingerBatchSize The number of queued tasks above which a batch is processed immediately,
+	 * without waiting for more tasks.
+	 * @param overflowPolicy What to do when a task is submitted while the queue is full.
+	 * @param failureHandler A failure handler to report failures of the background thread.
+	 */
+	public BatchingExecutor(String name,
+			P processor, int maxTasksPerBatch, boolean fair, boolean lockFree,
+			int maxLinger, int lingerBatchSize,
+			IndexingQueueOverflowPolicyName overflowPolicy,
+			FailureHandler failureHandler) {
 		this.name = name;
 		this.failureHandler = failureHandler;
-		this.workQueue = new ArrayBlockingQueue<>( maxTasksPerBatch, fair );
-		this.worker = new BatchWorker<>( name, processor, workQueue, maxTasksPerBatch );
+		this.workQueue = lockFree
+				? new RingBufferBlockingQueue<>( maxTasksPerBatch )
+				: new ArrayBlockingQueue<>( maxTasksPerBatch, fair );
+		this.overflow = new Overflow<>( name, workQueue, overflowPolicy, maxTasksPerBatch );
+		this.linger = new AdaptiveLinger( maxLinger, Math.min( lingerBatchSize, maxTasksPerBatch ) );
+		this.worker = new BatchWorker<>( name, processor, workQueue, overflow, maxTasksPerBatch, linger,
+				this::ensureScheduled );
 	}
 
 	@Override
@@ -74,11 +121,12 @@ public String toString() {
 	 *
 	 * @param executorService An executor service with at least one thread.
 	 */
-	public synchronized void start(ExecutorService executorService) {
+	public synchronized void start(ScheduledExecutorService executorService) {
 		log.startingExecutor( name );
+		scheduler = new BatchScheduler( executorService, workQueue, linger );
 		processingTask = new SingletonTask(
 				name, worker,
-				new BatchScheduler( executorService ),
+				scheduler,
 				failureHandler
 		);
 	}
@@ -93,28 +141,123 @@ public synchronized void stop() {
 		log.stoppingExecutor( name );
 
 		workQueue.clear();
+		overflow.clear();
 
 		// It's possible that processing was successfully scheduled in the executor service but had no chance to run,
 		// so we need to release waiting threads:
 		processingTask.stop();
 		processingTask = null;
+		scheduler.stop();
+		scheduler = null;
 	}
 
 	/**
 	 * Submit a work for execution.
 	 * <p>
+	 * If the queue is full, depending on the overflow policy,
+	 * this will either block until the work can be put in the queue,
+	 * throw an exception,
+	 * or put the work in an overflow list.
+	 * <p>
 	 * Must not be called when the executor is stopped.
 	 * @param work A work to execute.
 	 * @throws InterruptedException If the current thread is interrupted while enqueuing the work.
 	 */
 	public void submit(BatchedWork<? super P> work) throws InterruptedException {
+		checkStarted();
+		if ( overflow.isEmpty() && IndexingQueueOverflowPolicyName.BLOCK.equals( overflow.policy ) ) {
+			// Fast path for the default policy: no need to create a future.
+			workQueue.put( work );
+			onAccepted();
+			return;
+		}
+		CompletableFuture<?> accepted = doSubmit( work, false );
+		try {
+			accepted.get();
+		}
+		catch (InterruptedException e) {
+			if ( overflow.cancel( work ) ) {
+				// The work was not accepted and never will be.
+				throw e;
+			}
+			// The work was accepted (or rejected) in the meantime: just preserve the interrupt flag.
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			// Handled below
+		}
+		// Propagates the failure, if any
+		Futures.unwrappedExceptionJoin( accepted );
+	}
+
+	/**
+	 * Submit a work for execution without ever blocking the current thread.
+	 * <p>
+	 * If the queue is full, depending on the overflow policy,
+	 * the returned future will either complete later, when the work is put in the queue,
+	 * or fail immediately,
+	 * or the work will be put in an overflow list.
+	 * <p>
+	 * With the {@link IndexingQueueOverflowPolicyName#BLOCK block} policy,
+	 * at most as many works as the queue size can wait for room in the queue:
+	 * past that limit, the returned future fails immediately.
+	 * <p>
+	 * Must not be called when the executor is stopped.
+	 * @param work A work to execute.
+	 * @return A future that completes when the work is accepted, i.e. when it is guaranteed to be executed eventually,
+	 * or fails if the work is rejected.
+	 */
+	public CompletableFuture<?> submitAsync(BatchedWork<? super P> work) {
+		checkStarted();
+		return doSubmit( work, true );
+	}
+
+	private CompletableFuture<?> doSubmit(BatchedWork<? super P> work, boolean async) {
+		// Only use the queue directly if there is no work in the overflow list,
+		// so as to preserve the order of works.
+		if ( overflow.isEmpty() && workQueue.offer( work ) ) {
+			onAccepted();
+			return Overflow.ACCEPTED;
+		}
+		CompletableFuture<?> accepted = overflow.offer( work, async );
+		if ( accepted.isDone() && !accepted.isCompletedExceptionally() ) {
+			// The work was put in the queue after all, or spilled to the overflow list.
+			// Either way, it must be processed eventually.
+			onAccepted();
+		}
+		return accepted;
+	}
+
+	private void onAccepted() {
+		processingTask.ensureScheduled();
+		if ( linger.isEnabled() ) {
+			// If the processing task is waiting for more works and we just reached the target batch size,
+			// process the batch now.
+			scheduler.expediteIfNecessary();
+		}
+	}
+
+	private void ensureScheduled() {
+		SingletonTask task = processingTask;
+		if ( task != null ) {
+			task.ensureScheduled();
+		}
+	}
+
+	private void checkStarted() {
 		if ( processingTask == null ) {
 			throw new AssertionFailure(
 					"Attempt to submit a work to executor '" + name + "', which is stopped."
 			);
 		}
-		workQueue.put( work );
-		processingTask.ensureScheduled();
+	}
+
+	/**
+	 * @return The number of works waiting to be processed,
+	 * including those waiting for room in the queue because of the overflow policy.
+	 */
+	public int queueSize() {
+		return workQueue.size() + overflow.size;
 	}
 
 	/**
@@ -138,15 +281,21 @@ public CompletableFuture<?> completion() {
 		private final String name;
 		private final P processor;
 		private final BlockingQueue<BatchedWork<? super P>> workQueue;
+		private final Overflow<P> overflow;
 		private final int maxTasksPerBatch;
+		private final AdaptiveLinger linger;
+		private final Runnable ensureScheduled;
 		private final List<BatchedWork<? super P>> workBuffer;
 
 		private BatchWorker(String name, P processor, BlockingQueue<BatchedWork<? super P>> workQueue,
-				int maxTasksPerBatch) {
+				Overflow<P> overflow, int maxTasksPerBatch, AdaptiveLinger linger, Runnable ensureScheduled) {
 			this.name = name;
 			this.processor = processor;
 			this.workQueue = workQueue;
+			this.overflow = overflow;
 			this.maxTasksPerBatch = maxTasksPerBatch;
+			this.linger = linger;
+			this.ensureScheduled = ensureScheduled;
 			this.workBuffer = new ArrayList<>( maxTasksPerBatch );
 		}
 
@@ -154,6 +303,11 @@ private BatchWorker(String name, P processor, BlockingQueue<BatchedWork<? super
 		public CompletableFuture<?> work() {
 			workBuffer.clear();
 			workQueue.drainTo( workBuffer, maxTasksPerBatch );
+			// Now that there's room in the queue, move works from the overflow list to the queue.
+			if ( overflow.transferToQueue() ) {
+				// Make sure these works will be processed in the next run.
+				ensureScheduled.run();
+			}
 
 			if ( workBuffer.isEmpty() ) {
 				// Nothing to do
@@ -178,7 +332,13 @@ public CompletableFuture<?> work() {
 			}
 
 			// Nothing more to do, end the batch and terminate
+			long endBatchStart = linger.isEnabled() ? System.nanoTime() : 0L;
 			CompletableFuture<?> future = processor.endBatch();
+			if ( linger.isEnabled() ) {
+				future.whenComplete( (result, throwable) -> {
+					linger.onBatchEnded( System.nanoTime() - endBatchStart );
+				} );
+			}
 			if ( traceEnabled ) {
 				future.whenComplete( (result, throwable) -> {
 					log.tracef( "Processed %d works in executor '%s'", workCount, name );
@@ -194,17 +354,263 @@ public void complete() {
 		}
 	}
 
+	/**
+	 * Works that could not be put in the queue because it was full,
+	 * either waiting for room in the queue ({@link IndexingQueueOverflowPolicyName#BLOCK})
+	 * or spilled to a bounded list ({@link IndexingQueueOverflowPolicyName#SPILL}).
+	 * <p>
+	 * Both lists are bounded by {@code spillCapacity},
+	 * except for works waiting on behalf of a blocked thread:
+	 * those are already bounded by the number of submitting threads.
+	 * <p>
+	 * Works are moved from this list to the queue by the processing thread, in order,
+	 * and new works are only put in the queue directly when this list is empty,
+	 * so as to preserve the order of works.
+	 */
+	private static final class Overflow<P extends BatchedWorkProcessor> {
+		private static final CompletableFuture<?> ACCEPTED = CompletableFuture.completedFuture( null );
+
+		private final String name;
+		private final BlockingQueue<BatchedWork<? super P>> workQueue;
+		private final IndexingQueueOverflowPolicyName policy;
+		private final int spillCapacity;
+
+		// Guarded by "this"
+		private final Deque<PendingWork<P>> pendingWorks = new ArrayDeque<>();
+		private volatile int size = 0;
+
+		private Overflow(String name, BlockingQueue<BatchedWork<? super P>> workQueue,
+				IndexingQueueOverflowPolicyName policy, int spillCapacity) {
+			this.name = name;
+			this.workQueue = workQueue;
+			this.policy = policy;
+			this.spillCapacity = spillCapacity;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		synchronized CompletableFuture<?> offer(BatchedWork<? super P> work, boolean async) {
+			if ( pendingWorks.isEmpty() && workQueue.offer( work ) ) {
+				// The processing thread made room in the queue in the meantime.
+				return ACCEPTED;
+			}
+			switch ( policy ) {
+				case BLOCK:
+					if ( async && pendingWorks.size() >= spillCapacity ) {
+						// Nothing holds back asynchronous submitters: without a limit,
+						// the list of works waiting for room in the queue would grow indefinitely.
+						CompletableFuture<?> rejected = new CompletableFuture<>();
+						rejected.completeExceptionally( log.submittedWorkToFullQueueWithTooManyWaitingWorks(
+								name, pendingWorks.size() ) );
+						return rejected;
+					}
+					PendingWork<P> pending = new PendingWork<>( work, new CompletableFuture<>() );
+					add( pending );
+					return pending.accepted;
+				case SPILL:
+					if ( pendingWorks.size() < spillCapacity ) {
+						add( new PendingWork<>( work, null ) );
+						return ACCEPTED;
+					}
+					break;
+				case FAIL:
+				default:
+					break;
+			}
+			CompletableFuture<?> rejected = new CompletableFuture<>();
+			rejected.completeExceptionally( log.submittedWorkToFullQueue( name ) );
+			return rejected;
+		}
+
+		/**
+		 * @return {@code true} if at least one work was moved to the queue.
+		 */
+		synchronized boolean transferToQueue() {
+			boolean transferred = false;
+			PendingWork<P> pending = pendingWorks.peekFirst();
+			// Offer *before* removing from the list,
+			// so that the work is always visible in either the list or the queue (see Overflow#isEmpty()).
+			while ( pending != null && workQueue.offer( pending.work ) ) {
+				pendingWorks.removeFirst();
+				size = pendingWorks.size();
+				transferred = true;
+				if ( pending.accepted != null ) {
+					pending.accepted.complete( null );
+				}
+				pending = pendingWorks.peekFirst();
+			}
+			return transferred;
+		}
+
+		/**
+		 * @return {@code true} if the work was removed from the list, {@code false} if it was already accepted.
+		 */
+		synchronized boolean cancel(BatchedWork<? super P> work) {
+			for ( PendingWork<P> pending : pendingWorks ) {
+				if ( pending.work == work ) {
+					pendingWorks.remove( pending );
+					size = pendingWorks.size();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		synchronized void clear() {
+			for ( PendingWork<P> pending : pendingWorks ) {
+				if ( pending.accepted != null ) {
+					pending.accepted.completeExceptionally( log.submittedWorkToStoppedOrchestrator( name ) );
+				}
+			}
+			pendingWorks.clear();
+			size = 0;
+		}
+
+		private void add(PendingWork<P> pending) {
+			pendingWorks.addLast( pending );
+			size = pendingWorks.size();
+		}
+	}
+
+	private static final class PendingWork<P extends BatchedWorkProcessor> {
+		private final BatchedWork<? super P> work;
+		// Null for works that were accepted immediately (spilled)
+		private final CompletableFuture<Void> accepted;
+
+		private PendingWork(BatchedWork<? super P> work, CompletableFuture<Void> accepted) {
+			this.work = work;
+			this.accepted = accepted;
+		}
+	}
+
+	/**
+	 * Decides how long to wait for more works before processing a batch.
+	 * <p>
+	 * Ending a batch has a fixed cost (a commit for Lucene, a bulk request round-trip for Elasticsearch),
+	 * so when ending a batch is costly, it's worth waiting a little for more works to pile up,
+	 * in order to process more works per batch.
+	 * This waits for at most as long as it takes on average to end a batch, bounded by a configured maximum:
+	 * latency of individual works increases by at most a factor two,
+	 * while throughput increases when works arrive faster than batches are ended.
+	 */
+	private static final class AdaptiveLinger {
+		// Weight of the latest sample in the moving average, as a power of two: 1/8.
+		private static final int MOVING_AVERAGE_SHIFT = 3;
+
+		private final long maxLingerNanos;
+		private final int lingerBatchSize;
+
+		// Written from the processing thread only.
+		private volatile long averageEndBatchNanos = 0L;
+
+		private AdaptiveLinger(int maxLingerMillis, int lingerBatchSize) {
+			this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos( Math.max( 0, maxLingerMillis ) );
+			this.lingerBatchSize = lingerBatchSize;
+		}
+
+		boolean isEnabled() {
+			return maxLingerNanos > 0L;
+		}
+
+		void onBatchEnded(long durationNanos) {
+			long average = averageEndBatchNanos;
+			if ( average == 0L ) {
+				averageEndBatchNanos = Math.max( 1L, durationNanos );
+			}
+			else {
+				averageEndBatchNanos = average + ( ( durationNanos - average ) >> MOVING_AVERAGE_SHIFT );
+			}
+		}
+
+		boolean isBatchFull(int queuedWorkCount) {
+			return queuedWorkCount >= lingerBatchSize;
+		}
+
+		/**
+		 * @param queuedWorkCount The number of works currently in the queue.
+		 * @return How long to wait before processing the next batch, in nanoseconds.
+		 */
+		long lingerNanos(int queuedWorkCount) {
+			if ( !isEnabled() || isBatchFull( queuedWorkCount ) ) {
+				return 0L;
+			}
+			return Math.min( maxLingerNanos, averageEndBatchNanos );
+		}
+	}
+
 	private static final class BatchScheduler implements SingletonTask.Scheduler {
-		private final ExecutorService delegate;
+		private final ScheduledExecutorService delegate;
+		private final BlockingQueue<?> workQueue;
+		private final AdaptiveLinger linger;
+
+		// The run currently waiting for more works, if any.
+		private volatile LingeringRun lingeringRun;
 
-		public BatchScheduler(ExecutorService delegate) {
+		public BatchScheduler(ScheduledExecutorService delegate, BlockingQueue<?> workQueue, AdaptiveLinger linger) {
 			this.delegate = delegate;
+			this.workQueue = workQueue;
+			this.linger = linger;
 		}
 
 		@Override
 		public Future<?> schedule(Runnable runnable) {
-			// Schedule the task for execution as soon as possible.
-			return delegate.submit( runnable );
+			long lingerNanos = linger.lingerNanos( workQueue.size() );
+			if ( lingerNanos <= 0L ) {
+				// Schedule the task for execution as soon as possible.
+				return delegate.submit( runnable );
+			}
+			// Schedule the task for execution later, to give other works a chance to be added to the batch.
+			LingeringRun run = new LingeringRun( runnable );
+			lingeringRun = run;
+			run.scheduledFuture = delegate.schedule( run, lingerNanos, TimeUnit.NANOSECONDS );
+			return run.scheduledFuture;
+		}
+
+		void expediteIfNecessary() {
+			LingeringRun run = lingeringRun;
+			if ( run == null || !linger.isBatchFull( workQueue.size() ) || !run.expedited.compareAndSet( false, true ) ) {
+				return;
+			}
+			// The run will only execute once, be it through the scheduled future or through this submission.
+			run.expeditedFuture = delegate.submit( run );
+			Future<?> scheduledFuture = run.scheduledFuture;
+			if ( scheduledFuture != null ) {
+				scheduledFuture.cancel( false );
+			}
+		}
+
+		void stop() {
+			LingeringRun run = lingeringRun;
+			lingeringRun = null;
+			if ( run != null && run.expeditedFuture != null ) {
+				run.expeditedFuture.cancel( false );
+			}
+		}
+
+		private final class LingeringRun implements Runnable {
+			private final Runnable delegate;
+			private final AtomicBoolean started = new AtomicBoolean( false );
+			private final AtomicBoolean expedited = new AtomicBoolean( false );
+			private volatile Future<?> scheduledFuture;
+			private volatile Future<?> expeditedFuture;
+
+			private LingeringRun(Runnable delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public void run() {
+				if ( !started.compareAndSet( false, true ) ) {
+					// Already executed through another future.
+					return;
+				}
+				if ( lingeringRun == this ) {
+					lingeringRun = null;
+				}
+				delegate.run();
+			}
 		}
 	}
 
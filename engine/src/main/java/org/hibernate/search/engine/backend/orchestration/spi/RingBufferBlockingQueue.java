@@ -0,0 +1,333 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.engine.backend.orchestration.spi;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded queue backed by a ring buffer, where {@link #offer(Object) offering} and {@link #poll() polling} elements
+ * never acquires a lock.
+ * <p>
+ * This is an implementation of Dmitry Vyukov's bounded MPMC queue:
+ * each slot of the ring buffer holds a sequence number that tells producers whether the slot is free
+ * and consumers whether the slot holds an element,
+ * so that producers (resp. consumers) only need to compete on a single compare-and-set
+ * to claim the next slot.
+ * Elements are consumed in the order producers claimed slots.
+ * <p>
+ * Contrary to the original algorithm, sequence numbers are doubled,
+ * so that "published" sequence numbers (odd) never collide with "free" sequence numbers (even),
+ * even when the capacity is 1.
+ * <p>
+ * This queue is optimized for the use case of {@link BatchingExecutor}:
+ * many producers, a single consumer that {@link #drainTo(Collection, int) drains} elements in batches,
+ * and occasional polling from other threads (e.g. to {@link #clear()} the queue on shutdown).
+ * Blocking operations ({@link #put(Object)}, {@link #take()}) are only expected when the queue is full or empty,
+ * and fall back to a lock and condition in that case.
+ *
+ * @param <E> The type of elements.
+ */
+final class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	private static final long EMPTY_QUEUE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+	private final int capacity;
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong enqueuePosition = new AtomicLong();
+	private final AtomicLong dequeuePosition = new AtomicLong();
+
+	// Only used when producers need to wait for the queue to no longer be full.
+	private final AtomicInteger waitingProducers = new AtomicInteger();
+	private final ReentrantLock notFullLock = new ReentrantLock();
+	private final Condition notFull = notFullLock.newCondition();
+
+	RingBufferBlockingQueue(int capacity) {
+		if ( capacity <= 0 ) {
+			throw new IllegalArgumentException( "Capacity must be strictly positive; got " + capacity );
+		}
+		this.capacity = capacity;
+		this.elements = new AtomicReferenceArray<>( capacity );
+		this.sequences = new AtomicLongArray( capacity );
+		for ( int i = 0; i < capacity; i++ ) {
+			sequences.set( i, freeSequence( i ) );
+		}
+	}
+
+	@Override
+	public boolean offer(E element) {
+		Objects.requireNonNull( element );
+		long position = enqueuePosition.get();
+		int index;
+		while ( true ) {
+			index = index( position );
+			long difference = sequences.get( index ) - freeSequence( position );
+			if ( difference == 0 ) {
+				// The slot is free: try to claim it.
+				if ( enqueuePosition.compareAndSet( position, position + 1 ) ) {
+					break;
+				}
+				position = enqueuePosition.get();
+			}
+			else if ( difference < 0 ) {
+				// The slot still holds an element from the previous lap: the queue is full.
+				return false;
+			}
+			else {
+				// Another producer claimed the slot in the meantime.
+				position = enqueuePosition.get();
+			}
+		}
+		elements.set( index, element );
+		// Publish the element to consumers.
+		sequences.set( index, publishedSequence( position ) );
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		long position = dequeuePosition.get();
+		int index;
+		while ( true ) {
+			index = index( position );
+			long difference = sequences.get( index ) - publishedSequence( position );
+			if ( difference == 0 ) {
+				// The slot holds an element: try to claim it.
+				if ( dequeuePosition.compareAndSet( position, position + 1 ) ) {
+					break;
+				}
+				position = dequeuePosition.get();
+			}
+			else if ( difference < 0 ) {
+				// The slot was not published yet: the queue is empty.
+				return null;
+			}
+			else {
+				// Another consumer claimed the slot in the meantime.
+				position = dequeuePosition.get();
+			}
+		}
+		E element = elements.get( index );
+		elements.set( index, null );
+		// Free the slot for the next lap of producers.
+		sequences.set( index, freeSequence( position + capacity ) );
+		signalNotFull();
+		return element;
+	}
+
+	@Override
+	public E peek() {
+		while ( true ) {
+			long position = dequeuePosition.get();
+			int index = index( position );
+			if ( sequences.get( index ) - publishedSequence( position ) < 0 ) {
+				return null;
+			}
+			E element = elements.get( index );
+			if ( element != null && dequeuePosition.get() == position ) {
+				return element;
+			}
+			// The element was consumed in the meantime: try again.
+		}
+	}
+
+	@Override
+	public int size() {
+		// Read the dequeue position first, so that the result is never negative.
+		long dequeued = dequeuePosition.get();
+		long enqueued = enqueuePosition.get();
+		return (int) Math.max( 0L, Math.min( capacity, enqueued - dequeued ) );
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return peek() == null;
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return capacity - size();
+	}
+
+	@Override
+	public void put(E element) throws InterruptedException {
+		if ( offer( element ) ) {
+			return;
+		}
+		notFullLock.lockInterruptibly();
+		waitingProducers.incrementAndGet();
+		try {
+			// Consumers signal the condition *after* freeing a slot and *while holding the lock*,
+			// so checking for a free slot while holding the lock guarantees we won't miss a signal.
+			while ( !offer( element ) ) {
+				notFull.await();
+			}
+		}
+		finally {
+			waitingProducers.decrementAndGet();
+			notFullLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		if ( offer( element ) ) {
+			return true;
+		}
+		long remainingNanos = unit.toNanos( timeout );
+		notFullLock.lockInterruptibly();
+		waitingProducers.incrementAndGet();
+		try {
+			while ( !offer( element ) ) {
+				if ( remainingNanos <= 0L ) {
+					return false;
+				}
+				remainingNanos = notFull.awaitNanos( remainingNanos );
+			}
+			return true;
+		}
+		finally {
+			waitingProducers.decrementAndGet();
+			notFullLock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E element = poll();
+		while ( element == null ) {
+			// Consumers are not expected to wait for elements (BatchingExecutor never does),
+			// so we don't bother with signaling.
+			LockSupport.parkNanos( this, EMPTY_QUEUE_PARK_NANOS );
+			if ( Thread.interrupted() ) {
+				throw new InterruptedException();
+			}
+			element = poll();
+		}
+		return element;
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos( timeout );
+		E element = poll();
+		while ( element == null ) {
+			long remainingNanos = deadline - System.nanoTime();
+			if ( remainingNanos <= 0L ) {
+				return null;
+			}
+			LockSupport.parkNanos( this, Math.min( remainingNanos, EMPTY_QUEUE_PARK_NANOS ) );
+			if ( Thread.interrupted() ) {
+				throw new InterruptedException();
+			}
+			element = poll();
+		}
+		return element;
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection) {
+		return drainTo( collection, Integer.MAX_VALUE );
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		Objects.requireNonNull( collection );
+		if ( collection == this ) {
+			throw new IllegalArgumentException();
+		}
+		int drained = 0;
+		E element;
+		while ( drained < maxElements && ( element = poll() ) != null ) {
+			collection.add( element );
+			++drained;
+		}
+		return drained;
+	}
+
+	/**
+	 * @return A weakly consistent iterator over the elements of this queue.
+	 * Elements consumed concurrently may or may not be returned,
+	 * and {@link Iterator#remove()} is not supported.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new WeaklyConsistentIterator();
+	}
+
+	private int index(long position) {
+		return (int) ( position % capacity );
+	}
+
+	private static long freeSequence(long position) {
+		return 2 * position;
+	}
+
+	private static long publishedSequence(long position) {
+		return 2 * position + 1;
+	}
+
+	private void signalNotFull() {
+		if ( waitingProducers.get() == 0 ) {
+			// Fast path: no one to signal.
+			return;
+		}
+		notFullLock.lock();
+		try {
+			notFull.signalAll();
+		}
+		finally {
+			notFullLock.unlock();
+		}
+	}
+
+	private class WeaklyConsistentIterator implements Iterator<E> {
+		private long position = dequeuePosition.get();
+		private E next = advance();
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public E next() {
+			E result = next;
+			if ( result == null ) {
+				throw new NoSuchElementException();
+			}
+			next = advance();
+			return result;
+		}
+
+		private E advance() {
+			long end = enqueuePosition.get();
+			position = Math.max( position, dequeuePosition.get() );
+			while ( position < end ) {
+				E element = elements.get( index( position ) );
+				++position;
+				if ( element != null ) {
+					return element;
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -58,8 +58,12 @@ public String toString() {
 	 */
 	public void ensureScheduled() {
 		// Make sure the task will be re-scheduled if it is currently running.
-		needsRun = true;
-		if ( !status.compareAndSet( Status.IDLE, Status.SCHEDULED ) ) {
+		// Avoid the write if possible: this method is called very often from many threads,
+		// and writes to a shared variable lead to contention.
+		if ( !needsRun ) {
+			needsRun = true;
+		}
+		if ( status.get() != Status.IDLE || !status.compareAndSet( Status.IDLE, Status.SCHEDULED ) ) {
 			// Already scheduled.
 			// If the task hasn't started running yet, we're good.
 			// If the task is running, it will re-schedule itself automatically if
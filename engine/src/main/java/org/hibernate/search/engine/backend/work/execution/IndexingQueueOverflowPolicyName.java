@@ -0,0 +1,60 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.engine.backend.work.execution;
+
+import java.lang.invoke.MethodHandles;
+
+import org.hibernate.search.engine.cfg.spi.ParseUtils;
+import org.hibernate.search.engine.logging.impl.Log;
+import org.hibernate.search.util.common.logging.impl.LoggerFactory;
+
+/**
+ * Defines what happens when an indexing operation is submitted to an indexing queue that is full.
+ */
+public enum IndexingQueueOverflowPolicyName {
+
+	/**
+	 * Wait until the queue has room for the indexing operation.
+	 * <p>
+	 * Threads submitting indexing operations will block until the operation is accepted.
+	 */
+	BLOCK( "block" ),
+	/**
+	 * Reject the indexing operation immediately with an exception.
+	 */
+	FAIL( "fail" ),
+	/**
+	 * Put the indexing operation in a separate overflow list, as large as the queue itself,
+	 * and only reject the indexing operation if that overflow list is full too.
+	 */
+	SPILL( "spill" );
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	// This method conforms to the MicroProfile Config specification. Do not change its signature.
+	public static IndexingQueueOverflowPolicyName of(String value) {
+		return ParseUtils.parseDiscreteValues(
+				IndexingQueueOverflowPolicyName.values(),
+				IndexingQueueOverflowPolicyName::externalRepresentation,
+				log::invalidIndexingQueueOverflowPolicyName,
+				value
+		);
+	}
+
+	private final String externalRepresentation;
+
+	IndexingQueueOverflowPolicyName(String externalRepresentation) {
+		this.externalRepresentation = externalRepresentation;
+	}
+
+	/**
+	 * @return The expected string representation in configuration properties.
+	 */
+	public String externalRepresentation() {
+		return externalRepresentation;
+	}
+}
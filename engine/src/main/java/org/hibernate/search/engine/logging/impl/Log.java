@@ -395,4 +395,22 @@ BeanNotFoundException unableToResolveToClassName(@FormatWith(ClassFormatter.clas
 			+ " Otherwise, use a valid bean retrieval prefix among the following: %3$s.")
 	BeanNotFoundException invalidBeanRetrieval(String beanReference, String invalidPrefix,
 			List<String> validPrefixes, @Cause Exception e);
+
+	@Message(id = ID_OFFSET + 93,
+			value = "Invalid indexing queue overflow policy name: '%1$s'. Valid names are: %2$s.")
+	SearchException invalidIndexingQueueOverflowPolicyName(String invalidRepresentation,
+			List<String> validRepresentations);
+
+	@Message(id = ID_OFFSET + 94,
+			value = "Unable to submit work to '%1$s': the queue is full."
+					+ " The work has been discarded."
+					+ " Consider increasing the queue size, or changing the queue overflow policy.")
+	SearchException submittedWorkToFullQueue(String executorName);
+
+	@Message(id = ID_OFFSET + 95,
+			value = "Unable to submit work to '%1$s': the queue is full,"
+					+ " and %2$s asynchronously submitted works are already waiting for room in the queue."
+					+ " The work has been discarded."
+					+ " Consider increasing the queue size, or changing the queue overflow policy.")
+	SearchException submittedWorkToFullQueueWithTooManyWaitingWorks(String executorName, int waitingWorkCount);
 }
@@ -7,6 +7,7 @@
 package org.hibernate.search.engine.backend.orchestration.spi;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.hibernate.search.util.impl.test.FutureAssert.assertThatFuture;
 import static org.mockito.Mockito.doThrow;
@@ -19,22 +20,27 @@
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
+import org.hibernate.search.engine.backend.work.execution.IndexingQueueOverflowPolicyName;
 import org.hibernate.search.engine.environment.bean.BeanHolder;
 import org.hibernate.search.engine.environment.thread.impl.EmbeddedThreadProvider;
 import org.hibernate.search.engine.environment.thread.impl.ThreadPoolProviderImpl;
 import org.hibernate.search.engine.reporting.FailureContext;
 import org.hibernate.search.engine.reporting.FailureHandler;
+import org.hibernate.search.util.common.SearchException;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
@@ -43,11 +49,20 @@
 import org.mockito.junit.MockitoRule;
 import org.mockito.quality.Strictness;
 
+@RunWith(Parameterized.class)
 @SuppressWarnings({"unchecked", "rawtypes"}) // Raw types are the only way to mock parameterized types
 public class BatchingExecutorTest {
 
 	private static final String NAME = "executor-name";
 
+	@Parameterized.Parameters(name = "lockFree = {0}")
+	public static List<Object[]> params() {
+		return Arrays.asList(
+				new Object[] { false },
+				new Object[] { true }
+		);
+	}
+
 	@Rule
 	public final MockitoRule mockito = MockitoJUnit.rule().strictness( Strictness.STRICT_STUBS );
 
@@ -67,6 +82,12 @@ public class BatchingExecutorTest {
 	private ScheduledExecutorService executorService;
 	private BatchingExecutor<StubWorkProcessor> executor;
 
+	private final boolean lockFree;
+
+	public BatchingExecutorTest(boolean lockFree) {
+		this.lockFree = lockFree;
+	}
+
 	@Before
 	public void setup() {
 		mocks.add( processorMock );
@@ -315,6 +336,234 @@ public void endBatchFailure() throws InterruptedException {
 		checkPostExecution();
 	}
 
+	@Test
+	public void linger_lingerBatchSizeReached() throws InterruptedException {
+		createAndStartExecutor( 10, true, 60_000, 3 );
+
+		// Make the executor think that ending a batch is costly, so that it waits for more works.
+		primeEndBatchDuration( 1_000 );
+
+		StubWork work1Mock = workMock( 1 );
+		StubWork work2Mock = workMock( 2 );
+		StubWork work3Mock = workMock( 3 );
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		executor.submit( work1Mock );
+		executor.submit( work2Mock );
+		// The executor should wait for more works
+		verifyNoInteractions( mocks.toArray() );
+
+		// Reaching the linger batch size should trigger processing immediately, in a single batch
+		executor.submit( work3Mock );
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( work2Mock ).submitTo( processorMock );
+			inOrder.verify( work3Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+	}
+
+	@Test
+	public void linger_maxLingerReached() throws InterruptedException {
+		createAndStartExecutor( 10, true, 200, 3 );
+
+		// Make the executor think that ending a batch is very costly, more than the max linger.
+		primeEndBatchDuration( 1_000 );
+
+		StubWork work1Mock = workMock( 1 );
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		executor.submit( work1Mock );
+		// The executor should wait for more works
+		verifyNoInteractions( mocks.toArray() );
+
+		// ... but not more than the max linger
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+	}
+
+	@Test
+	public void overflowPolicy_fail() throws InterruptedException {
+		createAndStartExecutor( 2, true, IndexingQueueOverflowPolicyName.FAIL );
+
+		Runnable unblockExecutor = blockExecutor();
+
+		// Fill the queue
+		StubWork work1Mock = workMock( 1 );
+		StubWork work2Mock = workMock( 2 );
+		executor.submit( work1Mock );
+		executor.submit( work2Mock );
+
+		// The queue is full: works should be rejected immediately
+		StubWork work3Mock = workMock( 3 );
+		assertThatFuture( executor.submitAsync( work3Mock ) ).isFailed( throwable -> assertThat( throwable )
+				.isInstanceOf( SearchException.class )
+				.hasMessageContainingAll( "Unable to submit work to '" + NAME + "'", "the queue is full" ) );
+		assertThatThrownBy( () -> executor.submit( work3Mock ) )
+				.isInstanceOf( SearchException.class )
+				.hasMessageContainingAll( "Unable to submit work to '" + NAME + "'", "the queue is full" );
+
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		unblockExecutor.run();
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( work2Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+
+		checkPostExecution();
+	}
+
+	@Test
+	public void overflowPolicy_spill() throws InterruptedException {
+		createAndStartExecutor( 2, true, IndexingQueueOverflowPolicyName.SPILL );
+
+		Runnable unblockExecutor = blockExecutor();
+
+		// Fill the queue
+		StubWork work1Mock = workMock( 1 );
+		StubWork work2Mock = workMock( 2 );
+		executor.submit( work1Mock );
+		executor.submit( work2Mock );
+
+		// The queue is full: works should be accepted in the overflow list
+		StubWork work3Mock = workMock( 3 );
+		StubWork work4Mock = workMock( 4 );
+		assertThatFuture( executor.submitAsync( work3Mock ) ).isSuccessful();
+		executor.submit( work4Mock );
+
+		// The overflow list is full too: works should be rejected
+		StubWork work5Mock = workMock( 5 );
+		assertThatFuture( executor.submitAsync( work5Mock ) ).isFailed( throwable -> assertThat( throwable )
+				.isInstanceOf( SearchException.class )
+				.hasMessageContainingAll( "Unable to submit work to '" + NAME + "'", "the queue is full" ) );
+
+		// Works from the overflow list should be processed after works from the queue, in order
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		unblockExecutor.run();
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( work2Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work3Mock ).submitTo( processorMock );
+			inOrder.verify( work4Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+
+		checkPostExecution();
+	}
+
+	@Test
+	public void overflowPolicy_block_async() throws InterruptedException {
+		createAndStartExecutor( 2, true, IndexingQueueOverflowPolicyName.BLOCK );
+
+		Runnable unblockExecutor = blockExecutor();
+
+		// Fill the queue
+		StubWork work1Mock = workMock( 1 );
+		StubWork work2Mock = workMock( 2 );
+		executor.submit( work1Mock );
+		executor.submit( work2Mock );
+
+		// The queue is full: asynchronous submission should not block, but should not complete either
+		StubWork work3Mock = workMock( 3 );
+		CompletableFuture<?> work3Accepted = executor.submitAsync( work3Mock );
+		assertThatFuture( work3Accepted ).isPending();
+
+		// Once there is room in the queue, the work should be accepted and processed
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		unblockExecutor.run();
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( work2Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work3Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+		assertThatFuture( work3Accepted ).isSuccessful();
+
+		checkPostExecution();
+	}
+
+	@Test
+	public void overflowPolicy_block_async_manyWorks() throws InterruptedException {
+		createAndStartExecutor( 2, true, IndexingQueueOverflowPolicyName.BLOCK );
+
+		Runnable unblockExecutor = blockExecutor();
+
+		// Fill the queue
+		StubWork work1Mock = workMock( 1 );
+		StubWork work2Mock = workMock( 2 );
+		executor.submit( work1Mock );
+		executor.submit( work2Mock );
+
+		// The queue is full: asynchronous submissions should wait for room in the queue...
+		StubWork work3Mock = workMock( 3 );
+		StubWork work4Mock = workMock( 4 );
+		CompletableFuture<?> work3Accepted = executor.submitAsync( work3Mock );
+		CompletableFuture<?> work4Accepted = executor.submitAsync( work4Mock );
+		assertThatFuture( work3Accepted ).isPending();
+		assertThatFuture( work4Accepted ).isPending();
+
+		// ... but only up to the size of the queue: past that, they should be rejected
+		for ( int i = 5; i < 100; i++ ) {
+			StubWork workMock = workMock( i );
+			assertThatFuture( executor.submitAsync( workMock ) ).isFailed( throwable -> assertThat( throwable )
+					.isInstanceOf( SearchException.class )
+					.hasMessageContainingAll( "Unable to submit work to '" + NAME + "'", "the queue is full",
+							"2 asynchronously submitted works are already waiting for room in the queue" ) );
+		}
+
+		// Waiting works should be processed after works from the queue, in order
+		CompletableFuture<Object> batchFuture = CompletableFuture.completedFuture( null );
+		when( processorMock.endBatch() ).thenReturn( (CompletableFuture) batchFuture );
+		unblockExecutor.run();
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work1Mock ).submitTo( processorMock );
+			inOrder.verify( work2Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).beginBatch();
+			inOrder.verify( work3Mock ).submitTo( processorMock );
+			inOrder.verify( work4Mock ).submitTo( processorMock );
+			inOrder.verify( processorMock ).endBatch();
+			inOrder.verify( processorMock ).complete();
+		} );
+		assertThatFuture( work3Accepted ).isSuccessful();
+		assertThatFuture( work4Accepted ).isSuccessful();
+
+		checkPostExecution();
+	}
+
+	/*
+	 * Execute a batch that takes the given time to end.
+	 */
+	private void primeEndBatchDuration(long durationMillis) throws InterruptedException {
+		Runnable unblockExecutor = blockExecutor();
+		Thread.sleep( durationMillis );
+		unblockExecutor.run();
+		verifyAsynchronouslyAndReset( inOrder -> {
+			inOrder.verify( processorMock ).complete();
+		} );
+	}
+
 	private void verifyAsynchronouslyAndReset(Consumer<InOrder> verify) {
 		await().untilAsserted( () -> {
 			InOrder inOrder = inOrder( mocks.toArray() );
@@ -345,8 +594,24 @@ private Runnable blockExecutor()
 	}
 
 	private void createAndStartExecutor(int maxTasksPerBatch, boolean fair) {
+		createAndStartExecutor( maxTasksPerBatch, fair, 0, maxTasksPerBatch );
+	}
+
+	private void createAndStartExecutor(int maxTasksPerBatch, boolean fair,
+			IndexingQueueOverflowPolicyName overflowPolicy) {
+		createAndStartExecutor( maxTasksPerBatch, fair, 0, maxTasksPerBatch, overflowPolicy );
+	}
+
+	private void createAndStartExecutor(int maxTasksPerBatch, boolean fair, int maxLinger, int lingerBatchSize) {
+		createAndStartExecutor( maxTasksPerBatch, fair, maxLinger, lingerBatchSize,
+				IndexingQueueOverflowPolicyName.BLOCK );
+	}
+
+	private void createAndStartExecutor(int maxTasksPerBatch, boolean fair, int maxLinger, int lingerBatchSize,
+			IndexingQueueOverflowPolicyName overflowPolicy) {
 		this.executor = new BatchingExecutor<>(
-				NAME, processorMock, maxTasksPerBatch, fair, failureHandlerMock
+				NAME, processorMock, maxTasksPerBatch, fair, lockFree, maxLinger, lingerBatchSize, overflowPolicy,
+				failureHandlerMock
 		);
 
 		// Having multiple threads should not matter:
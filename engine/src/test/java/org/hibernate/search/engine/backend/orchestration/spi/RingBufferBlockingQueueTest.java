@@ -0,0 +1,139 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.engine.backend.orchestration.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.test.FutureAssert.assertThatFuture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RingBufferBlockingQueueTest {
+
+	// To execute code asynchronously. Just use more threads than we'll ever need, we don't care about performance.
+	private final ForkJoinPool asyncExecutor = new ForkJoinPool( 12 );
+
+	@After
+	public void cleanup() {
+		asyncExecutor.shutdownNow();
+	}
+
+	@Test
+	public void offerPoll_fifo() {
+		RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>( 3 );
+		assertThat( queue ).isEmpty();
+		assertThat( queue.poll() ).isNull();
+
+		// Go around the ring buffer a few times
+		for ( int lap = 0; lap < 3; lap++ ) {
+			assertThat( queue.offer( 1 ) ).isTrue();
+			assertThat( queue.offer( 2 ) ).isTrue();
+			assertThat( queue.offer( 3 ) ).isTrue();
+			// Full
+			assertThat( queue.offer( 4 ) ).isFalse();
+			assertThat( queue ).hasSize( 3 );
+			assertThat( queue.remainingCapacity() ).isEqualTo( 0 );
+			assertThat( queue.peek() ).isEqualTo( 1 );
+			assertThat( queue ).containsExactly( 1, 2, 3 );
+
+			assertThat( queue.poll() ).isEqualTo( 1 );
+			assertThat( queue.offer( 4 ) ).isTrue();
+			assertThat( queue.poll() ).isEqualTo( 2 );
+			assertThat( queue.poll() ).isEqualTo( 3 );
+			assertThat( queue.poll() ).isEqualTo( 4 );
+			assertThat( queue.poll() ).isNull();
+			assertThat( queue ).isEmpty();
+		}
+	}
+
+	@Test
+	public void drainTo() {
+		RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>( 5 );
+		for ( int i = 0; i < 5; i++ ) {
+			queue.offer( i );
+		}
+
+		List<Integer> drained = new ArrayList<>();
+		assertThat( queue.drainTo( drained, 3 ) ).isEqualTo( 3 );
+		assertThat( drained ).containsExactly( 0, 1, 2 );
+		assertThat( queue.drainTo( drained ) ).isEqualTo( 2 );
+		assertThat( drained ).containsExactly( 0, 1, 2, 3, 4 );
+		assertThat( queue ).isEmpty();
+	}
+
+	@Test
+	public void put_blocksUntilNotFull() throws InterruptedException {
+		RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>( 1 );
+		queue.put( 1 );
+
+		CompletableFuture<?> putFuture = CompletableFuture.runAsync( () -> {
+			try {
+				queue.put( 2 );
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException( e );
+			}
+		}, asyncExecutor );
+		Thread.sleep( 100 );
+		assertThatFuture( putFuture ).isPending();
+
+		assertThat( queue.poll() ).isEqualTo( 1 );
+		putFuture.join();
+		assertThat( queue.poll() ).isEqualTo( 2 );
+		assertThat( queue.offer( 3, 10, TimeUnit.MILLISECONDS ) ).isTrue();
+		assertThat( queue.offer( 4, 10, TimeUnit.MILLISECONDS ) ).isFalse();
+	}
+
+	@Test
+	public void concurrentProducers_perProducerOrderPreserved() throws InterruptedException {
+		int producerCount = 8;
+		int elementsPerProducer = 10_000;
+		RingBufferBlockingQueue<int[]> queue = new RingBufferBlockingQueue<>( 100 );
+
+		CompletableFuture<?>[] producers = new CompletableFuture[producerCount];
+		for ( int i = 0; i < producerCount; i++ ) {
+			int producerId = i;
+			producers[i] = CompletableFuture.runAsync( () -> {
+				try {
+					for ( int j = 0; j < elementsPerProducer; j++ ) {
+						queue.put( new int[] { producerId, j } );
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException( e );
+				}
+			}, asyncExecutor );
+		}
+
+		int[] lastSeen = new int[producerCount];
+		Arrays.fill( lastSeen, -1 );
+		List<int[]> buffer = new ArrayList<>();
+		int consumed = 0;
+		while ( consumed < producerCount * elementsPerProducer ) {
+			buffer.clear();
+			queue.drainTo( buffer, 10 );
+			for ( int[] element : buffer ) {
+				assertThat( element[1] ).isEqualTo( lastSeen[element[0]] + 1 );
+				lastSeen[element[0]] = element[1];
+			}
+			consumed += buffer.size();
+		}
+
+		CompletableFuture.allOf( producers ).join();
+		assertThat( queue ).isEmpty();
+		assertThat( lastSeen ).containsOnly( elementsPerProducer - 1 );
+	}
+}
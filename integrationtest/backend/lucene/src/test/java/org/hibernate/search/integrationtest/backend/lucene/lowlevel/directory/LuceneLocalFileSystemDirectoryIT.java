@@ -12,6 +12,8 @@
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
 import org.hibernate.search.backend.lucene.index.impl.LuceneIndexManagerImpl;
@@ -29,8 +31,10 @@
 import org.apache.logging.log4j.Level;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FileSwitchDirectory;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
 
 public class LuceneLocalFileSystemDirectoryIT extends AbstractBuiltInDirectoryIT {
 
@@ -123,6 +127,65 @@ public void filesystemAccessStrategy_invalid() {
 				);
 	}
 
+	@Test
+	public void filesystemAccessPreload_all() {
+		setup( c -> c.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_STRATEGY, "mmap" )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_PRELOAD, "*" ) );
+
+		checkIndexingAndQuerying();
+
+		assertThat( directories() )
+				.allSatisfy( directory -> assertThat( directory ).isInstanceOfSatisfying( MMapDirectory.class,
+						mmapDirectory -> assertThat( mmapDirectory.getPreload() ).isTrue() ) );
+	}
+
+	@Test
+	public void filesystemAccessPreload_extensions() {
+		setup( c -> c.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_STRATEGY, "mmap" )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_PRELOAD, "dvd,tim" ) );
+
+		checkIndexingAndQuerying();
+
+		assertThat( directories() )
+				.allSatisfy( directory -> assertThat( directory ).isInstanceOfSatisfying( FileSwitchDirectory.class,
+						switchDirectory -> {
+							assertThat( switchDirectory.getPrimaryDir() ).isInstanceOfSatisfying( MMapDirectory.class,
+									mmapDirectory -> assertThat( mmapDirectory.getPreload() ).isTrue() );
+							assertThat( switchDirectory.getSecondaryDir() ).isInstanceOfSatisfying( MMapDirectory.class,
+									mmapDirectory -> assertThat( mmapDirectory.getPreload() ).isFalse() );
+						} ) );
+	}
+
+	@Test
+	public void filesystemAccessPreload_noMemoryMapping() {
+		assertThatThrownBy( () -> setup( c -> c
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_STRATEGY, "nio" )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_FILESYSTEM_ACCESS_PRELOAD, "dvd" ) ) )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( index.name() )
+						.failure(
+								"Unable to preload index files with extensions [dvd]",
+								"does not use memory mapping"
+						)
+						.build()
+				);
+	}
+
+	@Test
+	public void nrtCaching() {
+		setup( c -> c.withBackendProperty( LuceneIndexSettings.DIRECTORY_NRT_CACHING_ENABLED, true )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_NRT_CACHING_MAX_MERGE_SIZE, 2 )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_NRT_CACHING_MAX_CACHED_SIZE, 10 ) );
+
+		checkIndexingAndQuerying();
+
+		assertThat( directories() )
+				.allSatisfy( directory -> assertThat( directory ).isInstanceOfSatisfying( NRTCachingDirectory.class,
+						nrtCachingDirectory -> assertThat( nrtCachingDirectory.getDelegate() )
+								.isInstanceOf( FSDirectory.class ) ) );
+	}
+
 	@Override
 	protected Object getDirectoryType() {
 		return "local-filesystem";
@@ -157,14 +220,20 @@ private void testFileSystemAccessStrategy(String strategyName,
 
 		checkIndexingAndQuerying();
 
-		LuceneIndexManagerImpl luceneIndexManager = index.unwrapForTests( LuceneIndexManagerImpl.class );
-		assertThat( luceneIndexManager.getShardsForTests() )
-				.extracting( Shard::indexAccessorForTests )
-				.extracting( IndexAccessorImpl::getDirectoryForTests )
-				.isNotEmpty()
+		assertThat( directories() )
 				.allSatisfy( directory -> assertThat( directory ).isInstanceOf( expectedDirectoryClass ) );
 	}
 
+	private List<Directory> directories() {
+		LuceneIndexManagerImpl luceneIndexManager = index.unwrapForTests( LuceneIndexManagerImpl.class );
+		List<Directory> directories = luceneIndexManager.getShardsForTests().stream()
+				.map( Shard::indexAccessorForTests )
+				.map( IndexAccessorImpl::getDirectoryForTests )
+				.collect( Collectors.toList() );
+		assertThat( directories ).isNotEmpty();
+		return directories;
+	}
+
 	private static long directorySize(Path directory) throws IOException {
 		return Files.walk( directory )
 				.filter( p -> p.toFile().isFile() )
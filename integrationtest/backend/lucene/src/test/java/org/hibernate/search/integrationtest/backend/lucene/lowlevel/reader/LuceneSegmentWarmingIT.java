@@ -0,0 +1,150 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.lowlevel.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.lowlevel.reader.spi.SegmentWarmer;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.environment.bean.BeanReference;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.test.rule.ExpectedLog4jLog;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.logging.log4j.Level;
+import org.apache.lucene.index.LeafReader;
+
+/**
+ * Test that new segments are warmed up before they become visible to search queries,
+ * see {@link LuceneIndexSettings#IO_WARMING_FIELDS} and {@link LuceneIndexSettings#IO_WARMING_SEGMENT_WARMER}.
+ */
+public class LuceneSegmentWarmingIT {
+
+	private static final int DOCUMENT_COUNT_PER_BATCH = 50;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	@Rule
+	public final ExpectedLog4jLog logged = ExpectedLog4jLog.create();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	@Test
+	public void segmentWarmer() {
+		RecordingSegmentWarmer warmer = new RecordingSegmentWarmer();
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.IO_WARMING_SEGMENT_WARMER,
+						Collections.singletonList( BeanReference.ofInstance( warmer ) ) )
+				.setup();
+
+		indexBatch( 0 );
+		assertTotalHitCount( DOCUMENT_COUNT_PER_BATCH );
+		// The first reader contains a single, new segment.
+		assertThat( warmer.warmedSegmentSizes ).containsExactly( DOCUMENT_COUNT_PER_BATCH );
+
+		indexBatch( 1 );
+		assertTotalHitCount( 2 * DOCUMENT_COUNT_PER_BATCH );
+		// The refreshed reader contains a new segment, and an old segment that must not be warmed up again.
+		assertThat( warmer.warmedSegmentSizes )
+				.containsExactly( DOCUMENT_COUNT_PER_BATCH, DOCUMENT_COUNT_PER_BATCH );
+
+		index.createWorkspace().mergeSegments().join();
+		// The merged segment is warmed up while merging.
+		assertThat( warmer.warmedSegmentSizes )
+				.containsExactly( DOCUMENT_COUNT_PER_BATCH, DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH );
+
+		assertTotalHitCount( 2 * DOCUMENT_COUNT_PER_BATCH );
+		// The refreshed reader contains the merged segment, which must not be warmed up again.
+		assertThat( warmer.warmedSegmentSizes )
+				.containsExactly( DOCUMENT_COUNT_PER_BATCH, DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH );
+	}
+
+	@Test
+	public void segmentWarmer_failure() {
+		SegmentWarmer warmer = segmentReader -> {
+			throw new IllegalStateException( "Simulated warming failure" );
+		};
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.IO_WARMING_SEGMENT_WARMER,
+						Collections.singletonList( BeanReference.ofInstance( warmer ) ) )
+				.setup();
+
+		logged.expectEvent( Level.WARN, "Unable to warm up segment", "Simulated warming failure" );
+
+		indexBatch( 0 );
+		// Failures are ignored: the new segment is still visible.
+		assertTotalHitCount( DOCUMENT_COUNT_PER_BATCH );
+	}
+
+	@Test
+	public void fields() {
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.IO_WARMING_FIELDS, "text,sortable,missing" )
+				.setup();
+
+		logged.expectMessage( "Unable to warm up segment" ).never();
+
+		indexBatch( 0 );
+		assertTotalHitCount( DOCUMENT_COUNT_PER_BATCH );
+		indexBatch( 1 );
+		index.createWorkspace().mergeSegments().join();
+		assertTotalHitCount( 2 * DOCUMENT_COUNT_PER_BATCH );
+	}
+
+	private void indexBatch(int batchIndex) {
+		// Commit, so that each batch ends up in its own segment.
+		index.bulkIndexer()
+				.add( DOCUMENT_COUNT_PER_BATCH, i -> {
+					int documentIndex = batchIndex * DOCUMENT_COUNT_PER_BATCH + i;
+					return documentProvider( String.valueOf( documentIndex ), document -> {
+						document.addValue( index.binding().text, "text " + documentIndex );
+						document.addValue( index.binding().sortable, documentIndex );
+					} );
+				} )
+				.join();
+	}
+
+	private void assertTotalHitCount(int expected) {
+		assertThatQuery( index.createScope().query().where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( expected );
+	}
+
+	private static class RecordingSegmentWarmer implements SegmentWarmer {
+		private final List<Integer> warmedSegmentSizes = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void warm(LeafReader segmentReader) {
+			warmedSegmentSizes.add( segmentReader.maxDoc() );
+		}
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+		final IndexFieldReference<Integer> sortable;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString().analyzer( "default" ) ).toReference();
+			sortable = root.field( "sortable", f -> f.asInteger().sortable( Sortable.YES ) ).toReference();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.lowlevel.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.io.IOException;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.integrationtest.backend.lucene.testsupport.util.LuceneIndexContentUtils;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.awaitility.Awaitility;
+
+/**
+ * Test that idle index writers and readers are closed,
+ * see {@link LuceneIndexSettings#IO_IDLE_TIMEOUT}.
+ */
+public class LuceneIndexIdleTimeoutIT {
+
+	/*
+	 * Pick a value that is:
+	 * - small enough that Awaitility.await does not give up before the writer gets closed
+	 * - small enough that tests do not take forever to execute
+	 */
+	private static final int IDLE_TIMEOUT = 200;
+	private static final int DOCUMENT_COUNT = 10;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	@Test
+	public void enabled() {
+		setup( IDLE_TIMEOUT );
+
+		indexDocuments( 0 );
+		// Changes are visible before the writer gets closed...
+		assertTotalHitCount( DOCUMENT_COUNT );
+
+		// ... and they get committed when the writer gets closed, even though the commit interval is very long.
+		Awaitility.await().untilAsserted( () -> assertThat( countDocsOnDisk() ).isEqualTo( DOCUMENT_COUNT ) );
+
+		// The writer and reader are re-opened on demand.
+		assertTotalHitCount( DOCUMENT_COUNT );
+		indexDocuments( DOCUMENT_COUNT );
+		assertTotalHitCount( 2 * DOCUMENT_COUNT );
+		Awaitility.await().untilAsserted( () -> assertThat( countDocsOnDisk() ).isEqualTo( 2 * DOCUMENT_COUNT ) );
+	}
+
+	@Test
+	public void disabled() throws InterruptedException {
+		setup( 0 );
+
+		indexDocuments( 0 );
+		assertTotalHitCount( DOCUMENT_COUNT );
+
+		Thread.sleep( 3 * IDLE_TIMEOUT );
+
+		// Nothing closed the writer, so nothing committed the changes.
+		assertThat( countDocsOnDisk() ).isZero();
+		assertTotalHitCount( DOCUMENT_COUNT );
+	}
+
+	private void setup(int idleTimeout) {
+		setupHelper.start()
+				.withBackendProperty( LuceneIndexSettings.IO_IDLE_TIMEOUT, idleTimeout )
+				// Avoid periodic commits, so that only closing the writer commits changes.
+				.withBackendProperty( LuceneIndexSettings.IO_COMMIT_INTERVAL, 600_000 )
+				.withIndex( index )
+				.setup();
+	}
+
+	private void indexDocuments(int offset) {
+		// No commit, no refresh.
+		index.bulkIndexer( false )
+				.add( DOCUMENT_COUNT, i -> documentProvider( String.valueOf( offset + i ), document -> document
+						.addValue( index.binding().text, "text " + ( offset + i ) ) ) )
+				.join();
+	}
+
+	private void assertTotalHitCount(int expected) {
+		index.createWorkspace().refresh().join();
+		assertThatQuery( index.createScope().query().where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( expected );
+	}
+
+	/**
+	 * @return The number of documents that are actually present in the low-level, physical representation of the index.
+	 * This bypasses Hibernate Search, its index writer and its index readers,
+	 * so only committed changes will be taken into account.
+	 */
+	private int countDocsOnDisk() {
+		try {
+			return LuceneIndexContentUtils.readIndex(
+					setupHelper, index.name(),
+					reader -> reader.getDocCount( MetadataFields.idFieldName() )
+			);
+		}
+		catch (IOException e) {
+			// May happen if we call the method *right* as a commit is executing
+			return fail( "countDocsOnDisk() failed: " + e.getMessage(), e );
+		}
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString() ).toReference();
+		}
+	}
+}
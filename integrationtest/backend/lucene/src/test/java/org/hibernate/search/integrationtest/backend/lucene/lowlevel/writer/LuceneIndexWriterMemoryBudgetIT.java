@@ -0,0 +1,121 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.lowlevel.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.index.LuceneIndexManager;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.BulkIndexer;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.awaitility.Awaitility;
+
+/**
+ * Test the memory budget shared by all index writers of a backend,
+ * see {@link LuceneBackendSettings#IO_WRITER_TOTAL_RAM_BUFFER_SIZE}.
+ */
+public class LuceneIndexWriterMemoryBudgetIT {
+
+	private static final int DOCUMENT_COUNT = 5000;
+	private static final long ONE_MEGABYTE = 1024L * 1024L;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index1 = SimpleMappedIndex.of( IndexBinding::new ).name( "index1" );
+	private final SimpleMappedIndex<IndexBinding> index2 = SimpleMappedIndex.of( IndexBinding::new ).name( "index2" );
+
+	@Test
+	public void enabled() {
+		setup( 1 );
+
+		indexDocuments();
+
+		// The largest writers will be flushed until the total is back under the budget.
+		Awaitility.await().untilAsserted( () -> assertThat( totalIndexingBufferRamBytesUsed() )
+				.isLessThanOrEqualTo( ONE_MEGABYTE ) );
+
+		// Flushing doesn't lose anything.
+		assertTotalHitCounts();
+	}
+
+	@Test
+	public void disabled() {
+		setup( 0 );
+
+		indexDocuments();
+
+		// Nothing flushes the buffers before the (delayed) commit.
+		assertThat( totalIndexingBufferRamBytesUsed() ).isGreaterThan( ONE_MEGABYTE );
+
+		assertTotalHitCounts();
+	}
+
+	private void setup(int totalRamBufferSize) {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.IO_WRITER_TOTAL_RAM_BUFFER_SIZE, totalRamBufferSize )
+				.withBackendProperty( LuceneBackendSettings.IO_WRITER_TOTAL_RAM_BUFFER_CHECK_INTERVAL, 50 )
+				// Large enough that writers never flush on their own during this test.
+				.withBackendProperty( LuceneIndexSettings.IO_WRITER_RAM_BUFFER_SIZE, 64 )
+				// Avoid commits, which would also flush the indexing buffers.
+				.withBackendProperty( LuceneIndexSettings.IO_COMMIT_INTERVAL, 600_000 )
+				.withIndexes( index1, index2 )
+				.setup();
+	}
+
+	private void indexDocuments() {
+		bulkIndexer( index1 ).join( bulkIndexer( index2 ) );
+	}
+
+	private static BulkIndexer bulkIndexer(SimpleMappedIndex<IndexBinding> index) {
+		// No commit, no refresh: documents stay in the indexing buffer until something flushes it.
+		return index.bulkIndexer( false )
+				.add( DOCUMENT_COUNT, i -> documentProvider( String.valueOf( i ), document -> document
+						.addValue( index.binding().text, "document " + i + " with some text to fill the buffer " + i ) ) );
+	}
+
+	private long totalIndexingBufferRamBytesUsed() {
+		long total = 0L;
+		for ( SimpleMappedIndex<IndexBinding> index : indexes() ) {
+			total += index.unwrapForTests( LuceneIndexManager.class ).indexingBufferRamBytesUsed();
+		}
+		return total;
+	}
+
+	private void assertTotalHitCounts() {
+		for ( SimpleMappedIndex<IndexBinding> index : indexes() ) {
+			index.createWorkspace().refresh().join();
+			assertThatQuery( index.createScope().query().where( f -> f.matchAll() ).toQuery() )
+					.hasTotalHitCount( DOCUMENT_COUNT );
+		}
+	}
+
+	private List<SimpleMappedIndex<IndexBinding>> indexes() {
+		return Arrays.asList( index1, index2 );
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString() ).toReference();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.lowlevel.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.index.LuceneIndexManager;
+import org.hibernate.search.backend.lucene.lowlevel.index.LuceneMergeStatistics;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.BulkIndexer;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test the scheduling of merges across all indexes of a backend,
+ * see {@link LuceneBackendSettings#IO_MERGE_TOTAL_THREAD_COUNT}
+ * and {@link LuceneBackendSettings#IO_MERGE_TOTAL_MAX_MB_PER_SEC}.
+ */
+public class LuceneMergeSchedulingIT {
+
+	private static final int BATCH_COUNT = 3;
+	private static final int DOCUMENT_COUNT_PER_BATCH = 100;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index1 = SimpleMappedIndex.of( IndexBinding::new ).name( "index1" );
+	private final SimpleMappedIndex<IndexBinding> index2 = SimpleMappedIndex.of( IndexBinding::new ).name( "index2" );
+
+	@Test
+	public void defaults() {
+		setupHelper.start()
+				.withIndexes( index1, index2 )
+				.setup();
+
+		indexAndMerge();
+
+		LuceneMergeStatistics statistics = statistics();
+		assertThat( statistics.throttled() ).isFalse();
+		assertThat( statistics.maxMBPerSec() ).isZero();
+		assertMergeStatistics( statistics );
+	}
+
+	@Test
+	public void threadBudgetAndMaxRate() {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.IO_MERGE_TOTAL_THREAD_COUNT, 1 )
+				.withBackendProperty( LuceneBackendSettings.IO_MERGE_TOTAL_MAX_MB_PER_SEC, 100 )
+				.withIndexes( index1, index2 )
+				.setup();
+
+		indexAndMerge();
+
+		LuceneMergeStatistics statistics = statistics();
+		assertThat( statistics.throttled() ).isFalse();
+		assertThat( statistics.maxMBPerSec() ).isEqualTo( 100.0 );
+		assertMergeStatistics( statistics );
+	}
+
+	@Test
+	public void throttling() {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.IO_MERGE_THROTTLE_QUERY_LATENCY, 10_000 )
+				.withBackendProperty( LuceneBackendSettings.IO_MERGE_THROTTLE_INDEXING_QUEUE_SIZE, 1_000 )
+				.withBackendProperty( LuceneBackendSettings.IO_MERGE_THROTTLE_CHECK_INTERVAL, 50 )
+				.withIndexes( index1, index2 )
+				.setup();
+
+		indexAndMerge();
+
+		// Queries are fast and indexing queues are small: merges are not throttled.
+		LuceneMergeStatistics statistics = statistics();
+		assertThat( statistics.throttled() ).isFalse();
+		assertThat( statistics.maxMBPerSec() ).isZero();
+		assertMergeStatistics( statistics );
+	}
+
+	private void indexAndMerge() {
+		for ( int batchIndex = 0; batchIndex < BATCH_COUNT; batchIndex++ ) {
+			// Commit, so that each batch ends up in its own segment.
+			int offset = batchIndex * DOCUMENT_COUNT_PER_BATCH;
+			bulkIndexer( index1, offset ).join( bulkIndexer( index2, offset ) );
+		}
+		// Merge both indexes concurrently.
+		CompletableFuture.allOf(
+				index1.createWorkspace().mergeSegments(),
+				index2.createWorkspace().mergeSegments()
+		).join();
+
+		for ( SimpleMappedIndex<IndexBinding> index : indexes() ) {
+			assertThatQuery( index.createScope().query().where( f -> f.matchAll() ).toQuery() )
+					.hasTotalHitCount( BATCH_COUNT * DOCUMENT_COUNT_PER_BATCH );
+		}
+	}
+
+	private static BulkIndexer bulkIndexer(SimpleMappedIndex<IndexBinding> index, int offset) {
+		return index.bulkIndexer()
+				.add( DOCUMENT_COUNT_PER_BATCH, i -> documentProvider( String.valueOf( offset + i ), document -> document
+						.addValue( index.binding().text, "text " + ( offset + i ) ) ) );
+	}
+
+	private void assertMergeStatistics(LuceneMergeStatistics statistics) {
+		assertThat( statistics.runningMergeCount() ).isZero();
+		assertThat( statistics.waitingMergeCount() ).isZero();
+		// At least one merge per index.
+		assertThat( statistics.completedMergeCount() ).isGreaterThanOrEqualTo( 2 );
+		assertThat( statistics.mergedDocCount() ).isGreaterThanOrEqualTo( 2L * BATCH_COUNT * DOCUMENT_COUNT_PER_BATCH );
+		assertThat( statistics.mergedBytes() ).isPositive();
+	}
+
+	private LuceneMergeStatistics statistics() {
+		return index1.toApi().unwrap( LuceneIndexManager.class ).backend().mergeStatistics();
+	}
+
+	private List<SimpleMappedIndex<IndexBinding>> indexes() {
+		return Arrays.asList( index1, index2 );
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString() ).toReference();
+		}
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.lowlevel.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.index.impl.LuceneIndexManagerImpl;
+import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
+import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.work.execution.DocumentCommitStrategy;
+import org.hibernate.search.engine.backend.work.execution.DocumentRefreshStrategy;
+import org.hibernate.search.engine.backend.work.execution.spi.IndexIndexingPlan;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.common.SearchException;
+import org.hibernate.search.util.impl.integrationtest.common.FailureReportUtils;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubBackendSessionContext;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMappingSchemaManagementStrategy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Test that changes are written to a translog and recovered after a crash,
+ * see {@link LuceneIndexSettings#IO_TRANSLOG_ENABLED}.
+ */
+public class LuceneTranslogIT {
+
+	private static final int DOCUMENT_COUNT = 10;
+	private static final String DOCUMENT_ID = "1";
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	private final StubBackendSessionContext tenant1SessionContext = new StubBackendSessionContext( "tenant_1" );
+	private final StubBackendSessionContext tenant2SessionContext = new StubBackendSessionContext( "tenant_2" );
+
+	@Test
+	public void recoverAfterCrash() throws IOException {
+		Path originalRoot = temporaryFolder.newFolder( "original" ).toPath();
+		Path crashedRoot = temporaryFolder.newFolder( "crashed" ).toPath();
+		setup( originalRoot, StubMappingSchemaManagementStrategy.DROP_AND_CREATE_AND_DROP );
+
+		indexDocuments( 0 );
+		// Nothing committed the changes...
+		assertThat( countDocsOnDisk( originalRoot ) ).isZero();
+		// ... but they are in the translog.
+		assertThat( translogFiles( originalRoot ) ).isNotEmpty();
+
+		// Simulate a crash: copy the index files as they are, while the index writer is still open.
+		copyIndex( originalRoot, crashedRoot );
+		assertThat( countDocsOnDisk( crashedRoot ) ).isZero();
+
+		// Changes from the translog are applied again when the index writer is opened, and committed.
+		setup( crashedRoot, StubMappingSchemaManagementStrategy.NONE );
+		assertTotalHitCount( DOCUMENT_COUNT );
+		assertThat( countDocsOnDisk( crashedRoot ) ).isEqualTo( DOCUMENT_COUNT );
+	}
+
+	@Test
+	public void recoverAfterCrash_legacyTenantDocuments() throws IOException {
+		Path originalRoot = temporaryFolder.newFolder( "original" ).toPath();
+		Path crashedRoot = temporaryFolder.newFolder( "crashed" ).toPath();
+		setup( originalRoot, StubMappingSchemaManagementStrategy.DROP_AND_CREATE_AND_DROP, true );
+
+		// Simulate documents indexed by a previous version of Hibernate Search:
+		// they can only be updated or deleted by matching both their tenant ID and their ID.
+		IndexWriter writer = index.unwrapForTests( LuceneIndexManagerImpl.class ).getShardsForTests().get( 0 )
+				.indexAccessorForTests().getWriterForTests();
+		for ( StubBackendSessionContext sessionContext : Arrays.asList( tenant1SessionContext, tenant2SessionContext ) ) {
+			writer.addDocument( legacyDocument( sessionContext.tenantIdentifier(), DOCUMENT_ID ) );
+		}
+		writer.commit();
+
+		// No commit, no refresh.
+		IndexIndexingPlan<?> plan = index.createIndexingPlan( tenant1SessionContext,
+				DocumentCommitStrategy.NONE, DocumentRefreshStrategy.NONE );
+		plan.update( referenceProvider( DOCUMENT_ID ), document -> document.addValue( index.binding().text, "updated" ) );
+		plan.execute().join();
+		plan = index.createIndexingPlan( tenant2SessionContext,
+				DocumentCommitStrategy.NONE, DocumentRefreshStrategy.NONE );
+		plan.delete( referenceProvider( DOCUMENT_ID ) );
+		plan.execute().join();
+		// Nothing committed the changes, even though legacy documents cannot be deleted by term...
+		assertThat( countLiveDocsOnDisk( originalRoot ) ).isEqualTo( 2 );
+
+		// ... but they are in the translog, and applied again after a crash.
+		copyIndex( originalRoot, crashedRoot );
+		setup( crashedRoot, StubMappingSchemaManagementStrategy.NONE, true );
+		assertThatQuery( index.createScope().query( tenant1SessionContext )
+				.where( f -> f.match().field( "text" ).matching( "updated" ) ).toQuery() )
+				.hasTotalHitCount( 1 );
+		assertThatQuery( index.createScope().query( tenant1SessionContext ).where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( 1 );
+		assertThatQuery( index.createScope().query( tenant2SessionContext ).where( f -> f.matchAll() ).toQuery() )
+				.hasNoHits();
+		assertThat( countLiveDocsOnDisk( crashedRoot ) ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void commit() throws IOException {
+		Path root = temporaryFolder.getRoot().toPath();
+		setup( root, StubMappingSchemaManagementStrategy.DROP_AND_CREATE_AND_DROP );
+
+		indexDocuments( 0 );
+		List<Path> translogFilesBeforeCommit = translogFiles( root );
+
+		// Explicit commits still commit changes to the index...
+		indexDocuments( DOCUMENT_COUNT );
+		index.createWorkspace().flush().join();
+		assertThat( countDocsOnDisk( root ) ).isEqualTo( 2 * DOCUMENT_COUNT );
+		// ... and translog files that are no longer needed get deleted.
+		assertThat( translogFiles( root ) ).hasSize( 1 )
+				.doesNotContainAnyElementsOf( translogFilesBeforeCommit );
+	}
+
+	@Test
+	public void invalidDirectoryType() {
+		// The incompatibility is detected on startup, not when the index is first written to.
+		assertThatThrownBy( () -> setupHelper.start()
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_TYPE, "local-heap" )
+				.withBackendProperty( LuceneIndexSettings.IO_TRANSLOG_ENABLED, true )
+				.withIndex( index )
+				.setup() )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( index.name() )
+						.failure( "Unable to enable the translog", "is not stored on the local filesystem" )
+						.build() );
+	}
+
+	private void setup(Path root, StubMappingSchemaManagementStrategy schemaManagementStrategy) {
+		setup( root, schemaManagementStrategy, false );
+	}
+
+	private void setup(Path root, StubMappingSchemaManagementStrategy schemaManagementStrategy,
+			boolean multiTenancy) {
+		SearchSetupHelper.SetupContext setupContext = setupHelper.start();
+		if ( multiTenancy ) {
+			setupContext = setupContext
+					.withBackendProperty( LuceneBackendSettings.MULTI_TENANCY_STRATEGY,
+							MultiTenancyStrategyName.DISCRIMINATOR )
+					.withMultiTenancy();
+		}
+		setupContext
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_TYPE, "local-filesystem" )
+				.withBackendProperty( LuceneIndexSettings.DIRECTORY_ROOT, root.toString() )
+				.withBackendProperty( LuceneIndexSettings.IO_TRANSLOG_ENABLED, true )
+				// Avoid periodic commits, so that changes are only persisted to the translog.
+				.withBackendProperty( LuceneIndexSettings.IO_COMMIT_INTERVAL, 600_000 )
+				.withSchemaManagement( schemaManagementStrategy )
+				.withIndex( index )
+				.setup();
+	}
+
+	private void indexDocuments(int offset) {
+		// No commit, no refresh.
+		index.bulkIndexer( false )
+				.add( DOCUMENT_COUNT, i -> documentProvider( String.valueOf( offset + i ), document -> document
+						.addValue( index.binding().text, "text " + ( offset + i ) ) ) )
+				.join();
+	}
+
+	private void assertTotalHitCount(int expected) {
+		assertThatQuery( index.createScope().query().where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( expected );
+	}
+
+	private int countDocsOnDisk(Path root) throws IOException {
+		try ( Directory directory = FSDirectory.open( root.resolve( index.name() ) );
+				DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			return reader.getDocCount( MetadataFields.idFieldName() );
+		}
+	}
+
+	private int countLiveDocsOnDisk(Path root) throws IOException {
+		try ( Directory directory = FSDirectory.open( root.resolve( index.name() ) );
+				DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			return reader.numDocs();
+		}
+	}
+
+	private List<Path> translogFiles(Path root) throws IOException {
+		try ( Stream<Path> files = Files.list( root.resolve( index.name() ) ) ) {
+			return files.map( Path::getFileName )
+					.filter( fileName -> fileName.toString().endsWith( ".tlog" ) )
+					.collect( Collectors.toList() );
+		}
+	}
+
+	private void copyIndex(Path sourceRoot, Path targetRoot) throws IOException {
+		Path source = sourceRoot.resolve( index.name() );
+		Path target = Files.createDirectories( targetRoot.resolve( index.name() ) );
+		try ( Stream<Path> files = Files.list( source ) ) {
+			for ( Path file : files.collect( Collectors.toList() ) ) {
+				if ( !IndexWriter.WRITE_LOCK_NAME.equals( file.getFileName().toString() ) ) {
+					Files.copy( file, target.resolve( file.getFileName() ) );
+				}
+			}
+		}
+	}
+
+	private static Iterable<IndexableField> legacyDocument(String tenantId, String id) {
+		return Arrays.asList(
+				MetadataFields.searchableMetadataField( MetadataFields.tenantIdFieldName(), tenantId ),
+				MetadataFields.searchableMetadataField( MetadataFields.typeFieldName(), MetadataFields.TYPE_MAIN_DOCUMENT ),
+				MetadataFields.searchableRetrievableMetadataField( MetadataFields.idFieldName(), id )
+		);
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString() ).toReference();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.model.singlefield.SingleFieldIndexBinding;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.types.FieldTypeDescriptor;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.TestedFieldStructure;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.BulkIndexer;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMappingScope;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test that field projections return the exact same values
+ * when fields have docvalues, which may be used instead of stored fields for single-valued fields.
+ */
+@RunWith(Parameterized.class)
+public class LuceneFieldProjectionDocValuesIT<F> {
+
+	private static final List<FieldTypeDescriptor<?>> supportedFieldTypes = FieldTypeDescriptor.getAll().stream()
+			.filter( FieldTypeDescriptor::isFieldSortSupported )
+			.collect( Collectors.toList() );
+
+	@Parameterized.Parameters(name = "{0} - {1}")
+	public static Object[][] parameters() {
+		List<Object[]> parameters = new ArrayList<>();
+		for ( FieldTypeDescriptor<?> fieldType : supportedFieldTypes ) {
+			for ( TestedFieldStructure fieldStructure : TestedFieldStructure.all() ) {
+				if ( fieldStructure.isMultiValued() ) {
+					continue;
+				}
+				parameters.add( new Object[] { fieldStructure, fieldType } );
+			}
+		}
+		return parameters.toArray( new Object[0][] );
+	}
+
+	@ClassRule
+	public static SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private static final SimpleMappedIndex<SingleFieldIndexBinding> sortableIndex = SimpleMappedIndex.of(
+			root -> SingleFieldIndexBinding.createWithSingleValuedNestedFields( root, supportedFieldTypes,
+					c -> c.projectable( Projectable.YES ).sortable( Sortable.YES ) ) )
+			.name( "sortable" );
+
+	private static final SimpleMappedIndex<SingleFieldIndexBinding> nonSortableIndex = SimpleMappedIndex.of(
+			root -> SingleFieldIndexBinding.createWithSingleValuedNestedFields( root, supportedFieldTypes,
+					c -> c.projectable( Projectable.YES ).sortable( Sortable.NO ) ) )
+			.name( "nonSortable" );
+
+	@BeforeClass
+	public static void setup() {
+		setupHelper.start().withIndexes( sortableIndex, nonSortableIndex ).setup();
+
+		for ( SimpleMappedIndex<SingleFieldIndexBinding> index : Arrays.asList( sortableIndex, nonSortableIndex ) ) {
+			BulkIndexer indexer = index.bulkIndexer();
+			for ( FieldTypeDescriptor<?> fieldType : supportedFieldTypes ) {
+				for ( TestedFieldStructure fieldStructure : TestedFieldStructure.all() ) {
+					if ( !fieldStructure.isMultiValued() ) {
+						contribute( index, indexer, fieldStructure, fieldType );
+					}
+				}
+			}
+			indexer.join();
+		}
+	}
+
+	private final TestedFieldStructure fieldStructure;
+	private final FieldTypeDescriptor<F> fieldType;
+
+	public LuceneFieldProjectionDocValuesIT(TestedFieldStructure fieldStructure, FieldTypeDescriptor<F> fieldType) {
+		this.fieldStructure = fieldStructure;
+		this.fieldType = fieldType;
+	}
+
+	@Test
+	public void singleIndex() {
+		StubMappingScope scope = sortableIndex.createScope();
+
+		assertThatQuery( scope.query()
+				.select( f -> f.field( getFieldPath(), fieldType.getJavaType() ) )
+				.where( f -> f.matchAll() )
+				.routing( routingKey( fieldStructure, fieldType ) )
+				.toQuery() )
+				.hasHitsAnyOrder( value( fieldType, 1 ), value( fieldType, 2 ), null );
+	}
+
+	@Test
+	public void singleIndex_multi() {
+		StubMappingScope scope = sortableIndex.createScope();
+
+		assertThatQuery( scope.query()
+				.select( f -> f.field( getFieldPath(), fieldType.getJavaType() ).multi() )
+				.where( f -> f.matchAll() )
+				.routing( routingKey( fieldStructure, fieldType ) )
+				.toQuery() )
+				.hasHitsAnyOrder( Arrays.asList( value( fieldType, 1 ) ), Arrays.asList( value( fieldType, 2 ) ),
+						Arrays.asList() );
+	}
+
+	@Test
+	public void multiIndex_docValuesInOneIndexOnly() {
+		StubMappingScope scope = sortableIndex.createScope( nonSortableIndex );
+
+		assertThatQuery( scope.query()
+				.select( f -> f.field( getFieldPath(), fieldType.getJavaType() ) )
+				.where( f -> f.matchAll() )
+				.routing( routingKey( fieldStructure, fieldType ) )
+				.toQuery() )
+				.hasHitsAnyOrder( value( fieldType, 1 ), value( fieldType, 2 ), null,
+						value( fieldType, 1 ), value( fieldType, 2 ), null );
+	}
+
+	private String getFieldPath() {
+		return sortableIndex.binding().getFieldPath( fieldStructure, fieldType );
+	}
+
+	private static <F> void contribute(SimpleMappedIndex<SingleFieldIndexBinding> index, BulkIndexer indexer,
+			TestedFieldStructure fieldStructure, FieldTypeDescriptor<F> fieldType) {
+		String routingKey = routingKey( fieldStructure, fieldType );
+		for ( int i = 1; i <= 2; i++ ) {
+			F value = value( fieldType, i );
+			indexer.add( documentProvider( routingKey + "_doc_" + i, routingKey,
+					document -> index.binding().initSingleValued( fieldType, fieldStructure.location,
+							document, value ) ) );
+		}
+		indexer.add( documentProvider( routingKey + "_emptyDoc", routingKey,
+				document -> index.binding().initSingleValued( fieldType, fieldStructure.location,
+						document, null ) ) );
+	}
+
+	private static String routingKey(TestedFieldStructure fieldStructure, FieldTypeDescriptor<?> fieldType) {
+		return fieldType.getUniqueName() + "_" + fieldStructure.getUniqueName();
+	}
+
+	private static <F> F value(FieldTypeDescriptor<F> fieldType, int documentNumber) {
+		return fieldType.getIndexableValues().getSingle().get( documentNumber - 1 );
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.referenceProvider;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.IndexObjectFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaObjectField;
+import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.engine.backend.work.execution.spi.IndexIndexingPlan;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubBackendSessionContext;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test that caching structural filters (tenant filter, filter excluding nested documents)
+ * through {@link LuceneBackendSettings#QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE}
+ * does not affect search results, in particular when segments are added or updated.
+ */
+public class LuceneFilterBitSetCacheIT {
+
+	private static final int DOCUMENT_COUNT_PER_BATCH = 100;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	private final StubBackendSessionContext tenant1SessionContext = new StubBackendSessionContext( "tenant_1" );
+	private final StubBackendSessionContext tenant2SessionContext = new StubBackendSessionContext( "tenant_2" );
+
+	@Test
+	public void enabled() {
+		testSearchAcrossChanges( 32 );
+	}
+
+	@Test
+	public void disabled() {
+		testSearchAcrossChanges( 0 );
+	}
+
+	@Test
+	public void tooSmallToCacheAnything() {
+		// Still works, it just doesn't cache anything.
+		testSearchAcrossChanges( 1 );
+	}
+
+	private void testSearchAcrossChanges(int maxRamSize) {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.MULTI_TENANCY_STRATEGY, MultiTenancyStrategyName.DISCRIMINATOR )
+				.withBackendProperty( LuceneBackendSettings.QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE, maxRamSize )
+				.withIndex( index )
+				.withMultiTenancy()
+				.setup();
+
+		index( tenant1SessionContext, 0 );
+		index( tenant2SessionContext, 0 );
+		index( tenant2SessionContext, 1 );
+
+		assertTotalHitCounts( DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH );
+		// Again, to make sure we hit the cache if it's enabled.
+		assertTotalHitCounts( DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH );
+
+		// New segment
+		index( tenant1SessionContext, 2 );
+		assertTotalHitCounts( 2 * DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH );
+
+		// Deleted documents in existing segments
+		IndexIndexingPlan<?> plan = index.createIndexingPlan( tenant2SessionContext );
+		plan.delete( referenceProvider( "1_0" ) );
+		plan.delete( referenceProvider( "1_1" ) );
+		plan.execute().join();
+		index.createWorkspace( tenant2SessionContext ).refresh().join();
+		assertTotalHitCounts( 2 * DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH - 2 );
+
+		// Merged segments
+		index.createWorkspace( tenant1SessionContext ).mergeSegments().join();
+		index.createWorkspace( tenant1SessionContext ).refresh().join();
+		assertTotalHitCounts( 2 * DOCUMENT_COUNT_PER_BATCH, 2 * DOCUMENT_COUNT_PER_BATCH - 2 );
+	}
+
+	private void assertTotalHitCounts(int expectedTenant1, int expectedTenant2) {
+		assertTotalHitCount( tenant1SessionContext, expectedTenant1 );
+		assertTotalHitCount( tenant2SessionContext, expectedTenant2 );
+	}
+
+	private void assertTotalHitCount(StubBackendSessionContext sessionContext, int expected) {
+		assertThatQuery( index.createScope().query( sessionContext ).where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( expected );
+		// Half of the documents have a nested object matching this.
+		assertThatQuery( index.createScope().query( sessionContext )
+				.where( f -> f.nested().objectField( "nested" )
+						.nest( f.match().field( "nested.string" ).matching( "even" ) ) )
+				.toQuery() )
+				.hasTotalHitCount( expected / 2 );
+	}
+
+	private void index(StubBackendSessionContext sessionContext, int batch) {
+		index.bulkIndexer( sessionContext, true )
+				.add( DOCUMENT_COUNT_PER_BATCH, i -> StubMapperUtils.documentProvider( batch + "_" + i, document -> {
+					DocumentElement nested = document.addObject( index.binding().nested.self );
+					nested.addValue( index.binding().nested.string, i % 2 == 0 ? "even" : "odd" );
+				} ) )
+				.join();
+	}
+
+	private static class IndexBinding {
+		final ObjectBinding nested;
+
+		IndexBinding(IndexSchemaElement root) {
+			nested = new ObjectBinding( root.objectField( "nested", ObjectStructure.NESTED ) );
+		}
+	}
+
+	private static class ObjectBinding {
+		final IndexObjectFieldReference self;
+		final IndexFieldReference<String> string;
+
+		ObjectBinding(IndexSchemaObjectField objectField) {
+			string = objectField.field( "string", f -> f.asString() ).toReference();
+			self = objectField.toReference();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+
+import org.hibernate.search.backend.lucene.LuceneBackend;
+import org.hibernate.search.backend.lucene.cache.FilterCachingPolicyName;
+import org.hibernate.search.backend.lucene.cache.LuceneFilterCacheStatistics;
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.index.LuceneIndexManager;
+import org.hibernate.search.backend.lucene.lowlevel.query.impl.FilterClauseQuery;
+import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
+import org.hibernate.search.backend.lucene.search.predicate.impl.LuceneSearchPredicate;
+import org.hibernate.search.backend.lucene.search.predicate.impl.PredicateRequestContext;
+import org.hibernate.search.engine.backend.common.DocumentReference;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.search.predicate.SearchPredicate;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubBackendSessionContext;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils;
+
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test the filter cache configured through {@link LuceneBackendSettings#QUERY_FILTER_CACHE_MAX_SIZE}
+ * and {@link LuceneBackendSettings#QUERY_FILTER_CACHE_POLICY}.
+ */
+public class LuceneFilterCacheIT {
+
+	// Lucene doesn't cache filters on segments with less than 10,000 documents.
+	private static final int DOCUMENT_COUNT = 20_000;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	private final StubBackendSessionContext tenantSessionContext = new StubBackendSessionContext( "tenant_1" );
+	private final StubBackendSessionContext otherTenantSessionContext = new StubBackendSessionContext( "tenant_2" );
+
+	@Test
+	public void disabled() {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.QUERY_FILTER_CACHE_MAX_SIZE, 0 )
+				.withIndex( index )
+				.setup();
+
+		assertThat( backend().filterCacheStatistics() ).isEmpty();
+	}
+
+	@Test
+	public void usageTracking() {
+		LuceneFilterCacheStatistics statistics = setup( FilterCachingPolicyName.USAGE_TRACKING );
+
+		assertThatQuery( query() ).hasTotalHitCount( DOCUMENT_COUNT / 2 );
+		assertThatQuery( query() ).hasTotalHitCount( DOCUMENT_COUNT / 2 );
+
+		// Term filters are cheap: they are never cached by the usage-tracking policy.
+		assertThat( statistics.size() ).isZero();
+		assertThat( statistics.hitCount() ).isZero();
+
+		// This policy doesn't need to recognize filter clauses: they should be left as is.
+		assertThat( filterClauseQuery() ).isNotInstanceOf( FilterClauseQuery.class );
+	}
+
+	@Test
+	public void alwaysCacheFilters() {
+		LuceneFilterCacheStatistics statistics = setup( FilterCachingPolicyName.ALWAYS_CACHE_FILTERS );
+
+		assertThatQuery( query() ).hasTotalHitCount( DOCUMENT_COUNT / 2 );
+		assertThat( statistics.size() ).isPositive();
+		assertThat( statistics.missCount() ).isPositive();
+		assertThat( statistics.ramBytesUsed() ).isPositive();
+		long hitCountBefore = statistics.hitCount();
+
+		assertThatQuery( query() ).hasTotalHitCount( DOCUMENT_COUNT / 2 );
+		assertThat( statistics.hitCount() ).isGreaterThan( hitCountBefore );
+
+		// This policy needs to recognize filter clauses.
+		assertThat( filterClauseQuery() ).isInstanceOf( FilterClauseQuery.class );
+	}
+
+	@Test
+	public void alwaysCacheFilters_tenantFilter() {
+		LuceneFilterCacheStatistics statistics = setupMultiTenancy( 0 );
+
+		assertThatQuery( tenantQuery() ).hasTotalHitCount( DOCUMENT_COUNT );
+		// Without bitsets for structural filters, the tenant filter is cached by the filter cache.
+		assertThat( statistics.size() ).isPositive();
+		long hitCountBefore = statistics.hitCount();
+
+		assertThatQuery( tenantQuery() ).hasTotalHitCount( DOCUMENT_COUNT );
+		assertThat( statistics.hitCount() ).isGreaterThan( hitCountBefore );
+	}
+
+	@Test
+	public void alwaysCacheFilters_tenantFilter_bitSetCache() {
+		LuceneFilterCacheStatistics statistics = setupMultiTenancy( 32 );
+
+		assertThatQuery( tenantQuery() ).hasTotalHitCount( DOCUMENT_COUNT );
+		assertThatQuery( tenantQuery() ).hasTotalHitCount( DOCUMENT_COUNT );
+		// The tenant filter is already cached as bitsets: no need to cache it twice.
+		assertThat( statistics.size() ).isZero();
+	}
+
+	private Query filterClauseQuery() {
+		SearchPredicate predicate = index.createScope().predicate().bool()
+				.must( f -> f.matchAll() )
+				.filter( f -> f.match().field( "string" ).matching( "even" ) )
+				.toPredicate();
+		BooleanQuery booleanQuery = (BooleanQuery) ( (LuceneSearchPredicate) predicate )
+				.toQuery( PredicateRequestContext.root() );
+		return booleanQuery.clauses().stream()
+				.filter( clause -> BooleanClause.Occur.FILTER.equals( clause.getOccur() ) )
+				.map( BooleanClause::getQuery )
+				.findFirst()
+				.get();
+	}
+
+	private SearchQuery<DocumentReference> query() {
+		return index.query()
+				.where( f -> f.bool()
+						.must( f.matchAll() )
+						.filter( f.match().field( "string" ).matching( "even" ) ) )
+				.toQuery();
+	}
+
+	private SearchQuery<DocumentReference> tenantQuery() {
+		return index.createScope().query( tenantSessionContext )
+				.where( f -> f.matchAll() )
+				.toQuery();
+	}
+
+	private LuceneFilterCacheStatistics setupMultiTenancy(int bitSetCacheMaxRamSize) {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.MULTI_TENANCY_STRATEGY, MultiTenancyStrategyName.DISCRIMINATOR )
+				.withBackendProperty( LuceneBackendSettings.QUERY_FILTER_BITSET_CACHE_MAX_RAM_SIZE, bitSetCacheMaxRamSize )
+				.withBackendProperty( LuceneBackendSettings.QUERY_FILTER_CACHE_POLICY,
+						FilterCachingPolicyName.ALWAYS_CACHE_FILTERS )
+				.withIndex( index )
+				.withMultiTenancy()
+				.setup();
+
+		index.bulkIndexer( tenantSessionContext, true )
+				.add( DOCUMENT_COUNT, i -> StubMapperUtils.documentProvider( String.valueOf( i ), document -> {
+					document.addValue( index.binding().string, i % 2 == 0 ? "even" : "odd" );
+				} ) )
+				.join();
+		index.bulkIndexer( otherTenantSessionContext, true )
+				.add( DOCUMENT_COUNT, i -> StubMapperUtils.documentProvider( String.valueOf( i ), document -> {
+					document.addValue( index.binding().string, i % 2 == 0 ? "even" : "odd" );
+				} ) )
+				.join();
+
+		return backend().filterCacheStatistics().get();
+	}
+
+	private LuceneFilterCacheStatistics setup(FilterCachingPolicyName policy) {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.QUERY_FILTER_CACHE_POLICY, policy )
+				.withIndex( index )
+				.setup();
+
+		index.bulkIndexer()
+				.add( DOCUMENT_COUNT, i -> StubMapperUtils.documentProvider( String.valueOf( i ), document -> {
+					document.addValue( index.binding().string, i % 2 == 0 ? "even" : "odd" );
+				} ) )
+				.join();
+
+		return backend().filterCacheStatistics().get();
+	}
+
+	private LuceneBackend backend() {
+		return index.toApi().unwrap( LuceneIndexManager.class ).backend();
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> string;
+
+		IndexBinding(IndexSchemaElement root) {
+			string = root.field( "string", f -> f.asString() ).toReference();
+		}
+	}
+}
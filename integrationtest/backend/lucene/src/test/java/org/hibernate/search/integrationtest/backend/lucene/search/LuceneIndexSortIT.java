@@ -0,0 +1,179 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatResult;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.engine.backend.common.DocumentReference;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.common.SearchException;
+import org.hibernate.search.util.impl.integrationtest.common.FailureReportUtils;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test that sorting the index through {@link LuceneIndexSettings#IO_WRITER_INDEX_SORT}
+ * does not affect search results, including when Lucene terminates collection early.
+ */
+public class LuceneIndexSortIT {
+
+	private static final int DOCUMENT_COUNT = 2000;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	@Test
+	public void sortMatchingIndexSort_desc() {
+		setup( "integer:desc" );
+
+		// Not a match-all query, because the total hit count of match-all queries is always exact.
+		SearchResult<DocumentReference> result = index.query()
+				.where( f -> f.range().field( "integer" ).atLeast( 0 ) )
+				.sort( f -> f.field( "integer" ).desc() )
+				.totalHitCountThreshold( 100 )
+				.fetch( 3 );
+
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(),
+				String.valueOf( DOCUMENT_COUNT - 1 ), String.valueOf( DOCUMENT_COUNT - 2 ),
+				String.valueOf( DOCUMENT_COUNT - 3 ) );
+		// Collection was terminated early: only a lower bound of the total hit count is known.
+		assertThat( result.total().isHitCountLowerBound() ).isTrue();
+		assertThat( result.total().hitCountLowerBound() ).isLessThanOrEqualTo( DOCUMENT_COUNT );
+
+		// Without a threshold, the total hit count must still be exact.
+		result = index.query()
+				.where( f -> f.range().field( "integer" ).atLeast( 0 ) )
+				.sort( f -> f.field( "integer" ).desc() )
+				.fetch( 3 );
+		assertThatResult( result ).hasTotalHitCount( DOCUMENT_COUNT );
+	}
+
+	@Test
+	public void sortMatchingIndexSortPrefix() {
+		setup( "string", "integer:desc" );
+
+		SearchResult<DocumentReference> result = index.query()
+				.where( f -> f.matchAll() )
+				.sort( f -> f.field( "string" ) )
+				.totalHitCountThreshold( 100 )
+				.fetch( 3 );
+
+		// "0000", "0001", "0002", ... : sorting by string is equivalent to sorting by integer.
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "0", "1", "2" );
+	}
+
+	@Test
+	public void sortNotMatchingIndexSort() {
+		setup( "integer:desc" );
+
+		SearchResult<DocumentReference> result = index.query()
+				.where( f -> f.matchAll() )
+				.sort( f -> f.field( "integer" ).asc() )
+				.fetch( 3 );
+
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "0", "1", "2" );
+		assertThatResult( result ).hasTotalHitCount( DOCUMENT_COUNT );
+	}
+
+	@Test
+	public void invalidElement() {
+		assertThatThrownBy( () -> setup( "integer:sideways" ) )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( index.name() )
+						.failure( "Invalid index sort element: 'integer:sideways'" )
+						.build() );
+	}
+
+	@Test
+	public void unknownField() {
+		assertThatThrownBy( () -> setup( "unknown" ) )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( index.name() )
+						.failure( "Unknown field 'unknown' in the index sort" )
+						.build() );
+	}
+
+	@Test
+	public void notSortableField() {
+		assertThatThrownBy( () -> setup( "notSortable" ) )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( index.name() )
+						.failure( "Cannot sort the index by field 'notSortable'",
+								"Make sure the field is marked as sortable" )
+						.build() );
+	}
+
+	@Test
+	public void nestedDocuments() {
+		SimpleMappedIndex<NestedIndexBinding> nestedIndex = SimpleMappedIndex.of( NestedIndexBinding::new )
+				.name( "nestedIndex" );
+		assertThatThrownBy( () -> setupHelper.start()
+				.withIndex( nestedIndex )
+				.withIndexProperty( nestedIndex.name(), LuceneIndexSettings.IO_WRITER_INDEX_SORT, "integer" )
+				.setup() )
+				.isInstanceOf( SearchException.class )
+				.hasMessageMatching( FailureReportUtils.buildFailureReportPattern()
+						.indexContext( nestedIndex.name() )
+						.failure( "Cannot sort an index that contains nested documents" )
+						.build() );
+	}
+
+	private void setup(String... indexSortElements) {
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.IO_WRITER_INDEX_SORT,
+						String.join( ",", indexSortElements ) )
+				.setup();
+
+		index.bulkIndexer()
+				// Index documents in an order that does not match the index sort.
+				.add( DOCUMENT_COUNT, i -> {
+					int value = ( i * 7 ) % DOCUMENT_COUNT;
+					return StubMapperUtils.documentProvider( String.valueOf( value ), document -> {
+						document.addValue( index.binding().integer, value );
+						document.addValue( index.binding().string, String.format( "%04d", value ) );
+						document.addValue( index.binding().notSortable, value );
+					} );
+				} )
+				.join();
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<Integer> integer;
+		final IndexFieldReference<String> string;
+		final IndexFieldReference<Integer> notSortable;
+
+		IndexBinding(IndexSchemaElement root) {
+			integer = root.field( "integer", f -> f.asInteger().sortable( Sortable.YES ) ).toReference();
+			string = root.field( "string", f -> f.asString().sortable( Sortable.YES ) ).toReference();
+			notSortable = root.field( "notSortable", f -> f.asInteger() ).toReference();
+		}
+	}
+
+	private static class NestedIndexBinding {
+		NestedIndexBinding(IndexSchemaElement root) {
+			root.field( "integer", f -> f.asInteger().sortable( Sortable.YES ) ).toReference();
+			root.objectField( "nested", ObjectStructure.NESTED ).toReference();
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.engine.search.query.SearchScroll;
+import org.hibernate.search.engine.search.query.SearchScrollResult;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.BulkIndexer;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test that search queries return the same results when index segments are searched concurrently,
+ * be it in a single shard or across multiple shards.
+ */
+@RunWith(Parameterized.class)
+public class LuceneQueryParallelismIT {
+
+	// Up to 5 segments of a given shard are grouped in each slice: we need more segments than that to get multiple slices.
+	private static final int SEGMENT_COUNT = 8;
+	private static final int DOCUMENTS_PER_SEGMENT = 10;
+	private static final int DOCUMENT_COUNT = SEGMENT_COUNT * DOCUMENTS_PER_SEGMENT;
+	private static final int CATEGORY_COUNT = 4;
+
+	@ClassRule
+	public static final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private static final SimpleMappedIndex<IndexBinding> unshardedIndex =
+			SimpleMappedIndex.of( IndexBinding::new ).name( "unsharded" );
+	private static final SimpleMappedIndex<IndexBinding> shardedIndex =
+			SimpleMappedIndex.of( IndexBinding::new ).name( "sharded" );
+
+	@Parameterized.Parameters(name = "{0}")
+	public static List<Object[]> params() {
+		return Arrays.asList(
+				new Object[] { unshardedIndex.name(), unshardedIndex },
+				new Object[] { shardedIndex.name(), shardedIndex }
+		);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.QUERY_PARALLELISM, 4 )
+				.withIndexProperty( shardedIndex.name(), LuceneIndexSettings.SHARDING_STRATEGY, "hash" )
+				.withIndexProperty( shardedIndex.name(), LuceneIndexSettings.SHARDING_NUMBER_OF_SHARDS, 4 )
+				.withIndexes( unshardedIndex, shardedIndex )
+				.setup();
+
+		initData( unshardedIndex );
+		initData( shardedIndex );
+	}
+
+	private final SimpleMappedIndex<IndexBinding> index;
+
+	public LuceneQueryParallelismIT(String indexName, SimpleMappedIndex<IndexBinding> index) {
+		this.index = index;
+	}
+
+	@Test
+	public void sort_offsetAndLimit() {
+		SearchResult<Integer> result = index.createScope().query()
+				.select( f -> f.field( "number", Integer.class ) )
+				.where( f -> f.matchAll() )
+				.sort( f -> f.field( "number" ).desc() )
+				.fetch( 15, 20 );
+
+		assertThat( result.total().hitCount() ).isEqualTo( DOCUMENT_COUNT );
+		assertThat( result.hits() ).containsExactlyElementsOf(
+				IntStream.range( 0, 20 ).mapToObj( i -> DOCUMENT_COUNT - 1 - 15 - i )
+						.collect( Collectors.toList() )
+		);
+	}
+
+	@Test
+	public void totalHitCount() {
+		SearchResult<Integer> result = index.createScope().query()
+				.select( f -> f.field( "number", Integer.class ) )
+				.where( f -> f.range().field( "number" ).lessThan( DOCUMENT_COUNT / 2 ) )
+				.fetch( 5 );
+
+		assertThat( result.total().hitCount() ).isEqualTo( DOCUMENT_COUNT / 2 );
+		assertThat( result.hits() ).hasSize( 5 );
+	}
+
+	@Test
+	public void fetchAll() {
+		List<Integer> hits = index.createScope().query()
+				.select( f -> f.field( "number", Integer.class ) )
+				.where( f -> f.matchAll() )
+				.sort( f -> f.field( "number" ) )
+				.fetchAllHits();
+
+		assertThat( hits ).containsExactlyElementsOf(
+				IntStream.range( 0, DOCUMENT_COUNT ).boxed().collect( Collectors.toList() )
+		);
+	}
+
+	@Test
+	public void aggregation() {
+		AggregationKey<Map<String, Long>> aggregationKey = AggregationKey.of( "categories" );
+		SearchResult<?> result = index.createScope().query()
+				.where( f -> f.matchAll() )
+				.aggregation( aggregationKey, f -> f.terms().field( "category", String.class ) )
+				.fetch( 0 );
+
+		assertThat( result.aggregation( aggregationKey ) )
+				.hasSize( CATEGORY_COUNT )
+				.allSatisfy( (category, count) -> assertThat( count )
+						.isEqualTo( (long) DOCUMENT_COUNT / CATEGORY_COUNT ) );
+	}
+
+	@Test
+	public void scroll_ties() {
+		List<Integer> hits = new ArrayList<>();
+		// Sort on a field with many duplicate values:
+		// ties must be broken consistently from one chunk to the next, even when searching concurrently.
+		try ( SearchScroll<Integer> scroll = index.createScope().query()
+				.select( f -> f.field( "number", Integer.class ) )
+				.where( f -> f.matchAll() )
+				.sort( f -> f.field( "category" ) )
+				.scroll( 7 ) ) {
+			for ( SearchScrollResult<Integer> chunk = scroll.next(); chunk.hasHits(); chunk = scroll.next() ) {
+				assertThat( chunk.total().hitCount() ).isEqualTo( DOCUMENT_COUNT );
+				hits.addAll( chunk.hits() );
+			}
+		}
+
+		assertThat( hits ).hasSize( DOCUMENT_COUNT )
+				.containsExactlyInAnyOrderElementsOf(
+						IntStream.range( 0, DOCUMENT_COUNT ).boxed().collect( Collectors.toList() )
+				);
+		assertThat( hits ).extracting( number -> number % CATEGORY_COUNT ).isSorted();
+	}
+
+	private static void initData(SimpleMappedIndex<IndexBinding> index) {
+		for ( int segment = 0; segment < SEGMENT_COUNT; segment++ ) {
+			// Each batch of documents is refreshed separately, leading to a new segment.
+			BulkIndexer indexer = index.bulkIndexer();
+			for ( int i = 0; i < DOCUMENTS_PER_SEGMENT; i++ ) {
+				int number = segment * DOCUMENTS_PER_SEGMENT + i;
+				indexer.add( String.valueOf( number ), document -> {
+					document.addValue( index.binding().number, number );
+					document.addValue( index.binding().category, "category_" + ( number % CATEGORY_COUNT ) );
+				} );
+			}
+			indexer.join();
+		}
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<Integer> number;
+		final IndexFieldReference<String> category;
+
+		IndexBinding(IndexSchemaElement root) {
+			number = root.field( "number", f -> f.asInteger()
+					.sortable( Sortable.YES ).projectable( Projectable.YES ) )
+					.toReference();
+			category = root.field( "category", f -> f.asString()
+					.aggregable( Aggregable.YES ).sortable( Sortable.YES ) )
+					.toReference();
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatResult;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.hibernate.search.backend.lucene.cache.LuceneCacheStatistics;
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.backend.lucene.index.LuceneIndexManager;
+import org.hibernate.search.engine.backend.common.DocumentReference;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.session.spi.BackendSessionContext;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.backend.types.converter.FromDocumentFieldValueConverter;
+import org.hibernate.search.engine.backend.types.converter.runtime.FromDocumentFieldValueConvertContext;
+import org.hibernate.search.engine.backend.types.converter.runtime.FromDocumentFieldValueConvertContextExtension;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubBackendSessionContext;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test the query result cache enabled through {@link LuceneIndexSettings#QUERY_RESULT_CACHE_SIZE}.
+ */
+public class LuceneQueryResultCacheIT {
+
+	private static final int DOCUMENT_COUNT = 20;
+	private static final AggregationKey<Map<String, Long>> AGGREGATION_KEY = AggregationKey.of( "terms" );
+	private static final AggregationKey<Map<SessionBoundTerm, Long>> SESSION_BOUND_AGGREGATION_KEY =
+			AggregationKey.of( "sessionBoundTerms" );
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	@Test
+	public void disabledByDefault() {
+		setupHelper.start().withIndex( index ).setup();
+
+		assertThat( index.toApi().unwrap( LuceneIndexManager.class ).queryResultCacheStatistics() ).isEmpty();
+	}
+
+	@Test
+	public void hitThenInvalidateOnRefresh() {
+		LuceneCacheStatistics statistics = setup( 10 );
+
+		SearchResult<DocumentReference> result = query().fetch( 3 );
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "19", "18", "17" );
+		assertThatResult( result ).hasTotalHitCount( DOCUMENT_COUNT );
+		assertThat( result.aggregation( AGGREGATION_KEY ) ).containsEntry( "even", 10L );
+		assertThat( statistics.missCount() ).isEqualTo( 1 );
+		assertThat( statistics.hitCount() ).isEqualTo( 0 );
+		assertThat( statistics.size() ).isEqualTo( 1 );
+
+		// Same query, built again: should hit the cache.
+		result = query().fetch( 3 );
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "19", "18", "17" );
+		assertThatResult( result ).hasTotalHitCount( DOCUMENT_COUNT );
+		assertThat( result.aggregation( AGGREGATION_KEY ) ).containsEntry( "even", 10L );
+		assertThat( statistics.missCount() ).isEqualTo( 1 );
+		assertThat( statistics.hitCount() ).isEqualTo( 1 );
+
+		// Different pagination: should miss the cache.
+		result = query().fetch( 1, 3 );
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "18", "17", "16" );
+		assertThat( statistics.missCount() ).isEqualTo( 2 );
+		assertThat( statistics.size() ).isEqualTo( 2 );
+
+		// Index changes: stale entries should be removed and fresh results returned.
+		index.bulkIndexer()
+				.add( StubMapperUtils.documentProvider( "20", document -> {
+					document.addValue( index.binding().integer, 20 );
+					document.addValue( index.binding().string, "even" );
+				} ) )
+				.join();
+
+		result = query().fetch( 3 );
+		assertThatResult( result ).hasDocRefHitsExactOrder( index.typeName(), "20", "19", "18" );
+		assertThatResult( result ).hasTotalHitCount( DOCUMENT_COUNT + 1 );
+		assertThat( result.aggregation( AGGREGATION_KEY ) ).containsEntry( "even", 11L );
+		assertThat( statistics.missCount() ).isEqualTo( 3 );
+		assertThat( statistics.hitCount() ).isEqualTo( 1 );
+		assertThat( statistics.size() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void aggregationConvertedWithCurrentSession() {
+		LuceneCacheStatistics statistics = setup( 10 );
+		StubBackendSessionContext firstSession = new StubBackendSessionContext();
+		StubBackendSessionContext secondSession = new StubBackendSessionContext();
+
+		Map<SessionBoundTerm, Long> aggregation = sessionBoundQuery( firstSession ).fetch( 3 )
+				.aggregation( SESSION_BOUND_AGGREGATION_KEY );
+		assertThat( aggregation.keySet() ).extracting( term -> term.value )
+				.containsExactlyInAnyOrder( "even", "odd" );
+		assertThat( aggregation.keySet() ).extracting( term -> term.session )
+				.containsOnly( firstSession );
+		assertThat( statistics.missCount() ).isEqualTo( 1 );
+
+		// Same query in another session: should hit the cache,
+		// but the aggregation must be converted with the current session.
+		aggregation = sessionBoundQuery( secondSession ).fetch( 3 )
+				.aggregation( SESSION_BOUND_AGGREGATION_KEY );
+		assertThat( statistics.hitCount() ).isEqualTo( 1 );
+		assertThat( aggregation.keySet() ).extracting( term -> term.value )
+				.containsExactlyInAnyOrder( "even", "odd" );
+		assertThat( aggregation.keySet() ).extracting( term -> term.session )
+				.containsOnly( secondSession );
+		assertThat( aggregation.values() ).containsOnly( 10L );
+	}
+
+	@Test
+	public void eviction() {
+		LuceneCacheStatistics statistics = setup( 2 );
+
+		query().fetch( 1 );
+		query().fetch( 2 );
+		query().fetch( 3 );
+		assertThat( statistics.size() ).isEqualTo( 2 );
+		assertThat( statistics.evictionCount() ).isEqualTo( 1 );
+
+		// The least recently used entry was evicted.
+		query().fetch( 1 );
+		assertThat( statistics.hitCount() ).isEqualTo( 0 );
+		query().fetch( 3 );
+		assertThat( statistics.hitCount() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void noLimit() {
+		LuceneCacheStatistics statistics = setup( 10 );
+
+		query().fetchAll();
+		query().fetchAll();
+		assertThat( statistics.hitCount() ).isEqualTo( 0 );
+		assertThat( statistics.missCount() ).isEqualTo( 0 );
+		assertThat( statistics.size() ).isEqualTo( 0 );
+	}
+
+	private SearchQuery<DocumentReference> query() {
+		return index.query()
+				.where( f -> f.range().field( "integer" ).atLeast( 0 ) )
+				.sort( f -> f.field( "integer" ).desc() )
+				.aggregation( AGGREGATION_KEY, f -> f.terms().field( "string", String.class ) )
+				.toQuery();
+	}
+
+	private SearchQuery<DocumentReference> sessionBoundQuery(StubBackendSessionContext sessionContext) {
+		return index.createScope().query( sessionContext )
+				.where( f -> f.range().field( "integer" ).atLeast( 0 ) )
+				.sort( f -> f.field( "integer" ).desc() )
+				.aggregation( SESSION_BOUND_AGGREGATION_KEY,
+						f -> f.terms().field( "sessionBoundString", SessionBoundTerm.class ) )
+				.toQuery();
+	}
+
+	private LuceneCacheStatistics setup(int cacheSize) {
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.QUERY_RESULT_CACHE_SIZE, cacheSize )
+				.setup();
+
+		index.bulkIndexer()
+				.add( DOCUMENT_COUNT, i -> StubMapperUtils.documentProvider( String.valueOf( i ), document -> {
+					document.addValue( index.binding().integer, i );
+					document.addValue( index.binding().string, i % 2 == 0 ? "even" : "odd" );
+					document.addValue( index.binding().sessionBoundString, i % 2 == 0 ? "even" : "odd" );
+				} ) )
+				.join();
+
+		return index.toApi().unwrap( LuceneIndexManager.class ).queryResultCacheStatistics().get();
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<Integer> integer;
+		final IndexFieldReference<String> string;
+		final IndexFieldReference<String> sessionBoundString;
+
+		IndexBinding(IndexSchemaElement root) {
+			integer = root.field( "integer", f -> f.asInteger().sortable( Sortable.YES ) ).toReference();
+			string = root.field( "string", f -> f.asString().aggregable( Aggregable.YES ) ).toReference();
+			sessionBoundString = root.field( "sessionBoundString", f -> f.asString().aggregable( Aggregable.YES )
+					.projectionConverter( SessionBoundTerm.class, new SessionBoundTermConverter() ) )
+					.toReference();
+		}
+	}
+
+	private static class SessionBoundTerm {
+		final String value;
+		final BackendSessionContext session;
+
+		SessionBoundTerm(String value, BackendSessionContext session) {
+			this.value = value;
+			this.session = session;
+		}
+	}
+
+	private static class SessionBoundTermConverter implements FromDocumentFieldValueConverter<String, SessionBoundTerm> {
+		@Override
+		public SessionBoundTerm convert(String value, FromDocumentFieldValueConvertContext context) {
+			return new SessionBoundTerm( value, context.extension( SessionExtension.INSTANCE ) );
+		}
+	}
+
+	private static class SessionExtension implements FromDocumentFieldValueConvertContextExtension<BackendSessionContext> {
+		private static final SessionExtension INSTANCE = new SessionExtension();
+
+		@Override
+		public Optional<BackendSessionContext> extendOptional(FromDocumentFieldValueConvertContext original,
+				BackendSessionContext sessionContext) {
+			return Optional.of( sessionContext );
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatResult;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.engine.backend.common.DocumentReference;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.IndexObjectFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaObjectField;
+import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMappingScope;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test that data is collected correctly for top documents
+ * (document references, stored fields, doc values),
+ * across multiple shards and multiple segments, with paging and nested documents.
+ */
+public class LuceneSearchTopDocsCollectionIT {
+
+	private static final int SHARD_COUNT = 3;
+	private static final int BATCH_COUNT = 4;
+	private static final int DOCUMENT_COUNT_PER_BATCH = 15;
+	private static final int DOCUMENT_COUNT = BATCH_COUNT * DOCUMENT_COUNT_PER_BATCH;
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	@Before
+	public void setup() {
+		setupHelper.start()
+				.withIndex( index )
+				.withIndexProperty( index.name(), LuceneIndexSettings.SHARDING_STRATEGY, "hash" )
+				.withIndexProperty( index.name(), LuceneIndexSettings.SHARDING_NUMBER_OF_SHARDS, SHARD_COUNT )
+				.setup();
+
+		// Each batch is committed and refreshed separately, so that each shard ends up with multiple segments.
+		for ( int batch = 0; batch < BATCH_COUNT; batch++ ) {
+			int offset = batch * DOCUMENT_COUNT_PER_BATCH;
+			index.bulkIndexer()
+					.add( DOCUMENT_COUNT_PER_BATCH, i -> documentProvider( id( offset + i ), document -> {
+						int number = offset + i;
+						document.addValue( index.binding().number, number );
+						document.addValue( index.binding().text, text( number ) );
+						for ( String nestedValue : nestedValues( number ) ) {
+							DocumentElement nested = document.addObject( index.binding().nested.self );
+							nested.addValue( index.binding().nested.string, nestedValue );
+						}
+					} ) )
+					.join();
+		}
+	}
+
+	@Test
+	public void fieldSort_offset() {
+		StubMappingScope scope = index.createScope();
+		for ( int offset : new int[] { 0, 1, 13, 40, DOCUMENT_COUNT - 5, DOCUMENT_COUNT + 5 } ) {
+			int limit = 12;
+			SearchQuery<List<?>> query = scope.query()
+					.select( f -> f.composite(
+							f.composite( DocumentReference::id, f.documentReference() ),
+							f.field( "number", Integer.class ),
+							f.field( "text", String.class ),
+							f.field( "nested.string", String.class ).multi()
+					) )
+					.where( f -> f.matchAll() )
+					.sort( f -> f.field( "number" ) )
+					.toQuery();
+
+			List<List<?>> expected = new ArrayList<>();
+			for ( int number = offset; number < Math.min( offset + limit, DOCUMENT_COUNT ); number++ ) {
+				expected.add( expectedHit( number ) );
+			}
+			assertThatResult( query.fetch( offset, limit ) )
+					.hasTotalHitCount( DOCUMENT_COUNT )
+					.hasHitsExactOrder( expected );
+		}
+	}
+
+	@Test
+	public void fieldSort_descending_nestedPredicate() {
+		SearchQuery<List<?>> query = index.createScope().query()
+				.select( f -> f.composite(
+						f.field( "number", Integer.class ),
+						f.field( "nested.string", String.class ).multi()
+				) )
+				.where( f -> f.nested().objectField( "nested" )
+						.nest( f.match().field( "nested.string" ).matching( "even" ) ) )
+				.sort( f -> f.field( "number" ).desc() )
+				.toQuery();
+
+		List<List<?>> expected = new ArrayList<>();
+		for ( int number = DOCUMENT_COUNT - 1; number >= 0; number-- ) {
+			if ( number % 2 == 0 ) {
+				expected.add( Arrays.asList( number, nestedValues( number ) ) );
+			}
+		}
+		// Skip the first page.
+		assertThatResult( query.fetch( 5, 10 ) )
+				.hasTotalHitCount( expected.size() )
+				.hasHitsExactOrder( expected.subList( 5, 15 ) );
+	}
+
+	@Test
+	public void scoreSort_offset() {
+		SearchQuery<DocumentReference> query = index.createScope().query()
+				.where( f -> f.bool()
+						.should( f.match().field( "text" ).matching( text( 7 ) ).boost( 3.0f ) )
+						.should( f.match().field( "text" ).matching( text( 42 ) ).boost( 2.0f ) )
+						.should( f.match().field( "text" ).matching( text( 23 ) ) ) )
+				.toQuery();
+
+		assertThatQuery( query ).hasDocRefHitsExactOrder( index.typeName(), id( 7 ), id( 42 ), id( 23 ) );
+		assertThatResult( query.fetch( 1, 1 ) )
+				.hasDocRefHitsExactOrder( index.typeName(), id( 42 ) );
+		assertThatResult( query.fetch( 2, 10 ) )
+				.hasDocRefHitsExactOrder( index.typeName(), id( 23 ) );
+	}
+
+	private List<?> expectedHit(int number) {
+		return Arrays.asList( id( number ), number, text( number ), nestedValues( number ) );
+	}
+
+	private static String id(int number) {
+		return "doc_" + number;
+	}
+
+	private static String text(int number) {
+		return "text" + number;
+	}
+
+	private static List<String> nestedValues(int number) {
+		return Arrays.asList( number % 2 == 0 ? "even" : "odd", "value" + number );
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<Integer> number;
+		final IndexFieldReference<String> text;
+		final ObjectBinding nested;
+
+		IndexBinding(IndexSchemaElement root) {
+			number = root.field( "number", f -> f.asInteger().sortable( Sortable.YES ).projectable( Projectable.YES ) )
+					.toReference();
+			// Not sortable: projections will use stored fields.
+			text = root.field( "text", f -> f.asString().projectable( Projectable.YES ) ).toReference();
+			nested = new ObjectBinding( root.objectField( "nested", ObjectStructure.NESTED ).multiValued() );
+		}
+	}
+
+	private static class ObjectBinding {
+		final IndexObjectFieldReference self;
+		final IndexFieldReference<String> string;
+
+		ObjectBinding(IndexSchemaObjectField objectField) {
+			string = objectField.field( "string", f -> f.asString().projectable( Projectable.YES ) )
+					.multiValued().toReference();
+			self = objectField.toReference();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.documentProvider;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test that terms aggregations on text fields return correct counts on a sharded index,
+ * where terms are counted separately in each shard (each with multiple segments)
+ * and counts are merged by term at the end.
+ */
+public class LuceneTermsAggregationShardingIT {
+
+	private static final String SHARD_ID_1 = "first";
+	private static final String SHARD_ID_2 = "second";
+	private static final String SHARD_ID_3 = "third";
+
+	private static final AggregationKey<Map<String, Long>> AGGREGATION_KEY = AggregationKey.of( "tags" );
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	private int nextDocumentId = 0;
+
+	@Before
+	public void setup() {
+		setupHelper.start()
+				.withIndexProperty( index.name(), LuceneIndexSettings.SHARDING_STRATEGY, "explicit" )
+				.withIndexProperty( index.name(), LuceneIndexSettings.SHARDING_SHARD_IDENTIFIERS,
+						String.join( ",", SHARD_ID_1, SHARD_ID_2, SHARD_ID_3 ) )
+				.withIndex( index )
+				.setup();
+
+		// Each batch is refreshed separately, so that each shard has multiple segments.
+		// Some terms appear in multiple shards, with different ordinals in each shard.
+		index( SHARD_ID_1, 3, "a", "b" );
+		index( SHARD_ID_1, 2, "c" );
+		index( SHARD_ID_2, 2, "a" );
+		index( SHARD_ID_2, 4, "d" );
+		index( SHARD_ID_3, 2, "b", "e" );
+		index( SHARD_ID_3, 1, "a", "c" );
+	}
+
+	@Test
+	public void matchAll() {
+		assertThat( aggregate( f -> f.matchAll(), 10 ) )
+				.containsExactly( entry( "a", 6L ), entry( "b", 5L ), entry( "d", 4L ), entry( "c", 3L ),
+						entry( "e", 2L ) );
+	}
+
+	@Test
+	public void maxTermCount() {
+		// "d" only appears in one shard, but still outranks "c", which appears in two shards.
+		assertThat( aggregate( f -> f.matchAll(), 3 ) )
+				.containsExactly( entry( "a", 6L ), entry( "b", 5L ), entry( "d", 4L ) );
+	}
+
+	@Test
+	public void someDocumentsOnly() {
+		// "d" and "e" only appear in documents that don't match.
+		assertThat( aggregate( f -> f.match().field( "tags" ).matching( "a" ), 10 ) )
+				.containsExactly( entry( "a", 6L ), entry( "b", 3L ), entry( "c", 1L ) );
+	}
+
+	@Test
+	public void newSegment() {
+		assertThat( aggregate( f -> f.matchAll(), 10 ) )
+				.containsExactly( entry( "a", 6L ), entry( "b", 5L ), entry( "d", 4L ), entry( "c", 3L ),
+						entry( "e", 2L ) );
+
+		// Changes in a single shard must be taken into account, even though the other shards didn't change.
+		index( SHARD_ID_3, 3, "d", "f" );
+
+		assertThat( aggregate( f -> f.matchAll(), 10 ) )
+				.containsExactly( entry( "d", 7L ), entry( "a", 6L ), entry( "b", 5L ), entry( "c", 3L ),
+						entry( "f", 3L ), entry( "e", 2L ) );
+	}
+
+	private Map<String, Long> aggregate(
+			Function<SearchPredicateFactory, ? extends PredicateFinalStep> predicate,
+			int maxTermCount) {
+		return index.createScope().query()
+				.where( predicate )
+				.aggregation( AGGREGATION_KEY, f -> f.terms().field( "tags", String.class )
+						.maxTermCount( maxTermCount ) )
+				.fetch( 0 )
+				.aggregation( AGGREGATION_KEY );
+	}
+
+	private void index(String shardId, int documentCount, String... tags) {
+		index.bulkIndexer()
+				.add( documentCount, i -> documentProvider( String.valueOf( nextDocumentId++ ), shardId,
+						document -> {
+							for ( String tag : tags ) {
+								document.addValue( index.binding().tags, tag );
+							}
+						} ) )
+				.join();
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> tags;
+
+		IndexBinding(IndexSchemaElement root) {
+			tags = root.field( "tags", f -> f.asString().aggregable( Aggregable.YES ) )
+					.multiValued()
+					.toReference();
+		}
+	}
+}
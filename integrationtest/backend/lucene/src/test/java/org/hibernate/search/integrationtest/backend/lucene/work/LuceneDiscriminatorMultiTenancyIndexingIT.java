@@ -0,0 +1,161 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.integrationtest.backend.lucene.work;
+
+import static org.hibernate.search.util.impl.integrationtest.common.assertion.SearchResultAssert.assertThatQuery;
+import static org.hibernate.search.util.impl.integrationtest.mapper.stub.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.index.impl.LuceneIndexManagerImpl;
+import org.hibernate.search.backend.lucene.index.impl.Shard;
+import org.hibernate.search.backend.lucene.lowlevel.common.impl.MetadataFields;
+import org.hibernate.search.backend.lucene.multitenancy.MultiTenancyStrategyName;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.work.execution.spi.IndexIndexingPlan;
+import org.hibernate.search.integrationtest.backend.tck.testsupport.util.rule.SearchSetupHelper;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.SimpleMappedIndex;
+import org.hibernate.search.util.impl.integrationtest.mapper.stub.StubBackendSessionContext;
+import org.hibernate.search.util.impl.test.rule.ExpectedLog4jLog;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.logging.log4j.Level;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+
+/**
+ * Test that updates and deletes with discriminator-based multi-tenancy
+ * only affect documents of the current tenant,
+ * including in indexes populated by a previous version of Hibernate Search.
+ */
+public class LuceneDiscriminatorMultiTenancyIndexingIT {
+
+	private static final String DOCUMENT_ID_1 = "1";
+	private static final String DOCUMENT_ID_2 = "2";
+
+	@Rule
+	public final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	@Rule
+	public final ExpectedLog4jLog logged = ExpectedLog4jLog.create();
+
+	private final SimpleMappedIndex<IndexBinding> index = SimpleMappedIndex.of( IndexBinding::new );
+
+	private final StubBackendSessionContext tenant1SessionContext = new StubBackendSessionContext( "tenant_1" );
+	private final StubBackendSessionContext tenant2SessionContext = new StubBackendSessionContext( "tenant_2" );
+
+	@Before
+	public void setup() {
+		setupHelper.start()
+				.withBackendProperty( LuceneBackendSettings.MULTI_TENANCY_STRATEGY, MultiTenancyStrategyName.DISCRIMINATOR )
+				.withIndex( index )
+				.withMultiTenancy()
+				.setup();
+	}
+
+	@Test
+	public void updateAndDelete() {
+		logged.expectEvent( Level.WARN, "by a previous version of Hibernate Search" ).never();
+
+		for ( StubBackendSessionContext sessionContext : tenants() ) {
+			IndexIndexingPlan<?> plan = index.createIndexingPlan( sessionContext );
+			plan.add( referenceProvider( DOCUMENT_ID_1 ), document -> document.addValue( index.binding().text, "initial" ) );
+			plan.add( referenceProvider( DOCUMENT_ID_2 ), document -> document.addValue( index.binding().text, "initial" ) );
+			plan.execute().join();
+		}
+
+		testUpdateAndDelete( 2 );
+	}
+
+	@Test
+	public void updateAndDelete_legacyIndex() throws IOException {
+		// Simulate documents indexed by a previous version of Hibernate Search:
+		// they don't have the field holding both the tenant ID and the document ID.
+		IndexWriter writer = shard().indexAccessorForTests().getWriterForTests();
+		for ( StubBackendSessionContext sessionContext : tenants() ) {
+			writer.addDocument( legacyDocument( sessionContext.tenantIdentifier(), DOCUMENT_ID_1 ) );
+		}
+		writer.commit();
+		index.createWorkspace( tenant1SessionContext ).refresh().join();
+
+		// Mix legacy documents with documents indexed by the current version.
+		for ( StubBackendSessionContext sessionContext : tenants() ) {
+			IndexIndexingPlan<?> plan = index.createIndexingPlan( sessionContext );
+			plan.add( referenceProvider( DOCUMENT_ID_2 ), document -> document.addValue( index.binding().text, "initial" ) );
+			plan.execute().join();
+		}
+
+		logged.expectEvent( Level.WARN, "by a previous version of Hibernate Search" ).once();
+
+		testUpdateAndDelete( 2 );
+	}
+
+	private void testUpdateAndDelete(int initialCountPerTenant) {
+		assertTotalHitCount( tenant1SessionContext, initialCountPerTenant );
+		assertTotalHitCount( tenant2SessionContext, initialCountPerTenant );
+
+		IndexIndexingPlan<?> plan = index.createIndexingPlan( tenant1SessionContext );
+		plan.update( referenceProvider( DOCUMENT_ID_1 ), document -> document.addValue( index.binding().text, "updated" ) );
+		plan.execute().join();
+
+		// The update replaced the document of tenant 1 without duplicating it, and left tenant 2 alone.
+		assertTotalHitCount( tenant1SessionContext, initialCountPerTenant );
+		assertTotalHitCount( tenant2SessionContext, initialCountPerTenant );
+		assertUpdatedHitCount( tenant1SessionContext, 1 );
+		assertUpdatedHitCount( tenant2SessionContext, 0 );
+
+		plan = index.createIndexingPlan( tenant1SessionContext );
+		plan.delete( referenceProvider( DOCUMENT_ID_1 ) );
+		plan.execute().join();
+
+		// The delete removed the document of tenant 1 only.
+		assertTotalHitCount( tenant1SessionContext, initialCountPerTenant - 1 );
+		assertTotalHitCount( tenant2SessionContext, initialCountPerTenant );
+		assertUpdatedHitCount( tenant1SessionContext, 0 );
+	}
+
+	private void assertTotalHitCount(StubBackendSessionContext sessionContext, int expected) {
+		assertThatQuery( index.createScope().query( sessionContext ).where( f -> f.matchAll() ).toQuery() )
+				.hasTotalHitCount( expected );
+	}
+
+	private void assertUpdatedHitCount(StubBackendSessionContext sessionContext, int expected) {
+		assertThatQuery( index.createScope().query( sessionContext )
+				.where( f -> f.match().field( "text" ).matching( "updated" ) ).toQuery() )
+				.hasTotalHitCount( expected );
+	}
+
+	private Shard shard() {
+		return index.unwrapForTests( LuceneIndexManagerImpl.class ).getShardsForTests().get( 0 );
+	}
+
+	private Iterable<StubBackendSessionContext> tenants() {
+		return Arrays.asList( tenant1SessionContext, tenant2SessionContext );
+	}
+
+	private static Iterable<IndexableField> legacyDocument(String tenantId, String id) {
+		return Arrays.asList(
+				MetadataFields.searchableMetadataField( MetadataFields.tenantIdFieldName(), tenantId ),
+				MetadataFields.searchableMetadataField( MetadataFields.typeFieldName(), MetadataFields.TYPE_MAIN_DOCUMENT ),
+				MetadataFields.searchableRetrievableMetadataField( MetadataFields.idFieldName(), id )
+		);
+	}
+
+	private static class IndexBinding {
+		final IndexFieldReference<String> text;
+
+		IndexBinding(IndexSchemaElement root) {
+			text = root.field( "text", f -> f.asString() ).toReference();
+		}
+	}
+}
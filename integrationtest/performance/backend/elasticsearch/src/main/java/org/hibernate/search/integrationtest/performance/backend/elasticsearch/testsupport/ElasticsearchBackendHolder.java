@@ -31,7 +31,7 @@ public class ElasticsearchBackendHolder extends AbstractBackendHolder {
 	 * <p>
 	 * Note that configuration properties are applied both at the backend level and at the index level.
 	 */
-	@Param({ "", "max_connections_per_route=1" })
+	@Param({ "", "max_connections_per_route=1", "indexing.lock_free_queue=true" })
 	private String configuration;
 
 	@Override
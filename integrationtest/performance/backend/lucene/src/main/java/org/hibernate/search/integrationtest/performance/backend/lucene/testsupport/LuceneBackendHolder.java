@@ -32,7 +32,7 @@ public class LuceneBackendHolder extends AbstractBackendHolder {
 	 * <p>
 	 * Note that configuration properties are applied both at the backend level and at the index level.
 	 */
-	@Param({ "", "io.refresh_interval=1000" })
+	@Param({ "", "io.refresh_interval=1000", "indexing.lock_free_queue=true" })
 	private String configuration;
 
 	@Override